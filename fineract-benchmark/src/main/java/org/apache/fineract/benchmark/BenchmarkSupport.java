@@ -0,0 +1,152 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.benchmark;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
+import org.apache.fineract.infrastructure.core.domain.ActionContext;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.organisation.holiday.domain.Holiday;
+import org.apache.fineract.organisation.holiday.domain.HolidayStatusType;
+import org.apache.fineract.organisation.holiday.domain.RescheduleType;
+import org.apache.fineract.organisation.monetary.domain.ApplicationCurrency;
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+import org.apache.fineract.organisation.monetary.domain.MoneyHelper;
+import org.apache.fineract.organisation.workingdays.domain.RepaymentRescheduleType;
+import org.apache.fineract.organisation.workingdays.domain.WorkingDays;
+import org.apache.fineract.portfolio.loanaccount.data.HolidayDetailDTO;
+
+/**
+ * Shared fixtures for the benchmarks.
+ *
+ * The benchmarks run the domain classes without a Spring context or a database, so the static and thread local state
+ * that the application normally sets up per request (rounding mode, tenant, business date) is initialised here, and
+ * JPA entities that only expose protected constructors are built reflectively.
+ */
+public final class BenchmarkSupport {
+
+    public static final LocalDate DISBURSEMENT_DATE = LocalDate.of(2020, 1, 6);
+    public static final String CURRENCY_CODE = "USD";
+    public static final int CURRENCY_DIGITS = 2;
+
+    private static final String TENANT_TIMEZONE = "Asia/Kolkata";
+
+    private BenchmarkSupport() {}
+
+    /**
+     * Must be called from the thread that runs the benchmark method, which is what JMH does for
+     * {@code @Setup(Level.Trial)} of a {@code Scope.Thread} state.
+     */
+    public static void initialiseContext() {
+        setStaticField(MoneyHelper.class, "roundingMode", RoundingMode.HALF_EVEN);
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", TENANT_TIMEZONE, null));
+        ThreadLocalContextUtil.setActionContext(ActionContext.DEFAULT);
+        ThreadLocalContextUtil
+                .setBusinessDates(new HashMap<>(Map.of(BusinessDateType.BUSINESS_DATE, LocalDate.now(ZoneId.of(TENANT_TIMEZONE)))));
+    }
+
+    public static MonetaryCurrency currency() {
+        return new MonetaryCurrency(CURRENCY_CODE, CURRENCY_DIGITS, null);
+    }
+
+    public static ApplicationCurrency applicationCurrency() {
+        final ApplicationCurrency currency = newInstance(ApplicationCurrency.class);
+        setField(currency, "code", CURRENCY_CODE);
+        setField(currency, "name", "US Dollar");
+        setField(currency, "nameCode", "currency.USD");
+        setField(currency, "displaySymbol", "$");
+        return ApplicationCurrency.from(currency, CURRENCY_DIGITS, null);
+    }
+
+    /**
+     * Monday to Friday working days, three public holidays a year from the disbursement date on, each rescheduled to
+     * the day after it ends.
+     */
+    public static HolidayDetailDTO holidayDetails(final int years) {
+        final WorkingDays workingDays = newInstance(WorkingDays.class);
+        setField(workingDays, "recurrence", "FREQ=WEEKLY;INTERVAL=1;BYDAY=MO,TU,WE,TH,FR");
+        setField(workingDays, "repaymentReschedulingType", RepaymentRescheduleType.MOVE_TO_NEXT_WORKING_DAY.getValue());
+        setField(workingDays, "extendTermForDailyRepayments", Boolean.FALSE);
+        setField(workingDays, "extendTermForRepaymentsOnHolidays", Boolean.FALSE);
+
+        final List<Holiday> holidays = new ArrayList<>();
+        for (int year = DISBURSEMENT_DATE.getYear(); year <= DISBURSEMENT_DATE.getYear() + years; year++) {
+            holidays.add(holiday("New Year " + year, LocalDate.of(year, 1, 1), LocalDate.of(year, 1, 1)));
+            holidays.add(holiday("Labour Day " + year, LocalDate.of(year, 5, 1), LocalDate.of(year, 5, 1)));
+            holidays.add(holiday("Year End " + year, LocalDate.of(year, 12, 24), LocalDate.of(year, 12, 26)));
+        }
+        return new HolidayDetailDTO(true, holidays, workingDays);
+    }
+
+    private static Holiday holiday(final String name, final LocalDate fromDate, final LocalDate toDate) {
+        final Holiday holiday = newInstance(Holiday.class);
+        setField(holiday, "name", name);
+        setField(holiday, "fromDate", fromDate);
+        setField(holiday, "toDate", toDate);
+        setField(holiday, "repaymentsRescheduledTo", toDate.plusDays(1));
+        setField(holiday, "reschedulingType", RescheduleType.RESCHEDULETOSPECIFICDATE.getValue());
+        setField(holiday, "status", HolidayStatusType.ACTIVE.getValue());
+        setField(holiday, "offices", new HashSet<>());
+        return holiday;
+    }
+
+    public static <T> T newInstance(final Class<T> type) {
+        try {
+            final Constructor<T> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot instantiate " + type.getName(), e);
+        }
+    }
+
+    public static void setField(final Object target, final String name, final Object value) {
+        setField(target.getClass(), target, name, value);
+    }
+
+    public static void setStaticField(final Class<?> type, final String name, final Object value) {
+        setField(type, null, name, value);
+    }
+
+    private static void setField(final Class<?> type, final Object target, final String name, final Object value) {
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            try {
+                final Field field = current.getDeclaredField(name);
+                field.setAccessible(true);
+                field.set(target, value);
+                return;
+            } catch (NoSuchFieldException e) {
+                // continue with the super class
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot set " + type.getName() + "." + name, e);
+            }
+        }
+        throw new IllegalStateException("No field " + name + " on " + type.getName());
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.benchmark;
+
+import java.math.MathContext;
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+import org.apache.fineract.organisation.monetary.domain.ApplicationCurrency;
+import org.apache.fineract.organisation.monetary.domain.MoneyHelper;
+import org.apache.fineract.portfolio.loanaccount.data.HolidayDetailDTO;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.domain.DecliningBalanceInterestLoanScheduleGenerator;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.domain.LoanApplicationTerms;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.domain.LoanScheduleGenerator;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.domain.LoanScheduleModel;
+import org.apache.fineract.portfolio.loanproduct.domain.InterestMethod;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Generates a monthly declining balance schedule, with and without interest recalculation and compounding, over
+ * working days and public holidays.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DecliningBalanceLoanScheduleGeneratorBenchmark {
+
+    @Param({ "12", "60", "360" })
+    private int installments;
+
+    @Param({ "PLAIN", "RECALCULATION", "COMPOUNDING" })
+    private LoanApplicationTermsFixture.Scenario scenario;
+
+    private final LoanScheduleGenerator generator = new DecliningBalanceInterestLoanScheduleGenerator();
+    private ApplicationCurrency currency;
+    private HolidayDetailDTO holidayDetailDTO;
+    private MathContext mc;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkSupport.initialiseContext();
+        this.currency = BenchmarkSupport.applicationCurrency();
+        this.holidayDetailDTO = BenchmarkSupport.holidayDetails(this.installments / 12 + 1);
+        this.mc = MoneyHelper.getMathContext();
+    }
+
+    @Benchmark
+    public LoanScheduleModel generate() {
+        final LoanApplicationTerms terms = LoanApplicationTermsFixture.create(this.currency, InterestMethod.DECLINING_BALANCE,
+                this.installments, this.scenario, this.holidayDetailDTO);
+        return this.generator.generate(this.mc, terms, new HashSet<>(), this.holidayDetailDTO);
+    }
+}
@@ -0,0 +1,81 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import org.apache.fineract.organisation.monetary.domain.ApplicationCurrency;
+import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.portfolio.common.domain.DayOfWeekType;
+import org.apache.fineract.portfolio.common.domain.DaysInMonthType;
+import org.apache.fineract.portfolio.common.domain.DaysInYearType;
+import org.apache.fineract.portfolio.common.domain.PeriodFrequencyType;
+import org.apache.fineract.portfolio.loanaccount.data.HolidayDetailDTO;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.domain.LoanApplicationTerms;
+import org.apache.fineract.portfolio.loanproduct.domain.AmortizationMethod;
+import org.apache.fineract.portfolio.loanproduct.domain.InterestCalculationPeriodMethod;
+import org.apache.fineract.portfolio.loanproduct.domain.InterestMethod;
+import org.apache.fineract.portfolio.loanproduct.domain.InterestRecalculationCompoundingMethod;
+import org.apache.fineract.portfolio.loanproduct.domain.LoanPreClosureInterestCalculationStrategy;
+import org.apache.fineract.portfolio.loanproduct.domain.RecalculationFrequencyType;
+
+/**
+ * Builds monthly {@link LoanApplicationTerms} the way {@code LoanScheduleAssembler} does for a new loan application.
+ *
+ * The terms are mutated while a schedule is generated, so a fresh instance is needed for every generation.
+ */
+public final class LoanApplicationTermsFixture {
+
+    public enum Scenario {
+        /** No interest recalculation. */
+        PLAIN,
+        /** Interest recalculation with a rest frequency same as the repayment period. */
+        RECALCULATION,
+        /** Interest recalculation that also compounds interest every repayment period. */
+        COMPOUNDING
+    }
+
+    private static final BigDecimal PRINCIPAL = new BigDecimal("100000");
+    private static final BigDecimal INTEREST_RATE_PER_PERIOD = new BigDecimal("1.5");
+    private static final BigDecimal ANNUAL_INTEREST_RATE = new BigDecimal("18");
+    private static final BigDecimal PRINCIPAL_THRESHOLD_FOR_LAST_INSTALMENT = new BigDecimal("50");
+
+    private LoanApplicationTermsFixture() {}
+
+    public static LoanApplicationTerms create(final ApplicationCurrency currency, final InterestMethod interestMethod,
+            final int numberOfRepayments, final Scenario scenario, final HolidayDetailDTO holidayDetailDTO) {
+        final boolean recalculation = scenario != Scenario.PLAIN;
+        final InterestCalculationPeriodMethod interestCalculationPeriodMethod = recalculation ? InterestCalculationPeriodMethod.DAILY
+                : InterestCalculationPeriodMethod.SAME_AS_REPAYMENT_PERIOD;
+        final InterestRecalculationCompoundingMethod compoundingMethod = scenario == Scenario.COMPOUNDING
+                ? InterestRecalculationCompoundingMethod.INTEREST
+                : InterestRecalculationCompoundingMethod.NONE;
+        final Money principal = Money.of(BenchmarkSupport.currency(), PRINCIPAL);
+
+        return LoanApplicationTerms.assembleFrom(currency, numberOfRepayments, PeriodFrequencyType.MONTHS, numberOfRepayments, 1,
+                PeriodFrequencyType.MONTHS, null, DayOfWeekType.INVALID, AmortizationMethod.EQUAL_INSTALLMENTS, interestMethod,
+                INTEREST_RATE_PER_PERIOD, PeriodFrequencyType.MONTHS, ANNUAL_INTEREST_RATE, interestCalculationPeriodMethod, false,
+                principal, BenchmarkSupport.DISBURSEMENT_DATE, null, null, 0, 0, 0, 0, null, principal.zero(), false, null,
+                new ArrayList<>(), null, 0, DaysInMonthType.ACTUAL, DaysInYearType.ACTUAL, recalculation,
+                RecalculationFrequencyType.SAME_AS_REPAYMENT_PERIOD, null, compoundingMethod, null,
+                RecalculationFrequencyType.SAME_AS_REPAYMENT_PERIOD, PRINCIPAL_THRESHOLD_FOR_LAST_INSTALMENT, null,
+                LoanPreClosureInterestCalculationStrategy.TILL_PRE_CLOSURE_DATE, null, PRINCIPAL, new ArrayList<>(), false, 0, false,
+                holidayDetailDTO, false, false, false, null, false);
+    }
+}
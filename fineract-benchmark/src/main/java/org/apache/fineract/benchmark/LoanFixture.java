@@ -0,0 +1,182 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.benchmark;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.portfolio.common.domain.DaysInMonthType;
+import org.apache.fineract.portfolio.common.domain.DaysInYearType;
+import org.apache.fineract.portfolio.common.domain.PeriodFrequencyType;
+import org.apache.fineract.portfolio.loanaccount.domain.Loan;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanRepaymentScheduleInstallment;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanRepaymentScheduleTransactionProcessorFactory;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanStatus;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanSummary;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanSummaryWrapper;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanTransaction;
+import org.apache.fineract.portfolio.loanproduct.domain.AmortizationMethod;
+import org.apache.fineract.portfolio.loanproduct.domain.InterestCalculationPeriodMethod;
+import org.apache.fineract.portfolio.loanproduct.domain.InterestMethod;
+import org.apache.fineract.portfolio.loanproduct.domain.LoanProductRelatedDetail;
+import org.apache.fineract.portfolio.loanproduct.domain.LoanTransactionProcessingStrategy;
+
+/**
+ * An active, disbursed monthly loan with an equal installment schedule and evenly spread repayments, in the state it
+ * would be loaded from the database: installments and transactions carry ids and the repayments have already been
+ * allocated once by the loan's transaction processing strategy.
+ *
+ * Reprocessing such a loan allocates every repayment again, compares the result with the stored allocation and keeps
+ * the stored transactions, so the fixture can be reused across benchmark invocations.
+ */
+public final class LoanFixture {
+
+    public static final String STANDARD_STRATEGY = "mifos-standard-strategy";
+    public static final String HEAVENSFAMILY_STRATEGY = "heavensfamily-strategy";
+    public static final String EARLY_PAYMENT_STRATEGY = "early-repayment-strategy";
+    public static final String CREOCORE_STRATEGY = "creocore-strategy";
+
+    private static final BigDecimal PRINCIPAL = new BigDecimal("100000");
+    private static final BigDecimal INTEREST_RATE_PER_PERIOD = new BigDecimal("1.5");
+    private static final BigDecimal ANNUAL_INTEREST_RATE = new BigDecimal("18");
+    private static final MathContext MC = MathContext.DECIMAL64;
+
+    private final Loan loan;
+    private final MonetaryCurrency currency;
+    private final List<LoanTransaction> repayments;
+
+    private LoanFixture(final Loan loan, final MonetaryCurrency currency, final List<LoanTransaction> repayments) {
+        this.loan = loan;
+        this.currency = currency;
+        this.repayments = repayments;
+    }
+
+    /**
+     * Callers must have initialised the thread context with {@link BenchmarkSupport#initialiseContext()}.
+     */
+    public static LoanFixture create(final String strategyCode, final int numberOfInstallments, final int numberOfRepayments) {
+        final MonetaryCurrency currency = BenchmarkSupport.currency();
+        final LocalDate disbursementDate = BenchmarkSupport.DISBURSEMENT_DATE;
+        final LocalDate maturityDate = disbursementDate.plusMonths(numberOfInstallments);
+        final long term = ChronoUnit.DAYS.between(disbursementDate, maturityDate);
+        if (term < numberOfRepayments) {
+            // repayments on the same day would be ordered by their (wall clock) creation time
+            throw new IllegalArgumentException("Cannot spread " + numberOfRepayments + " repayments over " + term + " days");
+        }
+
+        final Loan loan = BenchmarkSupport.newInstance(Loan.class);
+        final LoanTransactionProcessingStrategy strategy = BenchmarkSupport.newInstance(LoanTransactionProcessingStrategy.class);
+        BenchmarkSupport.setField(strategy, "code", strategyCode);
+        BenchmarkSupport.setField(loan, "transactionProcessingStrategy", strategy);
+        BenchmarkSupport.setField(loan, "loanRepaymentScheduleDetail",
+                new LoanProductRelatedDetail(currency, PRINCIPAL, INTEREST_RATE_PER_PERIOD, PeriodFrequencyType.MONTHS,
+                        ANNUAL_INTEREST_RATE, InterestMethod.DECLINING_BALANCE, InterestCalculationPeriodMethod.SAME_AS_REPAYMENT_PERIOD,
+                        false, 1, PeriodFrequencyType.MONTHS, numberOfInstallments, 0, 0, 0, 0, AmortizationMethod.EQUAL_INSTALLMENTS,
+                        BigDecimal.ZERO, 0, DaysInMonthType.ACTUAL.getValue(), DaysInYearType.ACTUAL.getValue(), false, false));
+        BenchmarkSupport.setField(loan, "loanStatus", LoanStatus.ACTIVE.getValue());
+        BenchmarkSupport.setField(loan, "expectedDisbursementDate", disbursementDate);
+        BenchmarkSupport.setField(loan, "actualDisbursementDate", disbursementDate);
+        BenchmarkSupport.setField(loan, "summary", LoanSummary.create(BigDecimal.ZERO));
+        loan.setHelpers(null, new LoanSummaryWrapper(), new LoanRepaymentScheduleTransactionProcessorFactory());
+
+        final List<LoanRepaymentScheduleInstallment> installments = installments(loan, numberOfInstallments);
+        BenchmarkSupport.setField(loan, "repaymentScheduleInstallments", installments);
+
+        BigDecimal totalDue = BigDecimal.ZERO;
+        for (LoanRepaymentScheduleInstallment installment : installments) {
+            totalDue = totalDue.add(installment.getDue(currency).getAmount());
+        }
+        final Money repaymentAmount = Money.of(currency, totalDue.divide(BigDecimal.valueOf(numberOfRepayments), 2, RoundingMode.DOWN));
+
+        final List<LoanTransaction> transactions = new ArrayList<>(numberOfRepayments + 1);
+        final LoanTransaction disbursement = LoanTransaction.disbursement(null, Money.of(currency, PRINCIPAL), null, disbursementDate,
+                null);
+        disbursement.updateLoan(loan);
+        transactions.add(disbursement);
+        final List<LoanTransaction> repayments = new ArrayList<>(numberOfRepayments);
+        for (int i = 0; i < numberOfRepayments; i++) {
+            final LocalDate transactionDate = disbursementDate.plusDays(1 + i * term / numberOfRepayments);
+            final LoanTransaction repayment = LoanTransaction.repayment(null, repaymentAmount, null, transactionDate, null);
+            repayment.updateLoan(loan);
+            repayments.add(repayment);
+        }
+        transactions.addAll(repayments);
+        BenchmarkSupport.setField(loan, "loanTransactions", transactions);
+
+        // allocate the new transactions once, then give them ids as if they had been saved
+        loan.processTransactions();
+        long id = 1;
+        for (LoanTransaction transaction : transactions) {
+            BenchmarkSupport.setField(transaction, "id", id++);
+        }
+        return new LoanFixture(loan, currency, repayments);
+    }
+
+    private static List<LoanRepaymentScheduleInstallment> installments(final Loan loan, final int numberOfInstallments) {
+        final BigDecimal rate = INTEREST_RATE_PER_PERIOD.divide(BigDecimal.valueOf(100), MC);
+        final BigDecimal discount = BigDecimal.ONE.subtract(BigDecimal.ONE.divide(BigDecimal.ONE.add(rate).pow(numberOfInstallments), MC));
+        final BigDecimal emi = PRINCIPAL.multiply(rate).divide(discount, 2, RoundingMode.HALF_EVEN);
+
+        final List<LoanRepaymentScheduleInstallment> installments = new ArrayList<>(numberOfInstallments);
+        BigDecimal outstanding = PRINCIPAL;
+        LocalDate fromDate = BenchmarkSupport.DISBURSEMENT_DATE;
+        for (int number = 1; number <= numberOfInstallments; number++) {
+            final LocalDate dueDate = BenchmarkSupport.DISBURSEMENT_DATE.plusMonths(number);
+            final BigDecimal interest = outstanding.multiply(rate).setScale(2, RoundingMode.HALF_EVEN);
+            final BigDecimal principal = number == numberOfInstallments ? outstanding : emi.subtract(interest);
+            final LoanRepaymentScheduleInstallment installment = new LoanRepaymentScheduleInstallment(loan, number, fromDate, dueDate,
+                    principal, interest, BigDecimal.ZERO, BigDecimal.ZERO, false, new HashSet<>());
+            BenchmarkSupport.setField(installment, "id", (long) number);
+            installments.add(installment);
+            outstanding = outstanding.subtract(principal);
+            fromDate = dueDate;
+        }
+        return installments;
+    }
+
+    public Loan getLoan() {
+        return this.loan;
+    }
+
+    public MonetaryCurrency getCurrency() {
+        return this.currency;
+    }
+
+    public LocalDate getDisbursementDate() {
+        return this.loan.getDisbursementDate();
+    }
+
+    public List<LoanRepaymentScheduleInstallment> getInstallments() {
+        return this.loan.getRepaymentScheduleInstallments();
+    }
+
+    /**
+     * The repayments in transaction date order, without the disbursement.
+     */
+    public List<LoanTransaction> getRepayments() {
+        return this.repayments;
+    }
+}
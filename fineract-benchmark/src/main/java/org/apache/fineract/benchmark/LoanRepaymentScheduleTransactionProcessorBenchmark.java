@@ -0,0 +1,79 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.benchmark;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.apache.fineract.portfolio.loanaccount.domain.ChangedTransactionDetail;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanCharge;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanRepaymentScheduleTransactionProcessorFactory;
+import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.LoanRepaymentScheduleTransactionProcessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reallocates all repayments of an active loan over its schedule with each of the commonly configured transaction
+ * processing strategies, which is what every backdated transaction, adjustment or reversal does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoanRepaymentScheduleTransactionProcessorBenchmark {
+
+    private static final int INSTALLMENTS = 120;
+
+    @Param({ LoanFixture.STANDARD_STRATEGY, LoanFixture.HEAVENSFAMILY_STRATEGY, LoanFixture.EARLY_PAYMENT_STRATEGY,
+            LoanFixture.CREOCORE_STRATEGY })
+    private String strategy;
+
+    @Param({ "120", "1000" })
+    private int repayments;
+
+    private LoanFixture fixture;
+    private LoanRepaymentScheduleTransactionProcessor processor;
+    private final Set<LoanCharge> charges = new HashSet<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkSupport.initialiseContext();
+        this.fixture = LoanFixture.create(this.strategy, INSTALLMENTS, this.repayments);
+        this.processor = new LoanRepaymentScheduleTransactionProcessorFactory()
+                .determineProcessor(this.fixture.getLoan().transactionProcessingStrategy());
+    }
+
+    @Benchmark
+    public ChangedTransactionDetail handleTransaction() {
+        return this.processor.handleTransaction(this.fixture.getDisbursementDate(), this.fixture.getRepayments(),
+                this.fixture.getCurrency(), this.fixture.getInstallments(), this.charges);
+    }
+}
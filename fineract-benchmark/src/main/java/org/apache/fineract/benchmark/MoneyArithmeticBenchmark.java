@@ -0,0 +1,84 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.benchmark;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.organisation.monetary.domain.MoneyAccumulator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Sums the components of a long schedule with chained {@link Money} arithmetic and with a {@link MoneyAccumulator}.
+ * Run with {@code -prof gc} to compare the bytes allocated per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoneyArithmeticBenchmark {
+
+    private static final int AMOUNTS = 360;
+
+    private MonetaryCurrency currency;
+    private Money[] amounts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkSupport.initialiseContext();
+        this.currency = BenchmarkSupport.currency();
+        final Random random = new Random(42);
+        this.amounts = new Money[AMOUNTS];
+        for (int i = 0; i < AMOUNTS; i++) {
+            this.amounts[i] = Money.of(this.currency, BigDecimal.valueOf(random.nextInt(1_000_000), 2));
+        }
+    }
+
+    @Benchmark
+    public Money chainedMoney() {
+        Money total = Money.zero(this.currency);
+        for (Money amount : this.amounts) {
+            total = total.plus(amount);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Money accumulator() {
+        final MoneyAccumulator total = MoneyAccumulator.zero(this.currency);
+        for (Money amount : this.amounts) {
+            total.plus(amount);
+        }
+        return total.toMoney();
+    }
+}
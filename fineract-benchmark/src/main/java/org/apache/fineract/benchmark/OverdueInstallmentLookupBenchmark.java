@@ -0,0 +1,234 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.benchmark;
+
+import com.google.common.collect.Lists;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseTypeResolver;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanStatus;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.data.OverdueLoanScheduleData;
+import org.apache.fineract.portfolio.loanaccount.service.OverdueLoanScheduleReadPlatformService;
+import org.apache.fineract.portfolio.loanaccount.service.OverdueLoanScheduleReadPlatformServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Runs the overdue installment lookups of {@code ApplyChargeToOverdueLoansBusinessStep} against a tenant database, so
+ * unlike the other benchmarks it needs a running MariaDB or PostgreSQL. The {@code jmh} task leaves it out unless it is
+ * selected explicitly:
+ *
+ * <pre>
+ * ./gradlew :fineract-benchmark:jmh -PjmhArgs='OverdueInstallmentLookup -p jdbcUrl=jdbc:mariadb://localhost:3306/fineract_default'
+ * </pre>
+ *
+ * The tenant needs one active loan with an unpaid installment past its due date, on a product with an overdue penalty.
+ * The setup copies that loan with its repayment schedule until the tenant holds {@code loanCount} copies, and only
+ * {@code loanCount} of them stay active, so the tenant should hold no other active loans. The copies are kept for later
+ * runs, seeding a million loans takes a while.
+ *
+ * {@code portfolio} is the query the step ran for every loan before, returning the overdue installments of all loans,
+ * so its score grows with the loan count. {@code loan} looks up the installments of a single loan and {@code chunk}
+ * prefetches those of a Loan COB chunk of {@code chunkSize} loans, so its score divided by the chunk size is the cost
+ * per loan. Both should stay flat from 10k to 1M loans, which makes the cost of a COB run linear in the loan count. All
+ * three run the queries of {@link OverdueLoanScheduleReadPlatformServiceImpl}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OverdueInstallmentLookupBenchmark {
+
+    private static final String SEEDED_EXTERNAL_ID = "jmh-overdue-";
+    private static final int SEED_BATCH_SIZE = 1000;
+
+    @Param({ "jdbc:mariadb://localhost:3306/fineract_default" })
+    private String jdbcUrl;
+
+    @Param({ "org.mariadb.jdbc.Driver" })
+    private String driverClassName;
+
+    @Param({ "root" })
+    private String username;
+
+    @Param({ "mysql" })
+    private String password;
+
+    @Param({ "10000", "100000", "1000000" })
+    private int loanCount;
+
+    @Param({ "500" })
+    private int chunkSize;
+
+    @Param({ "2" })
+    private long penaltyWaitPeriod;
+
+    @Param({ "true" })
+    private boolean backdatePenalties;
+
+    private HikariDataSource dataSource;
+    private OverdueLoanScheduleReadPlatformService readPlatformService;
+    private List<Long> loanIds;
+    private List<List<Long>> chunks;
+    private int nextLoan;
+    private int nextChunk;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        BenchmarkSupport.initialiseContext();
+        final HikariConfig config = new HikariConfig();
+        config.setDriverClassName(this.driverClassName);
+        config.setJdbcUrl(this.jdbcUrl);
+        config.setUsername(this.username);
+        config.setPassword(this.password);
+        config.setMaximumPoolSize(1);
+        this.dataSource = new HikariDataSource(config);
+
+        final DatabaseTypeResolver databaseTypeResolver = new DatabaseTypeResolver(config);
+        databaseTypeResolver.afterPropertiesSet();
+        final JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSource);
+        this.readPlatformService = new OverdueLoanScheduleReadPlatformServiceImpl(jdbcTemplate,
+                new DatabaseSpecificSQLGenerator(databaseTypeResolver));
+
+        this.loanIds = seedLoans(jdbcTemplate);
+        this.chunks = Lists.partition(this.loanIds, this.chunkSize);
+    }
+
+    private List<Long> seedLoans(final JdbcTemplate jdbcTemplate) {
+        List<Long> seededLoanIds = seededLoanIds(jdbcTemplate);
+        if (seededLoanIds.size() < this.loanCount) {
+            copyTemplateLoan(jdbcTemplate, seededLoanIds.size(), this.loanCount);
+            seededLoanIds = seededLoanIds(jdbcTemplate);
+        }
+        final List<Long> activeLoanIds = seededLoanIds.subList(0, this.loanCount);
+        // copies seeded by a run with a larger loan count must not show up in the portfolio query
+        jdbcTemplate.update("update m_loan set loan_status_id = case when id <= ? then ? else ? end where external_id like ?",
+                activeLoanIds.get(activeLoanIds.size() - 1), LoanStatus.ACTIVE.getValue(), LoanStatus.CLOSED_OBLIGATIONS_MET.getValue(),
+                SEEDED_EXTERNAL_ID + "%");
+        return activeLoanIds;
+    }
+
+    private List<Long> seededLoanIds(final JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForList("select id from m_loan where external_id like ? order by id", Long.class,
+                SEEDED_EXTERNAL_ID + "%");
+    }
+
+    private void copyTemplateLoan(final JdbcTemplate jdbcTemplate, final int from, final int to) {
+        final Long templateLoanId = jdbcTemplate.queryForObject("select min(ml.id) from m_loan ml"
+                + " join m_loan_repayment_schedule ls on ls.loan_id = ml.id"
+                + " join m_product_loan_charge plc on plc.product_loan_id = ml.product_id join m_charge mc on mc.id = plc.charge_id"
+                + " where ml.loan_status_id = ? and (ml.external_id is null or ml.external_id not like ?)"
+                + " and ls.completed_derived <> true and ls.duedate < ? and mc.charge_applies_to_enum = 1 and mc.charge_time_enum = 9",
+                Long.class, LoanStatus.ACTIVE.getValue(), SEEDED_EXTERNAL_ID + "%", DateUtils.getBusinessLocalDate());
+        if (templateLoanId == null) {
+            throw new IllegalStateException(
+                    "No active loan with an overdue installment and an overdue penalty to copy in " + this.jdbcUrl);
+        }
+        final Long lastLoanId = jdbcTemplate.queryForObject("select max(id) from m_loan", Long.class);
+
+        final List<String> loanColumns = columns(jdbcTemplate, "m_loan");
+        final String copyLoan = "insert into m_loan (" + String.join(", ", loanColumns) + ") select "
+                + loanColumns.stream().map(column -> isUnique(column) ? "?" : column).collect(Collectors.joining(", "))
+                + " from m_loan where id = ?";
+        final List<Object[]> batch = new ArrayList<>(SEED_BATCH_SIZE);
+        for (int copy = from; copy < to; copy++) {
+            final List<Object> args = new ArrayList<>();
+            for (String column : loanColumns) {
+                if (isUnique(column)) {
+                    args.add("account_no".equals(column) ? String.format(Locale.ROOT, "J%09d", copy) : SEEDED_EXTERNAL_ID + copy);
+                }
+            }
+            args.add(templateLoanId);
+            batch.add(args.toArray());
+            if (batch.size() == SEED_BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(copyLoan, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(copyLoan, batch);
+        }
+
+        final List<String> scheduleColumns = columns(jdbcTemplate, "m_loan_repayment_schedule");
+        scheduleColumns.remove("loan_id");
+        jdbcTemplate.update("insert into m_loan_repayment_schedule (loan_id, " + String.join(", ", scheduleColumns) + ") select ml.id, "
+                + scheduleColumns.stream().map(column -> "ls." + column).collect(Collectors.joining(", "))
+                + " from m_loan ml join m_loan_repayment_schedule ls on ls.loan_id = ? where ml.id > ? and ml.external_id like ?",
+                templateLoanId, lastLoanId, SEEDED_EXTERNAL_ID + "%");
+    }
+
+    /**
+     * The columns of a table except its generated id, in lower case.
+     */
+    private static List<String> columns(final JdbcTemplate jdbcTemplate, final String table) {
+        final String[] columns = jdbcTemplate.queryForRowSet("select * from " + table + " where 1 = 0").getMetaData().getColumnNames();
+        return Arrays.stream(columns).map(column -> column.toLowerCase(Locale.ROOT)).filter(column -> !"id".equals(column))
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private static boolean isUnique(final String loanColumn) {
+        return "account_no".equals(loanColumn) || "external_id".equals(loanColumn);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.dataSource.close();
+    }
+
+    @Benchmark
+    public Collection<OverdueLoanScheduleData> portfolio() {
+        return this.readPlatformService.retrieveAllLoansWithOverdueInstallments(this.penaltyWaitPeriod, this.backdatePenalties);
+    }
+
+    @Benchmark
+    public Collection<OverdueLoanScheduleData> loan() {
+        final Long loanId = this.loanIds.get(this.nextLoan++ % this.loanIds.size());
+        return this.readPlatformService.retrieveOverdueInstallmentsForLoan(loanId, this.penaltyWaitPeriod, this.backdatePenalties);
+    }
+
+    @Benchmark
+    public Collection<OverdueLoanScheduleData> chunk() {
+        final List<Long> chunk = this.chunks.get(this.nextChunk++ % this.chunks.size());
+        return this.readPlatformService.retrieveOverdueInstallmentsForLoanIdRange(chunk.get(0), chunk.get(chunk.size() - 1),
+                this.penaltyWaitPeriod, this.backdatePenalties);
+    }
+}
@@ -0,0 +1,153 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.fineract.infrastructure.core.domain.LocalDateInterval;
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.portfolio.savings.SavingsCompoundingInterestPeriodType;
+import org.apache.fineract.portfolio.savings.SavingsInterestCalculationType;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountTransaction;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountTransactionComparator;
+import org.apache.fineract.portfolio.savings.domain.interest.PostingPeriod;
+import org.apache.fineract.portfolio.savings.domain.interest.PostingPeriodTransactionSweep;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Builds the posting periods of a savings account with ten years of history, the core of
+ * {@code SavingsAccount.calculateInterestUsing}. {@code sortedPerPeriod} sorts and hands the whole history to every
+ * period, as the calculation did before {@link PostingPeriodTransactionSweep}; {@code sweep} sorts once and sweeps the
+ * history across the periods.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SavingsPostingPeriodsBenchmark {
+
+    private static final LocalDate START = LocalDate.of(2012, 1, 1);
+    private static final int YEARS = 10;
+
+    @Param({ "50000" })
+    private int transactions;
+
+    @Param({ "1", "3" })
+    private int postingPeriodMonths;
+
+    private MonetaryCurrency currency;
+    private LocalDate upTo;
+    private List<SavingsAccountTransaction> history;
+    private List<LocalDateInterval> periods;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkSupport.initialiseContext();
+        this.currency = BenchmarkSupport.currency();
+        this.upTo = START.plusYears(YEARS).minusDays(1);
+        this.history = history();
+        this.periods = new ArrayList<>();
+        final int months = this.postingPeriodMonths;
+        for (LocalDate periodStart = START; periodStart.isBefore(this.upTo); periodStart = periodStart.plusMonths(months)) {
+            this.periods.add(LocalDateInterval.create(periodStart, periodStart.plusMonths(months).minusDays(1)));
+        }
+    }
+
+    @Benchmark
+    public Money sortedPerPeriod() {
+        Money periodStartingBalance = Money.zero(this.currency);
+        for (final LocalDateInterval period : this.periods) {
+            final List<SavingsAccountTransaction> ordered = new ArrayList<>(this.history);
+            ordered.sort(new SavingsAccountTransactionComparator());
+            periodStartingBalance = postingPeriod(period, periodStartingBalance, ordered).closingBalance();
+        }
+        return periodStartingBalance;
+    }
+
+    @Benchmark
+    public Money sweep() {
+        final List<SavingsAccountTransaction> ordered = new ArrayList<>(this.history);
+        ordered.sort(new SavingsAccountTransactionComparator());
+        final PostingPeriodTransactionSweep<SavingsAccountTransaction> sweep = PostingPeriodTransactionSweep.of(ordered);
+        Money periodStartingBalance = Money.zero(this.currency);
+        for (final LocalDateInterval period : this.periods) {
+            periodStartingBalance = postingPeriod(period, periodStartingBalance, sweep.transactionsFor(period)).closingBalance();
+        }
+        return periodStartingBalance;
+    }
+
+    private PostingPeriod postingPeriod(final LocalDateInterval period, final Money periodStartingBalance,
+            final List<SavingsAccountTransaction> orderedTransactions) {
+        return PostingPeriod.createFrom(period, periodStartingBalance, orderedTransactions, this.currency,
+                SavingsCompoundingInterestPeriodType.DAILY, SavingsInterestCalculationType.DAILY_BALANCE, new BigDecimal("0.05"), 365,
+                this.upTo, Collections.emptyList(), false, Money.zero(this.currency), false, false, 1);
+    }
+
+    /**
+     * Deposits on random days, with the running balances and balance spans that recalculateDailyBalances leaves on
+     * them. The balance stays positive, so the transactions never consult their account.
+     */
+    private List<SavingsAccountTransaction> history() {
+        final Random random = new Random(42);
+        final int days = (int) (this.upTo.toEpochDay() - START.toEpochDay()) + 1;
+        final List<LocalDate> dates = new ArrayList<>(this.transactions);
+        for (int i = 0; i < this.transactions; i++) {
+            dates.add(START.plusDays(random.nextInt(days)));
+        }
+        Collections.sort(dates);
+
+        final List<SavingsAccountTransaction> ordered = new ArrayList<>(this.transactions);
+        Money runningBalance = Money.zero(this.currency);
+        for (final LocalDate date : dates) {
+            final Money amount = Money.of(this.currency, BigDecimal.valueOf(1 + random.nextInt(100_000), 2));
+            final SavingsAccountTransaction deposit = SavingsAccountTransaction.deposit(null, null, null, date, amount,
+                    date.atStartOfDay(), null, null);
+            runningBalance = runningBalance.plus(amount);
+            deposit.updateRunningBalance(runningBalance);
+            ordered.add(deposit);
+        }
+        LocalDate endOfBalanceDate = this.upTo;
+        for (int i = ordered.size() - 1; i >= 0; i--) {
+            ordered.get(i).updateCumulativeBalanceAndDates(this.currency, endOfBalanceDate);
+            endOfBalanceDate = ordered.get(i).getTransactionLocalDate().minusDays(1);
+        }
+        // in the order they were loaded, not by date
+        Collections.shuffle(ordered, random);
+        return ordered;
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.glaccount.service;
+
+import java.time.LocalDate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Builds m_trial_balance set based: the daily amounts of every office and GL account are aggregated from the journal
+ * entries and their closing balances are computed with a cumulative sum window on top of the last closing balance of the
+ * office and account, all in a single INSERT ... SELECT. The date truncation of the entry dates is taken from the
+ * {@link DatabaseSpecificSQLGenerator}, so the statement runs on both MySQL and PostgreSQL.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TrialBalanceBuilderServiceImpl implements TrialBalanceBuilderService {
+
+    private static final LocalDate FIRST_TRANSACTION_DATE = LocalDate.of(2010, 1, 1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DatabaseSpecificSQLGenerator sqlGenerator;
+
+    @Override
+    public int buildIncrementally() {
+        final LocalDate lastTransactionDate = this.jdbcTemplate.queryForObject("select MAX(created_date) from m_trial_balance",
+                LocalDate.class);
+        final LocalDate fromTransactionDate = lastTransactionDate == null ? FIRST_TRANSACTION_DATE : lastTransactionDate;
+        final LocalDate tillTransactionDate = DateUtils.getBusinessLocalDate();
+        if (!fromTransactionDate.isBefore(tillTransactionDate.minusDays(1))) {
+            return 0;
+        }
+        return this.transactionTemplate.execute(status -> insertTrialBalances(fromTransactionDate, tillTransactionDate));
+    }
+
+    @Override
+    public int rebuild() {
+        final LocalDate tillTransactionDate = DateUtils.getBusinessLocalDate();
+        return this.transactionTemplate.execute(status -> {
+            final int removed = this.jdbcTemplate.update("delete from m_trial_balance");
+            log.info("Removed {} trial balance rows to rebuild them", removed);
+            return insertTrialBalances(FIRST_TRANSACTION_DATE, tillTransactionDate);
+        });
+    }
+
+    // transaction dates after fromTransactionDate and before tillTransactionDate, the opening balances are only looked up
+    // for the offices and accounts with journal entries in that range
+    private int insertTrialBalances(final LocalDate fromTransactionDate, final LocalDate tillTransactionDate) {
+        final String entryDate = this.sqlGenerator.castDate("je.entry_date");
+        final String sql = "insert into m_trial_balance(office_id, account_id, amount, entry_date, created_date, closing_balance) "
+                + "select tb.office_id, tb.account_id, tb.amount, tb.entry_date, tb.created_date, "
+                + "coalesce(ob.closing_balance, 0) + sum(tb.amount) over "
+                + "(partition by tb.office_id, tb.account_id order by tb.created_date, tb.entry_date) "
+                + "from (select je.office_id, je.account_id, "
+                + "sum(case when je.type_enum=1 then (-1) * je.amount else je.amount end) as amount, "
+                + entryDate + " as entry_date, je.transaction_date as created_date "
+                + "from acc_gl_journal_entry je where je.transaction_date > ? and je.transaction_date < ? "
+                + "group by je.office_id, je.account_id, je.transaction_date, " + entryDate + ") tb "
+                + "left join (select lb.office_id, lb.account_id, lb.closing_balance from "
+                + "(select t.office_id, t.account_id, t.closing_balance, row_number() over "
+                + "(partition by t.office_id, t.account_id order by t.created_date desc, t.entry_date desc) as rn "
+                + "from m_trial_balance t inner join (select distinct je.office_id, je.account_id from acc_gl_journal_entry je "
+                + "where je.transaction_date > ? and je.transaction_date < ?) w "
+                + "on w.office_id = t.office_id and w.account_id = t.account_id where t.created_date <= ?) lb where lb.rn = 1) ob "
+                + "on ob.office_id = tb.office_id and ob.account_id = tb.account_id";
+        final int result = this.jdbcTemplate.update(sql, fromTransactionDate, tillTransactionDate, fromTransactionDate, tillTransactionDate,
+                fromTransactionDate);
+        log.info("Added {} trial balance rows for the transaction dates after {} and before {}", result, fromTransactionDate,
+                tillTransactionDate);
+        return result;
+    }
+}
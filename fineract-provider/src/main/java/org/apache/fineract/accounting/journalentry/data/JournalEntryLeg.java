@@ -0,0 +1,52 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.journalentry.data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.apache.fineract.accounting.journalentry.domain.JournalEntryType;
+
+/**
+ * One debit or credit of a system generated journal entry. Only the ids of the related office, account and portfolio
+ * transaction are kept, so writing a leg does not need any entity to be loaded.
+ */
+@RequiredArgsConstructor
+@Getter
+public class JournalEntryLeg {
+
+    private final Long officeId;
+    private final Long glAccountId;
+    private final String currencyCode;
+    private final String transactionId;
+    private final LocalDate transactionDate;
+    private final JournalEntryType type;
+    private final BigDecimal amount;
+    private final Integer entityType;
+    private final Long entityId;
+    private final Long loanTransactionId;
+    private final Long savingsTransactionId;
+    private final Long clientTransactionId;
+    private final Long shareTransactionId;
+
+    public boolean isDebit() {
+        return JournalEntryType.DEBIT.equals(this.type);
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.journalentry.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.apache.fineract.accounting.journalentry.data.JournalEntryLeg;
+import org.apache.fineract.accounting.journalentry.domain.JournalEntryRepository;
+import org.apache.fineract.accounting.journalentry.exception.JournalEntryInvalidException;
+import org.apache.fineract.accounting.journalentry.exception.JournalEntryInvalidException.GlJournalEntryInvalidReason;
+import org.apache.fineract.infrastructure.core.auditing.CustomDateTimeProvider;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Collects the journal entry legs of one business transaction and inserts them with a single JDBC batch once the
+ * accounting processor is done, instead of flushing every leg through JPA.
+ *
+ * Before writing, the debits and credits of every transaction id and currency have to add up, otherwise a
+ * {@link JournalEntryInvalidException} rolls the command back.
+ */
+@Component
+@RequiredArgsConstructor
+public class JournalEntryBatchWriter {
+
+    private static final String INSERT_SQL = "INSERT INTO acc_gl_journal_entry (office_id, account_id, currency_code, transaction_id, "
+            + "entry_date, type_enum, amount, entity_type_enum, entity_id, loan_transaction_id, savings_transaction_id, "
+            + "client_transaction_id, share_transaction_id, reversed, manual_entry, createdby_id, lastmodifiedby_id, created_date, "
+            + "lastmodified_date, is_running_balance_calculated, office_running_balance, organization_running_balance) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, false, false, ?, ?, ?, ?, false, 0, 0)";
+
+    private final ThreadLocal<List<JournalEntryLeg>> pendingLegs = new ThreadLocal<>();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JournalEntryRepository glJournalEntryRepository;
+    private final AuditorAware<Long> auditorAware;
+
+    /**
+     * Runs the given accounting step and writes all legs it created in one batch. Nested calls join the batch of the
+     * outermost one.
+     */
+    public void writeInBatch(final Runnable accountingStep) {
+        if (this.pendingLegs.get() != null) {
+            accountingStep.run();
+            return;
+        }
+        final List<JournalEntryLeg> legs = new ArrayList<>();
+        this.pendingLegs.set(legs);
+        try {
+            accountingStep.run();
+        } finally {
+            this.pendingLegs.remove();
+        }
+        validateBalanced(legs);
+        insert(legs);
+    }
+
+    public void add(final JournalEntryLeg leg) {
+        final List<JournalEntryLeg> legs = this.pendingLegs.get();
+        if (legs != null) {
+            legs.add(leg);
+        } else {
+            insert(List.of(leg));
+        }
+    }
+
+    static void validateBalanced(final List<JournalEntryLeg> legs) {
+        final Map<String, BigDecimal> balances = new HashMap<>();
+        for (final JournalEntryLeg leg : legs) {
+            final BigDecimal signedAmount = leg.isDebit() ? leg.getAmount() : leg.getAmount().negate();
+            balances.merge(leg.getTransactionId() + "|" + leg.getCurrencyCode(), signedAmount, BigDecimal::add);
+        }
+        for (final BigDecimal balance : balances.values()) {
+            if (balance.signum() != 0) {
+                throw new JournalEntryInvalidException(GlJournalEntryInvalidReason.DEBIT_CREDIT_SUM_MISMATCH, null, null, null);
+            }
+        }
+    }
+
+    private void insert(final List<JournalEntryLeg> legs) {
+        if (legs.isEmpty()) {
+            return;
+        }
+        // the portfolio transactions the legs point to may still be pending in the persistence context
+        this.glJournalEntryRepository.flush();
+
+        final Long auditor = this.auditorAware.getCurrentAuditor().orElse(null);
+        final LocalDateTime now = LocalDateTime.from(CustomDateTimeProvider.INSTANCE.getNow().orElseThrow());
+        final List<Object[]> params = new ArrayList<>(legs.size());
+        for (final JournalEntryLeg leg : legs) {
+            params.add(new Object[] { leg.getOfficeId(), leg.getGlAccountId(), leg.getCurrencyCode(), leg.getTransactionId(),
+                    leg.getTransactionDate(), leg.getType().getValue(), leg.getAmount(), leg.getEntityType(), leg.getEntityId(),
+                    leg.getLoanTransactionId(), leg.getSavingsTransactionId(), leg.getClientTransactionId(), leg.getShareTransactionId(),
+                    auditor, auditor, now, now });
+        }
+        this.jdbcTemplate.batchUpdate(INSERT_SQL, params);
+    }
+}
@@ -24,8 +24,11 @@ import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.fineract.accounting.common.AccountingEnumerations;
@@ -48,12 +51,15 @@ import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntryRunningBalanceUpdateService {
 
+    private static final int RUNNING_BALANCE_PAGE_SIZE = 10000;
+
     private final JdbcTemplate jdbcTemplate;
 
     private final OfficeRepositoryWrapper officeRepositoryWrapper;
@@ -63,19 +69,121 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
     private final FromJsonHelper fromApiJsonHelper;
     private final DatabaseSpecificSQLGenerator sqlGenerator;
 
+    private final TransactionTemplate transactionTemplate;
+
     private final GLJournalEntryMapper entryMapper = new GLJournalEntryMapper();
 
+    /**
+     * Calculates the running balances incrementally from the per office and GL account balances kept in
+     * acc_gl_running_balance: only the journal entries not calculated yet are read, in entry date and id order, and
+     * written back with parameterized batches. The organization balance of an account is the sum of its office balances.
+     * <p>
+     * When an entry not calculated yet precedes the last calculated entry (a backdated entry) or the snapshot is empty,
+     * the snapshot is rebuilt from the balances of the last entries before its entry date and the later entries are
+     * marked for calculation again, in one transaction, so an interrupted run resumes where it stopped.
+     */
     @Override
     @CronTarget(jobName = JobName.ACCOUNTING_RUNNING_BALANCE_UPDATE)
     public void updateRunningBalance() {
-        String dateFinder = "select MIN(je.entry_date) as entityDate from acc_gl_journal_entry  je "
-                + "where je.is_running_balance_calculated=false ";
-        try {
-            LocalDate entityDate = this.jdbcTemplate.queryForObject(dateFinder, LocalDate.class);
-            updateOrganizationRunningBalance(entityDate);
-        } catch (EmptyResultDataAccessException e) {
+        final RowMapper<Map.Entry<LocalDate, Long>> positionMapper = (rs, rowNum) -> Map.entry(JdbcSupport.getLocalDate(rs, "entryDate"),
+                rs.getLong("id"));
+        final List<Map.Entry<LocalDate, Long>> firstPendingEntry = this.jdbcTemplate.query(
+                "select je.entry_date as entryDate, je.id as id from acc_gl_journal_entry je "
+                        + "where je.is_running_balance_calculated=false order by je.entry_date, je.id " + sqlGenerator.limit(1),
+                positionMapper);
+        if (firstPendingEntry.isEmpty()) {
             log.debug("No results found for updation of running balance ");
+            return;
+        }
+        final List<Map.Entry<LocalDate, Long>> lastCalculatedEntry = this.jdbcTemplate.query(
+                "select rb.last_entry_date as entryDate, rb.last_entry_id as id from acc_gl_running_balance rb "
+                        + "order by rb.last_entry_date desc, rb.last_entry_id desc " + sqlGenerator.limit(1),
+                positionMapper);
+        if (lastCalculatedEntry.isEmpty() || !isAfter(firstPendingEntry.get(0), lastCalculatedEntry.get(0))) {
+            rebuildRunningBalanceSnapshot(firstPendingEntry.get(0).getKey());
+        }
+        updateOrganizationRunningBalance();
+    }
+
+    private void rebuildRunningBalanceSnapshot(final LocalDate entryDate) {
+        log.info("Rebuilding the running balances from {}", entryDate);
+        this.transactionTemplate.executeWithoutResult(status -> {
+            this.jdbcTemplate.update("update acc_gl_journal_entry set is_running_balance_calculated=false "
+                    + "where is_running_balance_calculated=true and entry_date >= ?", entryDate);
+            this.jdbcTemplate.update("delete from acc_gl_running_balance");
+            this.jdbcTemplate.update("insert into acc_gl_running_balance "
+                    + "(office_id, account_id, office_running_balance, last_entry_date, last_entry_id) "
+                    + "select le.office_id, le.account_id, le.office_running_balance, le.entry_date, le.id from "
+                    + "(select je.office_id, je.account_id, je.office_running_balance, je.entry_date, je.id, "
+                    + "row_number() over (partition by je.office_id, je.account_id order by je.entry_date desc, je.id desc) as rn "
+                    + "from acc_gl_journal_entry je where je.entry_date < ?) le where le.rn = 1", entryDate);
+        });
+    }
+
+    private void updateOrganizationRunningBalance() {
+        final Map<Long, BigDecimal> runningBalanceMap = new HashMap<>();
+        final Map<Long, Map<Long, BigDecimal>> officesRunningBalance = new HashMap<>();
+        this.jdbcTemplate.query("select rb.office_id as officeId, rb.account_id as accountId, rb.office_running_balance as runningBalance "
+                + "from acc_gl_running_balance rb", rs -> {
+                    final Long accountId = rs.getLong("accountId");
+                    final BigDecimal runningBalance = rs.getBigDecimal("runningBalance");
+                    officesRunningBalance.computeIfAbsent(rs.getLong("officeId"), officeId -> new HashMap<>()).put(accountId,
+                            runningBalance);
+                    runningBalanceMap.merge(accountId, runningBalance, BigDecimal::add);
+                });
+        final Map<Long, Set<Long>> snapshotAccounts = new HashMap<>();
+        officesRunningBalance.forEach((officeId, balances) -> snapshotAccounts.put(officeId, new HashSet<>(balances.keySet())));
+
+        final String pendingEntriesQuery = entryMapper.pendingRunningBalanceSchema() + sqlGenerator.limit(RUNNING_BALANCE_PAGE_SIZE);
+        List<JournalEntryData> entryDatas = jdbcTemplate.query(pendingEntriesQuery, entryMapper, LocalDate.of(1900, 1, 1),
+                LocalDate.of(1900, 1, 1), 0L);
+        int processed = 0;
+        while (!entryDatas.isEmpty()) {
+            final List<Object[]> entryParams = new ArrayList<>(entryDatas.size());
+            final Map<List<Long>, JournalEntryData> lastEntries = new LinkedHashMap<>();
+            for (JournalEntryData entryData : entryDatas) {
+                final Map<Long, BigDecimal> officeRunningBalanceMap = officesRunningBalance.computeIfAbsent(entryData.getOfficeId(),
+                        officeId -> new HashMap<>());
+                final BigDecimal officeRunningBalance = calculateRunningBalance(entryData, officeRunningBalanceMap);
+                final BigDecimal runningBalance = calculateRunningBalance(entryData, runningBalanceMap);
+                entryParams.add(new Object[] { runningBalance, officeRunningBalance, entryData.getId() });
+                lastEntries.put(List.of(entryData.getOfficeId(), entryData.getGlAccountId()), entryData);
+            }
+
+            final List<Object[]> snapshotInserts = new ArrayList<>();
+            final List<Object[]> snapshotUpdates = new ArrayList<>();
+            for (JournalEntryData entryData : lastEntries.values()) {
+                final Object[] params = new Object[] { officesRunningBalance.get(entryData.getOfficeId()).get(entryData.getGlAccountId()),
+                        entryData.getTransactionDate(), entryData.getId(), entryData.getOfficeId(), entryData.getGlAccountId() };
+                if (snapshotAccounts.computeIfAbsent(entryData.getOfficeId(), officeId -> new HashSet<>())
+                        .add(entryData.getGlAccountId())) {
+                    snapshotInserts.add(params);
+                } else {
+                    snapshotUpdates.add(params);
+                }
+            }
+            this.transactionTemplate.executeWithoutResult(status -> {
+                this.jdbcTemplate.batchUpdate("UPDATE acc_gl_journal_entry SET is_running_balance_calculated=true, "
+                        + "organization_running_balance=?, office_running_balance=? WHERE id=?", entryParams);
+                this.jdbcTemplate.batchUpdate("UPDATE acc_gl_running_balance SET office_running_balance=?, last_entry_date=?, "
+                        + "last_entry_id=? WHERE office_id=? and account_id=?", snapshotUpdates);
+                this.jdbcTemplate.batchUpdate("INSERT INTO acc_gl_running_balance "
+                        + "(office_running_balance, last_entry_date, last_entry_id, office_id, account_id) VALUES (?, ?, ?, ?, ?)",
+                        snapshotInserts);
+            });
+            processed += entryDatas.size();
+
+            final JournalEntryData lastEntry = entryDatas.get(entryDatas.size() - 1);
+            entryDatas = entryDatas.size() < RUNNING_BALANCE_PAGE_SIZE ? List.of()
+                    : jdbcTemplate.query(pendingEntriesQuery, entryMapper, lastEntry.getTransactionDate(), lastEntry.getTransactionDate(),
+                            lastEntry.getId());
         }
+        log.info("Running balance calculated for {} journal entries", processed);
+    }
+
+    private static boolean isAfter(final Map.Entry<LocalDate, Long> entry, final Map.Entry<LocalDate, Long> otherEntry) {
+        return entry.getKey().isAfter(otherEntry.getKey())
+                || (entry.getKey().isEqual(otherEntry.getKey()) && entry.getValue() > otherEntry.getValue());
     }
 
     @Override
@@ -93,7 +201,9 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
                     + "where je.is_running_balance_calculated=false  and je.office_id=?";
             try {
                 LocalDate entityDate = this.jdbcTemplate.queryForObject(dateFinder, LocalDate.class, officeId);
-                updateRunningBalance(officeId, entityDate);
+                if (entityDate != null) {
+                    updateRunningBalance(officeId, entityDate);
+                }
             } catch (EmptyResultDataAccessException e) {
                 log.debug("No results found for updation of office running balance with office id: {}", officeId);
             }
@@ -102,117 +212,25 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
         return commandProcessingResultBuilder.build();
     }
 
-    private void updateOrganizationRunningBalance(LocalDate entityDate) {
-        Map<Long, BigDecimal> runningBalanceMap = new HashMap<>(5);
-        Map<Long, Map<Long, BigDecimal>> officesRunningBalance = new HashMap<>();
-
-        final String organizationRunningBalanceQuery = "select je.organization_running_balance as runningBalance,je.account_id as accountId from acc_gl_journal_entry je "
-                + "inner join (select max(id) as id from acc_gl_journal_entry where entry_date < ? group by account_id,entry_date) je2 ON je2.id = je.id "
-                + "inner join (select max(entry_date) as date from acc_gl_journal_entry where entry_date < ? group by account_id) je3 ON je.entry_date = je3.date "
-                + "group by je.id order by je.entry_date DESC " + sqlGenerator.limit(10000, 0);
-
-        List<Map<String, Object>> list = jdbcTemplate.queryForList(organizationRunningBalanceQuery, // NOSONAR
-                entityDate, entityDate);
-
-        for (Map<String, Object> entries : list) {
-            Long accountId = Long.parseLong(entries.get("accountId").toString()); // Drizzle
-                                                                                  // is
-                                                                                  // returning
-                                                                                  // Big
-                                                                                  // Integer
-                                                                                  // where
-                                                                                  // as
-                                                                                  // MySQL
-                                                                                  // returns
-                                                                                  // Long.
-            if (!runningBalanceMap.containsKey(accountId)) {
-                runningBalanceMap.put(accountId, (BigDecimal) entries.get("runningBalance"));
-            }
-        }
-
-        final String offlineRunningBalanceQuery = "select je.office_running_balance as runningBalance,je.account_id as accountId,je.office_id as officeId "
-                + "from acc_gl_journal_entry je "
-                + "inner join (select max(id) as id from acc_gl_journal_entry where entry_date < ? group by office_id,account_id,entry_date) je2 ON je2.id = je.id "
-                + "inner join (select max(entry_date) as date from acc_gl_journal_entry where entry_date < ? group by office_id,account_id) je3 ON je.entry_date = je3.date "
-                + "group by je.id order by je.entry_date DESC " + sqlGenerator.limit(10000, 0);
-
-        List<Map<String, Object>> officesRunningBalanceList = jdbcTemplate.queryForList(offlineRunningBalanceQuery, // NOSONAR
-                entityDate, entityDate);
-        for (Map<String, Object> entries : officesRunningBalanceList) {
-            Long accountId = Long.parseLong(entries.get("accountId").toString());
-            Long officeId = Long.parseLong(entries.get("officeId").toString());
-            Map<Long, BigDecimal> runningBalance = null;
-            if (officesRunningBalance.containsKey(officeId)) {
-                runningBalance = officesRunningBalance.get(officeId);
-            } else {
-                runningBalance = new HashMap<>();
-                officesRunningBalance.put(officeId, runningBalance);
-            }
-            if (!runningBalance.containsKey(accountId)) {
-                runningBalance.put(accountId, (BigDecimal) entries.get("runningBalance"));
-            }
-        }
-
-        List<JournalEntryData> entryDatas = jdbcTemplate.query(entryMapper.organizationRunningBalanceSchema(), entryMapper, entityDate);
-        if (entryDatas.size() > 0) {
-            // run a batch update of 1000 SQL statements at a time
-            final Integer batchUpdateSize = 1000;
-            ArrayList<String> updateSql = new ArrayList<>();
-            int batchIndex = 0;
-            for (int index = 0; index < entryDatas.size(); index++) {
-                JournalEntryData entryData = entryDatas.get(index);
-                Map<Long, BigDecimal> officeRunningBalanceMap = null;
-                if (officesRunningBalance.containsKey(entryData.getOfficeId())) {
-                    officeRunningBalanceMap = officesRunningBalance.get(entryData.getOfficeId());
-                } else {
-                    officeRunningBalanceMap = new HashMap<>();
-                    officesRunningBalance.put(entryData.getOfficeId(), officeRunningBalanceMap);
-                }
-                BigDecimal officeRunningBalance = calculateRunningBalance(entryData, officeRunningBalanceMap);
-                BigDecimal runningBalance = calculateRunningBalance(entryData, runningBalanceMap);
-                String sql = "UPDATE acc_gl_journal_entry SET is_running_balance_calculated=true, organization_running_balance="
-                        + runningBalance + ",office_running_balance=" + officeRunningBalance + " WHERE  id=" + entryData.getId();
-                updateSql.add(sql);
-                batchIndex++;
-                if (batchIndex == batchUpdateSize || index == entryDatas.size() - 1) {
-                    // run a batch update of the 1000 update SQL statements
-                    String[] batch = new String[updateSql.size()];
-                    updateSql.toArray(batch);
-                    this.jdbcTemplate.batchUpdate(batch);
-                    // reset counter and string array
-                    batchIndex = 0;
-                    updateSql.clear();
-                }
-            }
-        }
-
-    }
-
     private void updateRunningBalance(Long officeId, LocalDate entityDate) {
         Map<Long, BigDecimal> runningBalanceMap = new HashMap<>(5);
 
-        final String offlineRunningBalanceQuery = "select je.office_running_balance as runningBalance,je.account_id as accountId from acc_gl_journal_entry je "
-                + "inner join (select max(id) as id from acc_gl_journal_entry where office_id=?  and entry_date < ? group by account_id,entry_date) je2 ON je2.id = je.id "
-                + "inner join (select max(entry_date) as date from acc_gl_journal_entry where office_id=? and entry_date < ? group by account_id) je3 ON je.entry_date = je3.date "
-                + "group by je.id order by je.entry_date DESC " + sqlGenerator.limit(10000, 0);
+        final String offlineRunningBalanceQuery = "select le.office_running_balance as runningBalance, le.account_id as accountId from "
+                + "(select je.office_running_balance, je.account_id, "
+                + "row_number() over (partition by je.account_id order by je.entry_date desc, je.id desc) as rn "
+                + "from acc_gl_journal_entry je where je.office_id=? and je.entry_date < ?) le where le.rn = 1";
 
-        List<Map<String, Object>> list = jdbcTemplate.queryForList(offlineRunningBalanceQuery, // NOSONAR
-                officeId, entityDate, officeId, entityDate);
+        List<Map<String, Object>> list = jdbcTemplate.queryForList(offlineRunningBalanceQuery, officeId, entityDate);
         for (Map<String, Object> entries : list) {
-            Long accountId = (Long) entries.get("accountId");
-            if (!runningBalanceMap.containsKey(accountId)) {
-                runningBalanceMap.put(accountId, (BigDecimal) entries.get("runningBalance"));
-            }
+            runningBalanceMap.put(((Number) entries.get("accountId")).longValue(), (BigDecimal) entries.get("runningBalance"));
         }
         List<JournalEntryData> entryDatas = jdbcTemplate.query(entryMapper.officeRunningBalanceSchema(), entryMapper, officeId, entityDate);
-        String[] updateSql = new String[entryDatas.size()];
-        int i = 0;
+        List<Object[]> updateParams = new ArrayList<>(entryDatas.size());
         for (JournalEntryData entryData : entryDatas) {
             BigDecimal runningBalance = calculateRunningBalance(entryData, runningBalanceMap);
-            String sql = "UPDATE acc_gl_journal_entry SET office_running_balance=" + runningBalance + " WHERE id=" + entryData.getId();
-            updateSql[i++] = sql;
+            updateParams.add(new Object[] { runningBalance, entryData.getId() });
         }
-        this.jdbcTemplate.batchUpdate(updateSql);
+        this.jdbcTemplate.batchUpdate("UPDATE acc_gl_journal_entry SET office_running_balance=? WHERE id=?", updateParams);
     }
 
     private BigDecimal calculateRunningBalance(JournalEntryData entry, Map<Long, BigDecimal> runningBalanceMap) {
@@ -263,16 +281,17 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
 
         public String officeRunningBalanceSchema() {
             return "select je.id as id,je.account_id as glAccountId,je.type_enum as entryType,je.amount as amount, "
-                    + "glAccount.classification_enum as classification,je.office_id as officeId "
+                    + "glAccount.classification_enum as classification,je.office_id as officeId,je.entry_date as entryDate "
                     + "from acc_gl_journal_entry je , acc_gl_account glAccount " + "where je.account_id = glAccount.id "
                     + "and je.office_id=? and je.entry_date >= ? order by je.entry_date,je.id";
         }
 
-        public String organizationRunningBalanceSchema() {
+        public String pendingRunningBalanceSchema() {
             return "select je.id as id,je.account_id as glAccountId," + "je.type_enum as entryType,je.amount as amount, "
-                    + "glAccount.classification_enum as classification,je.office_id as officeId  "
+                    + "glAccount.classification_enum as classification,je.office_id as officeId,je.entry_date as entryDate "
                     + "from acc_gl_journal_entry je , acc_gl_account glAccount " + "where je.account_id = glAccount.id "
-                    + "and je.entry_date >= ? order by je.entry_date,je.id";
+                    + "and je.is_running_balance_calculated=false and (je.entry_date > ? or (je.entry_date = ? and je.id > ?)) "
+                    + "order by je.entry_date,je.id ";
         }
 
         @Override
@@ -286,9 +305,10 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
             final BigDecimal amount = rs.getBigDecimal("amount");
             final int entryTypeId = JdbcSupport.getInteger(rs, "entryType");
             final EnumOptionData entryType = AccountingEnumerations.journalEntryType(entryTypeId);
+            final LocalDate entryDate = JdbcSupport.getLocalDate(rs, "entryDate");
 
-            return new JournalEntryData(id, officeId, null, null, glAccountId, null, accountType, null, entryType, amount, null, null, null,
-                    null, null, null, null, null, null, null, null, null, null, null, null);
+            return new JournalEntryData(id, officeId, null, null, glAccountId, null, accountType, entryDate, entryType, amount, null, null,
+                    null, null, null, null, null, null, null, null, null, null, null, null, null);
         }
     }
 
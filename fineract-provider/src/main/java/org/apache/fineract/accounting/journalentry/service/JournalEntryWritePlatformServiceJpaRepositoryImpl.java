@@ -107,6 +107,7 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
     private final PaymentDetailWritePlatformService paymentDetailWritePlatformService;
     private final FinancialActivityAccountRepositoryWrapper financialActivityAccountRepositoryWrapper;
     private final CashBasedAccountingProcessorForClientTransactions accountingProcessorForClientTransactions;
+    private final JournalEntryBatchWriter journalEntryBatchWriter;
 
     @Transactional
     @Override
@@ -442,16 +443,18 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
 
     private void createJournalEntry(LocalDate transactionDate, Long entryId, Office office, String currencyCode,
             Map<GLAccount, BigDecimal> liabilityMap, Map<GLAccount, BigDecimal> expenseMap) {
-        Set<GLAccount> liabilityAccounts = liabilityMap.keySet();
-        for (GLAccount account : liabilityAccounts) {
-            this.helper.createProvisioningCreditJournalEntry(transactionDate, entryId, office, currencyCode, account,
-                    liabilityMap.get(account));
-        }
-        Set<GLAccount> expenseAccounts = expenseMap.keySet();
-        for (GLAccount account : expenseAccounts) {
-            this.helper.createProvisioningDebitJournalEntry(transactionDate, entryId, office, currencyCode, account,
-                    expenseMap.get(account));
-        }
+        this.journalEntryBatchWriter.writeInBatch(() -> {
+            Set<GLAccount> liabilityAccounts = liabilityMap.keySet();
+            for (GLAccount account : liabilityAccounts) {
+                this.helper.createProvisioningCreditJournalEntry(transactionDate, entryId, office, currencyCode, account,
+                        liabilityMap.get(account));
+            }
+            Set<GLAccount> expenseAccounts = expenseMap.keySet();
+            for (GLAccount account : expenseAccounts) {
+                this.helper.createProvisioningDebitJournalEntry(transactionDate, entryId, office, currencyCode, account,
+                        expenseMap.get(account));
+            }
+        });
     }
 
     private void validateCommentForReversal(final String reversalComment) {
@@ -480,7 +483,7 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
                     upfrontAccrualBasedAccountingEnabled, periodicAccrualBasedAccountingEnabled);
             final AccountingProcessorForLoan accountingProcessorForLoan = this.accountingProcessorForLoanFactory
                     .determineProcessor(loanDTO);
-            accountingProcessorForLoan.createJournalEntriesForLoan(loanDTO);
+            this.journalEntryBatchWriter.writeInBatch(() -> accountingProcessorForLoan.createJournalEntriesForLoan(loanDTO));
         }
     }
 
@@ -496,7 +499,7 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
                     accrualBasedAccountingEnabled);
             final AccountingProcessorForSavings accountingProcessorForSavings = this.accountingProcessorForSavingsFactory
                     .determineProcessor(savingsDTO);
-            accountingProcessorForSavings.createJournalEntriesForSavings(savingsDTO);
+            this.journalEntryBatchWriter.writeInBatch(() -> accountingProcessorForSavings.createJournalEntriesForSavings(savingsDTO));
         }
     }
 
@@ -512,7 +515,7 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
                     accrualBasedAccountingEnabled);
             final AccountingProcessorForShares accountingProcessorForShares = this.accountingProcessorForSharesFactory
                     .determineProcessor(sharesDTO);
-            accountingProcessorForShares.createJournalEntriesForShares(sharesDTO);
+            this.journalEntryBatchWriter.writeInBatch(() -> accountingProcessorForShares.createJournalEntriesForShares(sharesDTO));
         }
 
     }
@@ -755,7 +758,8 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
     @Override
     public void createJournalEntriesForClientTransactions(Map<String, Object> accountingBridgeData) {
         final ClientTransactionDTO clientTransactionDTO = this.helper.populateClientTransactionDtoFromMap(accountingBridgeData);
-        accountingProcessorForClientTransactions.createJournalEntriesForClientTransaction(clientTransactionDTO);
+        this.journalEntryBatchWriter.writeInBatch(
+                () -> this.accountingProcessorForClientTransactions.createJournalEntriesForClientTransaction(clientTransactionDTO));
     }
 
     private static class OfficeCurrencyKey {
@@ -29,15 +29,13 @@ import org.apache.fineract.accounting.journalentry.domain.BitaCoraMaster;
 import org.apache.fineract.accounting.journalentry.domain.BitaCoraMasterRepository;
 import org.apache.fineract.infrastructure.codes.data.CodeCauseProcessMappingData;
 import org.apache.fineract.infrastructure.codes.service.CodeCauseProcessMappingPlatformService;
-import org.apache.fineract.portfolio.exchange.domain.Exchange;
-import org.apache.fineract.portfolio.exchange.domain.ExchangeRepository;
+import org.apache.fineract.organisation.monetary.data.CurrencyData;
+import org.apache.fineract.portfolio.exchange.service.ExchangeRateIndex;
 import org.apache.fineract.portfolio.loanaccount.domain.Loan;
 import org.apache.fineract.portfolio.savings.data.SavingsAccountData;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccount;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.IncorrectResultSizeDataAccessException;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -47,7 +45,7 @@ public class LumaAccountingProcessor {
     @Autowired
     private CodeCauseProcessMappingPlatformService codeCauseProcessMappingPlatformService;
     @Autowired
-    private ExchangeRepository exchangeRepository;
+    private ExchangeRateIndex exchangeRateIndex;
     @Autowired
     private BitaCoraMasterRepository bitaCoraMasterRepository;
 
@@ -98,16 +96,18 @@ public class LumaAccountingProcessor {
     protected BigDecimal getExchangeRate(String currencyCode, Date transactionDate) {
         BigDecimal exchangeRate = BigDecimal.ONE;
         if (!currencyCode.equals(STRING_GTQ)) {
-            Page<Exchange> exchangePage = this.exchangeRepository.retrieveExchangeByOriginAndValidFrom(currencyCode, transactionDate,
-                    PageRequest.of(0, 1));
-            Optional<Exchange> exchange = exchangePage.stream().findFirst();
-            if (exchange.isPresent()) {
-                exchangeRate = exchange.get().getExchangeRate();
+            final BigDecimal rate = this.exchangeRateIndex.findRate(currencyCode, transactionDate);
+            if (rate != null) {
+                exchangeRate = rate;
             }
         }
         return exchangeRate.subtract(BigDecimal.ONE);
     }
 
+    protected CurrencyData retrieveCurrency(String currencyCode) {
+        return this.exchangeRateIndex.findCurrency(currencyCode);
+    }
+
     public String getAccountTypeFromSavingsAccount(SavingsAccount account) {
         return account.depositAccountType().isFixedDeposit() ? ACCOUNT_TYPE_PF : ACCOUNT_TYPE_AH;
     }
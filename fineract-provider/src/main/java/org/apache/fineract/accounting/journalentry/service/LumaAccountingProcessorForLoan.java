@@ -31,13 +31,11 @@ import org.apache.fineract.accounting.journalentry.domain.BitacoraMasterConstant
 import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.organisation.monetary.data.CurrencyData;
 import org.apache.fineract.organisation.monetary.domain.Money;
-import org.apache.fineract.organisation.monetary.service.CurrencyReadPlatformService;
 import org.apache.fineract.portfolio.cupo.domain.Cupo;
 import org.apache.fineract.portfolio.loanaccount.domain.Loan;
 import org.apache.fineract.portfolio.loanaccount.domain.LoanCharge;
 import org.apache.fineract.portfolio.loanaccount.domain.LoanChargePaidBy;
 import org.apache.fineract.portfolio.loanaccount.domain.LoanTransaction;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -46,17 +44,9 @@ public class LumaAccountingProcessorForLoan extends LumaAccountingProcessor {
     // LH-1039: por el momento, enviar el número 999 para los registros de la cartera
     private static final Integer LOAN_CAUSAL = 999;
 
-    private CurrencyReadPlatformService currencyReadPlatformService;
     // private final BusinessEventNotifierService businessEventNotifierService;
     // private ExternalGuaranteeLoanRepository externalGuaranteeLoanRepository;
 
-    @Autowired
-    public LumaAccountingProcessorForLoan(CurrencyReadPlatformService currencyReadPlatformService) {
-        this.currencyReadPlatformService = currencyReadPlatformService;
-        // this.businessEventNotifierService = businessEventNotifierService;
-        // this.externalGuaranteeLoanRepository = externalGuaranteeLoanRepository;
-    }
-
     /*
      * @PostConstruct public void addListeners() { this.businessEventNotifierService.addBusinessEventPostListeners(
      * BusinessEventNotificationConstants.BusinessEvents.LOAN_ADJUST_TRANSACTION, new AdjustFundsOnBusinessEvent());
@@ -376,7 +366,7 @@ public class LumaAccountingProcessorForLoan extends LumaAccountingProcessor {
             }
         }
 
-        CurrencyData currencyData = this.currencyReadPlatformService.retrieveCurrency(loan.getCurrencyCode());
+        CurrencyData currencyData = retrieveCurrency(loan.getCurrencyCode());
         String status = getStatusStringFromLoanNpa(loan.isNpa());
         String currencyString = currencyData.getIntCode().toString();
         String groupString = getGroupStringFromLoan(loan);
@@ -616,7 +606,7 @@ public class LumaAccountingProcessorForLoan extends LumaAccountingProcessor {
                 break;
             }
         }
-        CurrencyData currencyData = this.currencyReadPlatformService.retrieveCurrency(loan.getCurrencyCode());
+        CurrencyData currencyData = retrieveCurrency(loan.getCurrencyCode());
         final BigDecimal exchangeRate = getExchangeRate(currencyData.code(), transactionDate);
         String currencyString = currencyData.getIntCode().toString();
         String groupString = getGroupStringFromLoan(loan);
@@ -944,7 +934,7 @@ public class LumaAccountingProcessorForLoan extends LumaAccountingProcessor {
         Long transactionId = null;
         Long accountId = cupo.getId();
         String accountType = BitacoraMasterConstants.ACCOUNT_TYPE_PR;
-        CurrencyData currencyData = this.currencyReadPlatformService.retrieveCurrency(cupo.getCurrencyCode());
+        CurrencyData currencyData = retrieveCurrency(cupo.getCurrencyCode());
         String currencyString = currencyData.getIntCode().toString();
         BigDecimal amount = cupo.getAmountApproved();
         String status = "active";
@@ -981,7 +971,7 @@ public class LumaAccountingProcessorForLoan extends LumaAccountingProcessor {
         Long transactionId = null;
         Long accountId = cupo.getId();
         String accountType = BitacoraMasterConstants.ACCOUNT_TYPE_PR;
-        CurrencyData currencyData = this.currencyReadPlatformService.retrieveCurrency(cupo.getCurrencyCode());
+        CurrencyData currencyData = retrieveCurrency(cupo.getCurrencyCode());
         String currencyString = currencyData.getIntCode().toString();
         String status = "active";
         final BigDecimal exchangeRate = getExchangeRate(cupo.getCurrencyCode(), transactionDate);
@@ -1017,7 +1007,7 @@ public class LumaAccountingProcessorForLoan extends LumaAccountingProcessor {
         Long transactionId = null;
         Long accountId = cupo.getId();
         String accountType = BitacoraMasterConstants.ACCOUNT_TYPE_PR;
-        CurrencyData currencyData = this.currencyReadPlatformService.retrieveCurrency(cupo.getCurrencyCode());
+        CurrencyData currencyData = retrieveCurrency(cupo.getCurrencyCode());
         String currencyString = currencyData.getIntCode().toString();
         String status = "active";
         final BigDecimal exchangeRate = getExchangeRate(cupo.getCurrencyCode(), transactionDate);
@@ -1053,7 +1043,7 @@ public class LumaAccountingProcessorForLoan extends LumaAccountingProcessor {
         Long transactionId = null;
         Long accountId = cupo.getId();
         String accountType = BitacoraMasterConstants.ACCOUNT_TYPE_PR;
-        CurrencyData currencyData = this.currencyReadPlatformService.retrieveCurrency(cupo.getCurrencyCode());
+        CurrencyData currencyData = retrieveCurrency(cupo.getCurrencyCode());
         String currencyString = currencyData.getIntCode().toString();
         String status = "canceled";
         final BigDecimal exchangeRate = getExchangeRate(cupo.getCurrencyCode(), transactionDate);
@@ -37,7 +37,6 @@ import org.apache.fineract.infrastructure.codes.data.CodeCauseProcessMappingData
 import org.apache.fineract.infrastructure.codes.domain.LumaProccessId;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.organisation.monetary.data.CurrencyData;
-import org.apache.fineract.organisation.monetary.service.CurrencyReadPlatformService;
 import org.apache.fineract.organisation.office.domain.Office;
 import org.apache.fineract.portfolio.common.BusinessEventNotificationConstants;
 import org.apache.fineract.portfolio.common.service.BusinessEventListener;
@@ -60,13 +59,10 @@ public class LumaAccountingProcessorForSavingsService extends LumaAccountingProc
     public static final String STRING_CLIENT_TYPE_A = "A";
     public static final String STRING_SOBREGIRO_CUENTA = "SOBREGIRO CUENTA: ";
 
-    private CurrencyReadPlatformService currencyReadPlatformService;
     private final BusinessEventNotifierService2 businessEventNotifierService;
 
     @Autowired
-    public LumaAccountingProcessorForSavingsService(CurrencyReadPlatformService currencyReadPlatformService,
-            BusinessEventNotifierService2 businessEventNotifierService) {
-        this.currencyReadPlatformService = currencyReadPlatformService;
+    public LumaAccountingProcessorForSavingsService(BusinessEventNotifierService2 businessEventNotifierService) {
         this.businessEventNotifierService = businessEventNotifierService;
     }
 
@@ -116,7 +112,7 @@ public class LumaAccountingProcessorForSavingsService extends LumaAccountingProc
         final List<BitaCoraMaster> ret = new ArrayList<>();
 
         final Date transactionDate = Date.from(transactionLocalDate.atStartOfDay(DateUtils.getDateTimeZoneOfTenant()).toInstant());
-        CurrencyData currencyData = this.currencyReadPlatformService.retrieveCurrency(savingsAccount.getCurrency().getCode());
+        CurrencyData currencyData = retrieveCurrency(savingsAccount.getCurrency().getCode());
         final BigDecimal exchangeRate = getExchangeRate(currencyData.code(), transactionDate);
         String currencyString = currencyData.getIntCode().toString();
         String groupString = lumaBitacoraTransactionTypeEnum.getGroupTYpe();
@@ -160,7 +156,7 @@ public class LumaAccountingProcessorForSavingsService extends LumaAccountingProc
 
         final Date transactionDate = Date
                 .from(deposit.getTransactionLocalDate().atStartOfDay(DateUtils.getDateTimeZoneOfTenant()).toInstant());
-        CurrencyData currencyData = this.currencyReadPlatformService.retrieveCurrency(account.getCurrency().getCode());
+        CurrencyData currencyData = retrieveCurrency(account.getCurrency().getCode());
         String heading = "Depósito a cuenta: ".concat(account.getId().toString());
         CodeCauseProcessMappingData causeProcessMappingData = null;
         if (transactionBooleanValues.isAccountTransfer()) {
@@ -248,7 +244,7 @@ public class LumaAccountingProcessorForSavingsService extends LumaAccountingProc
 
         final Date transactionDate = Date
                 .from(withdrawal.getTransactionLocalDate().atStartOfDay(DateUtils.getDateTimeZoneOfTenant()).toInstant());
-        CurrencyData currencyData = this.currencyReadPlatformService.retrieveCurrency(account.getCurrency().getCode());
+        CurrencyData currencyData = retrieveCurrency(account.getCurrency().getCode());
 
         CodeCauseProcessMappingData causeProcessMappingData = null;
         if (transactionBooleanValues.isAccountTransfer() && transactionBooleanValues.isWithdrawalToPayCharge()) {
@@ -327,7 +323,7 @@ public class LumaAccountingProcessorForSavingsService extends LumaAccountingProc
     public BitaCoraMaster createJournalEntriesForSavingsCharges(SavingsAccount account, SavingsAccountTransaction transaction) {
         final Date transactionDate = Date
                 .from(transaction.getTransactionLocalDate().atStartOfDay(DateUtils.getDateTimeZoneOfTenant()).toInstant());
-        CurrencyData currencyData = this.currencyReadPlatformService.retrieveCurrency(account.getCurrency().getCode());
+        CurrencyData currencyData = retrieveCurrency(account.getCurrency().getCode());
         final BigDecimal exchangeRate = getExchangeRate(currencyData.code(), transactionDate);
         String currencyString = currencyData.getIntCode().toString();
         final String accountType = getAccountTypeFromSavingsAccount(account);
@@ -406,7 +402,7 @@ public class LumaAccountingProcessorForSavingsService extends LumaAccountingProc
     public BitaCoraMaster createJournalEntriesForSavingsInterestAccruals(SavingsAccount account, SavingsAccountTransaction transaction) {
         final Date transactionDate = Date
                 .from(transaction.getTransactionLocalDate().atStartOfDay(DateUtils.getDateTimeZoneOfTenant()).toInstant());
-        CurrencyData currencyData = this.currencyReadPlatformService.retrieveCurrency(account.getCurrency().getCode());
+        CurrencyData currencyData = retrieveCurrency(account.getCurrency().getCode());
         final BigDecimal exchangeRate = getExchangeRate(currencyData.code(), transactionDate);
         String currencyString = currencyData.getIntCode().toString();
         final String accountType = getAccountTypeFromSavingsAccount(account);
@@ -470,7 +466,7 @@ public class LumaAccountingProcessorForSavingsService extends LumaAccountingProc
     public BitaCoraMaster createJournalEntriesForSavingsInterestPost(SavingsAccount account, SavingsAccountTransaction transaction) {
         final Date transactionDate = Date
                 .from(transaction.getTransactionLocalDate().atStartOfDay(DateUtils.getDateTimeZoneOfTenant()).toInstant());
-        CurrencyData currencyData = this.currencyReadPlatformService.retrieveCurrency(account.getCurrency().getCode());
+        CurrencyData currencyData = retrieveCurrency(account.getCurrency().getCode());
         final BigDecimal exchangeRate = getExchangeRate(currencyData.code(), transactionDate);
         String currencyString = currencyData.getIntCode().toString();
         final String accountType = getAccountTypeFromSavingsAccount(account);
@@ -511,7 +507,7 @@ public class LumaAccountingProcessorForSavingsService extends LumaAccountingProc
             SavingsAccountTransactionData transaction) {
         final Date transactionDate = Date
                 .from(transaction.getTransactionLocalDate().atStartOfDay(DateUtils.getDateTimeZoneOfTenant()).toInstant());
-        CurrencyData currencyData = this.currencyReadPlatformService.retrieveCurrency(account.getCurrency().getCode());
+        CurrencyData currencyData = retrieveCurrency(account.getCurrency().getCode());
         final BigDecimal exchangeRate = getExchangeRate(currencyData.code(), transactionDate);
         String currencyString = currencyData.getIntCode().toString();
         final String accountType = getAccountTypeFromSavingsAccount(account);
@@ -586,7 +582,7 @@ public class LumaAccountingProcessorForSavingsService extends LumaAccountingProc
     public BitaCoraMaster createJournalEntriesForSavingsISR(SavingsAccount account, SavingsAccountTransaction transaction) {
         final Date transactionDate = Date
                 .from(transaction.getTransactionLocalDate().atStartOfDay(DateUtils.getDateTimeZoneOfTenant()).toInstant());
-        CurrencyData currencyData = this.currencyReadPlatformService.retrieveCurrency(account.getCurrency().getCode());
+        CurrencyData currencyData = retrieveCurrency(account.getCurrency().getCode());
         final BigDecimal exchangeRate = getExchangeRate(currencyData.code(), transactionDate);
         String currencyString = currencyData.getIntCode().toString();
         final String accountType = getAccountTypeFromSavingsAccount(account);
@@ -663,7 +659,7 @@ public class LumaAccountingProcessorForSavingsService extends LumaAccountingProc
     public BitaCoraMaster createJournalEntriesForSavingsISR(SavingsAccountData account, SavingsAccountTransactionData transaction) {
         final Date transactionDate = Date
                 .from(transaction.getTransactionLocalDate().atStartOfDay(DateUtils.getDateTimeZoneOfTenant()).toInstant());
-        CurrencyData currencyData = this.currencyReadPlatformService.retrieveCurrency(account.getCurrency().getCode());
+        CurrencyData currencyData = retrieveCurrency(account.getCurrency().getCode());
         final BigDecimal exchangeRate = getExchangeRate(currencyData.code(), transactionDate);
         String currencyString = currencyData.getIntCode().toString();
         final String accountType = getAccountTypeFromSavingsAccount(account);
@@ -741,7 +737,7 @@ public class LumaAccountingProcessorForSavingsService extends LumaAccountingProc
             SavingsAccountTransaction transaction) {
         final Date transactionDate = Date
                 .from(transaction.getTransactionLocalDate().atStartOfDay(DateUtils.getDateTimeZoneOfTenant()).toInstant());
-        CurrencyData currencyData = this.currencyReadPlatformService.retrieveCurrency(account.getCurrency().getCode());
+        CurrencyData currencyData = retrieveCurrency(account.getCurrency().getCode());
         final BigDecimal exchangeRate = getExchangeRate(currencyData.code(), transactionDate);
         String currencyString = currencyData.getIntCode().toString();
         final String accountType = getAccountTypeFromSavingsAccount(account);
@@ -786,7 +782,7 @@ public class LumaAccountingProcessorForSavingsService extends LumaAccountingProc
             SavingsAccountTransaction transaction) {
         final Date transactionDate = Date
                 .from(transaction.getTransactionLocalDate().atStartOfDay(DateUtils.getDateTimeZoneOfTenant()).toInstant());
-        CurrencyData currencyData = this.currencyReadPlatformService.retrieveCurrency(account.getCurrency().getCode());
+        CurrencyData currencyData = retrieveCurrency(account.getCurrency().getCode());
         final BigDecimal exchangeRate = getExchangeRate(currencyData.code(), transactionDate);
         String currencyString = currencyData.getIntCode().toString();
         final String accountType = getAccountTypeFromSavingsAccount(account);
@@ -0,0 +1,93 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.producttoaccountmapping.service;
+
+import lombok.RequiredArgsConstructor;
+import org.apache.fineract.accounting.financialactivityaccount.domain.FinancialActivityAccountRepositoryWrapper;
+import org.apache.fineract.accounting.glaccount.domain.GLAccount;
+import org.apache.fineract.accounting.producttoaccountmapping.domain.ProductToGLAccountMapping;
+import org.apache.fineract.accounting.producttoaccountmapping.domain.ProductToGLAccountMappingRepository;
+import org.apache.fineract.portfolio.charge.domain.ChargeRepositoryWrapper;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+/**
+ * Resolves the GL account ids the accounting processors post to. The resolved ids are kept per tenant in the
+ * "glAccountMappings" cache region, keyed by product type, product, account type and payment type or charge, so that
+ * posting a leg does not query the mapping tables again. Only ids are cached, never the managed {@link GLAccount}.
+ *
+ * The product to GL account mapping, financial activity account and charge write services evict the region.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductToGLAccountMappingResolver {
+
+    public static final String CACHE_NAME = "glAccountMappings";
+
+    private static final String TENANT_KEY = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil).getTenant()"
+            + ".getTenantIdentifier()";
+
+    private final ProductToGLAccountMappingRepository accountMappingRepository;
+    private final FinancialActivityAccountRepositoryWrapper financialActivityAccountRepository;
+    private final ChargeRepositoryWrapper chargeRepositoryWrapper;
+
+    @Cacheable(value = CACHE_NAME, key = TENANT_KEY + ".concat('fa' + #financialActivityType)")
+    public Long resolveFinancialActivityAccountId(final int financialActivityType) {
+        return this.financialActivityAccountRepository.findByFinancialActivityTypeWithNotFoundDetection(financialActivityType)
+                .getGlAccount().getId();
+    }
+
+    /**
+     * Returns the GL account of the core mapping, the one without payment type and charge, or null if the product has
+     * no mapping for the account type.
+     */
+    @Cacheable(value = CACHE_NAME, key = TENANT_KEY + ".concat('pm' + #productType + '_' + #productId + '_' + #accountMappingTypeId)")
+    public Long resolveProductAccountId(final int productType, final Long productId, final int accountMappingTypeId) {
+        return glAccountIdOf(
+                this.accountMappingRepository.findCoreProductToFinAccountMapping(productId, productType, accountMappingTypeId));
+    }
+
+    @Cacheable(value = CACHE_NAME, key = TENANT_KEY + ".concat('pt' + #productType + '_' + #productId + '_' + #accountMappingTypeId"
+            + " + '_' + #paymentTypeId)")
+    public Long resolvePaymentTypeAccountId(final int productType, final Long productId, final int accountMappingTypeId,
+            final Long paymentTypeId) {
+        return glAccountIdOf(this.accountMappingRepository.findByProductIdAndProductTypeAndFinancialAccountTypeAndPaymentTypeId(productId,
+                productType, accountMappingTypeId, paymentTypeId));
+    }
+
+    @Cacheable(value = CACHE_NAME, key = TENANT_KEY + ".concat('pc' + #productType + '_' + #productId + '_' + #accountMappingTypeId"
+            + " + '_' + #chargeId)")
+    public Long resolveChargeAccountId(final int productType, final Long productId, final int accountMappingTypeId, final Long chargeId) {
+        return glAccountIdOf(this.accountMappingRepository.findProductIdAndProductTypeAndFinancialAccountTypeAndChargeId(productId,
+                productType, accountMappingTypeId, chargeId));
+    }
+
+    /**
+     * Returns the income or liability account configured on the charge itself, or null if it has none.
+     */
+    @Cacheable(value = CACHE_NAME, key = TENANT_KEY + ".concat('ch' + #chargeId)")
+    public Long resolveChargeIncomeAccountId(final Long chargeId) {
+        final GLAccount account = this.chargeRepositoryWrapper.findOneWithNotFoundDetection(chargeId).getAccount();
+        return account == null ? null : account.getId();
+    }
+
+    private static Long glAccountIdOf(final ProductToGLAccountMapping mapping) {
+        return mapping == null || mapping.getGlAccount() == null ? null : mapping.getGlAccount().getId();
+    }
+}
@@ -23,6 +23,14 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.UriInfo;
@@ -37,11 +45,18 @@ import org.apache.fineract.batch.exception.ClientDetailsNotFoundException;
 import org.apache.fineract.batch.exception.ErrorHandler;
 import org.apache.fineract.batch.exception.ErrorInfo;
 import org.apache.fineract.batch.service.ResolutionHelper.BatchRequestNode;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.config.FineractProperties.FineractBatchApiProperties;
+import org.apache.fineract.infrastructure.core.exception.GeneralPlatformDomainRuleException;
+import org.apache.fineract.infrastructure.core.exception.PlatformInternalServerException;
+import org.apache.fineract.infrastructure.core.service.CallerContextPropagation;
 import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.TransactionException;
 import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.transaction.support.TransactionTemplate;
 
 /**
@@ -62,6 +77,23 @@ public class BatchApiServiceImpl implements BatchApiService {
     private final CommandStrategyProvider strategyProvider;
     private final ResolutionHelper resolutionHelper;
     private final TransactionTemplate transactionTemplate;
+    private final FineractProperties fineractProperties;
+
+    private ThreadPoolExecutor executorService;
+
+    @PostConstruct
+    public void initializeExecutorService() {
+        final FineractBatchApiProperties properties = this.fineractProperties.getBatchApi();
+        // Saturation falls back to the request thread, so a busy pool slows a batch down instead of failing it
+        this.executorService = new ThreadPoolExecutor(properties.getThreadPoolSize(), properties.getThreadPoolSize(), 0L,
+                TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()), new CustomizableThreadFactory("batch-api-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdownExecutorService() {
+        this.executorService.shutdownNow();
+    }
 
     /**
      * Returns the response list by getting a proper {@link org.apache.fineract.batch.command.CommandStrategy}.
@@ -77,27 +109,90 @@ public class BatchApiServiceImpl implements BatchApiService {
 
         final List<BatchRequestNode> batchRequestNodes = this.resolutionHelper.getDependingRequests(requestList);
         if (batchRequestNodes.isEmpty()) {
-            final BatchResponse response = new BatchResponse();
-            ErrorInfo ex = ErrorHandler.handler(new ClientDetailsNotFoundException());
-            response.setStatusCode(500);
-            response.setBody(ex.getMessage());
-            responseList.add(response);
+            responseList.add(clientDetailsNotFoundResponse());
             return responseList;
         }
         for (BatchRequestNode rootNode : batchRequestNodes) {
-            final BatchRequest rootRequest = rootNode.getRequest();
-            final CommandStrategy commandStrategy = this.strategyProvider
-                    .getCommandStrategy(CommandContext.resource(rootRequest.getRelativeUrl()).method(rootRequest.getMethod()).build());
-            final BatchResponse rootResponse = safelyExecuteStrategy(commandStrategy, rootRequest, uriInfo);
+            responseList.addAll(this.processRootRequest(rootNode, uriInfo));
+        }
+
+        Collections.sort(responseList, Comparator.comparing(BatchResponse::getRequestId));
+
+        return responseList;
+
+    }
+
+    /**
+     * Executes every independent root {@link BatchRequestNode} together with its children as a separate task. Requests
+     * inside a subtree still run one after another, as a child can only be resolved against the response of its parent.
+     *
+     * @param requestList
+     * @param uriInfo
+     * @return {@code List<BatchResponse>} sorted by requestId
+     */
+    private List<BatchResponse> handleBatchRequestsInParallel(final List<BatchRequest> requestList, final UriInfo uriInfo) {
+
+        // the subtrees run on other threads, which can not take part in a transaction of the request thread
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new GeneralPlatformDomainRuleException("error.msg.batch.parallel.in.enclosing.transaction",
+                    "Batch requests can not be executed in parallel inside an enclosing transaction");
+        }
+        final List<BatchRequestNode> batchRequestNodes = this.resolutionHelper.getDependingRequests(requestList);
+        if (batchRequestNodes.size() <= 1) {
+            return handleBatchRequests(requestList, uriInfo);
+        }
+
+        final List<Future<List<BatchResponse>>> futures = new ArrayList<>(batchRequestNodes.size());
+        for (BatchRequestNode rootNode : batchRequestNodes) {
+            final Callable<List<BatchResponse>> task = () -> this.processRootRequest(rootNode, uriInfo);
+            futures.add(this.executorService.submit(CallerContextPropagation.withCallerContext(task)));
+        }
 
-            responseList.add(rootResponse);
-            responseList.addAll(this.processChildRequests(rootNode, rootResponse, uriInfo));
+        final List<BatchResponse> responseList = new ArrayList<>(requestList.size());
+        for (int i = 0; i < futures.size(); i++) {
+            final BatchRequest rootRequest = batchRequestNodes.get(i).getRequest();
+            try {
+                responseList.addAll(futures.get(i).get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(future -> future.cancel(true));
+                throw new PlatformInternalServerException("error.msg.batch.execution.interrupted",
+                        "Batch execution was interrupted while waiting for request " + rootRequest.getRequestId(), e);
+            } catch (ExecutionException e) {
+                log.warn("Exception while executing batch request {}", rootRequest.getRequestId(), e.getCause());
+
+                final BatchResponse response = new BatchResponse();
+                response.setRequestId(rootRequest.getRequestId());
+                response.setHeaders(rootRequest.getHeaders());
+                response.setStatusCode(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode());
+                response.setBody(e.getCause().getMessage());
+                responseList.add(response);
+            }
         }
 
         Collections.sort(responseList, Comparator.comparing(BatchResponse::getRequestId));
 
         return responseList;
+    }
+
+    private List<BatchResponse> processRootRequest(final BatchRequestNode rootNode, final UriInfo uriInfo) {
+        final BatchRequest rootRequest = rootNode.getRequest();
+        final CommandStrategy commandStrategy = this.strategyProvider
+                .getCommandStrategy(CommandContext.resource(rootRequest.getRelativeUrl()).method(rootRequest.getMethod()).build());
+        final BatchResponse rootResponse = safelyExecuteStrategy(commandStrategy, rootRequest, uriInfo);
+
+        final List<BatchResponse> responseList = new ArrayList<>();
+        responseList.add(rootResponse);
+        responseList.addAll(this.processChildRequests(rootNode, rootResponse, uriInfo));
+        return responseList;
+    }
 
+    private BatchResponse clientDetailsNotFoundResponse() {
+        final BatchResponse response = new BatchResponse();
+        ErrorInfo ex = ErrorHandler.handler(new ClientDetailsNotFoundException());
+        response.setStatusCode(500);
+        response.setBody(ex.getMessage());
+        return response;
     }
 
     private BatchResponse safelyExecuteStrategy(CommandStrategy commandStrategy, BatchRequest request, UriInfo uriInfo) {
@@ -171,6 +266,13 @@ public class BatchApiServiceImpl implements BatchApiService {
         return handleBatchRequests(requestList, uriInfo);
     }
 
+    @Override
+    public List<BatchResponse> handleBatchRequestsInParallelWithoutEnclosingTransaction(final List<BatchRequest> requestList,
+            final UriInfo uriInfo) {
+
+        return handleBatchRequestsInParallel(requestList, uriInfo);
+    }
+
     @Override
     public List<BatchResponse> handleBatchRequestsWithEnclosingTransaction(final List<BatchRequest> requestList, final UriInfo uriInfo) {
         List<BatchResponse> responseList = new ArrayList<>();
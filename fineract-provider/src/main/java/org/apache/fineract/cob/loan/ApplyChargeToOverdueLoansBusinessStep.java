@@ -37,23 +37,33 @@ public class ApplyChargeToOverdueLoansBusinessStep implements LoanCOBBusinessSte
     private final ConfigurationDomainService configurationDomainService;
     private final LoanReadPlatformService loanReadPlatformService;
     private final LoanWritePlatformService loanWritePlatformService;
+    // overdue installments of the COB chunk processed by the current thread, grouped by loan id
+    private final ThreadLocal<Map<Long, List<OverdueLoanScheduleData>>> chunkOverdueInstallments = new ThreadLocal<>();
 
     @Override
     public Loan execute(Loan input) {
-        final Long penaltyWaitPeriodValue = configurationDomainService.retrievePenaltyWaitPeriod();
-        final Boolean backdatePenalties = configurationDomainService.isBackdatePenaltiesEnabled();
-        final Collection<OverdueLoanScheduleData> overdueLoanScheduledInstallments = loanReadPlatformService
-                .retrieveAllLoansWithOverdueInstallments(penaltyWaitPeriodValue, backdatePenalties);
-        // TODO: this is very much not effective to get all overdue installments for each loan, a new method needs to be
-        // implemented for it
-        Map<Long, List<OverdueLoanScheduleData>> groupedOverdueData = overdueLoanScheduledInstallments.stream()
-                .collect(Collectors.groupingBy(OverdueLoanScheduleData::getLoanId));
-        for (Long loanId : groupedOverdueData.keySet()) {
-            loanWritePlatformService.applyOverdueChargesForLoan(input.getId(), groupedOverdueData.get(loanId));
+        final Collection<OverdueLoanScheduleData> overdueInstallments = retrieveOverdueInstallments(input.getId());
+        if (!overdueInstallments.isEmpty()) {
+            loanWritePlatformService.applyOverdueChargesForLoan(input.getId(), overdueInstallments);
         }
         return input;
     }
 
+    @Override
+    public void beforeChunk(LoanCOBChunk chunk) {
+        final Long penaltyWaitPeriodValue = configurationDomainService.retrievePenaltyWaitPeriod();
+        final Boolean backdatePenalties = configurationDomainService.isBackdatePenaltiesEnabled();
+        final Collection<OverdueLoanScheduleData> overdueInstallments = loanReadPlatformService
+                .retrieveOverdueInstallmentsForLoanIdRange(chunk.getMinLoanId(), chunk.getMaxLoanId(), penaltyWaitPeriodValue,
+                        backdatePenalties);
+        chunkOverdueInstallments.set(overdueInstallments.stream().collect(Collectors.groupingBy(OverdueLoanScheduleData::getLoanId)));
+    }
+
+    @Override
+    public void afterChunk(LoanCOBChunk chunk) {
+        chunkOverdueInstallments.remove();
+    }
+
     @Override
     public String getEnumStyledName() {
         return "APPLY_CHARGE_TO_OVERDUE_LOANS";
@@ -63,4 +73,14 @@ public class ApplyChargeToOverdueLoansBusinessStep implements LoanCOBBusinessSte
     public String getHumanReadableName() {
         return "Apply charge to overdue loans";
     }
+
+    private Collection<OverdueLoanScheduleData> retrieveOverdueInstallments(final Long loanId) {
+        final Map<Long, List<OverdueLoanScheduleData>> prefetched = chunkOverdueInstallments.get();
+        if (prefetched != null) {
+            return prefetched.getOrDefault(loanId, List.of());
+        }
+        final Long penaltyWaitPeriodValue = configurationDomainService.retrievePenaltyWaitPeriod();
+        final Boolean backdatePenalties = configurationDomainService.isBackdatePenaltiesEnabled();
+        return loanReadPlatformService.retrieveOverdueInstallmentsForLoan(loanId, penaltyWaitPeriodValue, backdatePenalties);
+    }
 }
@@ -23,4 +23,14 @@ import org.apache.fineract.portfolio.loanaccount.domain.Loan;
 
 public interface LoanCOBBusinessStep extends COBBusinessStep<Loan> {
 
+    /**
+     * Called on the worker thread before the loans of a chunk are executed, lets the step bulk load the data it needs
+     * for every loan of the chunk at once.
+     */
+    default void beforeChunk(LoanCOBChunk chunk) {}
+
+    /**
+     * Called on the worker thread once the loans of a chunk have been executed, even if the chunk failed.
+     */
+    default void afterChunk(LoanCOBChunk chunk) {}
 }
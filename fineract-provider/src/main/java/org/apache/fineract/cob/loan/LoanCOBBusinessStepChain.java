@@ -0,0 +1,96 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cob.loan;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.fineract.cob.COBBusinessStep;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.portfolio.loanaccount.domain.Loan;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ordered chain of {@link LoanCOBBusinessStep}s executed for every loan during the Loan COB.
+ *
+ * The order is taken from {@code fineract.cob.loan-business-steps} (enum styled step names). When nothing is
+ * configured every registered step is executed.
+ */
+@Slf4j
+@Component
+public class LoanCOBBusinessStepChain {
+
+    private final List<LoanCOBBusinessStep> steps;
+
+    @Autowired
+    public LoanCOBBusinessStepChain(final List<LoanCOBBusinessStep> availableSteps, final FineractProperties fineractProperties) {
+        final List<String> configuredSteps = fineractProperties.getCob() == null ? null
+                : fineractProperties.getCob().getLoanBusinessSteps();
+        this.steps = resolveSteps(availableSteps, configuredSteps);
+        log.info("Loan COB business steps: {}",
+                this.steps.stream().map(COBBusinessStep::getEnumStyledName).collect(Collectors.toList()));
+    }
+
+    public Loan execute(final Loan loan) {
+        Loan result = loan;
+        for (final LoanCOBBusinessStep step : this.steps) {
+            result = step.execute(result);
+        }
+        return result;
+    }
+
+    public void beforeChunk(final LoanCOBChunk chunk) {
+        for (final LoanCOBBusinessStep step : this.steps) {
+            step.beforeChunk(chunk);
+        }
+    }
+
+    public void afterChunk(final LoanCOBChunk chunk) {
+        for (final LoanCOBBusinessStep step : this.steps) {
+            step.afterChunk(chunk);
+        }
+    }
+
+    public List<LoanCOBBusinessStep> getSteps() {
+        return this.steps;
+    }
+
+    private static List<LoanCOBBusinessStep> resolveSteps(final List<LoanCOBBusinessStep> availableSteps,
+            final List<String> configuredSteps) {
+        if (CollectionUtils.isEmpty(configuredSteps)) {
+            return List.copyOf(availableSteps);
+        }
+        final Map<String, LoanCOBBusinessStep> stepsByName = availableSteps.stream()
+                .collect(Collectors.toMap(LoanCOBBusinessStep::getEnumStyledName, Function.identity()));
+        final List<LoanCOBBusinessStep> resolved = new ArrayList<>();
+        for (final String stepName : configuredSteps) {
+            final LoanCOBBusinessStep step = stepsByName.get(stepName.trim());
+            if (step == null) {
+                throw new IllegalStateException("Unknown Loan COB business step configured: " + stepName);
+            }
+            resolved.add(step);
+        }
+        return List.copyOf(resolved);
+    }
+}
@@ -0,0 +1,38 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cob.loan;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A claimed unit of Loan COB work: every active loan with an id between {@code minLoanId} and {@code maxLoanId}
+ * (inclusive). The {@code attempts} value is the claim counter at the time this node took the lease and fences the
+ * completion against a concurrent re-claim by another node.
+ */
+@Getter
+@RequiredArgsConstructor
+public class LoanCOBChunk {
+
+    private final Long id;
+    private final Long runId;
+    private final Long minLoanId;
+    private final Long maxLoanId;
+    private final int attempts;
+}
@@ -0,0 +1,67 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cob.loan;
+
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanRepositoryWrapper;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs the {@link LoanCOBBusinessStepChain} for every active loan of a chunk inside a single transaction. The chunk
+ * checkpoint is written in the same transaction, so a crashed node leaves the chunk to be picked up again instead of
+ * half processed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LoanCOBChunkProcessor {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final LoanRepositoryWrapper loanRepositoryWrapper;
+    private final LoanCOBBusinessStepChain businessStepChain;
+    private final LoanCOBWorkQueueService workQueueService;
+
+    public int process(final LoanCOBChunk chunk) {
+        final long start = System.currentTimeMillis();
+        final Integer processed = this.transactionTemplate.execute(status -> {
+            final List<Long> loanIds = this.jdbcTemplate.queryForList(
+                    "SELECT l.id FROM m_loan l WHERE l.loan_status_id = ? AND l.id BETWEEN ? AND ? ORDER BY l.id", Long.class,
+                    LoanStatus.ACTIVE.getValue(), chunk.getMinLoanId(), chunk.getMaxLoanId());
+            this.businessStepChain.beforeChunk(chunk);
+            try {
+                for (final Long loanId : loanIds) {
+                    this.businessStepChain.execute(this.loanRepositoryWrapper.findOneWithNotFoundDetection(loanId));
+                }
+            } finally {
+                this.businessStepChain.afterChunk(chunk);
+            }
+            this.workQueueService.completeChunk(chunk, loanIds.size());
+            return loanIds.size();
+        });
+        log.debug("Loan COB chunk {} ({} loans) processed within {} milliseconds", chunk.getId(), processed,
+                System.currentTimeMillis() - start);
+        return processed == null ? 0 : processed;
+    }
+}
@@ -16,11 +16,12 @@
  * specific language governing permissions and limitations
  * under the License.
  */
-package org.apache.fineract.infrastructure.hooks.listener;
+package org.apache.fineract.cob.loan;
 
-import org.apache.fineract.infrastructure.hooks.event.HookEvent;
-import org.springframework.context.ApplicationListener;
+import java.util.Map;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
 
-public interface HookListener extends ApplicationListener<HookEvent> {
+public interface LoanCOBService {
 
+    void executeLoanCOB(Map<String, String> jobParameters) throws JobExecutionException;
 }
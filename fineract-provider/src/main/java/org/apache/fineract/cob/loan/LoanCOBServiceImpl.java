@@ -0,0 +1,115 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cob.loan;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
+import org.apache.fineract.infrastructure.core.domain.FineractContext;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.springframework.stereotype.Service;
+
+/**
+ * Loan close of business. The active loans of the COB date are partitioned into id range chunks which are pulled from
+ * the shared work queue by a pool of workers; several nodes may run the job at the same time to share the work. A run
+ * that was interrupted is resumed on the next execution for the same COB date.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LoanCOBServiceImpl implements LoanCOBService {
+
+    private final LoanCOBWorkQueueService workQueueService;
+    private final LoanCOBChunkProcessor chunkProcessor;
+
+    @Override
+    @CronTarget(jobName = JobName.LOAN_COB)
+    public void executeLoanCOB(final Map<String, String> jobParameters) throws JobExecutionException {
+        final int threadPoolSize = Integer.parseInt(jobParameters.get("thread-pool-size"));
+        final int chunkSize = Integer.parseInt(jobParameters.get("chunk-size"));
+        final LocalDate cobDate = ThreadLocalContextUtil.getBusinessDateByType(BusinessDateType.COB_DATE);
+
+        final long start = System.currentTimeMillis();
+        final Long runId = this.workQueueService.openRun(cobDate, chunkSize);
+
+        final FineractContext context = ThreadLocalContextUtil.getContext();
+        final List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+        final List<Callable<Integer>> workers = new ArrayList<>();
+        for (int i = 0; i < threadPoolSize; i++) {
+            workers.add(() -> pullChunks(runId, context, errors));
+        }
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(threadPoolSize);
+        int processedLoans = 0;
+        try {
+            for (final Future<Integer> response : executorService.invokeAll(workers)) {
+                try {
+                    processedLoans += response.get();
+                } catch (final ExecutionException e) {
+                    log.error("Execution exception while executing Loan COB", e);
+                    errors.add(e.getCause());
+                }
+            }
+        } catch (final InterruptedException e) {
+            log.error("Interrupted while executing Loan COB", e);
+            Thread.currentThread().interrupt();
+            errors.add(e);
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        final boolean closed = this.workQueueService.closeRunIfFinished(runId);
+        log.info("{}: Loan COB for {} processed {} loans within {} milliseconds, run {} closed: {}",
+                ThreadLocalContextUtil.getTenant().getName(), cobDate, processedLoans, System.currentTimeMillis() - start, runId, closed);
+        if (!errors.isEmpty()) {
+            throw new JobExecutionException(errors);
+        }
+    }
+
+    private int pullChunks(final Long runId, final FineractContext context, final List<Throwable> errors) {
+        ThreadLocalContextUtil.init(context);
+        int processedLoans = 0;
+        LoanCOBChunk chunk = this.workQueueService.claimNextChunk(runId);
+        while (chunk != null) {
+            try {
+                processedLoans += this.chunkProcessor.process(chunk);
+            } catch (final Exception e) {
+                log.error("Loan COB failed for chunk {} (loan ids {} - {}), attempt {}", chunk.getId(), chunk.getMinLoanId(),
+                        chunk.getMaxLoanId(), chunk.getAttempts(), e);
+                this.workQueueService.failChunk(chunk, e);
+                errors.add(e);
+            }
+            chunk = this.workQueueService.claimNextChunk(runId);
+        }
+        return processedLoans;
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cob.loan;
+
+import java.time.LocalDate;
+
+/**
+ * DB backed work queue shared by all Fineract nodes taking part in a Loan COB run.
+ */
+public interface LoanCOBWorkQueueService {
+
+    /**
+     * Returns the run of the given COB date, partitioning the active loans into chunks of {@code chunkSize} loan ids
+     * when the run does not exist yet. Partitioning happens once per COB date, concurrent callers on other nodes get
+     * the already partitioned run. A run that closed as failed is reopened, its failed chunks start over with a fresh
+     * set of attempts.
+     */
+    Long openRun(LocalDate cobDate, int chunkSize);
+
+    /**
+     * Leases the next pending or abandoned chunk of the run to this node.
+     *
+     * @return the claimed chunk or {@code null} when there is nothing left to claim
+     */
+    LoanCOBChunk claimNextChunk(Long runId);
+
+    /**
+     * Marks the chunk as done. Must be called inside the chunk transaction so the checkpoint commits together with the
+     * business step changes; fails if the lease was taken over by another node meanwhile.
+     */
+    void completeChunk(LoanCOBChunk chunk, int processedLoans);
+
+    /**
+     * Puts the chunk back for a retry, or marks it as failed for good once it used up its attempts.
+     */
+    void failChunk(LoanCOBChunk chunk, Throwable cause);
+
+    /**
+     * Closes the run when every chunk is either done or failed for good, chunks whose last attempt lost its lease count
+     * as failed. The run is closed as failed if any of its chunks failed.
+     *
+     * @return true if the run is closed
+     */
+    boolean closeRunIfFinished(Long runId);
+}
@@ -0,0 +1,221 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cob.loan;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.fineract.cob.COBStatus;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanStatus;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LoanCOBWorkQueueServiceImpl implements LoanCOBWorkQueueService {
+
+    private static final int CLAIM_CANDIDATES = 10;
+    private static final int CHUNK_INSERT_BATCH_SIZE = 500;
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DatabaseSpecificSQLGenerator sqlGenerator;
+    private final FineractProperties fineractProperties;
+
+    @Override
+    public Long openRun(final LocalDate cobDate, final int chunkSize) {
+        final Long runId = findRunId(cobDate);
+        if (runId != null) {
+            this.transactionTemplate.executeWithoutResult(status -> reopenFailedRun(runId));
+            log.info("Resuming Loan COB run {} for {}", runId, cobDate);
+            return runId;
+        }
+        try {
+            return this.transactionTemplate.execute(status -> createRun(cobDate, chunkSize));
+        } catch (final DuplicateKeyException e) {
+            // the unique COB date makes concurrent nodes wait for the winner's commit, so its chunks are visible here
+            log.info("Loan COB run for {} has been partitioned by another node", cobDate);
+            return findRunId(cobDate);
+        }
+    }
+
+    @Override
+    public LoanCOBChunk claimNextChunk(final Long runId) {
+        final String candidateSql = "SELECT c.id, c.run_id, c.min_loan_id, c.max_loan_id, c.attempts FROM m_loan_cob_chunk c "
+                + "WHERE c.run_id = ? AND c.attempts < ? AND (c.status = ? OR (c.status = ? AND c.lease_expires_on < ?)) "
+                + "ORDER BY c.id " + this.sqlGenerator.limit(CLAIM_CANDIDATES);
+        final String claimSql = "UPDATE m_loan_cob_chunk SET status = ?, node_id = ?, lease_expires_on = ?, attempts = attempts + 1, "
+                + "lastmodified_date = ? WHERE id = ? AND attempts = ? "
+                + "AND (status = ? OR (status = ? AND lease_expires_on < ?))";
+        while (true) {
+            final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+            final List<LoanCOBChunk> candidates = this.jdbcTemplate.query(candidateSql, new LoanCOBChunkMapper(), runId, getMaxAttempts(),
+                    COBStatus.PENDING.name(), COBStatus.IN_PROGRESS.name(), now);
+            if (candidates.isEmpty()) {
+                return null;
+            }
+            final LocalDateTime leaseExpiresOn = now.plusMinutes(getLeaseTimeoutMinutes());
+            for (final LoanCOBChunk candidate : candidates) {
+                final int claimed = this.jdbcTemplate.update(claimSql, COBStatus.IN_PROGRESS.name(), this.fineractProperties.getNodeId(),
+                        leaseExpiresOn, now, candidate.getId(), candidate.getAttempts(), COBStatus.PENDING.name(),
+                        COBStatus.IN_PROGRESS.name(), now);
+                if (claimed == 1) {
+                    return new LoanCOBChunk(candidate.getId(), candidate.getRunId(), candidate.getMinLoanId(), candidate.getMaxLoanId(),
+                            candidate.getAttempts() + 1);
+                }
+            }
+            // every candidate was taken by other workers, look for the next ones
+        }
+    }
+
+    @Override
+    public void completeChunk(final LoanCOBChunk chunk, final int processedLoans) {
+        final int updated = this.jdbcTemplate.update(
+                "UPDATE m_loan_cob_chunk SET status = ?, processed_loans = ?, lease_expires_on = NULL, last_error = NULL, "
+                        + "lastmodified_date = ? WHERE id = ? AND attempts = ? AND status = ?",
+                COBStatus.DONE.name(), processedLoans, DateUtils.getLocalDateTimeOfSystem(), chunk.getId(), chunk.getAttempts(),
+                COBStatus.IN_PROGRESS.name());
+        if (updated != 1) {
+            throw new OptimisticLockingFailureException(
+                    "Lease of Loan COB chunk " + chunk.getId() + " has been taken over by another node, rolling back");
+        }
+    }
+
+    @Override
+    public void failChunk(final LoanCOBChunk chunk, final Throwable cause) {
+        // a chunk is retried until it runs out of attempts, then it stays failed
+        final COBStatus status = chunk.getAttempts() < getMaxAttempts() ? COBStatus.PENDING : COBStatus.FAILED;
+        this.jdbcTemplate.update(
+                "UPDATE m_loan_cob_chunk SET status = ?, lease_expires_on = NULL, last_error = ?, lastmodified_date = ? "
+                        + "WHERE id = ? AND attempts = ? AND status = ?",
+                status.name(), StringUtils.abbreviate(String.valueOf(cause.getMessage()), MAX_ERROR_LENGTH),
+                DateUtils.getLocalDateTimeOfSystem(), chunk.getId(), chunk.getAttempts(), COBStatus.IN_PROGRESS.name());
+    }
+
+    @Override
+    public boolean closeRunIfFinished(final Long runId) {
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        // the node holding the last attempt died, nobody may claim the chunk again
+        this.jdbcTemplate.update(
+                "UPDATE m_loan_cob_chunk SET status = ?, lease_expires_on = NULL, last_error = ?, lastmodified_date = ? "
+                        + "WHERE run_id = ? AND status = ? AND attempts >= ? AND lease_expires_on < ?",
+                COBStatus.FAILED.name(), "Lease of the last attempt expired", now, runId, COBStatus.IN_PROGRESS.name(), getMaxAttempts(),
+                now);
+        final Long openChunks = this.jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM m_loan_cob_chunk c WHERE c.run_id = ? AND c.status <> ? AND c.status <> ?", Long.class, runId,
+                COBStatus.DONE.name(), COBStatus.FAILED.name());
+        if (openChunks != null && openChunks > 0) {
+            return false;
+        }
+        final Long failedChunks = this.jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM m_loan_cob_chunk c WHERE c.run_id = ? AND c.status = ?", Long.class, runId, COBStatus.FAILED.name());
+        final COBStatus status = failedChunks != null && failedChunks > 0 ? COBStatus.FAILED : COBStatus.DONE;
+        this.jdbcTemplate.update("UPDATE m_loan_cob_run SET status = ?, finished_date = ? WHERE id = ? AND status = ?", status.name(), now,
+                runId, COBStatus.IN_PROGRESS.name());
+        if (status == COBStatus.FAILED) {
+            log.warn("Loan COB run {} closed with {} chunk(s) failed after {} attempts", runId, failedChunks, getMaxAttempts());
+        }
+        return true;
+    }
+
+    private Long createRun(final LocalDate cobDate, final int chunkSize) {
+        this.jdbcTemplate.update("INSERT INTO m_loan_cob_run (cob_date, chunk_size, status, created_date) VALUES (?, ?, ?, ?)", cobDate,
+                chunkSize, COBStatus.IN_PROGRESS.name(), DateUtils.getLocalDateTimeOfSystem());
+        final Long runId = findRunId(cobDate);
+
+        // keyset over the active loan ids: every page of chunkSize ids becomes one chunk
+        final String loanIdSql = "SELECT l.id FROM m_loan l WHERE l.loan_status_id = ? AND l.id > ? ORDER BY l.id "
+                + this.sqlGenerator.limit(chunkSize);
+        final String chunkSql = "INSERT INTO m_loan_cob_chunk (run_id, min_loan_id, max_loan_id, status, attempts) VALUES (?, ?, ?, ?, 0)";
+        final List<Object[]> chunkParams = new ArrayList<>();
+        Long lastLoanId = 0L;
+        int chunks = 0;
+        List<Long> loanIds;
+        do {
+            loanIds = this.jdbcTemplate.queryForList(loanIdSql, Long.class, LoanStatus.ACTIVE.getValue(), lastLoanId);
+            if (!loanIds.isEmpty()) {
+                lastLoanId = loanIds.get(loanIds.size() - 1);
+                chunkParams.add(new Object[] { runId, loanIds.get(0), lastLoanId, COBStatus.PENDING.name() });
+                chunks++;
+            }
+            if (chunkParams.size() >= CHUNK_INSERT_BATCH_SIZE) {
+                this.jdbcTemplate.batchUpdate(chunkSql, chunkParams);
+                chunkParams.clear();
+            }
+        } while (loanIds.size() == chunkSize);
+        if (!chunkParams.isEmpty()) {
+            this.jdbcTemplate.batchUpdate(chunkSql, chunkParams);
+        }
+        log.info("Loan COB run {} for {} partitioned into {} chunks of {} loans", runId, cobDate, chunks, chunkSize);
+        return runId;
+    }
+
+    private void reopenFailedRun(final Long runId) {
+        // only the node flipping the run back gets to reset its chunks, a run still in progress keeps its failed chunks
+        final int reopened = this.jdbcTemplate.update(
+                "UPDATE m_loan_cob_run SET status = ?, finished_date = NULL WHERE id = ? AND status = ?", COBStatus.IN_PROGRESS.name(),
+                runId, COBStatus.FAILED.name());
+        if (reopened != 1) {
+            return;
+        }
+        final int chunks = this.jdbcTemplate.update(
+                "UPDATE m_loan_cob_chunk SET status = ?, attempts = 0, lease_expires_on = NULL, lastmodified_date = ? "
+                        + "WHERE run_id = ? AND status = ?",
+                COBStatus.PENDING.name(), DateUtils.getLocalDateTimeOfSystem(), runId, COBStatus.FAILED.name());
+        log.info("Reopened Loan COB run {} with {} failed chunk(s) to retry", runId, chunks);
+    }
+
+    private Long findRunId(final LocalDate cobDate) {
+        final List<Long> runIds = this.jdbcTemplate.queryForList("SELECT r.id FROM m_loan_cob_run r WHERE r.cob_date = ?", Long.class,
+                cobDate);
+        return runIds.isEmpty() ? null : runIds.get(0);
+    }
+
+    private int getMaxAttempts() {
+        return this.fineractProperties.getCob().getChunkMaxAttempts();
+    }
+
+    private int getLeaseTimeoutMinutes() {
+        return this.fineractProperties.getCob().getChunkLeaseTimeoutMinutes();
+    }
+
+    private static final class LoanCOBChunkMapper implements RowMapper<LoanCOBChunk> {
+
+        @Override
+        public LoanCOBChunk mapRow(final ResultSet rs, final int rowNum) throws SQLException {
+            return new LoanCOBChunk(rs.getLong("id"), rs.getLong("run_id"), rs.getLong("min_loan_id"), rs.getLong("max_loan_id"),
+                    rs.getInt("attempts"));
+        }
+    }
+}
@@ -42,9 +42,8 @@ import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
 import org.apache.fineract.infrastructure.core.serialization.ToApiJsonSerializer;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
-import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
-import org.apache.fineract.infrastructure.hooks.event.HookEvent;
 import org.apache.fineract.infrastructure.hooks.event.HookEventSource;
+import org.apache.fineract.infrastructure.hooks.service.HookEventOutboxService;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.apache.fineract.useradministration.domain.AppUser;
 import org.springframework.context.ApplicationContext;
@@ -56,6 +55,9 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class SynchronousCommandProcessingService implements CommandProcessingService {
 
+    private static final Gson GSON = new Gson();
+    private static final Type MAP_TYPE = new TypeToken<Map<String, Object>>() {}.getType();
+
     private final PlatformSecurityContext context;
     private final ApplicationContext applicationContext;
     private final ToApiJsonSerializer<Map<String, Object>> toApiJsonSerializer;
@@ -63,6 +65,7 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
     private final CommandSourceRepository commandSourceRepository;
     private final ConfigurationDomainService configurationDomainService;
     private final CommandHandlerProvider commandHandlerProvider;
+    private final HookEventOutboxService hookEventOutboxService;
 
     @Transactional
     @Override
@@ -220,25 +223,19 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
     }
 
     private void publishEvent(final String entityName, final String actionName, JsonCommand command, final Object result) {
-        Gson gson = new Gson();
         try {
-            final AppUser appUser = this.context.authenticatedUser(CommandWrapper.wrap(actionName, entityName, null, null));
-
-            final HookEventSource hookEventSource = new HookEventSource(entityName, actionName);
-
             // TODO: Add support for publishing array events
             if (command.json() != null && command.json().startsWith("{")) {
-                Type type = new TypeToken<Map<String, Object>>() {
-
-                }.getType();
-                Map<String, Object> myMap = gson.fromJson(command.json(), type);
+                final AppUser appUser = this.context.authenticatedUser(CommandWrapper.wrap(actionName, entityName, null, null));
+                final HookEventSource hookEventSource = new HookEventSource(entityName, actionName);
+                Map<String, Object> myMap = GSON.fromJson(command.json(), MAP_TYPE);
 
                 Map<String, Object> reqmap = new HashMap<>();
                 reqmap.put("entityName", entityName);
                 reqmap.put("actionName", actionName);
-                reqmap.put("createdBy", context.authenticatedUser().getId());
-                reqmap.put("createdByName", context.authenticatedUser().getUsername());
-                reqmap.put("createdByFullName", context.authenticatedUser().getDisplayName());
+                reqmap.put("createdBy", appUser.getId());
+                reqmap.put("createdByName", appUser.getUsername());
+                reqmap.put("createdByFullName", appUser.getDisplayName());
 
                 reqmap.put("request", myMap);
                 if (result instanceof CommandProcessingResult) {
@@ -253,7 +250,7 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
                     ErrorInfo ex = (ErrorInfo) result;
                     reqmap.put("status", "Exception");
 
-                    Map<String, Object> errorMap = gson.fromJson(ex.getMessage(), type);
+                    Map<String, Object> errorMap = GSON.fromJson(ex.getMessage(), MAP_TYPE);
                     errorMap.put("errorCode", ex.getErrorCode());
                     errorMap.put("statusCode", ex.getStatusCode());
 
@@ -264,10 +261,8 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
 
                 final String serializedResult = this.toApiResultJsonSerializer.serialize(reqmap);
 
-                final HookEvent applicationEvent = new HookEvent(hookEventSource, serializedResult, appUser,
-                        ThreadLocalContextUtil.getContext());
-
-                applicationContext.publishEvent(applicationEvent);
+                // delivered by the hook dispatcher once the command transaction completes
+                this.hookEventOutboxService.publish(hookEventSource, serializedResult, appUser, !(result instanceof ErrorInfo));
             }
         } catch (Exception e) {
             log.error("Error", e);
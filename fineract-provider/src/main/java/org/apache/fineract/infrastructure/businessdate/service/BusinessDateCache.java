@@ -0,0 +1,132 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.businessdate.service;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
+import org.apache.fineract.infrastructure.cache.data.CacheInvalidationMessage;
+import org.apache.fineract.infrastructure.cache.service.CacheInvalidationTransport;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps the stored business dates of every tenant in memory, so that resolving the business dates of a request does
+ * not have to query m_business_date. An entry is dropped whenever the dates of its tenant change: on this node right
+ * away, on the other nodes through the {@link CacheInvalidationTransport}.
+ *
+ * Every tenant has a version that is increased on invalidation, a load that raced with an invalidation is returned to
+ * its caller but not kept.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BusinessDateCache {
+
+    static final String CACHE_NAME = "businessDates";
+
+    private final CacheInvalidationTransport transport;
+    private final ConcurrentMap<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    public Map<BusinessDateType, LocalDate> getBusinessDates(final String tenantIdentifier,
+            final Supplier<Map<BusinessDateType, LocalDate>> loader) {
+        // subscribing lazily, the tenant store may not be migrated yet while the context starts
+        if (this.subscribed.compareAndSet(false, true)) {
+            this.transport.subscribe(this::onRemoteInvalidation);
+        }
+        final AtomicLong version = this.versions.computeIfAbsent(tenantIdentifier, key -> new AtomicLong());
+        final long loadVersion = version.get();
+        final Snapshot snapshot = this.snapshots.get(tenantIdentifier);
+        if (snapshot != null && snapshot.version == loadVersion) {
+            return snapshot.businessDates;
+        }
+
+        final Map<BusinessDateType, LocalDate> businessDates = Map.copyOf(loader.get());
+        this.snapshots.compute(tenantIdentifier,
+                (key, existing) -> version.get() == loadVersion ? new Snapshot(loadVersion, businessDates) : existing);
+        return businessDates;
+    }
+
+    /**
+     * Drops the business dates of the tenant on every node. Within a transaction the other nodes are told only after
+     * the commit, so that they can not reload the old dates.
+     */
+    public void evict(final String tenantIdentifier) {
+        evictLocally(tenantIdentifier);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCommit() {
+                    evictLocally(tenantIdentifier);
+                    broadcast(tenantIdentifier);
+                }
+            });
+        } else {
+            broadcast(tenantIdentifier);
+        }
+    }
+
+    private void evictLocally(final String tenantIdentifier) {
+        this.snapshots.compute(tenantIdentifier, (key, existing) -> {
+            this.versions.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet();
+            return null;
+        });
+    }
+
+    private void broadcast(final String tenantIdentifier) {
+        try {
+            this.transport.publish(new CacheInvalidationMessage(this.transport.getNodeId(), CACHE_NAME, tenantIdentifier));
+        } catch (RuntimeException e) {
+            log.error("Could not broadcast business date change of tenant {}, other nodes may use stale dates", tenantIdentifier, e);
+        }
+    }
+
+    void onRemoteInvalidation(final CacheInvalidationMessage message) {
+        if (!CACHE_NAME.equals(message.getCacheName())) {
+            return;
+        }
+        if (message.isClearAll()) {
+            this.snapshots.keySet().forEach(this::evictLocally);
+        } else {
+            evictLocally(message.getKey());
+        }
+    }
+
+    private static final class Snapshot {
+
+        private final long version;
+        private final Map<BusinessDateType, LocalDate> businessDates;
+
+        private Snapshot(final long version, final Map<BusinessDateType, LocalDate> businessDates) {
+            this.version = version;
+            this.businessDates = businessDates;
+        }
+    }
+}
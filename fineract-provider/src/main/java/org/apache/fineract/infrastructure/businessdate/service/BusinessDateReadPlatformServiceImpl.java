@@ -22,6 +22,7 @@ import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -33,6 +34,7 @@ import org.apache.fineract.infrastructure.businessdate.exception.BusinessDateNot
 import org.apache.fineract.infrastructure.businessdate.mapper.BusinessDateMapper;
 import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.springframework.stereotype.Service;
 
 @Slf4j
@@ -43,6 +45,7 @@ public class BusinessDateReadPlatformServiceImpl implements BusinessDateReadPlat
     private final BusinessDateRepository repository;
     private final BusinessDateMapper mapper;
     private final ConfigurationDomainService configurationDomainService;
+    private final BusinessDateCache businessDateCache;
 
     @Override
     public List<BusinessDateData> findAll() {
@@ -73,13 +76,20 @@ public class BusinessDateReadPlatformServiceImpl implements BusinessDateReadPlat
         ZoneId zone = DateUtils.getDateTimeZoneOfTenant();
         LocalDate tenantDate = LocalDate.now(zone);
         businessDateMap.put(BusinessDateType.BUSINESS_DATE, tenantDate);
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        businessDateMap.putAll(businessDateCache.getBusinessDates(tenantIdentifier, this::retrieveStoredBusinessDates));
+
+        return businessDateMap;
+    }
+
+    private Map<BusinessDateType, LocalDate> retrieveStoredBusinessDates() {
+        final Map<BusinessDateType, LocalDate> storedBusinessDates = new HashMap<>();
         if (configurationDomainService.isBusinessDateEnabled()) {
             final List<BusinessDateData> businessDateDataList = this.findAll();
             for (BusinessDateData businessDateData : businessDateDataList) {
-                businessDateMap.put(BusinessDateType.valueOf(businessDateData.getType()), businessDateData.getDate());
+                storedBusinessDates.put(BusinessDateType.valueOf(businessDateData.getType()), businessDateData.getDate());
             }
         }
-
-        return businessDateMap;
+        return storedBusinessDates;
     }
 }
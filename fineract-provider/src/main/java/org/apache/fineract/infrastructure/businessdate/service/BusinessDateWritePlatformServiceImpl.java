@@ -42,6 +42,7 @@ import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuild
 import org.apache.fineract.infrastructure.core.exception.AbstractPlatformDomainRuleException;
 import org.apache.fineract.infrastructure.core.exception.PlatformApiDataValidationException;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
 import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
 import org.apache.fineract.infrastructure.jobs.service.JobName;
@@ -55,6 +56,7 @@ public class BusinessDateWritePlatformServiceImpl implements BusinessDateWritePl
     private final BusinessDateDataParserAndValidator dataValidator;
     private final BusinessDateRepository repository;
     private final ConfigurationDomainService configurationDomainService;
+    private final BusinessDateCache businessDateCache;
 
     @Override
     public CommandProcessingResult updateBusinessDate(@NotNull final JsonCommand command) {
@@ -77,6 +79,7 @@ public class BusinessDateWritePlatformServiceImpl implements BusinessDateWritePl
         if (isCOBDateAdjustmentEnabled && BusinessDateType.BUSINESS_DATE.name().equals(data.getType())) {
             updateOrCreateBusinessDate(BusinessDateType.COB_DATE.getName(), data.getDate().minus(1, ChronoUnit.DAYS), changes);
         }
+        businessDateCache.evict(ThreadLocalContextUtil.getTenant().getTenantIdentifier());
     }
 
     @Override
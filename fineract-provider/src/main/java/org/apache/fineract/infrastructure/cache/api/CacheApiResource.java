@@ -43,6 +43,8 @@ import org.apache.fineract.commands.domain.CommandWrapper;
 import org.apache.fineract.commands.service.CommandWrapperBuilder;
 import org.apache.fineract.commands.service.PortfolioCommandSourceWritePlatformService;
 import org.apache.fineract.infrastructure.cache.data.CacheData;
+import org.apache.fineract.infrastructure.cache.data.CacheStatisticsData;
+import org.apache.fineract.infrastructure.cache.service.CacheStatisticsReadPlatformService;
 import org.apache.fineract.infrastructure.cache.service.RuntimeDelegatingCacheManager;
 import org.apache.fineract.infrastructure.core.api.ApiRequestParameterHelper;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
@@ -61,6 +63,7 @@ import org.springframework.stereotype.Component;
 @Scope("singleton")
 @Tag(name = "Cache", description = "The following settings are possible for cache:\n" + "\n" + "No Caching: caching turned off\n"
         + "Single node: caching on for single instance deployments of platorm (works for multiple tenants but only one tomcat)\n"
+        + "Multi node: caching on for several instances behind a load balancer, evictions are propagated to all instances\n"
         + "By default caching is set to No Caching. Switching between caches results in the cache been clear e.g. from Single node to No cache and back again would clear down the single node cache.")
 public class CacheApiResource {
 
@@ -72,17 +75,23 @@ public class CacheApiResource {
     private final ApiRequestParameterHelper apiRequestParameterHelper;
     private final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService;
     private final RuntimeDelegatingCacheManager cacheService;
+    private final CacheStatisticsReadPlatformService cacheStatisticsReadPlatformService;
+    private final DefaultToApiJsonSerializer<CacheStatisticsData> statisticsToApiJsonSerializer;
 
     @Autowired
     public CacheApiResource(final PlatformSecurityContext context,
             @Qualifier("runtimeDelegatingCacheManager") final RuntimeDelegatingCacheManager cacheService,
             final DefaultToApiJsonSerializer<CacheData> toApiJsonSerializer, final ApiRequestParameterHelper apiRequestParameterHelper,
-            final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService) {
+            final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService,
+            final CacheStatisticsReadPlatformService cacheStatisticsReadPlatformService,
+            final DefaultToApiJsonSerializer<CacheStatisticsData> statisticsToApiJsonSerializer) {
         this.context = context;
         this.cacheService = cacheService;
         this.toApiJsonSerializer = toApiJsonSerializer;
         this.apiRequestParameterHelper = apiRequestParameterHelper;
         this.commandsSourceWritePlatformService = commandsSourceWritePlatformService;
+        this.cacheStatisticsReadPlatformService = cacheStatisticsReadPlatformService;
+        this.statisticsToApiJsonSerializer = statisticsToApiJsonSerializer;
     }
 
     @GET
@@ -100,6 +109,22 @@ public class CacheApiResource {
         return this.toApiJsonSerializer.serialize(settings, codes, RESPONSE_DATA_PARAMETERS);
     }
 
+    @GET
+    @Path("statistics")
+    @Operation(summary = "Retrieve Cache Statistics", description = "Returns the configuration, hits, misses, evictions and load times "
+            + "of every cache region of the node that serves the request.\n" + "\n" + "Example Requests:\n" + "\n" + "caches/statistics")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(array = @ArraySchema(schema = @Schema(implementation = CacheApiResourceSwagger.GetCachesStatisticsResponse.class)))) })
+    public String retrieveStatistics(@Context final UriInfo uriInfo) {
+
+        this.context.authenticatedUser().validateHasReadPermission(this.resourceNameForPermissions);
+
+        final Collection<CacheStatisticsData> statistics = this.cacheStatisticsReadPlatformService.retrieveStatistics();
+
+        final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
+        return this.statisticsToApiJsonSerializer.serialize(settings, statistics);
+    }
+
     @PUT
     @Operation(summary = "Switch Cache", description = "Switches the cache to chosen one.")
     @RequestBody(required = true, content = @Content(schema = @Schema(implementation = CacheApiResourceSwagger.PutCachesRequest.class)))
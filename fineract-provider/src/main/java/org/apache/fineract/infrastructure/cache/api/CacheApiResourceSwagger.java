@@ -41,6 +41,43 @@ final class CacheApiResourceSwagger {
         public boolean enabled;
     }
 
+    @Schema(description = "GetCachesStatisticsResponse")
+    public static final class GetCachesStatisticsResponse {
+
+        private GetCachesStatisticsResponse() {
+
+        }
+
+        @Schema(example = "users")
+        public String name;
+        @Schema(example = "10000")
+        public Long heapEntries;
+        @Schema(example = "0")
+        public Long offHeapMegabytes;
+        @Schema(example = "0")
+        public Long timeToLiveSeconds;
+        @Schema(example = "0")
+        public Long timeToIdleSeconds;
+        @Schema(example = "950")
+        public Long hits;
+        @Schema(example = "50")
+        public Long misses;
+        @Schema(example = "0.95")
+        public Double hitRatio;
+        @Schema(example = "50")
+        public Long puts;
+        @Schema(example = "3")
+        public Long removals;
+        @Schema(example = "0")
+        public Long evictions;
+        @Schema(example = "0")
+        public Long expirations;
+        @Schema(example = "50")
+        public Long loads;
+        @Schema(example = "12.5")
+        public Double averageLoadMillis;
+    }
+
     @Schema(description = "PutCachesRequest")
     public static final class PutCachesRequest {
 
@@ -16,23 +16,24 @@
  * specific language governing permissions and limitations
  * under the License.
  */
-package org.apache.fineract.infrastructure.hooks.event;
+package org.apache.fineract.infrastructure.cache.data;
 
 import lombok.Getter;
-import org.apache.fineract.infrastructure.core.domain.FineractContext;
-import org.apache.fineract.infrastructure.core.domain.FineractEvent;
-import org.apache.fineract.useradministration.domain.AppUser;
+import lombok.RequiredArgsConstructor;
 
+/**
+ * Tells the other nodes of a cluster that an entry, or a whole cache when no key is given, has to be dropped from their
+ * local caches.
+ */
 @Getter
-public class HookEvent extends FineractEvent {
-
-    private final String payload;
+@RequiredArgsConstructor
+public final class CacheInvalidationMessage {
 
-    private final AppUser appUser;
+    private final String originNode;
+    private final String cacheName;
+    private final String key;
 
-    public HookEvent(final HookEventSource source, final String payload, final AppUser appUser, FineractContext fineractContext) {
-        super(source, fineractContext);
-        this.payload = payload;
-        this.appUser = appUser;
+    public boolean isClearAll() {
+        return this.key == null;
     }
 }
@@ -16,33 +16,26 @@
  * specific language governing permissions and limitations
  * under the License.
  */
-package org.apache.fineract.notification.cache;
+package org.apache.fineract.infrastructure.cache.service;
 
-public class CacheNotificationResponseHeader {
+import java.util.function.Consumer;
+import org.apache.fineract.infrastructure.cache.data.CacheInvalidationMessage;
 
-    private boolean hasNotifications;
-    private Long lastFetch;
-
-    public CacheNotificationResponseHeader() {}
-
-    public CacheNotificationResponseHeader(boolean hasNotifications, Long lastFetch) {
-        this.hasNotifications = hasNotifications;
-        this.lastFetch = lastFetch;
-    }
-
-    public boolean hasNotifications() {
-        return hasNotifications;
-    }
+/**
+ * Carries {@link CacheInvalidationMessage}s between the nodes that run with {@link MultiNodeCacheManager}.
+ */
+public interface CacheInvalidationTransport {
 
-    public void setHasNotifications(boolean hasNotifications) {
-        this.hasNotifications = hasNotifications;
-    }
+    /**
+     * Identifies this node as the origin of the messages it publishes.
+     */
+    String getNodeId();
 
-    public Long getLastFetch() {
-        return lastFetch;
-    }
+    void publish(CacheInvalidationMessage message);
 
-    public void setLastFetch(Long lastFetch) {
-        this.lastFetch = lastFetch;
-    }
+    /**
+     * Registers a listener for the messages published by the other nodes. Messages published by this node are not
+     * delivered back to it.
+     */
+    void subscribe(Consumer<CacheInvalidationMessage> listener);
 }
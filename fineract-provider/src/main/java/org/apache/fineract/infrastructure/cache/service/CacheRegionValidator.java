@@ -0,0 +1,92 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.cache.service;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+import lombok.RequiredArgsConstructor;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.cache.annotation.AnnotationCacheOperationSource;
+import org.springframework.cache.interceptor.CacheOperation;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Fails the startup when a caching annotation refers to a cache region that is not declared under
+ * fineract.cache.regions, instead of failing the first request that hits it once caching is switched on.
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheRegionValidator implements SmartInitializingSingleton {
+
+    private static final String FINERACT_PACKAGE = "org.apache.fineract";
+
+    private final ListableBeanFactory beanFactory;
+    private final FineractProperties fineractProperties;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        final Set<String> declaredRegions = this.fineractProperties.getCache().getRegions().keySet();
+        final Set<String> undeclaredRegions = new TreeSet<>();
+        final AnnotationCacheOperationSource operationSource = new AnnotationCacheOperationSource();
+
+        for (final String beanName : this.beanFactory.getBeanDefinitionNames()) {
+            final Class<?> beanType = this.beanFactory.getType(beanName);
+            if (beanType == null) {
+                continue;
+            }
+            final Class<?> userType = ClassUtils.getUserClass(beanType);
+            if (!userType.getName().startsWith(FINERACT_PACKAGE)) {
+                continue;
+            }
+            for (final Method method : ReflectionUtils.getUniqueDeclaredMethods(userType, ReflectionUtils.USER_DECLARED_METHODS)) {
+                collectUndeclared(operationSource.getCacheOperations(method, userType), declaredRegions, undeclaredRegions);
+            }
+            for (final Class<?> type : ClassUtils.getAllInterfacesForClassAsSet(userType)) {
+                for (final Method method : type.getMethods()) {
+                    collectUndeclared(operationSource.getCacheOperations(method, userType), declaredRegions, undeclaredRegions);
+                }
+            }
+        }
+
+        if (!undeclaredRegions.isEmpty()) {
+            throw new IllegalStateException("Cache regions " + undeclaredRegions
+                    + " are used by caching annotations but not declared under fineract.cache.regions");
+        }
+    }
+
+    private void collectUndeclared(final Collection<CacheOperation> operations, final Set<String> declaredRegions,
+            final Set<String> undeclaredRegions) {
+        if (operations == null) {
+            return;
+        }
+        for (final CacheOperation operation : operations) {
+            for (final String cacheName : operation.getCacheNames()) {
+                if (!declaredRegions.contains(cacheName)) {
+                    undeclaredRegions.add(cacheName);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.cache.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import org.apache.fineract.infrastructure.cache.data.CacheStatisticsData;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.config.FineractProperties.FineractCacheRegionProperties;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class CacheStatisticsReadPlatformServiceImpl implements CacheStatisticsReadPlatformService {
+
+    private final FineractProperties fineractProperties;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public Collection<CacheStatisticsData> retrieveStatistics() {
+        final List<CacheStatisticsData> statistics = new ArrayList<>();
+        for (final Map.Entry<String, FineractCacheRegionProperties> entry : new TreeMap<>(
+                this.fineractProperties.getCache().getRegions()).entrySet()) {
+            final String name = entry.getKey();
+            final FineractCacheRegionProperties region = entry.getValue();
+            final long hits = count(MeteredJCacheCacheManager.GETS_METER, name, "result", "hit");
+            final long misses = count(MeteredJCacheCacheManager.GETS_METER, name, "result", "miss");
+            final long puts = count(MeteredJCacheCacheManager.PUTS_METER, name, null, null);
+            final long removals = count(MeteredJCacheCacheManager.REMOVALS_METER, name, null, null);
+            final long evictions = count(MeteredJCacheCacheManager.EVICTIONS_METER, name, "cause", "evicted");
+            final long expirations = count(MeteredJCacheCacheManager.EVICTIONS_METER, name, "cause", "expired");
+            final double hitRatio = hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+            final Timer loads = this.meterRegistry.find(MeteredJCacheCacheManager.LOADS_METER).tag("cache", name).timer();
+
+            statistics.add(new CacheStatisticsData(name, region.getHeapEntries(), region.getOffHeapMegabytes(),
+                    region.getTimeToLiveSeconds(), region.getTimeToIdleSeconds(), hits, misses, hitRatio, puts, removals, evictions,
+                    expirations, loads == null ? 0 : loads.count(), loads == null ? 0 : loads.mean(TimeUnit.MILLISECONDS)));
+        }
+        return statistics;
+    }
+
+    private long count(final String meterName, final String cacheName, final String tagKey, final String tagValue) {
+        final Counter counter = tagKey == null ? this.meterRegistry.find(meterName).tag("cache", cacheName).counter()
+                : this.meterRegistry.find(meterName).tag("cache", cacheName).tag(tagKey, tagValue).counter();
+        return counter == null ? 0 : (long) counter.count();
+    }
+}
@@ -0,0 +1,157 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.cache.service;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.infrastructure.cache.data.CacheInvalidationMessage;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.config.FineractProperties.FineractCacheProperties;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link CacheInvalidationTransport} that uses the m_cache_invalidation table of the tenant store, which every node of
+ * a cluster already shares, as a message log. Each node polls the log for the rows written by the other nodes.
+ */
+@Slf4j
+@Component
+public class JdbcCacheInvalidationTransport implements CacheInvalidationTransport {
+
+    // rows may become visible out of id order when inserts commit concurrently, so the last ids are read again
+    private static final long ID_LOOKBACK = 100;
+    private static final int MAX_REMEMBERED_IDS = 10000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FineractCacheProperties properties;
+    private final String nodeId;
+    private final List<Consumer<CacheInvalidationMessage>> listeners = new CopyOnWriteArrayList<>();
+    private final Set<Long> deliveredIds = new LinkedHashSet<>();
+
+    private ScheduledExecutorService pollingExecutor;
+    private long lastSeenId;
+    private LocalDateTime lastPurge;
+
+    @Autowired
+    public JdbcCacheInvalidationTransport(@Qualifier("hikariTenantDataSource") final DataSource dataSource,
+            final FineractProperties fineractProperties) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.properties = fineractProperties.getCache();
+        this.nodeId = fineractProperties.getNodeId() + "-" + UUID.randomUUID();
+    }
+
+    @Override
+    public String getNodeId() {
+        return this.nodeId;
+    }
+
+    @Override
+    public void publish(final CacheInvalidationMessage message) {
+        this.jdbcTemplate.update("INSERT INTO m_cache_invalidation (cache_name, cache_key, origin_node, created_date) VALUES (?, ?, ?, ?)",
+                message.getCacheName(), message.getKey(), message.getOriginNode(), DateUtils.getLocalDateTimeOfSystem());
+    }
+
+    @Override
+    public synchronized void subscribe(final Consumer<CacheInvalidationMessage> listener) {
+        this.listeners.add(listener);
+        if (this.pollingExecutor == null) {
+            final Long maxId = this.jdbcTemplate.queryForObject("SELECT MAX(id) FROM m_cache_invalidation", Long.class);
+            this.lastSeenId = maxId == null ? 0L : maxId;
+            this.lastPurge = DateUtils.getLocalDateTimeOfSystem();
+            final long interval = this.properties.getInvalidationPollIntervalMillis();
+            this.pollingExecutor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("cache-invalidation-"));
+            this.pollingExecutor.scheduleWithFixedDelay(this::poll, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (this.pollingExecutor != null) {
+            this.pollingExecutor.shutdownNow();
+        }
+    }
+
+    void poll() {
+        try {
+            final List<PolledMessage> messages = this.jdbcTemplate.query(
+                    "SELECT id, cache_name, cache_key, origin_node FROM m_cache_invalidation WHERE id > ? ORDER BY id",
+                    (rs, rowNum) -> new PolledMessage(rs.getLong("id"), new CacheInvalidationMessage(rs.getString("origin_node"),
+                            rs.getString("cache_name"), rs.getString("cache_key"))),
+                    this.lastSeenId - ID_LOOKBACK);
+            for (final PolledMessage polled : messages) {
+                if (!this.deliveredIds.add(polled.id)) {
+                    continue;
+                }
+                this.lastSeenId = Math.max(this.lastSeenId, polled.id);
+                if (!this.nodeId.equals(polled.message.getOriginNode())) {
+                    this.listeners.forEach(listener -> listener.accept(polled.message));
+                }
+            }
+            forgetOldIds();
+            purgeExpiredMessages();
+        } catch (RuntimeException e) {
+            log.warn("Polling for cache invalidations failed, retrying on next poll", e);
+        }
+    }
+
+    private void forgetOldIds() {
+        final Iterator<Long> iterator = this.deliveredIds.iterator();
+        while (this.deliveredIds.size() > MAX_REMEMBERED_IDS && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private void purgeExpiredMessages() {
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        if (this.lastPurge.plusMinutes(1).isAfter(now)) {
+            return;
+        }
+        this.jdbcTemplate.update("DELETE FROM m_cache_invalidation WHERE created_date < ?",
+                now.minusMinutes(this.properties.getInvalidationRetentionMinutes()));
+        this.lastPurge = now;
+    }
+
+    private static final class PolledMessage {
+
+        private final long id;
+        private final CacheInvalidationMessage message;
+
+        private PolledMessage(final long id, final CacheInvalidationMessage message) {
+            this.id = id;
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.cache.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import org.springframework.cache.Cache;
+import org.springframework.cache.jcache.JCacheCacheManager;
+
+/**
+ * {@link JCacheCacheManager} that records hits, misses, puts, removals and load times of every cache region in
+ * Micrometer, tagged with the region name.
+ *
+ * Load times are only known for values loaded through {@link Cache#get(Object, Callable)}, which is what
+ * {@code @Cacheable(sync = true)} uses. Other cacheable methods run between a missing get and a put that may never
+ * come, when the method throws or its result is not cached, so their loads are not timed.
+ */
+public class MeteredJCacheCacheManager extends JCacheCacheManager {
+
+    public static final String GETS_METER = "fineract.cache.gets";
+    public static final String PUTS_METER = "fineract.cache.puts";
+    public static final String REMOVALS_METER = "fineract.cache.removals";
+    public static final String EVICTIONS_METER = "fineract.cache.evictions";
+    public static final String LOADS_METER = "fineract.cache.loads";
+
+    private final MeterRegistry meterRegistry;
+
+    public MeteredJCacheCacheManager(final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected Cache decorateCache(final Cache cache) {
+        return new MeteredCache(super.decorateCache(cache), this.meterRegistry);
+    }
+
+    private static final class MeteredCache implements Cache {
+
+        private final Cache delegate;
+        private final Counter hits;
+        private final Counter misses;
+        private final Counter puts;
+        private final Counter removals;
+        private final Timer loads;
+
+        private MeteredCache(final Cache delegate, final MeterRegistry meterRegistry) {
+            this.delegate = delegate;
+            final String name = delegate.getName();
+            this.hits = meterRegistry.counter(GETS_METER, "cache", name, "result", "hit");
+            this.misses = meterRegistry.counter(GETS_METER, "cache", name, "result", "miss");
+            this.puts = meterRegistry.counter(PUTS_METER, "cache", name);
+            this.removals = meterRegistry.counter(REMOVALS_METER, "cache", name);
+            this.loads = meterRegistry.timer(LOADS_METER, "cache", name);
+        }
+
+        @Override
+        public String getName() {
+            return this.delegate.getName();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return this.delegate.getNativeCache();
+        }
+
+        @Override
+        public ValueWrapper get(final Object key) {
+            final ValueWrapper value = this.delegate.get(key);
+            if (value != null) {
+                this.hits.increment();
+            } else {
+                this.misses.increment();
+            }
+            return value;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T get(final Object key, final Class<T> type) {
+            final ValueWrapper value = get(key);
+            final Object cached = value == null ? null : value.get();
+            if (cached != null && type != null && !type.isInstance(cached)) {
+                throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + cached);
+            }
+            return (T) cached;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T get(final Object key, final Callable<T> valueLoader) {
+            final ValueWrapper value = this.delegate.get(key);
+            if (value != null) {
+                this.hits.increment();
+                return (T) value.get();
+            }
+            this.misses.increment();
+            final long start = System.nanoTime();
+            try {
+                return this.delegate.get(key, valueLoader);
+            } finally {
+                this.loads.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        @Override
+        public void put(final Object key, final Object value) {
+            this.delegate.put(key, value);
+            this.puts.increment();
+        }
+
+        @Override
+        public ValueWrapper putIfAbsent(final Object key, final Object value) {
+            final ValueWrapper existing = this.delegate.putIfAbsent(key, value);
+            this.puts.increment();
+            return existing;
+        }
+
+        @Override
+        public void evict(final Object key) {
+            this.delegate.evict(key);
+            this.removals.increment();
+        }
+
+        @Override
+        public boolean evictIfPresent(final Object key) {
+            final boolean evicted = this.delegate.evictIfPresent(key);
+            if (evicted) {
+                this.removals.increment();
+            }
+            return evicted;
+        }
+
+        @Override
+        public void clear() {
+            this.delegate.clear();
+            this.removals.increment();
+        }
+
+        @Override
+        public boolean invalidate() {
+            final boolean invalidated = this.delegate.invalidate();
+            this.removals.increment();
+            return invalidated;
+        }
+    }
+}
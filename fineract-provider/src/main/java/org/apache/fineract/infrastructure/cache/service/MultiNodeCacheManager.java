@@ -0,0 +1,191 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.cache.service;
+
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.infrastructure.cache.data.CacheInvalidationMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * {@link CacheManager} for several Fineract nodes behind a load balancer. Every node keeps its entries in its own local
+ * (near) caches and evictions are broadcast through a {@link CacheInvalidationTransport}, so that the other nodes drop
+ * their copies as well.
+ *
+ * Only evictions are broadcast: writes in Fineract always evict the affected entries, and a put only stores what was
+ * just read from the database.
+ */
+@Slf4j
+@Component
+public class MultiNodeCacheManager implements CacheManager {
+
+    private final CacheManager localCacheManager;
+    private final CacheInvalidationTransport transport;
+    private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    @Autowired
+    public MultiNodeCacheManager(@Qualifier("ehCacheManager") final CacheManager localCacheManager,
+            final CacheInvalidationTransport transport) {
+        this.localCacheManager = localCacheManager;
+        this.transport = transport;
+    }
+
+    /**
+     * Starts listening to the evictions of the other nodes. Called when the platform switches to
+     * {@link org.apache.fineract.infrastructure.cache.domain.CacheType#MULTI_NODE}.
+     */
+    public void activate() {
+        if (this.subscribed.compareAndSet(false, true)) {
+            this.transport.subscribe(this::onRemoteInvalidation);
+        }
+    }
+
+    @Override
+    public Cache getCache(final String name) {
+        final Cache localCache = this.localCacheManager.getCache(name);
+        if (localCache == null) {
+            return null;
+        }
+        return this.caches.computeIfAbsent(name, cacheName -> new InvalidatingCache(localCache));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return this.localCacheManager.getCacheNames();
+    }
+
+    void onRemoteInvalidation(final CacheInvalidationMessage message) {
+        final Cache localCache = this.localCacheManager.getCache(message.getCacheName());
+        if (localCache == null) {
+            return;
+        }
+        if (message.isClearAll()) {
+            localCache.clear();
+        } else {
+            localCache.evict(message.getKey());
+        }
+    }
+
+    private void broadcast(final String cacheName, final Object key) {
+        // keys travel as text; other key types can not be rebuilt on the receiving side, so the whole cache is cleared
+        final CacheInvalidationMessage message = new CacheInvalidationMessage(this.transport.getNodeId(), cacheName,
+                key instanceof String ? (String) key : null);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // other nodes must not reload the old value before the change is committed
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCommit() {
+                    send(message);
+                }
+            });
+        } else {
+            send(message);
+        }
+    }
+
+    private void send(final CacheInvalidationMessage message) {
+        try {
+            this.transport.publish(message);
+        } catch (RuntimeException e) {
+            log.error("Could not broadcast invalidation of cache {}, other nodes may serve stale entries", message.getCacheName(), e);
+        }
+    }
+
+    private final class InvalidatingCache implements Cache {
+
+        private final Cache delegate;
+
+        private InvalidatingCache(final Cache delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String getName() {
+            return this.delegate.getName();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return this.delegate.getNativeCache();
+        }
+
+        @Override
+        public ValueWrapper get(final Object key) {
+            return this.delegate.get(key);
+        }
+
+        @Override
+        public <T> T get(final Object key, final Class<T> type) {
+            return this.delegate.get(key, type);
+        }
+
+        @Override
+        public <T> T get(final Object key, final Callable<T> valueLoader) {
+            return this.delegate.get(key, valueLoader);
+        }
+
+        @Override
+        public void put(final Object key, final Object value) {
+            this.delegate.put(key, value);
+        }
+
+        @Override
+        public ValueWrapper putIfAbsent(final Object key, final Object value) {
+            return this.delegate.putIfAbsent(key, value);
+        }
+
+        @Override
+        public void evict(final Object key) {
+            this.delegate.evict(key);
+            broadcast(getName(), key);
+        }
+
+        @Override
+        public boolean evictIfPresent(final Object key) {
+            final boolean evicted = this.delegate.evictIfPresent(key);
+            broadcast(getName(), key);
+            return evicted;
+        }
+
+        @Override
+        public void clear() {
+            this.delegate.clear();
+            broadcast(getName(), null);
+        }
+
+        @Override
+        public boolean invalidate() {
+            final boolean invalidated = this.delegate.invalidate();
+            broadcast(getName(), null);
+            return invalidated;
+        }
+    }
+}
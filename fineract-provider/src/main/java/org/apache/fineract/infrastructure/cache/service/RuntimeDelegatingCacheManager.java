@@ -40,7 +40,8 @@ import org.springframework.stereotype.Component;
  * At present this implementation of {@link CacheManager} just delegates to the real {@link CacheManager} to use.
  *
  * By default it is {@link NoOpCacheManager} but we can change that by checking some persisted configuration in the
- * database on startup and allow user to switch implementation through UI/API
+ * database on startup and allow user to switch implementation through UI/API. Single node caching uses the local
+ * Ehcache caches directly, multi node caching wraps them in a {@link MultiNodeCacheManager}.
  */
 @Component(value = "runtimeDelegatingCacheManager")
 public class RuntimeDelegatingCacheManager implements CacheManager {
@@ -48,12 +49,14 @@ public class RuntimeDelegatingCacheManager implements CacheManager {
     private static final Logger LOG = LoggerFactory.getLogger(RuntimeDelegatingCacheManager.class);
 
     private final CacheManager cacheManager;
+    private final MultiNodeCacheManager multiNodeCacheManager;
     private final CacheManager noOpCacheManager = new NoOpCacheManager();
     private CacheManager currentCacheManager;
 
     @Autowired
-    public RuntimeDelegatingCacheManager(final JCacheCacheManager cacheManager) {
+    public RuntimeDelegatingCacheManager(final JCacheCacheManager cacheManager, final MultiNodeCacheManager multiNodeCacheManager) {
         this.cacheManager = cacheManager;
+        this.multiNodeCacheManager = multiNodeCacheManager;
         this.currentCacheManager = this.noOpCacheManager;
     }
 
@@ -71,29 +74,26 @@ public class RuntimeDelegatingCacheManager implements CacheManager {
 
         final boolean noCacheEnabled = this.currentCacheManager instanceof NoOpCacheManager;
         final boolean ehcacheEnabled = this.currentCacheManager instanceof JCacheCacheManager;
-
-        // final boolean distributedCacheEnabled = false;
+        final boolean distributedCacheEnabled = this.currentCacheManager instanceof MultiNodeCacheManager;
 
         final EnumOptionData noCacheType = CacheEnumerations.cacheType(CacheType.NO_CACHE);
         final EnumOptionData singleNodeCacheType = CacheEnumerations.cacheType(CacheType.SINGLE_NODE);
-        // final EnumOptionData multiNodeCacheType =
-        // CacheEnumerations.cacheType(CacheType.MULTI_NODE);
+        final EnumOptionData multiNodeCacheType = CacheEnumerations.cacheType(CacheType.MULTI_NODE);
 
         final CacheData noCache = CacheData.instance(noCacheType, noCacheEnabled);
         final CacheData singleNodeCache = CacheData.instance(singleNodeCacheType, ehcacheEnabled);
-        // final CacheData distributedCache =
-        // CacheData.instance(multiNodeCacheType, distributedCacheEnabled);
+        final CacheData distributedCache = CacheData.instance(multiNodeCacheType, distributedCacheEnabled);
 
-        final Collection<CacheData> caches = Arrays.asList(noCache, singleNodeCache);
+        final Collection<CacheData> caches = Arrays.asList(noCache, singleNodeCache, distributedCache);
         return caches;
     }
 
-    public Map<String, Object> switchToCache(final boolean ehcacheEnabled, final CacheType toCacheType) {
+    public Map<String, Object> switchToCache(final boolean ehcacheEnabled, final boolean distributedCacheEnabled,
+            final CacheType toCacheType) {
 
         final Map<String, Object> changes = new HashMap<>();
 
-        final boolean noCacheEnabled = !ehcacheEnabled;
-        final boolean distributedCacheEnabled = !ehcacheEnabled;
+        final boolean noCacheEnabled = !ehcacheEnabled && !distributedCacheEnabled;
 
         switch (toCacheType) {
             case INVALID:
@@ -118,6 +118,13 @@ public class RuntimeDelegatingCacheManager implements CacheManager {
             case MULTI_NODE:
                 if (!distributedCacheEnabled) {
                     changes.put(CacheApiConstants.cacheTypeParameter, toCacheType.getValue());
+                    clearEhCache();
+                }
+                this.multiNodeCacheManager.activate();
+                this.currentCacheManager = this.multiNodeCacheManager;
+
+                if (this.currentCacheManager.getCacheNames().size() == 0) {
+                    LOG.error("No caches configured for activated CacheManager {}", this.currentCacheManager);
                 }
             break;
         }
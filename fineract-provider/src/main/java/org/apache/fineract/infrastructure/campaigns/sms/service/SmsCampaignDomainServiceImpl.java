@@ -44,6 +44,7 @@ import org.apache.fineract.infrastructure.sms.domain.SmsMessageRepository;
 import org.apache.fineract.infrastructure.sms.scheduler.SmsMessageScheduledJobService;
 import org.apache.fineract.organisation.office.domain.Office;
 import org.apache.fineract.organisation.office.domain.OfficeRepository;
+import org.apache.fineract.portfolio.businessevent.BusinessEventDelivery;
 import org.apache.fineract.portfolio.businessevent.BusinessEventListener;
 import org.apache.fineract.portfolio.businessevent.domain.client.ClientActivateBusinessEvent;
 import org.apache.fineract.portfolio.businessevent.domain.client.ClientRejectBusinessEvent;
@@ -82,19 +83,24 @@ public class SmsCampaignDomainServiceImpl implements SmsCampaignDomainService {
 
     @PostConstruct
     public void addListeners() {
-        businessEventNotifierService.addPostBusinessEventListener(LoanApprovedBusinessEvent.class, new SendSmsOnLoanApproved());
-        businessEventNotifierService.addPostBusinessEventListener(LoanRejectedBusinessEvent.class, new SendSmsOnLoanRejected());
+        businessEventNotifierService.addPostBusinessEventListener(LoanApprovedBusinessEvent.class, new SendSmsOnLoanApproved(),
+                BusinessEventDelivery.ASYNCHRONOUS_AFTER_COMMIT);
+        businessEventNotifierService.addPostBusinessEventListener(LoanRejectedBusinessEvent.class, new SendSmsOnLoanRejected(),
+                BusinessEventDelivery.ASYNCHRONOUS_AFTER_COMMIT);
         businessEventNotifierService.addPostBusinessEventListener(LoanTransactionMakeRepaymentPostBusinessEvent.class,
-                new SendSmsOnLoanRepayment());
-        businessEventNotifierService.addPostBusinessEventListener(ClientActivateBusinessEvent.class, new ClientActivatedListener());
-        businessEventNotifierService.addPostBusinessEventListener(ClientRejectBusinessEvent.class, new ClientRejectedListener());
-        businessEventNotifierService.addPostBusinessEventListener(SavingsActivateBusinessEvent.class,
-                new SavingsAccountActivatedListener());
-        businessEventNotifierService.addPostBusinessEventListener(SavingsRejectBusinessEvent.class, new SavingsAccountRejectedListener());
+                new SendSmsOnLoanRepayment(), BusinessEventDelivery.ASYNCHRONOUS_AFTER_COMMIT);
+        businessEventNotifierService.addPostBusinessEventListener(ClientActivateBusinessEvent.class, new ClientActivatedListener(),
+                BusinessEventDelivery.ASYNCHRONOUS_AFTER_COMMIT);
+        businessEventNotifierService.addPostBusinessEventListener(ClientRejectBusinessEvent.class, new ClientRejectedListener(),
+                BusinessEventDelivery.ASYNCHRONOUS_AFTER_COMMIT);
+        businessEventNotifierService.addPostBusinessEventListener(SavingsActivateBusinessEvent.class, new SavingsAccountActivatedListener(),
+                BusinessEventDelivery.ASYNCHRONOUS_AFTER_COMMIT);
+        businessEventNotifierService.addPostBusinessEventListener(SavingsRejectBusinessEvent.class, new SavingsAccountRejectedListener(),
+                BusinessEventDelivery.ASYNCHRONOUS_AFTER_COMMIT);
         businessEventNotifierService.addPostBusinessEventListener(SavingsDepositBusinessEvent.class,
-                new DepositSavingsAccountTransactionListener());
+                new DepositSavingsAccountTransactionListener(), BusinessEventDelivery.ASYNCHRONOUS_AFTER_COMMIT);
         businessEventNotifierService.addPostBusinessEventListener(SavingsWithdrawalBusinessEvent.class,
-                new NonDepositSavingsAccountTransactionListener());
+                new NonDepositSavingsAccountTransactionListener(), BusinessEventDelivery.ASYNCHRONOUS_AFTER_COMMIT);
     }
 
     private void notifyRejectedLoanOwner(Loan loan) {
@@ -19,6 +19,7 @@
 package org.apache.fineract.infrastructure.configuration.service;
 
 import java.util.Map;
+import org.apache.fineract.infrastructure.businessdate.service.BusinessDateCache;
 import org.apache.fineract.infrastructure.configuration.data.GlobalConfigurationDataValidator;
 import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
 import org.apache.fineract.infrastructure.configuration.domain.GlobalConfigurationProperty;
@@ -27,6 +28,7 @@ import org.apache.fineract.infrastructure.core.api.JsonCommand;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
 import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -46,15 +48,17 @@ public class GlobalConfigurationWritePlatformServiceJpaRepositoryImpl implements
     private final GlobalConfigurationRepositoryWrapper repository;
     private final GlobalConfigurationDataValidator globalConfigurationDataValidator;
     private final ConfigurationDomainService configurationDomainService;
+    private final BusinessDateCache businessDateCache;
 
     @Autowired
     public GlobalConfigurationWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context,
             final GlobalConfigurationRepositoryWrapper codeRepository, final GlobalConfigurationDataValidator dataValidator,
-            final ConfigurationDomainService configurationDomainService) {
+            final ConfigurationDomainService configurationDomainService, final BusinessDateCache businessDateCache) {
         this.context = context;
         this.repository = codeRepository;
         this.globalConfigurationDataValidator = dataValidator;
         this.configurationDomainService = configurationDomainService;
+        this.businessDateCache = businessDateCache;
 
     }
 
@@ -74,6 +78,9 @@ public class GlobalConfigurationWritePlatformServiceJpaRepositoryImpl implements
             if (!changes.isEmpty()) {
                 this.configurationDomainService.removeGlobalConfigurationPropertyDataFromCache(configItemForUpdate.getName());
                 this.repository.save(configItemForUpdate);
+                if (ConfigurationDomainServiceJpa.ENABLE_BUSINESS_DATE.equals(configItemForUpdate.getName())) {
+                    this.businessDateCache.evict(ThreadLocalContextUtil.getTenant().getTenantIdentifier());
+                }
             }
 
             return new CommandProcessingResultBuilder().withCommandId(command.commandId()).withEntityId(configId).with(changes).build();
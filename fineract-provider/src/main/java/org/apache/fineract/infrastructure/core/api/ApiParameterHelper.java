@@ -109,6 +109,15 @@ public final class ApiParameterHelper {
         return exportCsv;
     }
 
+    public static boolean streamReport(final MultivaluedMap<String, String> queryParams) {
+        boolean stream = false;
+        if (queryParams.getFirst("stream") != null) {
+            final String streamValue = queryParams.getFirst("stream");
+            stream = "true".equalsIgnoreCase(streamValue);
+        }
+        return stream;
+    }
+
     public static boolean exportPdf(final MultivaluedMap<String, String> queryParams) {
         boolean exportPDF = false;
         if (queryParams.getFirst("exportPDF") != null) {
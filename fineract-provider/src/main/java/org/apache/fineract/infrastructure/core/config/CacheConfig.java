@@ -16,58 +16,84 @@
  * specific language governing permissions and limitations
  * under the License.
  */
-
 package org.apache.fineract.infrastructure.core.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
 import javax.cache.CacheManager;
 import javax.cache.Caching;
 import javax.cache.spi.CachingProvider;
+import org.apache.fineract.infrastructure.cache.service.MeteredJCacheCacheManager;
+import org.apache.fineract.infrastructure.core.config.FineractProperties.FineractCacheRegionProperties;
 import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.CacheEventListenerConfigurationBuilder;
 import org.ehcache.config.builders.ExpiryPolicyBuilder;
 import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.event.EventType;
+import org.ehcache.expiry.ExpiryPolicy;
 import org.ehcache.jsr107.Eh107Configuration;
 import org.springframework.cache.jcache.JCacheCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+/**
+ * Creates the cache regions declared under fineract.cache.regions. Each region gets its own heap size, optional
+ * off-heap tier (entries have to be serializable then) and either a time to live or a time to idle.
+ */
 @Configuration
 public class CacheConfig {
 
     @Bean
-    public JCacheCacheManager ehCacheManager() {
-        JCacheCacheManager jCacheCacheManager = new JCacheCacheManager();
-        jCacheCacheManager.setCacheManager(getCustomCacheManager());
+    public JCacheCacheManager ehCacheManager(final FineractProperties fineractProperties, final MeterRegistry meterRegistry) {
+        JCacheCacheManager jCacheCacheManager = new MeteredJCacheCacheManager(meterRegistry);
+        jCacheCacheManager.setCacheManager(getCustomCacheManager(fineractProperties.getCache().getRegions(), meterRegistry));
         return jCacheCacheManager;
     }
 
-    private CacheManager getCustomCacheManager() {
+    private CacheManager getCustomCacheManager(final Map<String, FineractCacheRegionProperties> regions,
+            final MeterRegistry meterRegistry) {
         CachingProvider provider = Caching.getCachingProvider();
         CacheManager cacheManager = provider.getCacheManager();
 
-        javax.cache.configuration.Configuration<Object, Object> defaultTemplate = Eh107Configuration.fromEhcacheCacheConfiguration(
-                CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(10000))
-                        .withExpiry(ExpiryPolicyBuilder.noExpiration()).build());
+        regions.forEach((name, region) -> cacheManager.createCache(name, regionConfiguration(name, region, meterRegistry)));
+
+        return cacheManager;
+    }
 
-        cacheManager.createCache("users", defaultTemplate);
-        cacheManager.createCache("usersByUsername", defaultTemplate);
-        cacheManager.createCache("tenantsById", defaultTemplate);
-        cacheManager.createCache("offices", defaultTemplate);
-        cacheManager.createCache("officesForDropdown", defaultTemplate);
-        cacheManager.createCache("officesById", defaultTemplate);
-        cacheManager.createCache("charges", defaultTemplate);
-        cacheManager.createCache("funds", defaultTemplate);
-        cacheManager.createCache("code_values", defaultTemplate);
-        cacheManager.createCache("codes", defaultTemplate);
-        cacheManager.createCache("hooks", defaultTemplate);
-        cacheManager.createCache("tfConfig", defaultTemplate);
+    private javax.cache.configuration.Configuration<Object, Object> regionConfiguration(final String name,
+            final FineractCacheRegionProperties region, final MeterRegistry meterRegistry) {
+        if (region.getHeapEntries() <= 0) {
+            throw new IllegalStateException("Cache region " + name + " needs a positive heap-entries size");
+        }
+        ResourcePoolsBuilder resourcePools = ResourcePoolsBuilder.heap(region.getHeapEntries());
+        if (region.getOffHeapMegabytes() > 0) {
+            resourcePools = resourcePools.offheap(region.getOffHeapMegabytes(), MemoryUnit.MB);
+        }
 
-        javax.cache.configuration.Configuration<Object, Object> accessTokenTemplate = Eh107Configuration.fromEhcacheCacheConfiguration(
-                CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(10000))
-                        .withExpiry(ExpiryPolicyBuilder.timeToIdleExpiration(Duration.ofHours(2))).build());
+        // size based evictions and expirations happen inside Ehcache, so they are counted through its events
+        final CacheEventListenerConfigurationBuilder evictionListener = CacheEventListenerConfigurationBuilder
+                .newEventListenerConfiguration(event -> meterRegistry.counter(MeteredJCacheCacheManager.EVICTIONS_METER, "cache", name,
+                        "cause", event.getType().name().toLowerCase(Locale.ROOT)).increment(), EventType.EVICTED, EventType.EXPIRED)
+                .unordered().asynchronous();
 
-        cacheManager.createCache("userTFAccessToken", accessTokenTemplate);
+        return Eh107Configuration.fromEhcacheCacheConfiguration(
+                CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, resourcePools)
+                        .withExpiry(expiryPolicy(name, region)).withService(evictionListener).build());
+    }
 
-        return cacheManager;
+    private ExpiryPolicy<Object, Object> expiryPolicy(final String name, final FineractCacheRegionProperties region) {
+        if (region.getTimeToLiveSeconds() > 0 && region.getTimeToIdleSeconds() > 0) {
+            throw new IllegalStateException("Cache region " + name + " can either have a time to live or a time to idle, not both");
+        }
+        if (region.getTimeToLiveSeconds() > 0) {
+            return ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(region.getTimeToLiveSeconds()));
+        }
+        if (region.getTimeToIdleSeconds() > 0) {
+            return ExpiryPolicyBuilder.timeToIdleExpiration(Duration.ofSeconds(region.getTimeToIdleSeconds()));
+        }
+        return ExpiryPolicyBuilder.noExpiration();
     }
 }
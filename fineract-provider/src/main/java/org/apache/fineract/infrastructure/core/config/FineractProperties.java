@@ -19,6 +19,9 @@
 
 package org.apache.fineract.infrastructure.core.config;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -36,6 +39,24 @@ public class FineractProperties {
 
     private FineractCorrelationProperties correlation;
 
+    private FineractCOBProperties cob;
+
+    private FineractHookProperties hooks;
+
+    private FineractBatchApiProperties batchApi;
+
+    private FineractCacheProperties cache;
+
+    private FineractReportProperties report;
+
+    private FineractNotificationProperties notification;
+
+    private FineractBusinessEventProperties businessEvents;
+
+    private FineractLoanProperties loan;
+
+    private FineractSavingsProperties savings;
+
     @Getter
     @Setter
     public static class FineractTenantProperties {
@@ -49,6 +70,8 @@ public class FineractProperties {
         private String identifier;
         private String name;
         private String description;
+        private int connectionRefreshIntervalSeconds;
+        private int retiredPoolCloseTimeoutSeconds;
     }
 
     @Getter
@@ -72,4 +95,90 @@ public class FineractProperties {
         private boolean enabled;
         private String headerName;
     }
+
+    @Getter
+    @Setter
+    public static class FineractCOBProperties {
+
+        private List<String> loanBusinessSteps;
+        private int chunkLeaseTimeoutMinutes;
+        private int chunkMaxAttempts;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractHookProperties {
+
+        private int threadPoolSize;
+        private int queueCapacity;
+        private int batchSize;
+        private int maxAttempts;
+        private int retryBackoffSeconds;
+        private int sendingTimeoutMinutes;
+        private int sentRetentionDays;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractBatchApiProperties {
+
+        private int threadPoolSize;
+        private int queueCapacity;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractCacheProperties {
+
+        private long invalidationPollIntervalMillis;
+        private int invalidationRetentionMinutes;
+        private Map<String, FineractCacheRegionProperties> regions = new HashMap<>();
+    }
+
+    @Getter
+    @Setter
+    public static class FineractCacheRegionProperties {
+
+        private long heapEntries;
+        private long offHeapMegabytes;
+        private long timeToLiveSeconds;
+        private long timeToIdleSeconds;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractReportProperties {
+
+        private int exportFetchSize;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractNotificationProperties {
+
+        private long unreadCacheMaxEntries;
+        private long unreadCacheTimeToLiveSeconds;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractBusinessEventProperties {
+
+        private int threadPoolSize;
+        private int queueCapacity;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractLoanProperties {
+
+        private int arrearsAgeingModifiedLagMinutes;
+    }
+
+    @Getter
+    @Setter
+    public static class FineractSavingsProperties {
+
+        private boolean checkpointLoadingEnabled;
+    }
 }
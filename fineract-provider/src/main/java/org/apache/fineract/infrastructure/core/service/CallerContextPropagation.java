@@ -0,0 +1,99 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import org.apache.fineract.infrastructure.core.domain.FineractContext;
+import org.slf4j.MDC;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Hands the tenant, security and logging context of the submitting thread over to tasks running on a thread pool.
+ * <p>
+ * The context is captured when the task is wrapped, set up on the pool thread for the run of the task and cleared
+ * afterwards. Nothing is swapped when the task runs on the submitting thread itself, e.g. when a saturated executor
+ * falls back to its caller.
+ */
+public final class CallerContextPropagation {
+
+    private CallerContextPropagation() {}
+
+    public static <T> Callable<T> withCallerContext(final Callable<T> task) {
+        final CallerContext callerContext = new CallerContext();
+        return () -> {
+            if (callerContext.isCurrentThread()) {
+                return task.call();
+            }
+            callerContext.apply();
+            try {
+                return task.call();
+            } finally {
+                CallerContext.clear();
+            }
+        };
+    }
+
+    public static Runnable withCallerContext(final Runnable task) {
+        final CallerContext callerContext = new CallerContext();
+        return () -> {
+            if (callerContext.isCurrentThread()) {
+                task.run();
+                return;
+            }
+            callerContext.apply();
+            try {
+                task.run();
+            } finally {
+                CallerContext.clear();
+            }
+        };
+    }
+
+    private static final class CallerContext {
+
+        private final Thread callerThread = Thread.currentThread();
+        private final FineractContext fineractContext = ThreadLocalContextUtil.getContext();
+        private final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        private final Map<String, String> mdcContext = MDC.getCopyOfContextMap();
+
+        private boolean isCurrentThread() {
+            return Thread.currentThread() == this.callerThread;
+        }
+
+        private void apply() {
+            final SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+            securityContext.setAuthentication(this.authentication);
+            SecurityContextHolder.setContext(securityContext);
+            ThreadLocalContextUtil.init(this.fineractContext);
+            if (this.mdcContext != null) {
+                MDC.setContextMap(this.mdcContext);
+            }
+        }
+
+        private static void clear() {
+            MDC.clear();
+            SecurityContextHolder.clearContext();
+            ThreadLocalContextUtil.clearTenant();
+            ThreadLocalContextUtil.clearDataSourceContext();
+        }
+    }
+}
@@ -18,13 +18,35 @@
  */
 package org.apache.fineract.infrastructure.core.service;
 
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenantConnection;
+import org.apache.fineract.infrastructure.security.service.TenantDetailsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 
 /**
@@ -32,44 +54,219 @@ import org.springframework.stereotype.Service;
  * {@link ThreadLocal} variable for this request.
  *
  * {@link ThreadLocalContextUtil} is used to retrieve the {@link FineractPlatformTenant} for the request.
+ *
+ * Looking up the pool of a tenant connection does not lock, the pool of a connection is created exactly once. The
+ * pools are compared with tenant_server_connections periodically: pools of changed connections are replaced, pools of
+ * removed connections are dropped. A replaced pool stops handing out connections right away and is closed once its
+ * borrowed connections came back, at the earliest on the following refresh.
  */
+@Slf4j
 @Service
 public class TomcatJdbcDataSourcePerTenantService implements RoutingDataSourceService {
 
-    private final Map<Long, DataSource> tenantToDataSourceMap = new HashMap<>(1);
+    static final String CONNECTIONS_METER = "fineract.tenant.connections";
+    static final String MAX_CONNECTIONS_METER = "fineract.tenant.connections.max";
+
+    private final ConcurrentMap<Long, TenantDataSource> tenantToDataSourceMap = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, List<Meter>> tenantToMetersMap = new ConcurrentHashMap<>();
+    private final Queue<RetiredDataSource> retiredDataSources = new ConcurrentLinkedQueue<>();
     private final DataSource tenantDataSource;
 
     private final DataSourcePerTenantServiceFactory dataSourcePerTenantServiceFactory;
+    private final TenantDetailsService tenantDetailsService;
+    private final FineractProperties fineractProperties;
+    private final MeterRegistry meterRegistry;
+    private ScheduledExecutorService refreshExecutor;
 
     @Autowired
     public TomcatJdbcDataSourcePerTenantService(final @Qualifier("hikariTenantDataSource") DataSource tenantDataSource,
-            final DataSourcePerTenantServiceFactory dataSourcePerTenantServiceFactory) {
+            final DataSourcePerTenantServiceFactory dataSourcePerTenantServiceFactory, final TenantDetailsService tenantDetailsService,
+            final FineractProperties fineractProperties, final MeterRegistry meterRegistry) {
         this.tenantDataSource = tenantDataSource;
         this.dataSourcePerTenantServiceFactory = dataSourcePerTenantServiceFactory;
+        this.tenantDetailsService = tenantDetailsService;
+        this.fineractProperties = fineractProperties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void startRefreshing() {
+        final int interval = this.fineractProperties.getTenant().getConnectionRefreshIntervalSeconds();
+        if (interval > 0) {
+            this.refreshExecutor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("tenant-connections-"));
+            this.refreshExecutor.scheduleWithFixedDelay(this::refreshQuietly, interval, interval, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stopRefreshing() {
+        if (this.refreshExecutor != null) {
+            this.refreshExecutor.shutdownNow();
+        }
     }
 
     @Override
     public DataSource retrieveDataSource() {
-        // default to tenant database datasource
-        DataSource tenantDataSource = this.tenantDataSource;
-
         final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
-        if (tenant != null) {
-            final FineractPlatformTenantConnection tenantConnection = tenant.getConnection();
-
-            synchronized (this.tenantToDataSourceMap) {
-                // if tenantConnection information available switch to the
-                // appropriate datasource for that tenant.
-                DataSource possibleDS = this.tenantToDataSourceMap.get(tenantConnection.getConnectionId());
-                if (possibleDS != null) {
-                    tenantDataSource = possibleDS;
-                } else {
-                    tenantDataSource = dataSourcePerTenantServiceFactory.createNewDataSourceFor(tenantConnection);
-                    this.tenantToDataSourceMap.put(tenantConnection.getConnectionId(), tenantDataSource);
+        if (tenant == null) {
+            // default to tenant database datasource
+            return this.tenantDataSource;
+        }
+        // if tenantConnection information available switch to the
+        // appropriate datasource for that tenant.
+        final FineractPlatformTenantConnection tenantConnection = tenant.getConnection();
+        TenantDataSource dataSource = this.tenantToDataSourceMap.get(tenantConnection.getConnectionId());
+        if (dataSource == null) {
+            dataSource = this.tenantToDataSourceMap.computeIfAbsent(tenantConnection.getConnectionId(),
+                    connectionId -> createDataSource(tenantConnection));
+        }
+        return dataSource.dataSource;
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.error("Could not refresh the tenant connection pools", e);
+        }
+    }
+
+    /**
+     * Closes the pools retired by earlier refreshes that are idle or past their close timeout, then replaces the pools
+     * of connections whose tenant_server_connections row changed and drops the pools of connections that no longer
+     * exist.
+     */
+    void refresh() {
+        // a request may have looked up a pool retired by this refresh without having borrowed its connection yet, so
+        // retired pools are kept for at least one refresh interval
+        closeRetiredDataSources();
+
+        final Map<Long, FineractPlatformTenantConnection> tenantConnections = new HashMap<>();
+        for (final FineractPlatformTenant tenant : this.tenantDetailsService.findAllTenants()) {
+            tenantConnections.put(tenant.getConnection().getConnectionId(), tenant.getConnection());
+        }
+
+        for (final Long connectionId : this.tenantToDataSourceMap.keySet()) {
+            final FineractPlatformTenantConnection tenantConnection = tenantConnections.get(connectionId);
+            if (tenantConnection == null) {
+                final TenantDataSource removed = this.tenantToDataSourceMap.remove(connectionId);
+                if (removed != null) {
+                    log.info("Tenant connection {} was removed, dropping its connection pool", connectionId);
+                    retire(removed);
+                    removeMeters(connectionId);
                 }
+            } else {
+                this.tenantToDataSourceMap.computeIfPresent(connectionId, (key, existing) -> {
+                    if (existing.settings.equals(settingsOf(tenantConnection))) {
+                        return existing;
+                    }
+                    log.info("Tenant connection {} was changed, replacing its connection pool", connectionId);
+                    final TenantDataSource replacement = createDataSource(tenantConnection);
+                    retire(existing);
+                    return replacement;
+                });
             }
         }
+    }
+
+    private TenantDataSource createDataSource(final FineractPlatformTenantConnection tenantConnection) {
+        final DataSource dataSource = this.dataSourcePerTenantServiceFactory.createNewDataSourceFor(tenantConnection);
+        this.tenantToMetersMap.computeIfAbsent(tenantConnection.getConnectionId(), this::registerMeters);
+        return new TenantDataSource(dataSource, settingsOf(tenantConnection));
+    }
+
+    private List<Meter> registerMeters(final Long connectionId) {
+        final String connection = String.valueOf(connectionId);
+        return List.of(connectionGauge(connectionId, "active", HikariPoolMXBean::getActiveConnections),
+                connectionGauge(connectionId, "idle", HikariPoolMXBean::getIdleConnections),
+                connectionGauge(connectionId, "pending", HikariPoolMXBean::getThreadsAwaitingConnection),
+                Gauge.builder(MAX_CONNECTIONS_METER, this,
+                        service -> service.poolValue(connectionId, pool -> ((HikariDataSource) pool).getMaximumPoolSize()))
+                        .tag("connection", connection).register(this.meterRegistry));
+    }
+
+    private Gauge connectionGauge(final Long connectionId, final String state, final ToIntFunction<HikariPoolMXBean> value) {
+        return Gauge.builder(CONNECTIONS_METER, this, service -> service.poolValue(connectionId, pool -> {
+            final HikariPoolMXBean poolBean = pool.getHikariPoolMXBean();
+            return poolBean == null ? 0 : value.applyAsInt(poolBean);
+        })).tag("connection", String.valueOf(connectionId)).tag("state", state).register(this.meterRegistry);
+    }
 
-        return tenantDataSource;
+    // the gauges read the current pool of the connection, so they survive a pool being replaced
+    private double poolValue(final Long connectionId, final ToIntFunction<HikariDataSource> value) {
+        final TenantDataSource tenantDataSource = this.tenantToDataSourceMap.get(connectionId);
+        if (tenantDataSource == null || !(tenantDataSource.dataSource instanceof HikariDataSource)) {
+            return Double.NaN;
+        }
+        return value.applyAsInt((HikariDataSource) tenantDataSource.dataSource);
+    }
+
+    private void removeMeters(final Long connectionId) {
+        final List<Meter> meters = this.tenantToMetersMap.remove(connectionId);
+        if (meters != null) {
+            meters.forEach(this.meterRegistry::remove);
+        }
+    }
+
+    private void retire(final TenantDataSource tenantDataSource) {
+        if (tenantDataSource.dataSource instanceof HikariDataSource) {
+            final HikariDataSource pool = (HikariDataSource) tenantDataSource.dataSource;
+            final HikariPoolMXBean poolBean = pool.getHikariPoolMXBean();
+            if (poolBean != null) {
+                // idle connections are closed now, borrowed ones when they are returned
+                poolBean.softEvictConnections();
+            }
+            final long timeout = TimeUnit.SECONDS.toNanos(this.fineractProperties.getTenant().getRetiredPoolCloseTimeoutSeconds());
+            this.retiredDataSources.add(new RetiredDataSource(pool, System.nanoTime() + timeout));
+        }
+    }
+
+    private void closeRetiredDataSources() {
+        final Iterator<RetiredDataSource> iterator = this.retiredDataSources.iterator();
+        while (iterator.hasNext()) {
+            final RetiredDataSource retired = iterator.next();
+            final HikariPoolMXBean poolBean = retired.pool.getHikariPoolMXBean();
+            final boolean idle = poolBean == null || poolBean.getActiveConnections() == 0;
+            if (idle || System.nanoTime() - retired.closeDeadline >= 0) {
+                if (!idle) {
+                    log.warn("Closing retired connection pool {} with {} borrowed connections", retired.pool.getPoolName(),
+                            poolBean.getActiveConnections());
+                }
+                retired.pool.close();
+                iterator.remove();
+            }
+        }
+    }
+
+    private static List<Object> settingsOf(final FineractPlatformTenantConnection tenantConnection) {
+        return Arrays.asList(tenantConnection.getSchemaServer(), tenantConnection.getSchemaServerPort(), tenantConnection.getSchemaName(),
+                tenantConnection.getSchemaUsername(), tenantConnection.getSchemaPassword(),
+                tenantConnection.getSchemaConnectionParameters(), tenantConnection.getReadOnlySchemaServer(),
+                tenantConnection.getReadOnlySchemaServerPort(), tenantConnection.getReadOnlySchemaName(),
+                tenantConnection.getReadOnlySchemaUsername(), tenantConnection.getReadOnlySchemaPassword(),
+                tenantConnection.getReadOnlySchemaConnectionParameters(), tenantConnection.getInitialSize(),
+                tenantConnection.getMaxActive(), tenantConnection.getValidationInterval());
+    }
+
+    private static final class TenantDataSource {
+
+        private final DataSource dataSource;
+        private final List<Object> settings;
+
+        private TenantDataSource(final DataSource dataSource, final List<Object> settings) {
+            this.dataSource = dataSource;
+            this.settings = settings;
+        }
+    }
+
+    private static final class RetiredDataSource {
+
+        private final HikariDataSource pool;
+        private final long closeDeadline;
+
+        private RetiredDataSource(final HikariDataSource pool, final long closeDeadline) {
+            this.pool = pool;
+            this.closeDeadline = closeDeadline;
+        }
     }
 }
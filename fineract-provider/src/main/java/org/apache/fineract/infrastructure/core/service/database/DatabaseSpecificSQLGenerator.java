@@ -159,6 +159,16 @@ public class DatabaseSpecificSQLGenerator {
         }
     }
 
+    public String castDate(String sql) {
+        if (databaseTypeResolver.isMySQL()) {
+            return format("DATE(%s)", sql);
+        } else if (databaseTypeResolver.isPostgreSQL()) {
+            return format("%s::DATE", sql);
+        } else {
+            throw new IllegalStateException("Database type is not supported for casting to date " + databaseTypeResolver.databaseType());
+        }
+    }
+
     public String currentSchema() {
         if (databaseTypeResolver.isMySQL()) {
             return "SCHEMA()";
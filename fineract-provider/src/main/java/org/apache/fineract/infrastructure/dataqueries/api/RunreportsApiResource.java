@@ -77,6 +77,8 @@ public class RunreportsApiResource {
     @Operation(summary = "Running a Report", description = "This resource allows you to run and receive output from pre-defined Apache Fineract reports.\n"
             + "\n" + "Reports can also be used to provide data for searching and workflow functionality.\n" + "\n"
             + "The default output is a JSON formatted \"Generic Resultset\". The Generic Resultset contains Column Heading as well as Data information. However, you can export to CSV format by simply adding \"&exportCSV=true\" to the end of your URL.\n"
+            + "Large reports can be streamed as JSON, without holding the whole result in memory, by adding \"&stream=true\". "
+            + "CSV exports are always streamed.\n"
             + "\n"
             + "If Pentaho reports have been pre-defined, they can also be run through this resource. Pentaho reports can return HTML, PDF or CSV formats.\n"
             + "\n"
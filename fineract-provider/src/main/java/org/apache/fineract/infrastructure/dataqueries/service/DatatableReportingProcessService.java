@@ -79,13 +79,20 @@ public class DatatableReportingProcessService implements ReportingProcessService
         // JSON format
         if (!exportCsv) {
             final Map<String, String> reportParams = getReportParams(queryParams);
+            final boolean genericResultSetIsPassed = ApiParameterHelper.genericResultSetPassed(queryParams);
+            final boolean genericResultSet = ApiParameterHelper.genericResultSet(queryParams);
+
+            // only the generic resultset document can be streamed, the flattened format still needs all rows up front
+            if (ApiParameterHelper.streamReport(queryParams) && (!genericResultSetIsPassed || genericResultSet)) {
+                final StreamingOutput result = this.readExtraDataAndReportingService.retrieveReportJSON(reportName, parameterTypeValue,
+                        reportParams, isSelfServiceUserReport, prettyPrint);
+                return Response.ok().entity(result).type(MediaType.APPLICATION_JSON).build();
+            }
 
             final GenericResultsetData result = this.readExtraDataAndReportingService.retrieveGenericResultset(reportName,
                     parameterTypeValue, reportParams, isSelfServiceUserReport);
 
             String json;
-            final boolean genericResultSetIsPassed = ApiParameterHelper.genericResultSetPassed(queryParams);
-            final boolean genericResultSet = ApiParameterHelper.genericResultSet(queryParams);
             if (genericResultSetIsPassed) {
                 if (genericResultSet) {
                     json = this.toApiJsonSerializer.serializePretty(prettyPrint, result);
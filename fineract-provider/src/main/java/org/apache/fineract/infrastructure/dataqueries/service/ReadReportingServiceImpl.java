@@ -18,17 +18,27 @@
  */
 package org.apache.fineract.infrastructure.dataqueries.service;
 
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonWriter;
 import com.lowagie.text.Document;
 import com.lowagie.text.PageSize;
 import com.lowagie.text.pdf.PdfPTable;
 import com.lowagie.text.pdf.PdfWriter;
-import java.io.ByteArrayInputStream;
+import java.io.BufferedWriter;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
-import java.io.InputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -40,8 +50,10 @@ import javax.ws.rs.core.StreamingOutput;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
 import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
 import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.apache.fineract.infrastructure.core.serialization.GoogleGsonSerializerHelper;
 import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
 import org.apache.fineract.infrastructure.dataqueries.data.GenericResultsetData;
 import org.apache.fineract.infrastructure.dataqueries.data.ReportData;
@@ -58,95 +70,157 @@ import org.apache.fineract.useradministration.domain.AppUser;
 import org.owasp.esapi.ESAPI;
 import org.owasp.esapi.codecs.UnixCodec;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class ReadReportingServiceImpl implements ReadReportingService {
 
+    private static final Type COLUMN_HEADERS_TYPE = new TypeToken<List<ResultsetColumnHeaderData>>() {}.getType();
+
     private final JdbcTemplate jdbcTemplate;
     private final PlatformSecurityContext context;
     private final GenericDataService genericDataService;
     private final SqlInjectionPreventerService sqlInjectionPreventerService;
     private final DatabaseSpecificSQLGenerator sqlGenerator;
+    private final TransactionTemplate transactionTemplate;
+    private final FineractProperties fineractProperties;
 
     @Override
     public StreamingOutput retrieveReportCSV(final String name, final String type, final Map<String, String> queryParams,
             final boolean isSelfServiceUserReport) {
+        final String sql = getSQLtoRun(name, type, queryParams, isSelfServiceUserReport);
         return out -> {
             try {
+                final Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                streamResultSet(sql, rs -> writeCsv(rs, writer));
+                writer.flush();
+            } catch (final Exception e) {
+                throw new PlatformDataIntegrityException("error.msg.exception.error", e.getMessage(), e);
+            }
+        };
+    }
 
-                final GenericResultsetData result = retrieveGenericResultset(name, type, queryParams, isSelfServiceUserReport);
-                final StringBuilder sb = generateCsvFileBuffer(result);
-
-                final InputStream in = new ByteArrayInputStream(sb.toString().getBytes(StandardCharsets.UTF_8));
-
-                final byte[] outputByte = new byte[4096];
-                Integer readLen = in.read(outputByte, 0, 4096);
-
-                while (readLen != -1) {
-                    out.write(outputByte, 0, readLen);
-                    readLen = in.read(outputByte, 0, 4096);
-                }
-                // in.close();
-                // out.flush();
-                // out.close();
+    @Override
+    public StreamingOutput retrieveReportJSON(final String name, final String type, final Map<String, String> queryParams,
+            final boolean isSelfServiceUserReport, final boolean prettyPrint) {
+        final String sql = getSQLtoRun(name, type, queryParams, isSelfServiceUserReport);
+        return out -> {
+            try {
+                final Gson gson = GoogleGsonSerializerHelper.createGsonBuilder(prettyPrint).create();
+                final JsonWriter writer = gson.newJsonWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+                streamResultSet(sql, rs -> writeJson(rs, gson, writer));
+                writer.flush();
             } catch (final Exception e) {
                 throw new PlatformDataIntegrityException("error.msg.exception.error", e.getMessage(), e);
             }
         };
     }
 
-    private StringBuilder generateCsvFileBuffer(final GenericResultsetData result) {
-        final StringBuilder writer = new StringBuilder();
+    /**
+     * Runs the report with a forward-only cursor, so that rows are handed to the extractor as they arrive instead of
+     * being loaded into memory first. PostgreSQL only uses a cursor for the fetch size inside a transaction.
+     */
+    private void streamResultSet(final String sql, final ResultSetExtractor<Void> extractor) {
+        this.transactionTemplate.executeWithoutResult(status -> this.jdbcTemplate.query(connection -> {
+            final PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, // NOSONAR
+                    ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(exportFetchSize(connection));
+            return statement;
+        }, extractor));
+    }
 
-        final List<ResultsetColumnHeaderData> columnHeaders = result.getColumnHeaders();
-        log.info("NO. of Columns: {}", columnHeaders.size());
-        final Integer chSize = columnHeaders.size();
-        for (int i = 0; i < chSize; i++) {
-            writer.append('"' + columnHeaders.get(i).getColumnName() + '"');
-            if (i < (chSize - 1)) {
-                writer.append(",");
-            }
+    private int exportFetchSize(final Connection connection) throws SQLException {
+        // MySQL Connector/J only streams for this marker value, MariaDB and PostgreSQL honour the configured size
+        if (connection.getMetaData().getDriverName().startsWith("MySQL")) {
+            return Integer.MIN_VALUE;
         }
-        writer.append('\n');
-
-        final List<ResultsetRowData> data = result.getData();
-        List<String> row;
-        Integer rSize;
-        // String currCol;
-        String currColType;
-        String currVal;
-        final String doubleQuote = "\"";
-        final String twoDoubleQuotes = doubleQuote + doubleQuote;
-        log.info("NO. of Rows: {}", data.size());
-        for (ResultsetRowData element : data) {
-            row = element.getRow();
-            rSize = row.size();
-            for (int j = 0; j < rSize; j++) {
-                // currCol = columnHeaders.get(j).getColumnName();
-                currColType = columnHeaders.get(j).getColumnType();
-                currVal = row.get(j);
-                if (currVal != null) {
-                    if (currColType.equals("DECIMAL") || currColType.equals("DOUBLE") || currColType.equals("BIGINT")
-                            || currColType.equals("SMALLINT") || currColType.equals("INT")) {
-                        writer.append(currVal);
-                    } else {
-                        writer.append('"' + this.genericDataService.replace(currVal, doubleQuote, twoDoubleQuotes) + '"');
-                    }
+        return this.fineractProperties.getReport().getExportFetchSize();
+    }
+
+    private List<ResultsetColumnHeaderData> columnHeaders(final ResultSetMetaData metaData) throws SQLException {
+        final List<ResultsetColumnHeaderData> columnHeaders = new ArrayList<>();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            columnHeaders.add(ResultsetColumnHeaderData.basic(metaData.getColumnName(i), metaData.getColumnTypeName(i)));
+        }
+        return columnHeaders;
+    }
+
+    // renders values the same way as the SqlRowSet backed GenericResultsetData does, as the driver's string
+    private String columnValue(final ResultSet rs, final int columnIndex) throws SQLException {
+        return rs.getString(columnIndex);
+    }
 
+    private Void writeCsv(final ResultSet rs, final Writer writer) throws SQLException {
+        try {
+            final List<ResultsetColumnHeaderData> columnHeaders = columnHeaders(rs.getMetaData());
+            log.info("NO. of Columns: {}", columnHeaders.size());
+            final int chSize = columnHeaders.size();
+            for (int i = 0; i < chSize; i++) {
+                writer.write('"' + columnHeaders.get(i).getColumnName() + '"');
+                if (i < (chSize - 1)) {
+                    writer.write(",");
                 }
-                if (j < (rSize - 1)) {
-                    writer.append(",");
+            }
+            writer.write('\n');
+
+            String currColType;
+            String currVal;
+            final String doubleQuote = "\"";
+            final String twoDoubleQuotes = doubleQuote + doubleQuote;
+            long rowCount = 0;
+            while (rs.next()) {
+                for (int j = 0; j < chSize; j++) {
+                    currColType = columnHeaders.get(j).getColumnType();
+                    currVal = columnValue(rs, j + 1);
+                    if (currVal != null) {
+                        if (currColType.equals("DECIMAL") || currColType.equals("DOUBLE") || currColType.equals("BIGINT")
+                                || currColType.equals("SMALLINT") || currColType.equals("INT")) {
+                            writer.write(currVal);
+                        } else {
+                            writer.write('"' + this.genericDataService.replace(currVal, doubleQuote, twoDoubleQuotes) + '"');
+                        }
+                    }
+                    if (j < (chSize - 1)) {
+                        writer.write(",");
+                    }
                 }
+                writer.write('\n');
+                rowCount++;
             }
-            writer.append('\n');
+            log.info("NO. of Rows: {}", rowCount);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
         }
+        return null;
+    }
 
-        return writer;
+    // writes the same document as serializing GenericResultsetData, one row at a time
+    private Void writeJson(final ResultSet rs, final Gson gson, final JsonWriter writer) throws SQLException {
+        try {
+            final List<ResultsetColumnHeaderData> columnHeaders = columnHeaders(rs.getMetaData());
+            writer.beginObject();
+            writer.name("columnHeaders");
+            gson.toJson(columnHeaders, COLUMN_HEADERS_TYPE, writer);
+            writer.name("data").beginArray();
+            while (rs.next()) {
+                writer.beginObject().name("row").beginArray();
+                for (int j = 1; j <= columnHeaders.size(); j++) {
+                    writer.value(columnValue(rs, j));
+                }
+                writer.endArray().endObject();
+            }
+            writer.endArray();
+            writer.endObject();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return null;
     }
 
     @Override
@@ -18,11 +18,14 @@
  */
 package org.apache.fineract.infrastructure.hooks.processor;
 
+import java.io.IOException;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.TrustManager;
@@ -32,7 +35,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import retrofit2.Call;
-import retrofit2.Callback;
+import retrofit2.Response;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
 
@@ -66,6 +69,9 @@ public final class ProcessorHelper {
      */
     private final boolean insecureHttpClient = Boolean.getBoolean("fineract.insecureHttpClient");
     private final SSLContext insecureSSLContext;
+    // the hook services are created once per URL and share the connection pool of a single client
+    private final Map<String, WebHookService> webHookServices = new ConcurrentHashMap<>();
+    private volatile OkHttpClient client;
 
     public ProcessorHelper() throws KeyManagementException, NoSuchAlgorithmException {
         if (insecureHttpClient) {
@@ -96,46 +102,39 @@ public final class ProcessorHelper {
         return insecureSSLContext;
     }
 
-    @SuppressWarnings("rawtypes")
-    public Callback createCallback(final String url) {
-        return new Callback() {
-
-            @Override
-            public void onResponse(@SuppressWarnings("unused") Call call, retrofit2.Response response) {
-                LOG.info("URL: {} - Status: {}", url, response.code());
-            }
-
-            @Override
-            public void onFailure(@SuppressWarnings("unused") Call call, Throwable t) {
-                LOG.error("URL: {} - Retrofit failure occured", url, t);
-            }
-        };
-    }
-
     public WebHookService createWebHookService(final String url) {
-        final OkHttpClient client = createClient();
-        final Retrofit.Builder retrofitBuilder = new Retrofit.Builder();
-        retrofitBuilder.baseUrl(url);
-        retrofitBuilder.client(client);
-        retrofitBuilder.addConverterFactory(GsonConverterFactory.create());
-        final Retrofit retrofit = retrofitBuilder.build();
-        return retrofit.create(WebHookService.class);
+        return webHookServices.computeIfAbsent(url, key -> {
+            final Retrofit.Builder retrofitBuilder = new Retrofit.Builder();
+            retrofitBuilder.baseUrl(key);
+            retrofitBuilder.client(getClient());
+            retrofitBuilder.addConverterFactory(GsonConverterFactory.create());
+            final Retrofit retrofit = retrofitBuilder.build();
+            return retrofit.create(WebHookService.class);
+        });
     }
 
-    @SuppressWarnings("rawtypes")
-    public Callback createCallback(final String url, String payload) {
-
-        return new Callback() {
-
-            @Override
-            public void onResponse(@SuppressWarnings("unused") Call call, retrofit2.Response response) {
-                LOG.info("URL: {} - Status: {}", url, response.code());
-            }
+    /**
+     * Executes the hook request on the calling thread.
+     *
+     * @throws IOException
+     *             if the request could not be sent or was not answered with a successful status
+     */
+    public void execute(final String url, final Call<?> call) throws IOException {
+        final Response<?> response = call.execute();
+        LOG.info("URL: {} - Status: {}", url, response.code());
+        if (!response.isSuccessful()) {
+            throw new IOException("URL: " + url + " - Status: " + response.code());
+        }
+    }
 
-            @Override
-            public void onFailure(@SuppressWarnings("unused") Call call, Throwable t) {
-                LOG.error("URL: {} - Retrofit failure occured", url, t);
+    private OkHttpClient getClient() {
+        if (client == null) {
+            synchronized (this) {
+                if (client == null) {
+                    client = createClient();
+                }
             }
-        };
+        }
+        return client;
     }
 }
@@ -0,0 +1,42 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.service;
+
+import org.apache.fineract.infrastructure.hooks.event.HookEventSource;
+import org.apache.fineract.useradministration.domain.AppUser;
+
+public interface HookEventOutboxService {
+
+    /**
+     * Stores a hook event in the outbox and hands it to the asynchronous dispatcher once the current transaction
+     * completes, so hook processors never run inside the command transaction. Events no hook is registered for are
+     * dropped right away.
+     *
+     * @param commandSucceeded
+     *            if true the event is stored with the command transaction and dispatched after it commits, otherwise
+     *            the command transaction is going to be rolled back and the event is stored in a transaction of its own
+     *            after the rollback
+     */
+    void publish(HookEventSource source, String payload, AppUser appUser, boolean commandSucceeded);
+
+    /**
+     * Dispatches the outbox events that are due for a (re)try.
+     */
+    void dispatchPendingEvents();
+}
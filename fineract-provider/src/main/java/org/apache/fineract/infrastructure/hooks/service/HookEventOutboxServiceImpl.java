@@ -0,0 +1,285 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.service;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.config.FineractProperties.FineractHookProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractContext;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.infrastructure.hooks.domain.Hook;
+import org.apache.fineract.infrastructure.hooks.event.HookEventSource;
+import org.apache.fineract.infrastructure.hooks.processor.HookProcessor;
+import org.apache.fineract.infrastructure.hooks.processor.HookProcessorProvider;
+import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
+import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Transactional outbox of the hook events. Only events some hook is registered for are stored. Events are delivered
+ * by a bounded thread pool after the command transaction completes; an event the pool cannot take right away, or whose
+ * delivery failed, stays in the outbox and is retried with exponential backoff by the {@link JobName#DISPATCH_HOOK_EVENTS}
+ * job until it is delivered or runs out of attempts. The same job purges the delivered events once they are older than
+ * the configured retention.
+ */
+@Slf4j
+@Service
+public class HookEventOutboxServiceImpl implements HookEventOutboxService {
+
+    private static final String PENDING = "PENDING";
+    private static final String SENDING = "SENDING";
+    private static final String SENT = "SENT";
+    private static final String FAILED = "FAILED";
+    private static final int MAX_BACKOFF_EXPONENT = 10;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final HookReadPlatformService hookReadPlatformService;
+    private final HookProcessorProvider hookProcessorProvider;
+    private final FineractProperties fineractProperties;
+    private final DatabaseSpecificSQLGenerator sqlGenerator;
+    private final TransactionTemplate transactionTemplate;
+
+    private ThreadPoolExecutor executorService;
+
+    public HookEventOutboxServiceImpl(final JdbcTemplate jdbcTemplate, final HookReadPlatformService hookReadPlatformService,
+            final HookProcessorProvider hookProcessorProvider, final FineractProperties fineractProperties,
+            final DatabaseSpecificSQLGenerator sqlGenerator, final PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.hookReadPlatformService = hookReadPlatformService;
+        this.hookProcessorProvider = hookProcessorProvider;
+        this.fineractProperties = fineractProperties;
+        this.sqlGenerator = sqlGenerator;
+        // events of failed commands are stored once the command transaction has rolled back, which must not be joined
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    public void initializeExecutorService() {
+        final FineractHookProperties properties = this.fineractProperties.getHooks();
+        this.executorService = new ThreadPoolExecutor(properties.getThreadPoolSize(), properties.getThreadPoolSize(), 0L,
+                TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                new CustomizableThreadFactory("hook-dispatcher-"), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdownExecutorService() {
+        this.executorService.shutdownNow();
+    }
+
+    @Override
+    public void publish(final HookEventSource source, final String payload, final AppUser appUser, final boolean commandSucceeded) {
+        if (this.hookReadPlatformService.retrieveHooksByEvent(source.getEntityName(), source.getActionName()).isEmpty()) {
+            return;
+        }
+        final Long appUserId = appUser == null ? null : appUser.getId();
+        final FineractContext context = ThreadLocalContextUtil.getContext();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dispatchAsync(context, store(source, payload, appUserId));
+        } else if (commandSucceeded) {
+            final Long eventId = store(source, payload, appUserId);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCommit() {
+                    dispatchAsync(context, eventId);
+                }
+            });
+        } else {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCompletion(final int status) {
+                    // the command transaction is rolled back but its connection is still bound, so the event is stored
+                    // and committed in a transaction of its own before it is handed over
+                    dispatchAsync(context, transactionTemplate.execute(transactionStatus -> store(source, payload, appUserId)));
+                }
+            });
+        }
+    }
+
+    @Override
+    @CronTarget(jobName = JobName.DISPATCH_HOOK_EVENTS)
+    public void dispatchPendingEvents() {
+        final FineractHookProperties properties = this.fineractProperties.getHooks();
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        // events whose delivery was interrupted, e.g. by a restart
+        this.jdbcTemplate.update("update m_hook_event_outbox set status = ? where status = ? and lastmodified_date < ?", PENDING,
+                SENDING, now.minusMinutes(properties.getSendingTimeoutMinutes()));
+        final int purged = this.jdbcTemplate.update("delete from m_hook_event_outbox where status = ? and lastmodified_date < ?", SENT,
+                now.minusDays(properties.getSentRetentionDays()));
+
+        final FineractContext context = ThreadLocalContextUtil.getContext();
+        final String sql = "select e.id as id, e.entity_name as entityName, e.action_name as actionName from m_hook_event_outbox e "
+                + "where e.status = ? and e.next_attempt_on <= ? and e.id > ? order by e.id "
+                + sqlGenerator.limit(properties.getBatchSize());
+        Long maxEventIdInList = 0L;
+        int dispatched = 0;
+        List<Map<String, Object>> events = this.jdbcTemplate.queryForList(sql, PENDING, now, maxEventIdInList);
+        while (!events.isEmpty()) {
+            // one task per event type, so the hooks are resolved once and the events of a type are sent in order
+            final Map<String, List<Long>> eventIdsByType = new LinkedHashMap<>();
+            for (final Map<String, Object> event : events) {
+                eventIdsByType.computeIfAbsent(event.get("entityName") + "_" + event.get("actionName"), type -> new ArrayList<>())
+                        .add(((Number) event.get("id")).longValue());
+            }
+            final List<Future<?>> responses = new ArrayList<>();
+            for (final List<Long> eventIds : eventIdsByType.values()) {
+                try {
+                    responses.add(this.executorService.submit(() -> {
+                        ThreadLocalContextUtil.init(context);
+                        deliver(eventIds);
+                    }));
+                } catch (RejectedExecutionException e) {
+                    deliver(eventIds);
+                }
+            }
+            for (final Future<?> response : responses) {
+                try {
+                    response.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException e) {
+                    log.error("Dispatching hook events failed", e.getCause());
+                }
+            }
+            dispatched += events.size();
+            maxEventIdInList = ((Number) events.get(events.size() - 1).get("id")).longValue();
+            events = this.jdbcTemplate.queryForList(sql, PENDING, now, maxEventIdInList);
+        }
+        log.info("{}: Records affected by dispatchPendingEvents: {}, delivered events purged: {}",
+                ThreadLocalContextUtil.getTenant().getName(), dispatched, purged);
+    }
+
+    private void dispatchAsync(final FineractContext context, final Long eventId) {
+        try {
+            this.executorService.execute(() -> {
+                ThreadLocalContextUtil.init(context);
+                deliver(List.of(eventId));
+            });
+        } catch (RejectedExecutionException e) {
+            // the event is already stored, it stays pending in the outbox and is picked up by the job
+            log.warn("Hook dispatcher queue is full, the event is left for the {} job", JobName.DISPATCH_HOOK_EVENTS);
+        }
+    }
+
+    private Long store(final HookEventSource source, final String payload, final Long appUserId) {
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        final KeyHolder keyHolder = new GeneratedKeyHolder();
+        this.jdbcTemplate.update(connection -> {
+            final PreparedStatement ps = connection.prepareStatement(
+                    "insert into m_hook_event_outbox (entity_name, action_name, payload, appuser_id, status, attempts, "
+                            + "next_attempt_on, created_date, lastmodified_date) values (?, ?, ?, ?, ?, 0, ?, ?, ?)",
+                    new String[] { "id" });
+            ps.setString(1, source.getEntityName());
+            ps.setString(2, source.getActionName());
+            ps.setString(3, payload);
+            ps.setObject(4, appUserId);
+            ps.setString(5, PENDING);
+            ps.setObject(6, now);
+            ps.setObject(7, now);
+            ps.setObject(8, now);
+            return ps;
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+
+    private void deliver(final List<Long> eventIds) {
+        final Map<String, List<Hook>> hooksByEventType = new HashMap<>();
+        for (final Long eventId : eventIds) {
+            final int claimed = this.jdbcTemplate.update(
+                    "update m_hook_event_outbox set status = ?, lastmodified_date = ? where id = ? and status = ?", SENDING,
+                    DateUtils.getLocalDateTimeOfSystem(), eventId, PENDING);
+            if (claimed == 0) {
+                continue;
+            }
+            final Map<String, Object> event = this.jdbcTemplate.queryForMap("select e.entity_name as entityName, "
+                    + "e.action_name as actionName, e.payload as payload, e.attempts as attempts from m_hook_event_outbox e where e.id = ?",
+                    eventId);
+            final String entityName = (String) event.get("entityName");
+            final String actionName = (String) event.get("actionName");
+            final String payload = (String) event.get("payload");
+            final List<Hook> hooks = hooksByEventType.computeIfAbsent(entityName + "_" + actionName,
+                    type -> this.hookReadPlatformService.retrieveHooksByEvent(entityName, actionName));
+
+            Exception failure = null;
+            for (final Hook hook : hooks) {
+                final HookProcessor processor = this.hookProcessorProvider.getProcessor(hook);
+                if (processor == null) {
+                    continue;
+                }
+                try {
+                    processor.process(hook, payload, entityName, actionName, ThreadLocalContextUtil.getContext());
+                } catch (Exception e) {
+                    log.error("Hook {} failed in HookProcessor {} for tenantIdentifier {}, entityName: {}, actionName: {}, event {}",
+                            hook.getId(), processor.getClass().getSimpleName(), ThreadLocalContextUtil.getTenant().getTenantIdentifier(),
+                            entityName, actionName, eventId, e);
+                    failure = e;
+                }
+            }
+            if (failure == null) {
+                this.jdbcTemplate.update("update m_hook_event_outbox set status = ?, lastmodified_date = ? where id = ?", SENT,
+                        DateUtils.getLocalDateTimeOfSystem(), eventId);
+            } else {
+                markFailedAttempt(eventId, ((Number) event.get("attempts")).intValue() + 1, failure);
+            }
+        }
+    }
+
+    private void markFailedAttempt(final Long eventId, final int attempts, final Exception failure) {
+        final FineractHookProperties properties = this.fineractProperties.getHooks();
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        final String status = attempts >= properties.getMaxAttempts() ? FAILED : PENDING;
+        final long backoffSeconds = (long) properties.getRetryBackoffSeconds() << Math.min(attempts - 1, MAX_BACKOFF_EXPONENT);
+        this.jdbcTemplate.update(
+                "update m_hook_event_outbox set status = ?, attempts = ?, next_attempt_on = ?, last_error = ?, lastmodified_date = ? "
+                        + "where id = ?",
+                status, attempts, now.plusSeconds(backoffSeconds), StringUtils.abbreviate(String.valueOf(failure.getMessage()), 1000), now,
+                eventId);
+    }
+}
@@ -38,6 +38,7 @@ public final class SchedulerJobApiConstants {
     public static final String jobActiveStatusParamName = "active";
     public static final String currentlyRunningParamName = "currentlyRunning";
     public static final String lastRunHistoryObjParamName = "lastRunHistory";
+    public static final String progressObjParamName = "progress";
 
     public static final String versionParamName = "version";
     public static final String jobRunStartTimeParamName = "jobRunStartTime";
@@ -59,7 +60,8 @@ public final class SchedulerJobApiConstants {
 
     static final Set<String> JOB_DETAIL_RESPONSE_DATA_PARAMETERS = new HashSet<>(
             Arrays.asList(jobIdentifierParamName, displayNameParamName, nextRunTimeParamName, initializingErrorParamName,
-                    cronExpressionParamName, jobActiveStatusParamName, currentlyRunningParamName, lastRunHistoryObjParamName));
+                    cronExpressionParamName, jobActiveStatusParamName, currentlyRunningParamName, lastRunHistoryObjParamName,
+                    progressObjParamName));
 
     static final Set<String> JOB_HISTORY_RESPONSE_DATA_PARAMETERS = new HashSet<>(Arrays.asList(versionParamName, jobRunStartTimeParamName,
             jobRunEndTimeParamName, statusParamName, jobRunErrorMessageParamName, triggerTypeParamName, jobRunErrorLogParamName));
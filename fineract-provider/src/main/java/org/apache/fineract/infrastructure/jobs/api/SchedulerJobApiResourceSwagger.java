@@ -22,6 +22,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import java.util.Date;
 import java.util.List;
 import org.apache.fineract.infrastructure.jobs.data.JobDetailHistoryData;
+import org.apache.fineract.infrastructure.jobs.data.JobProgressData;
 
 /**
  * Created by sanyam on 12/8/17.
@@ -54,6 +55,7 @@ final class SchedulerJobApiResourceSwagger {
         @Schema(example = "false")
         public boolean currentlyRunning;
         public JobDetailHistoryData lastRunHistory;
+        public JobProgressData progress;
     }
 
     @Schema(description = "PutJobsJobsIDRequest")
@@ -0,0 +1,52 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.data;
+
+import java.time.LocalDateTime;
+
+public class JobProgressData {
+
+    @SuppressWarnings("unused")
+    private final LocalDateTime startTime;
+
+    @SuppressWarnings("unused")
+    private final long processed;
+
+    @SuppressWarnings("unused")
+    private final long failed;
+
+    @SuppressWarnings("unused")
+    private final long retried;
+
+    @SuppressWarnings("unused")
+    private final long inProgress;
+
+    @SuppressWarnings("unused")
+    private final double throughputPerSecond;
+
+    public JobProgressData(final LocalDateTime startTime, final long processed, final long failed, final long retried,
+            final long inProgress, final double throughputPerSecond) {
+        this.startTime = startTime;
+        this.processed = processed;
+        this.failed = failed;
+        this.retried = retried;
+        this.inProgress = inProgress;
+        this.throughputPerSecond = throughputPerSecond;
+    }
+}
@@ -49,7 +49,7 @@ public enum JobName {
                                                                                                                                                                                                                     "Update Trial Balance Details"), EXECUTE_DIRTY_JOBS(
                                                                                                                                                                                                                             "Execute All Dirty Jobs"), INCREASE_BUSINESS_DATE_BY_1_DAY(
                                                                                                                                                                                                                                     "Increase Business Date by 1 day"), INCREASE_COB_DATE_BY_1_DAY(
-                                                                                                                                                                                                                                            "Increase COB Date by 1 day");
+                                                                                                                                                                                                                                            "Increase COB Date by 1 day"), LOAN_COB("Loan COB"), DISPATCH_HOOK_EVENTS("Dispatch Hook Events");
 
     private final String name;
 
@@ -0,0 +1,71 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.jobs.data.JobProgressData;
+
+/**
+ * Thread safe progress counters of a running job, updated by its workers and read through the job API while the job
+ * runs.
+ */
+public final class JobProgress {
+
+    private final LocalDateTime startTime = DateUtils.getLocalDateTimeOfSystem();
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+
+    public void submitted() {
+        this.submitted.incrementAndGet();
+    }
+
+    public void processed() {
+        this.processed.incrementAndGet();
+    }
+
+    public void failed() {
+        this.failed.incrementAndGet();
+    }
+
+    public void retried() {
+        this.retried.incrementAndGet();
+    }
+
+    public long getProcessed() {
+        return this.processed.get();
+    }
+
+    public long getFailed() {
+        return this.failed.get();
+    }
+
+    public JobProgressData toData() {
+        final long processed = this.processed.get();
+        final long failed = this.failed.get();
+        final long elapsedMillis = Math.max(1L, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - this.startNanos));
+        return new JobProgressData(this.startTime, processed, failed, this.retried.get(), this.submitted.get() - processed - failed,
+                (processed + failed) * 1000.0 / elapsedMillis);
+    }
+}
@@ -0,0 +1,178 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.infrastructure.core.data.ApiParameterError;
+import org.apache.fineract.infrastructure.core.domain.FineractContext;
+import org.apache.fineract.infrastructure.core.exception.PlatformApiDataValidationException;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+
+/**
+ * Runs a job over work items that are read in keyset paginated pages of {@code batch-size * thread-pool-size} items.
+ * <p>
+ * Every page is split into batches that are processed on a pool of {@code thread-pool-size} threads running with the
+ * tenant context of the job, while the next page is read on the job thread. Items with the same affinity key (e.g. the
+ * savings account) always end up in the same batch in page order, so they are never processed concurrently. Failures
+ * are collected per batch and thrown as a single {@link JobExecutionException} once every page is processed.
+ */
+@Slf4j
+public final class PagedJobExecutor<T> {
+
+    public static final String THREAD_POOL_SIZE_PARAMETER = "thread-pool-size";
+    public static final String BATCH_SIZE_PARAMETER = "batch-size";
+
+    private static final int DEFAULT_THREAD_POOL_SIZE = 10;
+    private static final int DEFAULT_BATCH_SIZE = 100;
+
+    private final String jobDescription;
+    private final int threadPoolSize;
+    private final int batchSize;
+    private final PageReader<T> pageReader;
+    private final Function<T, Long> keyExtractor;
+    private final Function<T, Object> affinityKeyExtractor;
+    private final Function<T, String> itemDescriber;
+
+    @FunctionalInterface
+    public interface PageReader<T> {
+
+        List<T> read(Long maxKeyInList, int pageSize);
+    }
+
+    @FunctionalInterface
+    public interface ItemProcessor<T> {
+
+        void process(T item);
+    }
+
+    /**
+     * @param jobDescription
+     *            used in the log messages
+     * @param jobParameters
+     *            the job parameters, {@code thread-pool-size} and {@code batch-size} are read from them
+     * @param pageReader
+     *            reads the page of items following the given key
+     * @param keyExtractor
+     *            the keyset pagination key of an item, the key of the last item of a page is passed to the page reader
+     * @param affinityKeyExtractor
+     *            items with the same affinity key are processed sequentially by the same thread
+     * @param itemDescriber
+     *            describes a failed item in the log
+     */
+    public PagedJobExecutor(final String jobDescription, final Map<String, String> jobParameters, final PageReader<T> pageReader,
+            final Function<T, Long> keyExtractor, final Function<T, Object> affinityKeyExtractor, final Function<T, String> itemDescriber) {
+        this.jobDescription = jobDescription;
+        this.threadPoolSize = readParameter(jobParameters, THREAD_POOL_SIZE_PARAMETER, DEFAULT_THREAD_POOL_SIZE);
+        this.batchSize = readParameter(jobParameters, BATCH_SIZE_PARAMETER, DEFAULT_BATCH_SIZE);
+        this.pageReader = pageReader;
+        this.keyExtractor = keyExtractor;
+        this.affinityKeyExtractor = affinityKeyExtractor;
+        this.itemDescriber = itemDescriber;
+    }
+
+    /**
+     * @return the number of items processed
+     */
+    public int execute(final ItemProcessor<T> processor) throws JobExecutionException {
+        final int pageSize = this.batchSize * this.threadPoolSize;
+        final FineractContext context = ThreadLocalContextUtil.getContext();
+        final ExecutorService executorService = Executors.newFixedThreadPool(this.threadPoolSize);
+        final List<Throwable> errors = new ArrayList<>();
+        int processed = 0;
+        try {
+            List<T> page = this.pageReader.read(0L, pageSize);
+            while (!page.isEmpty()) {
+                final List<Future<List<Throwable>>> responses = new ArrayList<>();
+                for (final List<T> batch : splitIntoBatches(page)) {
+                    responses.add(executorService.submit(() -> processBatch(batch, processor, context)));
+                }
+                // read ahead while the workers process the current page
+                final List<T> nextPage = page.size() < pageSize ? List.of()
+                        : this.pageReader.read(this.keyExtractor.apply(page.get(page.size() - 1)), pageSize);
+                for (final Future<List<Throwable>> response : responses) {
+                    errors.addAll(response.get());
+                }
+                processed += page.size();
+                page = nextPage;
+            }
+        } catch (final InterruptedException e) {
+            log.error("Interrupted while executing {}", this.jobDescription, e);
+            Thread.currentThread().interrupt();
+            errors.add(e);
+        } catch (final ExecutionException e) {
+            log.error("Execution exception while executing {}", this.jobDescription, e);
+            errors.add(e.getCause());
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        log.info("{}: Records affected by {}: {}", ThreadLocalContextUtil.getTenant().getName(), this.jobDescription, processed);
+        if (!errors.isEmpty()) {
+            throw new JobExecutionException(errors);
+        }
+        return processed;
+    }
+
+    private List<List<T>> splitIntoBatches(final List<T> page) {
+        final int batchCount = Math.min(this.threadPoolSize, (page.size() + this.batchSize - 1) / this.batchSize);
+        final List<List<T>> batches = new ArrayList<>(batchCount);
+        for (int i = 0; i < batchCount; i++) {
+            batches.add(new ArrayList<>(this.batchSize));
+        }
+        for (final T item : page) {
+            final int batch = Math.floorMod(this.affinityKeyExtractor.apply(item).hashCode(), batchCount);
+            batches.get(batch).add(item);
+        }
+        return batches;
+    }
+
+    private List<Throwable> processBatch(final List<T> batch, final ItemProcessor<T> processor, final FineractContext context) {
+        ThreadLocalContextUtil.init(context);
+        final List<Throwable> errors = new ArrayList<>();
+        for (final T item : batch) {
+            try {
+                processor.process(item);
+            } catch (final PlatformApiDataValidationException e) {
+                for (final ApiParameterError error : e.getErrors()) {
+                    log.error("{} failed for {} with message: {}", this.jobDescription, this.itemDescriber.apply(item),
+                            error.getDeveloperMessage());
+                }
+                errors.add(e);
+            } catch (final Exception e) {
+                log.error("{} failed for {}", this.jobDescription, this.itemDescriber.apply(item), e);
+                errors.add(e);
+            }
+        }
+        return errors;
+    }
+
+    private static int readParameter(final Map<String, String> jobParameters, final String name, final int defaultValue) {
+        final String value = jobParameters == null ? null : jobParameters.get(name);
+        return value == null ? defaultValue : Math.max(1, Integer.parseInt(value));
+    }
+}
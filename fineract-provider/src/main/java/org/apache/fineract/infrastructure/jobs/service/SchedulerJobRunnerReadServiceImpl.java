@@ -28,6 +28,7 @@ import org.apache.fineract.infrastructure.core.service.SearchParameters;
 import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
 import org.apache.fineract.infrastructure.jobs.data.JobDetailData;
 import org.apache.fineract.infrastructure.jobs.data.JobDetailHistoryData;
+import org.apache.fineract.infrastructure.jobs.data.JobProgressData;
 import org.apache.fineract.infrastructure.jobs.exception.JobNotFoundException;
 import org.apache.fineract.infrastructure.jobs.exception.OperationNotAllowedException;
 import org.apache.fineract.infrastructure.security.utils.ColumnValidator;
@@ -47,19 +48,21 @@ public class SchedulerJobRunnerReadServiceImpl implements SchedulerJobRunnerRead
     private final DatabaseSpecificSQLGenerator sqlGenerator;
 
     private final PaginationHelper paginationHelper;
+    private final JobProgressRegistry jobProgressRegistry;
 
     @Autowired
     public SchedulerJobRunnerReadServiceImpl(final JdbcTemplate jdbcTemplate, final ColumnValidator columnValidator,
-            DatabaseSpecificSQLGenerator sqlGenerator, PaginationHelper paginationHelper) {
+            DatabaseSpecificSQLGenerator sqlGenerator, PaginationHelper paginationHelper, JobProgressRegistry jobProgressRegistry) {
         this.jdbcTemplate = jdbcTemplate;
         this.columnValidator = columnValidator;
         this.sqlGenerator = sqlGenerator;
         this.paginationHelper = paginationHelper;
+        this.jobProgressRegistry = jobProgressRegistry;
     }
 
     @Override
     public List<JobDetailData> findAllJobDeatils() {
-        final JobDetailMapper detailMapper = new JobDetailMapper(sqlGenerator);
+        final JobDetailMapper detailMapper = new JobDetailMapper(sqlGenerator, jobProgressRegistry);
         final String sql = detailMapper.schema();
         final List<JobDetailData> JobDeatils = this.jdbcTemplate.query(sql, detailMapper, new Object[] {});
         return JobDeatils;
@@ -69,7 +72,7 @@ public class SchedulerJobRunnerReadServiceImpl implements SchedulerJobRunnerRead
     @Override
     public JobDetailData retrieveOne(final Long jobId) {
         try {
-            final JobDetailMapper detailMapper = new JobDetailMapper(sqlGenerator);
+            final JobDetailMapper detailMapper = new JobDetailMapper(sqlGenerator, jobProgressRegistry);
             final String sql = detailMapper.schema() + " where job.id=?";
             return this.jdbcTemplate.queryForObject(sql, detailMapper, new Object[] { jobId }); // NOSONAR
         } catch (final EmptyResultDataAccessException e) {
@@ -138,10 +141,12 @@ public class SchedulerJobRunnerReadServiceImpl implements SchedulerJobRunnerRead
     private static final class JobDetailMapper implements RowMapper<JobDetailData> {
 
         private final StringBuilder sqlBuilder;
+        private final JobProgressRegistry jobProgressRegistry;
 
-        JobDetailMapper(DatabaseSpecificSQLGenerator sqlGenerator) {
+        JobDetailMapper(DatabaseSpecificSQLGenerator sqlGenerator, JobProgressRegistry jobProgressRegistry) {
+            this.jobProgressRegistry = jobProgressRegistry;
             sqlBuilder = new StringBuilder("select").append(
-                    " job.id,job.display_name as displayName,job.next_run_time as nextRunTime,job.initializing_errorlog as initializingError,job.cron_expression as cronExpression,job.is_active as active,job.currently_running as currentlyRunning,")
+                    " job.id,job.name as jobName,job.display_name as displayName,job.next_run_time as nextRunTime,job.initializing_errorlog as initializingError,job.cron_expression as cronExpression,job.is_active as active,job.currently_running as currentlyRunning,")
                     .append(" runHistory.version,runHistory.start_time as lastRunStartTime,runHistory.end_time as lastRunEndTime,runHistory."
                             + sqlGenerator.escape("status")
                             + ",runHistory.error_message as jobRunErrorMessage,runHistory.trigger_type as triggerType,runHistory.error_log as jobRunErrorLog ")
@@ -175,8 +180,9 @@ public class SchedulerJobRunnerReadServiceImpl implements SchedulerJobRunnerRead
                 lastRunHistory = new JobDetailHistoryData(version, jobRunStartTime, jobRunEndTime, status, jobRunErrorMessage, triggerType,
                         jobRunErrorLog);
             }
+            final JobProgressData progress = currentlyRunning ? this.jobProgressRegistry.retrieve(rs.getString("jobName")) : null;
             final JobDetailData jobDetail = new JobDetailData(id, displayName, nextRunTime, initializingError, cronExpression, active,
-                    currentlyRunning, lastRunHistory);
+                    currentlyRunning, lastRunHistory, progress);
             return jobDetail;
         }
 
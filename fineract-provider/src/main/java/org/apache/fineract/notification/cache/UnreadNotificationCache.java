@@ -0,0 +1,94 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.notification.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Remembers per tenant and user whether there are unread notifications, so that the X-Notification-Refresh header of
+ * an authenticated request does not need a query. Entries are flipped when notifications are created or read on this
+ * node, the time to live bounds how long a change made on another node goes unnoticed.
+ */
+@Component
+public class UnreadNotificationCache {
+
+    private final Cache<String, Boolean> unreadNotifications;
+
+    public UnreadNotificationCache(final FineractProperties fineractProperties) {
+        final FineractProperties.FineractNotificationProperties properties = fineractProperties.getNotification();
+        this.unreadNotifications = CacheBuilder.newBuilder().maximumSize(properties.getUnreadCacheMaxEntries())
+                .expireAfterWrite(properties.getUnreadCacheTimeToLiveSeconds(), TimeUnit.SECONDS).build();
+    }
+
+    public boolean hasUnreadNotifications(final Long appUserId, final BooleanSupplier loader) {
+        final String key = key(ThreadLocalContextUtil.getTenant().getId(), appUserId);
+        final Boolean cached = this.unreadNotifications.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        final boolean hasUnreadNotifications = loader.getAsBoolean();
+        // a flip that happened while loading is newer than the loaded value
+        final Boolean flipped = this.unreadNotifications.asMap().putIfAbsent(key, hasUnreadNotifications);
+        return flipped != null ? flipped : hasUnreadNotifications;
+    }
+
+    public void markUnread(final Collection<Long> appUserIds) {
+        flip(appUserIds, true);
+    }
+
+    public void markRead(final Long appUserId) {
+        flip(List.of(appUserId), false);
+    }
+
+    private void flip(final Collection<Long> appUserIds, final boolean hasUnreadNotifications) {
+        final List<Long> users = List.copyOf(appUserIds);
+        final Long tenantId = ThreadLocalContextUtil.getTenant().getId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCommit() {
+                    put(tenantId, users, hasUnreadNotifications);
+                }
+            });
+        } else {
+            put(tenantId, users, hasUnreadNotifications);
+        }
+    }
+
+    private void put(final Long tenantId, final Collection<Long> appUserIds, final boolean hasUnreadNotifications) {
+        for (final Long appUserId : appUserIds) {
+            this.unreadNotifications.put(key(tenantId, appUserId), hasUnreadNotifications);
+        }
+    }
+
+    private static String key(final Long tenantId, final Long appUserId) {
+        return tenantId + "_" + appUserId;
+    }
+}
@@ -30,6 +30,7 @@ import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.apache.fineract.notification.data.NotificationData;
 import org.apache.fineract.notification.eventandlistener.NotificationEventPublisher;
+import org.apache.fineract.portfolio.businessevent.BusinessEventDelivery;
 import org.apache.fineract.portfolio.businessevent.BusinessEventListener;
 import org.apache.fineract.portfolio.businessevent.domain.client.ClientCreateBusinessEvent;
 import org.apache.fineract.portfolio.businessevent.domain.deposit.FixedDepositAccountCreateBusinessEvent;
@@ -76,32 +77,44 @@ public class NotificationDomainServiceImpl implements NotificationDomainService
 
     @PostConstruct
     public void addListeners() {
-        businessEventNotifierService.addPostBusinessEventListener(ClientCreateBusinessEvent.class, new ClientCreatedListener());
-        businessEventNotifierService.addPostBusinessEventListener(SavingsApproveBusinessEvent.class, new SavingsAccountApprovedListener());
-        businessEventNotifierService.addPostBusinessEventListener(CentersCreateBusinessEvent.class, new CenterCreatedListener());
-        businessEventNotifierService.addPostBusinessEventListener(GroupsCreateBusinessEvent.class, new GroupCreatedListener());
-        businessEventNotifierService.addPostBusinessEventListener(SavingsDepositBusinessEvent.class, new SavingsAccountDepositListener());
+        businessEventNotifierService.addPostBusinessEventListener(ClientCreateBusinessEvent.class, new ClientCreatedListener(),
+                BusinessEventDelivery.ASYNCHRONOUS_AFTER_COMMIT);
+        businessEventNotifierService.addPostBusinessEventListener(SavingsApproveBusinessEvent.class, new SavingsAccountApprovedListener(),
+                BusinessEventDelivery.ASYNCHRONOUS_AFTER_COMMIT);
+        businessEventNotifierService.addPostBusinessEventListener(CentersCreateBusinessEvent.class, new CenterCreatedListener(),
+                BusinessEventDelivery.ASYNCHRONOUS_AFTER_COMMIT);
+        businessEventNotifierService.addPostBusinessEventListener(GroupsCreateBusinessEvent.class, new GroupCreatedListener(),
+                BusinessEventDelivery.ASYNCHRONOUS_AFTER_COMMIT);
+        businessEventNotifierService.addPostBusinessEventListener(SavingsDepositBusinessEvent.class, new SavingsAccountDepositListener(),
+                BusinessEventDelivery.ASYNCHRONOUS_AFTER_COMMIT);
         businessEventNotifierService.addPostBusinessEventListener(ShareProductDividentsCreateBusinessEvent.class,
-                new ShareProductDividendCreatedListener());
+                new ShareProductDividendCreatedListener(), BusinessEventDelivery.ASYNCHRONOUS_AFTER_COMMIT);
         businessEventNotifierService.addPostBusinessEventListener(FixedDepositAccountCreateBusinessEvent.class,
-                new FixedDepositAccountCreatedListener());
+                new FixedDepositAccountCreatedListener(), BusinessEventDelivery.ASYNCHRONOUS_AFTER_COMMIT);
         businessEventNotifierService.addPostBusinessEventListener(RecurringDepositAccountCreateBusinessEvent.class,
-                new RecurringDepositAccountCreatedListener());
-        businessEventNotifierService.addPostBusinessEventListener(SavingsPostInterestBusinessEvent.class,
-                new SavingsPostInterestListener());
-        businessEventNotifierService.addPostBusinessEventListener(LoanCreatedBusinessEvent.class, new LoanCreatedListener());
-        businessEventNotifierService.addPostBusinessEventListener(LoanApprovedBusinessEvent.class, new LoanApprovedListener());
-        businessEventNotifierService.addPostBusinessEventListener(LoanCloseBusinessEvent.class, new LoanClosedListener());
+                new RecurringDepositAccountCreatedListener(), BusinessEventDelivery.ASYNCHRONOUS_AFTER_COMMIT);
+        businessEventNotifierService.addPostBusinessEventListener(SavingsPostInterestBusinessEvent.class, new SavingsPostInterestListener(),
+                BusinessEventDelivery.ASYNCHRONOUS_AFTER_COMMIT);
+        businessEventNotifierService.addPostBusinessEventListener(LoanCreatedBusinessEvent.class, new LoanCreatedListener(),
+                BusinessEventDelivery.ASYNCHRONOUS_AFTER_COMMIT);
+        businessEventNotifierService.addPostBusinessEventListener(LoanApprovedBusinessEvent.class, new LoanApprovedListener(),
+                BusinessEventDelivery.ASYNCHRONOUS_AFTER_COMMIT);
+        businessEventNotifierService.addPostBusinessEventListener(LoanCloseBusinessEvent.class, new LoanClosedListener(),
+                BusinessEventDelivery.ASYNCHRONOUS_AFTER_COMMIT);
         businessEventNotifierService.addPostBusinessEventListener(LoanCloseAsRescheduleBusinessEvent.class,
-                new LoanCloseAsRescheduledListener());
+                new LoanCloseAsRescheduledListener(), BusinessEventDelivery.ASYNCHRONOUS_AFTER_COMMIT);
         businessEventNotifierService.addPostBusinessEventListener(LoanTransactionMakeRepaymentPostBusinessEvent.class,
-                new LoanMakeRepaymentListener());
-        businessEventNotifierService.addPostBusinessEventListener(LoanProductCreateBusinessEvent.class, new LoanProductCreatedListener());
-        businessEventNotifierService.addPostBusinessEventListener(SavingsCreateBusinessEvent.class, new SavingsAccountCreatedListener());
-        businessEventNotifierService.addPostBusinessEventListener(SavingsCloseBusinessEvent.class, new SavingsAccountClosedListener());
-        businessEventNotifierService.addPostBusinessEventListener(ShareAccountCreateBusinessEvent.class, new ShareAccountCreatedListener());
+                new LoanMakeRepaymentListener(), BusinessEventDelivery.ASYNCHRONOUS_AFTER_COMMIT);
+        businessEventNotifierService.addPostBusinessEventListener(LoanProductCreateBusinessEvent.class, new LoanProductCreatedListener(),
+                BusinessEventDelivery.ASYNCHRONOUS_AFTER_COMMIT);
+        businessEventNotifierService.addPostBusinessEventListener(SavingsCreateBusinessEvent.class, new SavingsAccountCreatedListener(),
+                BusinessEventDelivery.ASYNCHRONOUS_AFTER_COMMIT);
+        businessEventNotifierService.addPostBusinessEventListener(SavingsCloseBusinessEvent.class, new SavingsAccountClosedListener(),
+                BusinessEventDelivery.ASYNCHRONOUS_AFTER_COMMIT);
+        businessEventNotifierService.addPostBusinessEventListener(ShareAccountCreateBusinessEvent.class, new ShareAccountCreatedListener(),
+                BusinessEventDelivery.ASYNCHRONOUS_AFTER_COMMIT);
         businessEventNotifierService.addPostBusinessEventListener(ShareAccountApproveBusinessEvent.class,
-                new ShareAccountApprovedListener());
+                new ShareAccountApprovedListener(), BusinessEventDelivery.ASYNCHRONOUS_AFTER_COMMIT);
     }
 
     private class ClientCreatedListener implements BusinessEventListener<ClientCreateBusinessEvent> {
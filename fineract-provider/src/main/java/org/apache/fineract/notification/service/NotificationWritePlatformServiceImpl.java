@@ -21,8 +21,10 @@ package org.apache.fineract.notification.service;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.notification.cache.UnreadNotificationCache;
 import org.apache.fineract.notification.domain.Notification;
 import org.apache.fineract.notification.domain.NotificationMapper;
 import org.apache.fineract.useradministration.domain.AppUser;
@@ -39,6 +41,7 @@ public class NotificationWritePlatformServiceImpl implements NotificationWritePl
     private final NotificationGeneratorReadRepositoryWrapper notificationGeneratorReadRepositoryWrapper;
     private final AppUserRepository appUserRepository;
     private final NotificationMapperWritePlatformService notificationMapperWritePlatformService;
+    private final UnreadNotificationCache unreadNotificationCache;
 
     @Override
     public Long notify(Long userId, String objectType, Long objectIdentifier, String action, Long actorId, String notificationContent,
@@ -47,6 +50,7 @@ public class NotificationWritePlatformServiceImpl implements NotificationWritePl
         Long generatedNotificationId = insertIntoNotificationGenerator(objectType, objectIdentifier, action, actorId, notificationContent,
                 isSystemGenerated);
         insertIntoNotificationMapper(userId, generatedNotificationId);
+        this.unreadNotificationCache.markUnread(Set.of(userId));
         return generatedNotificationId;
     }
 
@@ -77,6 +81,7 @@ public class NotificationWritePlatformServiceImpl implements NotificationWritePl
                 isSystemGenerated);
 
         insertIntoNotificationMapper(userIds, generatedNotificationId);
+        this.unreadNotificationCache.markUnread(userIds);
         return generatedNotificationId;
     }
 
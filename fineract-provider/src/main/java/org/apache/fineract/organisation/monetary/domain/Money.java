@@ -91,17 +91,23 @@ public class Money implements Comparable<Money> {
         this.currencyCode = currencyCode;
         this.currencyDigitsAfterDecimal = digitsAfterDecimal;
         this.inMultiplesOf = inMultiplesOf;
+        this.amount = normalize(amount, digitsAfterDecimal, inMultiplesOf);
+    }
 
-        final BigDecimal amountZeroed = defaultToZeroIfNull(amount);
-        final BigDecimal amountStripped = amountZeroed.stripTrailingZeros();
-        BigDecimal amountScaled = amountStripped;
+    /**
+     * Rounds an amount the way every {@link Money} amount is rounded: into multiples of {@code inMultiplesOf} for
+     * currencies without decimals, then to the digits of the currency. An amount already at that scale is returned as
+     * is, without allocating.
+     */
+    static BigDecimal normalize(final BigDecimal amount, final int digitsAfterDecimal, final Integer inMultiplesOf) {
+        BigDecimal amountScaled = defaultToZeroIfNull(amount);
 
         // round monetary amounts into multiplesof say 20/50.
-        if (inMultiplesOf != null && this.currencyDigitsAfterDecimal == 0 && inMultiplesOf > 0 && amountScaled.doubleValue() > 0) {
+        if (inMultiplesOf != null && digitsAfterDecimal == 0 && inMultiplesOf > 0 && amountScaled.doubleValue() > 0) {
             final double existingVal = amountScaled.doubleValue();
             amountScaled = BigDecimal.valueOf(roundToMultiplesOf(existingVal, inMultiplesOf));
         }
-        this.amount = amountScaled.setScale(this.currencyDigitsAfterDecimal, MoneyHelper.getRoundingMode());
+        return amountScaled.setScale(digitsAfterDecimal, MoneyHelper.getRoundingMode());
     }
 
     public static double roundToMultiplesOf(final double existingVal, final Integer inMultiplesOf) {
@@ -153,7 +159,7 @@ public class Money implements Comparable<Money> {
     }
 
     public Money copy() {
-        return new Money(this.currencyCode, this.currencyDigitsAfterDecimal, this.amount.stripTrailingZeros(), this.inMultiplesOf);
+        return withAmount(this.amount);
     }
 
     public Money plus(final Iterable<? extends Money> moniesToAdd) {
@@ -162,7 +168,7 @@ public class Money implements Comparable<Money> {
             final Money money = checkCurrencyEqual(moneyProvider);
             total = total.add(money.amount);
         }
-        return Money.of(monetaryCurrency(), total);
+        return withAmount(total);
     }
 
     public Money plus(final Money moneyToAdd) {
@@ -175,7 +181,7 @@ public class Money implements Comparable<Money> {
             return this;
         }
         final BigDecimal newAmount = this.amount.add(amountToAdd);
-        return Money.of(monetaryCurrency(), newAmount);
+        return withAmount(newAmount);
     }
 
     public Money plus(final double amountToAdd) {
@@ -183,7 +189,7 @@ public class Money implements Comparable<Money> {
             return this;
         }
         final BigDecimal newAmount = this.amount.add(BigDecimal.valueOf(amountToAdd));
-        return Money.of(monetaryCurrency(), newAmount);
+        return withAmount(newAmount);
     }
 
     public Money minus(final Money moneyToSubtract) {
@@ -201,7 +207,7 @@ public class Money implements Comparable<Money> {
             return this;
         }
         final BigDecimal newAmount = this.amount.add(amountToAdd);
-        return Money.of(monetaryCurrency(), newAmount);
+        return withAmount(newAmount);
     }
 
     public Money minus(final BigDecimal amountToSubtract) {
@@ -209,7 +215,7 @@ public class Money implements Comparable<Money> {
             return this;
         }
         final BigDecimal newAmount = this.amount.subtract(amountToSubtract);
-        return Money.of(monetaryCurrency(), newAmount);
+        return withAmount(newAmount);
     }
 
     private Money checkCurrencyEqual(final Money money) {
@@ -228,7 +234,7 @@ public class Money implements Comparable<Money> {
             return this;
         }
         final BigDecimal newAmount = this.amount.divide(valueToDivideBy, roundingMode);
-        return Money.of(monetaryCurrency(), newAmount);
+        return withAmount(newAmount);
     }
 
     public Money dividedBy(final double valueToDivideBy, final RoundingMode roundingMode) {
@@ -236,7 +242,7 @@ public class Money implements Comparable<Money> {
             return this;
         }
         final BigDecimal newAmount = this.amount.divide(BigDecimal.valueOf(valueToDivideBy), roundingMode);
-        return Money.of(monetaryCurrency(), newAmount);
+        return withAmount(newAmount);
     }
 
     public Money dividedBy(final long valueToDivideBy, final RoundingMode roundingMode) {
@@ -244,7 +250,7 @@ public class Money implements Comparable<Money> {
             return this;
         }
         final BigDecimal newAmount = this.amount.divide(BigDecimal.valueOf(valueToDivideBy), roundingMode);
-        return Money.of(monetaryCurrency(), newAmount);
+        return withAmount(newAmount);
     }
 
     public Money multipliedBy(final BigDecimal valueToMultiplyBy) {
@@ -252,7 +258,7 @@ public class Money implements Comparable<Money> {
             return this;
         }
         final BigDecimal newAmount = this.amount.multiply(valueToMultiplyBy);
-        return Money.of(monetaryCurrency(), newAmount);
+        return withAmount(newAmount);
     }
 
     public Money multipliedBy(final double valueToMultiplyBy) {
@@ -260,7 +266,7 @@ public class Money implements Comparable<Money> {
             return this;
         }
         final BigDecimal newAmount = this.amount.multiply(BigDecimal.valueOf(valueToMultiplyBy));
-        return Money.of(monetaryCurrency(), newAmount);
+        return withAmount(newAmount);
     }
 
     public Money multipliedBy(final long valueToMultiplyBy) {
@@ -268,7 +274,7 @@ public class Money implements Comparable<Money> {
             return this;
         }
         final BigDecimal newAmount = this.amount.multiply(BigDecimal.valueOf(valueToMultiplyBy));
-        return Money.of(monetaryCurrency(), newAmount);
+        return withAmount(newAmount);
     }
 
     public Money multiplyRetainScale(final BigDecimal valueToMultiplyBy, final RoundingMode roundingMode) {
@@ -277,7 +283,7 @@ public class Money implements Comparable<Money> {
         }
         BigDecimal newAmount = this.amount.multiply(valueToMultiplyBy);
         newAmount = newAmount.setScale(this.currencyDigitsAfterDecimal, roundingMode);
-        return Money.of(monetaryCurrency(), newAmount);
+        return withAmount(newAmount);
     }
 
     public Money multiplyRetainScale(final double valueToMultiplyBy, final RoundingMode roundingMode) {
@@ -286,7 +292,7 @@ public class Money implements Comparable<Money> {
 
     public Money percentageOf(BigDecimal percentage, final RoundingMode roundingMode) {
         final BigDecimal newAmount = this.amount.multiply(percentage).divide(BigDecimal.valueOf(100), roundingMode);
-        return Money.of(monetaryCurrency(), newAmount);
+        return withAmount(newAmount);
     }
 
     @Override
@@ -299,7 +305,7 @@ public class Money implements Comparable<Money> {
     }
 
     public boolean isZero() {
-        return isEqualTo(Money.zero(getCurrency()));
+        return this.amount.signum() == 0;
     }
 
     public boolean isEqualTo(final Money other) {
@@ -319,7 +325,7 @@ public class Money implements Comparable<Money> {
     }
 
     public boolean isGreaterThanZero() {
-        return isGreaterThan(Money.zero(getCurrency()));
+        return this.amount.signum() > 0;
     }
 
     public boolean isLessThan(final Money other) {
@@ -327,7 +333,7 @@ public class Money implements Comparable<Money> {
     }
 
     public boolean isLessThanZero() {
-        return isLessThan(Money.zero(getCurrency()));
+        return this.amount.signum() < 0;
     }
 
     public String getCurrencyCode() {
@@ -367,7 +373,7 @@ public class Money implements Comparable<Money> {
         if (isZero()) {
             return this;
         }
-        return Money.of(monetaryCurrency(), this.amount.negate());
+        return withAmount(this.amount.negate());
     }
 
     public Money abs() {
@@ -382,7 +388,12 @@ public class Money implements Comparable<Money> {
         return new MonetaryCurrency(this.currencyCode, this.currencyDigitsAfterDecimal, this.inMultiplesOf);
     }
 
+    // same currency, without the MonetaryCurrency round trip of Money.of
+    private Money withAmount(final BigDecimal newAmount) {
+        return new Money(this.currencyCode, this.currencyDigitsAfterDecimal, newAmount, this.inMultiplesOf);
+    }
+
     public Money zero() {
-        return Money.zero(getCurrency());
+        return withAmount(BigDecimal.ZERO);
     }
 }
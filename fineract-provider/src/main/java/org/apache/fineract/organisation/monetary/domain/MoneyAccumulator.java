@@ -0,0 +1,102 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.organisation.monetary.domain;
+
+import java.math.BigDecimal;
+
+/**
+ * Mutable running total of amounts of one currency, for the internal arithmetic of schedule generation and repayment
+ * allocation where chains of {@link Money} operations would create a new {@link Money} per step.
+ * <p>
+ * Amounts already at the scale of the currency add up exactly, so they are summed without rounding. Amounts with more
+ * decimals, and every amount of a currency rounded into multiples, are rounded after each step like
+ * {@link Money#plus(BigDecimal)} rounds them, so {@link #toMoney()} always equals the result of the equivalent chain of
+ * {@link Money} operations.
+ */
+public final class MoneyAccumulator {
+
+    private final MonetaryCurrency currency;
+    private final int digitsAfterDecimal;
+    private final Integer inMultiplesOf;
+    private final boolean roundEveryStep;
+    private BigDecimal total;
+
+    private MoneyAccumulator(final MonetaryCurrency currency, final BigDecimal total) {
+        this.currency = currency;
+        this.digitsAfterDecimal = currency.getDigitsAfterDecimal();
+        this.inMultiplesOf = currency.getCurrencyInMultiplesOf();
+        this.roundEveryStep = this.inMultiplesOf != null && this.inMultiplesOf > 0 && this.digitsAfterDecimal == 0;
+        this.total = total;
+    }
+
+    public static MoneyAccumulator zero(final MonetaryCurrency currency) {
+        return new MoneyAccumulator(currency, BigDecimal.ZERO);
+    }
+
+    public static MoneyAccumulator of(final Money money) {
+        return new MoneyAccumulator(money.getCurrency(), money.getAmount());
+    }
+
+    public MoneyAccumulator plus(final Money money) {
+        return plus(checkCurrencyEqual(money).getAmount());
+    }
+
+    public MoneyAccumulator plus(final BigDecimal amount) {
+        if (amount == null || amount.signum() == 0) {
+            return this;
+        }
+        this.total = this.total.add(amount);
+        roundIfRequired(amount);
+        return this;
+    }
+
+    public MoneyAccumulator minus(final Money money) {
+        return minus(checkCurrencyEqual(money).getAmount());
+    }
+
+    public MoneyAccumulator minus(final BigDecimal amount) {
+        if (amount == null || amount.signum() == 0) {
+            return this;
+        }
+        this.total = this.total.subtract(amount);
+        roundIfRequired(amount);
+        return this;
+    }
+
+    public boolean isGreaterThanZero() {
+        return this.total.signum() > 0;
+    }
+
+    public Money toMoney() {
+        return Money.of(this.currency, this.total);
+    }
+
+    private void roundIfRequired(final BigDecimal amount) {
+        if (this.roundEveryStep || amount.scale() > this.digitsAfterDecimal) {
+            this.total = Money.normalize(this.total, this.digitsAfterDecimal, this.inMultiplesOf);
+        }
+    }
+
+    private Money checkCurrencyEqual(final Money money) {
+        if (!this.currency.getCode().equals(money.getCurrencyCode())) {
+            throw new UnsupportedOperationException("currencies are different.");
+        }
+        return money;
+    }
+}
@@ -0,0 +1,42 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.businessevent;
+
+/**
+ * How a {@link BusinessEventListener} is informed about the events it is registered for.
+ */
+public enum BusinessEventDelivery {
+
+    /**
+     * The listener runs on the thread raising the event, inside its transaction. A failing listener fails the
+     * operation.
+     */
+    SYNCHRONOUS,
+
+    /**
+     * The listener runs on the business event executor once the transaction raising the event committed, in a
+     * transaction of its own. It is not called when the transaction rolls back, and its failures are only logged. Meant
+     * for side effects the operation does not depend on, like notifications and campaigns.
+     *
+     * The listener receives an event raised again around the entity reloaded in its transaction, so it only sees the
+     * committed state of the entity. Events carrying anything else than an entity, an id or a command result must not
+     * be delivered this way.
+     */
+    ASYNCHRONOUS_AFTER_COMMIT
+}
@@ -18,11 +18,13 @@
  */
 package org.apache.fineract.portfolio.businessevent.service;
 
+import org.apache.fineract.portfolio.businessevent.BusinessEventDelivery;
 import org.apache.fineract.portfolio.businessevent.BusinessEventListener;
 import org.apache.fineract.portfolio.businessevent.domain.BusinessEvent;
 
 /**
- * Implemented class is responsible for notifying the business event to registered listeners.
+ * Implemented class is responsible for notifying the business event to registered listeners. A listener registered
+ * for a type is also notified about the events of its subtypes.
  *
  */
 public interface BusinessEventNotifierService {
@@ -38,7 +40,8 @@ public interface BusinessEventNotifierService {
     void notifyPostBusinessEvent(BusinessEvent<?> businessEvent);
 
     /**
-     * Method is to register a class as listener for pre-processing of any Business event
+     * Method is to register a class as listener for pre-processing of any Business event, pre-processing listeners
+     * always run synchronously
      */
     <T extends BusinessEvent<?>> void addPreBusinessEventListener(Class<T> eventType, BusinessEventListener<T> listener);
 
@@ -47,4 +50,10 @@ public interface BusinessEventNotifierService {
      */
     <T extends BusinessEvent<?>> void addPostBusinessEventListener(Class<T> eventType, BusinessEventListener<T> listener);
 
+    /**
+     * Method is to register a class as listener for post-processing of any Business event, delivered as declared
+     */
+    <T extends BusinessEvent<?>> void addPostBusinessEventListener(Class<T> eventType, BusinessEventListener<T> listener,
+            BusinessEventDelivery delivery);
+
 }
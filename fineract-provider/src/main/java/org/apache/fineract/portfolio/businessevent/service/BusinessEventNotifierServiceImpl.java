@@ -18,59 +18,244 @@
  */
 package org.apache.fineract.portfolio.businessevent.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.config.FineractProperties.FineractBusinessEventProperties;
+import org.apache.fineract.infrastructure.core.domain.AbstractPersistableCustom;
+import org.apache.fineract.infrastructure.core.service.CallerContextPropagation;
+import org.apache.fineract.portfolio.businessevent.BusinessEventDelivery;
 import org.apache.fineract.portfolio.businessevent.BusinessEventListener;
 import org.apache.fineract.portfolio.businessevent.domain.BusinessEvent;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+@Slf4j
 @Service
 @SuppressWarnings({ "unchecked", "rawtypes" })
 public class BusinessEventNotifierServiceImpl implements BusinessEventNotifierService {
 
-    private final Map<Class, List<BusinessEventListener>> preListeners = new HashMap<>();
-    private final Map<Class, List<BusinessEventListener>> postListeners = new HashMap<>();
+    static final String LISTENER_METER = "fineract.business-events.listener";
+
+    private final Map<Class, List<Registration>> preListeners = new ConcurrentHashMap<>();
+    private final Map<Class, List<Registration>> postListeners = new ConcurrentHashMap<>();
+    // listeners of an event type including those of its supertypes, resolved on the first event of the type
+    private final Map<Class, List<Registration>> preDispatchTable = new ConcurrentHashMap<>();
+    private final Map<Class, List<Registration>> postDispatchTable = new ConcurrentHashMap<>();
+
+    private final FineractProperties fineractProperties;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private ThreadPoolExecutor executorService;
+
+    public BusinessEventNotifierServiceImpl(final FineractProperties fineractProperties, final MeterRegistry meterRegistry,
+            final PlatformTransactionManager transactionManager, final EntityManager entityManager) {
+        this.fineractProperties = fineractProperties;
+        this.meterRegistry = meterRegistry;
+        this.entityManager = entityManager;
+        // asynchronous listeners may run in afterCommit of the raising transaction, which must not be joined
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    public void initializeExecutorService() {
+        final FineractBusinessEventProperties properties = this.fineractProperties.getBusinessEvents();
+        // Saturation falls back to the committing thread, so a busy pool slows requests down instead of losing events
+        this.executorService = new ThreadPoolExecutor(properties.getThreadPoolSize(), properties.getThreadPoolSize(), 0L,
+                TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                new CustomizableThreadFactory("business-events-"), new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdownExecutorService() {
+        this.executorService.shutdownNow();
+    }
 
     @Override
     public void notifyPreBusinessEvent(BusinessEvent<?> businessEvent) {
-        List<BusinessEventListener> businessEventListeners = preListeners.get(businessEvent.getClass());
-        if (businessEventListeners != null) {
-            for (BusinessEventListener eventListener : businessEventListeners) {
-                eventListener.onBusinessEvent(businessEvent);
-            }
-        }
+        dispatch(businessEvent, this.preDispatchTable.computeIfAbsent(businessEvent.getClass(), type -> resolve(type, this.preListeners)));
     }
 
     @Override
     public <T extends BusinessEvent<?>> void addPreBusinessEventListener(Class<T> eventType, BusinessEventListener<T> listener) {
-        List<BusinessEventListener> businessEventListeners = preListeners.get(eventType);
-        if (businessEventListeners == null) {
-            businessEventListeners = new ArrayList<>();
-            preListeners.put(eventType, businessEventListeners);
-        }
-        businessEventListeners.add(listener);
+        register(eventType, listener, BusinessEventDelivery.SYNCHRONOUS, this.preListeners, this.preDispatchTable);
     }
 
     @Override
     public void notifyPostBusinessEvent(BusinessEvent<?> businessEvent) {
-        List<BusinessEventListener> businessEventListeners = postListeners.get(businessEvent.getClass());
-        if (businessEventListeners != null) {
-            for (BusinessEventListener eventListener : businessEventListeners) {
-                eventListener.onBusinessEvent(businessEvent);
-            }
-        }
+        dispatch(businessEvent,
+                this.postDispatchTable.computeIfAbsent(businessEvent.getClass(), type -> resolve(type, this.postListeners)));
     }
 
     @Override
     public <T extends BusinessEvent<?>> void addPostBusinessEventListener(Class<T> eventType, BusinessEventListener<T> listener) {
-        List<BusinessEventListener> businessEventListeners = postListeners.get(eventType);
-        if (businessEventListeners == null) {
-            businessEventListeners = new ArrayList<>();
-            postListeners.put(eventType, businessEventListeners);
+        addPostBusinessEventListener(eventType, listener, BusinessEventDelivery.SYNCHRONOUS);
+    }
+
+    @Override
+    public <T extends BusinessEvent<?>> void addPostBusinessEventListener(Class<T> eventType, BusinessEventListener<T> listener,
+            BusinessEventDelivery delivery) {
+        register(eventType, listener, delivery, this.postListeners, this.postDispatchTable);
+    }
+
+    private synchronized void register(Class eventType, BusinessEventListener listener, BusinessEventDelivery delivery,
+            Map<Class, List<Registration>> listeners, Map<Class, List<Registration>> dispatchTable) {
+        final String listenerName = listener.getClass().getName().substring(listener.getClass().getName().lastIndexOf('.') + 1);
+        final Timer timer = Timer.builder(LISTENER_METER).description("Time spent in business event listeners")
+                .tag("listener", listenerName).tag("event", eventType.getSimpleName())
+                .tag("delivery", delivery.name().toLowerCase(Locale.ROOT)).register(this.meterRegistry);
+        listeners.computeIfAbsent(eventType, type -> new CopyOnWriteArrayList<>()).add(new Registration(listener, delivery, timer));
+        // listeners are registered while the application starts, before the first event
+        dispatchTable.clear();
+    }
+
+    private static List<Registration> resolve(Class<?> eventType, Map<Class, List<Registration>> listeners) {
+        final List<Registration> registrations = new ArrayList<>();
+        for (Class<?> type : typeHierarchy(eventType)) {
+            registrations.addAll(listeners.getOrDefault(type, List.of()));
         }
-        businessEventListeners.add(listener);
+        return List.copyOf(registrations);
     }
 
+    private static Set<Class<?>> typeHierarchy(Class<?> eventType) {
+        final Set<Class<?>> types = new LinkedHashSet<>();
+        final List<Class<?>> pending = new ArrayList<>(List.of(eventType));
+        while (!pending.isEmpty()) {
+            final Class<?> type = pending.remove(0);
+            if (types.add(type)) {
+                if (type.getSuperclass() != null) {
+                    pending.add(type.getSuperclass());
+                }
+                pending.addAll(List.of(type.getInterfaces()));
+            }
+        }
+        return types;
+    }
+
+    private void dispatch(BusinessEvent<?> businessEvent, List<Registration> registrations) {
+        List<Registration> deferred = null;
+        for (Registration registration : registrations) {
+            if (registration.delivery == BusinessEventDelivery.SYNCHRONOUS) {
+                registration.deliver(businessEvent);
+            } else {
+                if (deferred == null) {
+                    deferred = new ArrayList<>();
+                }
+                deferred.add(registration);
+            }
+        }
+        if (deferred != null) {
+            deliverAfterCommit(businessEvent, deferred);
+        }
+    }
+
+    private void deliverAfterCommit(BusinessEvent<?> businessEvent, List<Registration> registrations) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCommit() {
+                    // the ids of entities created by the transaction are only assigned once it flushed
+                    executorService.execute(delivery(businessEvent.getClass(), detach(businessEvent), registrations));
+                }
+            });
+        } else {
+            this.executorService.execute(delivery(businessEvent.getClass(), detach(businessEvent), registrations));
+        }
+    }
+
+    private Runnable delivery(Class<?> eventType, Supplier<BusinessEvent<?>> detachedEvent, List<Registration> registrations) {
+        return CallerContextPropagation.withCallerContext(() -> {
+            for (Registration registration : registrations) {
+                try {
+                    this.transactionTemplate.executeWithoutResult(status -> {
+                        final BusinessEvent<?> businessEvent = detachedEvent.get();
+                        if (businessEvent != null) {
+                            registration.deliver(businessEvent);
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    log.error("Business event listener {} failed on {}", registration.listener.getClass().getName(),
+                            eventType.getSimpleName(), e);
+                }
+            }
+        });
+    }
+
+    /**
+     * The entity of an event belongs to the entity manager of the raising transaction, which is closed by the time an
+     * asynchronous listener runs. Only the entity type and id are kept, and the event is raised again around the entity
+     * reloaded in the transaction of each listener. Ids and command results are passed on as they are.
+     */
+    private Supplier<BusinessEvent<?>> detach(BusinessEvent<?> businessEvent) {
+        if (!(businessEvent.get() instanceof AbstractPersistableCustom)) {
+            return () -> businessEvent;
+        }
+        final Class<?> eventType = businessEvent.getClass();
+        final Class<?> entityType = businessEvent.get().getClass();
+        final Long id = ((AbstractPersistableCustom) businessEvent.get()).getId();
+        return () -> {
+            final Object entity = this.entityManager.find(entityType, id);
+            if (entity == null) {
+                log.warn("{} {} of {} no longer exists", entityType.getSimpleName(), id, eventType.getSimpleName());
+                return null;
+            }
+            try {
+                return (BusinessEvent<?>) eventConstructor(eventType, entityType).newInstance(entity);
+            } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+                throw new IllegalStateException("Cannot raise " + eventType.getName() + " again", e);
+            }
+        };
+    }
+
+    private static Constructor<?> eventConstructor(Class<?> eventType, Class<?> entityType) {
+        for (Constructor<?> constructor : eventType.getConstructors()) {
+            if (constructor.getParameterCount() == 1 && constructor.getParameterTypes()[0].isAssignableFrom(entityType)) {
+                return constructor;
+            }
+        }
+        throw new IllegalStateException(eventType.getName() + " has no constructor taking a " + entityType.getName());
+    }
+
+    private static final class Registration {
+
+        private final BusinessEventListener listener;
+        private final BusinessEventDelivery delivery;
+        private final Timer timer;
+
+        private Registration(BusinessEventListener listener, BusinessEventDelivery delivery, Timer timer) {
+            this.listener = listener;
+            this.delivery = delivery;
+            this.timer = timer;
+        }
+
+        private void deliver(BusinessEvent<?> businessEvent) {
+            this.timer.record(() -> this.listener.onBusinessEvent(businessEvent));
+        }
+    }
 }
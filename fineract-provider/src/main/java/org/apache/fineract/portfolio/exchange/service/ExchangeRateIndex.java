@@ -0,0 +1,207 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.exchange.service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.infrastructure.cache.data.CacheInvalidationMessage;
+import org.apache.fineract.infrastructure.cache.service.CacheInvalidationTransport;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.organisation.monetary.data.CurrencyData;
+import org.apache.fineract.organisation.monetary.service.CurrencyReadPlatformService;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps the exchange rates to GTQ of every tenant in memory, one map of valid-from date to rate per origin currency,
+ * so that the accounting processors resolve the rate of a transaction date with a floor lookup instead of a query on
+ * m_exchange. The platform currencies are kept with them.
+ *
+ * The index of a tenant is loaded on first use and replaced as a whole: an exchange write drops it on this node right
+ * away and after the commit, and on the other nodes through the {@link CacheInvalidationTransport}. As in
+ * {@link org.apache.fineract.infrastructure.businessdate.service.BusinessDateCache} a load that raced with an
+ * invalidation is used by its caller but not kept.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ExchangeRateIndex {
+
+    static final String CACHE_NAME = "exchangeRates";
+    static final String DESTINATION_CURRENCY_CODE = "GTQ";
+
+    private static final String RATES_SQL = "select c.code as code, e.AplicaDesde as validFrom, e.TipoCambio as rate from m_exchange e"
+            + " join m_currency c on c.int_code = e.MonedaOrigen"
+            + " where e.MonedaDestino = (select d.int_code from m_currency d where d.code = ?) and e.AplicaDesde is not null"
+            + " order by e.AplicaDesde, e.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CurrencyReadPlatformService currencyReadPlatformService;
+    private final CacheInvalidationTransport transport;
+    private final ConcurrentMap<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    /**
+     * Returns the rate of the latest exchange to GTQ that is valid on the date of the transaction, or null if there is
+     * none. Of two exchanges valid from the same date the one created last wins.
+     */
+    public BigDecimal findRate(final String originCurrencyCode, final Date transactionDate) {
+        return snapshot().rates.floor(originCurrencyCode, toLocalDate(transactionDate));
+    }
+
+    public CurrencyData findCurrency(final String currencyCode) {
+        final CurrencyData currency = snapshot().currencies.get(currencyCode);
+        return currency != null ? currency : this.currencyReadPlatformService.retrieveCurrency(currencyCode);
+    }
+
+    /**
+     * Drops the index of the tenant on every node. Within a transaction it is dropped again and the other nodes are told
+     * only after the commit, so that no node keeps the rates from before the change.
+     */
+    public void evict(final String tenantIdentifier) {
+        evictLocally(tenantIdentifier);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCommit() {
+                    evictLocally(tenantIdentifier);
+                    broadcast(tenantIdentifier);
+                }
+            });
+        } else {
+            broadcast(tenantIdentifier);
+        }
+    }
+
+    private Snapshot snapshot() {
+        if (this.subscribed.compareAndSet(false, true)) {
+            this.transport.subscribe(this::onRemoteInvalidation);
+        }
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        final AtomicLong version = this.versions.computeIfAbsent(tenantIdentifier, key -> new AtomicLong());
+        final long loadVersion = version.get();
+        final Snapshot snapshot = this.snapshots.get(tenantIdentifier);
+        if (snapshot != null && snapshot.version == loadVersion) {
+            return snapshot;
+        }
+
+        final Snapshot loaded = new Snapshot(loadVersion, loadRates(), loadCurrencies());
+        this.snapshots.compute(tenantIdentifier, (key, existing) -> version.get() == loadVersion ? loaded : existing);
+        return loaded;
+    }
+
+    private Rates loadRates() {
+        final Rates rates = new Rates();
+        this.jdbcTemplate.query(RATES_SQL, rs -> {
+            rates.add(rs.getString("code"), rs.getDate("validFrom").toLocalDate(), rs.getBigDecimal("rate"));
+        }, DESTINATION_CURRENCY_CODE);
+        return rates;
+    }
+
+    private Map<String, CurrencyData> loadCurrencies() {
+        final Map<String, CurrencyData> currencies = new HashMap<>();
+        for (final CurrencyData currency : this.currencyReadPlatformService.retrieveAllPlatformCurrencies()) {
+            currencies.put(currency.code(), currency);
+        }
+        return currencies;
+    }
+
+    private void evictLocally(final String tenantIdentifier) {
+        this.snapshots.compute(tenantIdentifier, (key, existing) -> {
+            this.versions.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet();
+            return null;
+        });
+    }
+
+    private void broadcast(final String tenantIdentifier) {
+        try {
+            this.transport.publish(new CacheInvalidationMessage(this.transport.getNodeId(), CACHE_NAME, tenantIdentifier));
+        } catch (RuntimeException e) {
+            log.error("Could not broadcast exchange rate change of tenant {}, other nodes may use stale rates", tenantIdentifier, e);
+        }
+    }
+
+    void onRemoteInvalidation(final CacheInvalidationMessage message) {
+        if (!CACHE_NAME.equals(message.getCacheName())) {
+            return;
+        }
+        if (message.isClearAll()) {
+            this.snapshots.keySet().forEach(this::evictLocally);
+        } else {
+            evictLocally(message.getKey());
+        }
+    }
+
+    private static LocalDate toLocalDate(final Date date) {
+        // java.sql.Date does not support toInstant()
+        return LocalDate.ofInstant(Instant.ofEpochMilli(date.getTime()), ZoneId.systemDefault());
+    }
+
+    /**
+     * The rates of one tenant by origin currency. Rates have to be added in the order of their valid-from date and id,
+     * a later rate for the same date replaces the earlier one.
+     */
+    static final class Rates {
+
+        private final Map<String, NavigableMap<LocalDate, BigDecimal>> byCurrency = new HashMap<>();
+
+        void add(final String originCurrencyCode, final LocalDate validFrom, final BigDecimal rate) {
+            this.byCurrency.computeIfAbsent(originCurrencyCode, code -> new TreeMap<>()).put(validFrom, rate);
+        }
+
+        BigDecimal floor(final String originCurrencyCode, final LocalDate date) {
+            final NavigableMap<LocalDate, BigDecimal> rates = this.byCurrency.get(originCurrencyCode);
+            if (rates == null) {
+                return null;
+            }
+            final Map.Entry<LocalDate, BigDecimal> entry = rates.floorEntry(date);
+            return entry == null ? null : entry.getValue();
+        }
+    }
+
+    private static final class Snapshot {
+
+        private final long version;
+        private final Rates rates;
+        private final Map<String, CurrencyData> currencies;
+
+        private Snapshot(final long version, final Rates rates, final Map<String, CurrencyData> currencies) {
+            this.version = version;
+            this.rates = rates;
+            this.currencies = currencies;
+        }
+    }
+}
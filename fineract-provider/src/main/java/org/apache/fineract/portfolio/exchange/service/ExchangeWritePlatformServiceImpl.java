@@ -22,6 +22,7 @@ import java.util.Map;
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.portfolio.exchange.api.ExchangeApiConstants;
 import org.apache.fineract.portfolio.exchange.data.ExchangeDataValidator;
 import org.apache.fineract.portfolio.exchange.domain.Exchange;
@@ -38,13 +39,15 @@ public class ExchangeWritePlatformServiceImpl implements ExchangeWritePlatformSe
     private final ExchangeDataValidator dataValidator;
     private final ExchangeRepository repository;
     private final ExchangeRepositoryWrapper repositoryWrapper;
+    private final ExchangeRateIndex exchangeRateIndex;
 
     @Autowired
     public ExchangeWritePlatformServiceImpl(ExchangeDataValidator dataValidator, ExchangeRepository repository,
-            ExchangeRepositoryWrapper repositoryWrapper) {
+            ExchangeRepositoryWrapper repositoryWrapper, ExchangeRateIndex exchangeRateIndex) {
         this.dataValidator = dataValidator;
         this.repository = repository;
         this.repositoryWrapper = repositoryWrapper;
+        this.exchangeRateIndex = exchangeRateIndex;
     }
 
     @Override
@@ -54,6 +57,7 @@ public class ExchangeWritePlatformServiceImpl implements ExchangeWritePlatformSe
         AppUser authUser = (AppUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         exchange.setCreatedBy(authUser);
         this.repository.save(exchange);
+        this.exchangeRateIndex.evict(ThreadLocalContextUtil.getTenant().getTenantIdentifier());
         return new CommandProcessingResultBuilder() //
                 .withCommandId(command.commandId()) //
                 .withEntityId(exchange.getId()) //
@@ -75,6 +79,7 @@ public class ExchangeWritePlatformServiceImpl implements ExchangeWritePlatformSe
             changes.put(ExchangeApiConstants.createdByDataParamName, authUser.getDisplayName());
         }
         this.repository.saveAndFlush(exchangeToUpdate);
+        this.exchangeRateIndex.evict(ThreadLocalContextUtil.getTenant().getTenantIdentifier());
 
         return new CommandProcessingResultBuilder() //
                 .withCommandId(command.commandId()) //
@@ -88,6 +93,7 @@ public class ExchangeWritePlatformServiceImpl implements ExchangeWritePlatformSe
         Exchange exchangeToDelete = this.repositoryWrapper.findOneWithNotFoundDetection(exchangeId);
         this.repository.delete(exchangeToDelete);
         this.repository.flush();
+        this.exchangeRateIndex.evict(ThreadLocalContextUtil.getTenant().getTenantIdentifier());
 
         return new CommandProcessingResultBuilder() //
                 .withCommandId(command.commandId()) //
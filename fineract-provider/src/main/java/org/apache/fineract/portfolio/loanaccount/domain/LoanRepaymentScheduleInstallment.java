@@ -34,6 +34,7 @@ import javax.persistence.Table;
 import org.apache.fineract.infrastructure.core.domain.AbstractAuditableCustom;
 import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
 import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.organisation.monetary.domain.MoneyAccumulator;
 import org.apache.fineract.portfolio.repaymentwithpostdatedchecks.domain.PostDatedChecks;
 
 @Entity
@@ -331,8 +332,8 @@ public final class LoanRepaymentScheduleInstallment extends AbstractAuditableCus
     }
 
     public Money getTotalOutstanding(final MonetaryCurrency currency) {
-        return getPrincipalOutstanding(currency).plus(getInterestOutstanding(currency)).plus(getFeeChargesOutstanding(currency))
-                .plus(getPenaltyChargesOutstanding(currency));
+        return MoneyAccumulator.of(getPrincipalOutstanding(currency)).plus(getInterestOutstanding(currency))
+                .plus(getFeeChargesOutstanding(currency)).plus(getPenaltyChargesOutstanding(currency)).toMoney();
     }
 
     public void updateLoan(final Loan loan) {
@@ -817,8 +818,8 @@ public final class LoanRepaymentScheduleInstallment extends AbstractAuditableCus
     }
 
     public Money getDue(MonetaryCurrency currency) {
-        return getPrincipal(currency).plus(getInterestCharged(currency)).plus(getFeeChargesCharged(currency))
-                .plus(getPenaltyChargesCharged(currency));
+        return MoneyAccumulator.of(getPrincipal(currency)).plus(getInterestCharged(currency)).plus(getFeeChargesCharged(currency))
+                .plus(getPenaltyChargesCharged(currency)).toMoney();
     }
 
     public Set<LoanInterestRecalcualtionAdditionalDetails> getLoanCompoundingDetails() {
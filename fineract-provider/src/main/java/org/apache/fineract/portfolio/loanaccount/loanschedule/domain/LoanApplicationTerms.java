@@ -1820,4 +1820,71 @@ public final class LoanApplicationTerms {
     public void setNewScheduledDueDateStart(LocalDate newScheduledDueDateStart) {
         this.newScheduledDueDateStart = newScheduledDueDateStart;
     }
+
+    /**
+     * Canonical text of every input that determines the schedule generated from these terms, so that equal terms
+     * assembled from differently formatted requests produce the same text. Must be taken before the terms are used to
+     * generate a schedule, because generation mutates them. Returns null for terms that carry a calendar history, which
+     * cannot be fingerprinted.
+     */
+    public String toScheduleFingerprint() {
+        if (this.calendarHistoryDataWrapper != null) {
+            return null;
+        }
+        final StringBuilder fingerprint = new StringBuilder(512);
+        appendFingerprint(fingerprint, this.currency.getCode(), this.currency.getDecimalPlaces(), this.currency.getCurrencyInMultiplesOf(),
+                this.loanTermFrequency, this.loanTermPeriodFrequencyType, this.numberOfRepayments, this.actualNumberOfRepayments,
+                this.repaymentEvery, this.repaymentPeriodFrequencyType, this.nthDay, this.weekDayType, this.amortizationMethod,
+                this.interestMethod, this.interestRatePerPeriod, this.interestRatePeriodFrequencyType, this.annualNominalInterestRate,
+                this.interestCalculationPeriodMethod, this.allowPartialPeriodInterestCalcualtion, this.principal,
+                this.expectedDisbursementDate, this.repaymentsStartingFromDate, this.calculatedRepaymentsStartingFromDate, this.seedDate,
+                this.principalGrace, this.recurringMoratoriumOnPrincipalPeriods, this.interestPaymentGrace, this.interestChargingGrace,
+                this.interestChargedFromDate, this.inArrearsTolerance, this.graceOnArrearsAgeing, this.multiDisburseLoan,
+                this.fixedEmiAmount, this.fixedPrincipalAmount, this.maxOutstandingBalance, this.daysInMonthType, this.daysInYearType,
+                this.interestRecalculationEnabled, this.rescheduleStrategyMethod, this.interestRecalculationCompoundingMethod,
+                this.recalculationFrequencyType, this.compoundingFrequencyType, this.allowCompoundingOnEod,
+                this.principalThresholdForLastInstalment, this.installmentAmountInMultiplesOf, this.preClosureInterestCalculationStrategy,
+                this.approvedPrincipal, this.isInterestChargedFromDateSameAsDisbursalDateEnabled, this.numberOfDays,
+                this.isSkipRepaymentOnFirstDayOfMonth, this.isFirstRepaymentDateAllowedOnHoliday,
+                this.isInterestToBeRecoveredFirstWhenGreaterThanEMI, this.isPrincipalCompoundingDisabledForOverdueLoans,
+                this.isEqualAmortization, this.fixedPrincipalPercentagePerInstallment);
+        appendFingerprint(fingerprint, this.restCalendarInstance == null ? null : this.restCalendarInstance.getCalendar());
+        appendFingerprint(fingerprint, this.compoundingCalendarInstance == null ? null : this.compoundingCalendarInstance.getCalendar());
+        appendFingerprint(fingerprint, this.loanCalendar);
+        if (this.disbursementDatas != null) {
+            for (final DisbursementData disbursementData : this.disbursementDatas) {
+                appendFingerprint(fingerprint, disbursementData.disbursementDate(), disbursementData.isDisbursed(),
+                        disbursementData.amount(), disbursementData.getChargeAmount(), disbursementData.getWaivedChargeAmount());
+            }
+        }
+        for (final LoanTermVariationsData variation : this.variationsDataWrapper.getExceptionData()) {
+            appendFingerprint(fingerprint, variation.getTermVariationType(), variation.getTermApplicableFrom(), variation.getDecimalValue(),
+                    variation.getDateValue(), variation.isSpecificToInstallment(), variation.isProcessed());
+        }
+        return fingerprint.toString();
+    }
+
+    private static void appendFingerprint(final StringBuilder fingerprint, final Calendar calendar) {
+        if (calendar == null) {
+            appendFingerprint(fingerprint, (Object) null);
+        } else {
+            appendFingerprint(fingerprint, calendar.getRecurrence(), calendar.getStartDateLocalDate());
+        }
+    }
+
+    private static void appendFingerprint(final StringBuilder fingerprint, final Object... values) {
+        for (final Object value : values) {
+            if (value instanceof Money) {
+                appendFingerprint(fingerprint, ((Money) value).getAmount());
+                continue;
+            }
+            if (value instanceof BigDecimal) {
+                // 1.5 and 1.50 generate the same schedule
+                fingerprint.append(((BigDecimal) value).stripTrailingZeros().toPlainString());
+            } else {
+                fingerprint.append(value);
+            }
+            fingerprint.append('|');
+        }
+    }
 }
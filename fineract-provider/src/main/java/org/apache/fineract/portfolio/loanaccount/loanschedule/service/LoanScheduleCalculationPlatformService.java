@@ -26,6 +26,8 @@ public interface LoanScheduleCalculationPlatformService {
 
     LoanScheduleModel calculateLoanSchedule(JsonQuery query, Boolean validateParams);
 
+    LoanScheduleData previewLoanSchedule(JsonQuery query);
+
     void updateFutureSchedule(LoanScheduleData loanScheduleData, Long loanId);
 
     LoanScheduleData generateLoanScheduleForVariableInstallmentRequest(Long loanId, String json);
@@ -101,6 +101,17 @@ public class LoanScheduleCalculationPlatformServiceImpl implements LoanScheduleC
 
     @Override
     public LoanScheduleModel calculateLoanSchedule(final JsonQuery query, Boolean validateParams) {
+        validateLoanScheduleQuery(query, validateParams);
+        return this.loanScheduleAssembler.assembleLoanScheduleFrom(query.parsedJson());
+    }
+
+    @Override
+    public LoanScheduleData previewLoanSchedule(final JsonQuery query) {
+        validateLoanScheduleQuery(query, true);
+        return this.loanScheduleAssembler.previewLoanScheduleFrom(query.parsedJson());
+    }
+
+    private void validateLoanScheduleQuery(final JsonQuery query, final boolean validateParams) {
 
         /***
          * TODO: Vishwas, this is probably not required, test and remove the same
@@ -135,8 +146,6 @@ public class LoanScheduleCalculationPlatformServiceImpl implements LoanScheduleC
         if (!dataValidationErrors.isEmpty()) {
             throw new PlatformApiDataValidationException(dataValidationErrors);
         }
-
-        return this.loanScheduleAssembler.assembleLoanScheduleFrom(query.parsedJson());
     }
 
     @Override
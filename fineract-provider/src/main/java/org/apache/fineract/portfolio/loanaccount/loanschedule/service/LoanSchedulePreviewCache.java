@@ -0,0 +1,154 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.loanschedule.service;
+
+import com.google.common.hash.Hashing;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import org.apache.fineract.infrastructure.cache.service.RuntimeDelegatingCacheManager;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.organisation.holiday.domain.Holiday;
+import org.apache.fineract.organisation.workingdays.domain.WorkingDays;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.data.LoanScheduleData;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.domain.LoanApplicationTerms;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the schedules produced by the calculateLoanSchedule preview in the "loanSchedulePreviews" cache region.
+ *
+ * The key is a SHA-256 digest of everything the generator reads: the assembled {@link LoanApplicationTerms}, the
+ * charges and tranches of the request with their locale and date format, the active holidays and working days of the
+ * office and the tenant's business date. Entries are evicted when loan products, charges, holidays or working days
+ * change; hit and miss rates are published by the metered cache manager like for any other region.
+ */
+@Component
+public class LoanSchedulePreviewCache {
+
+    public static final String CACHE_NAME = "loanSchedulePreviews";
+
+    private final RuntimeDelegatingCacheManager cacheManager;
+
+    @Autowired
+    public LoanSchedulePreviewCache(@Qualifier("runtimeDelegatingCacheManager") final RuntimeDelegatingCacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Returns the key of a schedule preview or null when the terms cannot be fingerprinted, in which case the
+     * schedule is always generated.
+     */
+    public String keyFor(final LoanApplicationTerms loanApplicationTerms, final boolean isHolidayEnabled, final List<Holiday> holidays,
+            final WorkingDays workingDays, final JsonElement element) {
+        final String termsFingerprint = loanApplicationTerms.toScheduleFingerprint();
+        if (termsFingerprint == null) {
+            return null;
+        }
+
+        final StringBuilder canonical = new StringBuilder(termsFingerprint);
+        canonical.append('|').append(DateUtils.getBusinessLocalDate()).append('|').append(DateUtils.getLocalDateOfTenant());
+        canonical.append('|').append(isHolidayEnabled);
+
+        final List<Holiday> sortedHolidays = new ArrayList<>(holidays);
+        sortedHolidays.sort(Comparator.comparing(Holiday::getId));
+        for (final Holiday holiday : sortedHolidays) {
+            canonical.append("|h:").append(holiday.getId()).append(',').append(holiday.getFromDateLocalDate()).append(',')
+                    .append(holiday.getToDateLocalDate()).append(',').append(holiday.getRepaymentsRescheduledToLocalDate()).append(',')
+                    .append(holiday.getReScheduleType());
+        }
+        if (workingDays != null) {
+            canonical.append("|w:").append(workingDays.getRecurrence()).append(',').append(workingDays.getRepaymentReschedulingType())
+                    .append(',').append(workingDays.getExtendTermForDailyRepayments()).append(',')
+                    .append(workingDays.getExtendTermForRepaymentsOnHolidays());
+        }
+
+        final JsonObject request = element.getAsJsonObject();
+        canonical.append("|l:").append(canonicalJson(request.get("locale"))).append(',').append(canonicalJson(request.get("dateFormat")));
+        canonical.append("|c:").append(canonicalJson(request.get("charges")));
+        canonical.append("|d:").append(canonicalJson(request.get("disbursementData")));
+
+        return ThreadLocalContextUtil.getTenant().getTenantIdentifier() + ":"
+                + Hashing.sha256().hashString(canonical, StandardCharsets.UTF_8).toString();
+    }
+
+    public LoanScheduleData get(final String key, final Supplier<LoanScheduleData> scheduleGenerator) {
+        if (key == null) {
+            return scheduleGenerator.get();
+        }
+        final Cache cache = this.cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            return scheduleGenerator.get();
+        }
+        // get and put instead of get(key, Callable) so validation errors of the generator are not wrapped
+        final LoanScheduleData cached = cache.get(key, LoanScheduleData.class);
+        if (cached != null) {
+            return cached;
+        }
+        final LoanScheduleData schedule = scheduleGenerator.get();
+        cache.put(key, schedule);
+        return schedule;
+    }
+
+    /**
+     * Renders JSON with object members sorted by name, so requests that only differ in member order share a key.
+     */
+    static String canonicalJson(final JsonElement element) {
+        if (element == null || element.isJsonNull()) {
+            return "null";
+        }
+        if (element.isJsonPrimitive()) {
+            return element.getAsJsonPrimitive().toString();
+        }
+        final StringBuilder json = new StringBuilder();
+        if (element.isJsonArray()) {
+            final JsonArray array = element.getAsJsonArray();
+            json.append('[');
+            for (int i = 0; i < array.size(); i++) {
+                if (i > 0) {
+                    json.append(',');
+                }
+                json.append(canonicalJson(array.get(i)));
+            }
+            return json.append(']').toString();
+        }
+        final Map<String, JsonElement> members = new TreeMap<>();
+        for (final Map.Entry<String, JsonElement> member : element.getAsJsonObject().entrySet()) {
+            members.put(member.getKey(), member.getValue());
+        }
+        json.append('{');
+        for (final Map.Entry<String, JsonElement> member : members.entrySet()) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append('"').append(member.getKey()).append("\":").append(canonicalJson(member.getValue()));
+        }
+        return json.append('}').toString();
+    }
+}
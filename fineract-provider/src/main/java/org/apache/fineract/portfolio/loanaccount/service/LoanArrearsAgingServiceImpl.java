@@ -18,18 +18,26 @@
  */
 package org.apache.fineract.portfolio.loanaccount.service;
 
+import com.google.common.collect.Lists;
 import java.math.BigDecimal;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import javax.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
 import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
@@ -66,11 +74,20 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService {
 
+    private static final int AGEING_BATCH_SIZE = 1000;
+    private static final String INSERT_AGEING_SQL = "INSERT INTO m_loan_arrears_aging(loan_id,principal_overdue_derived,"
+            + "interest_overdue_derived,fee_charges_overdue_derived,penalty_charges_overdue_derived,total_overdue_derived,"
+            + "overdue_since_date_derived) VALUES (?,?,?,?,?,?,?)";
+    private static final String UPDATE_AGEING_SQL = "UPDATE m_loan_arrears_aging SET principal_overdue_derived=?, "
+            + "interest_overdue_derived=?, fee_charges_overdue_derived=?, penalty_charges_overdue_derived=?, "
+            + "total_overdue_derived=?, overdue_since_date_derived=? WHERE loan_id=?";
+
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
     private final JdbcTemplate jdbcTemplate;
     private final BusinessEventNotifierService businessEventNotifierService;
     private final DatabaseSpecificSQLGenerator sqlGenerator;
+    private final FineractProperties fineractProperties;
 
     @PostConstruct
     public void registerForNotification() {
@@ -95,11 +112,116 @@ public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService {
     @Transactional
     @Override
     @CronTarget(jobName = JobName.UPDATE_LOAN_ARREARS_AGEING)
-    public void updateLoanArrearsAgeingDetails() {
+    public void updateLoanArrearsAgeingDetails(final Map<String, String> jobParameters) {
+        final LocalDate businessDate = DateUtils.getBusinessLocalDate();
+        // taken before ageing, loans written while the job runs are picked up by the next run
+        final Timestamp loanModifiedMark = withModifiedLag(
+                this.jdbcTemplate.queryForObject("select max(ml.last_modified_on_utc) from m_loan ml", Timestamp.class));
+        final ArrearsAgeingCheckpoint checkpoint = retrieveCheckpoint();
+        final boolean incremental = !"false".equalsIgnoreCase(jobParameters.get("incremental")) && checkpoint != null
+                && !businessDate.isBefore(checkpoint.businessDate);
+
+        final Set<Long> loanIds = incremental ? retrieveLoanIdsChangedSince(checkpoint) : retrieveAllLoanIdsToAge();
+        int result = 0;
+        for (List<Long> batch : Lists.partition(new ArrayList<>(loanIds), AGEING_BATCH_SIZE)) {
+            result += ageLoans(batch);
+        }
+        saveCheckpoint(businessDate, loanModifiedMark);
+
+        log.info("{}: Records affected by {} updateLoanArrearsAgeingDetails: {}", ThreadLocalContextUtil.getTenant().getName(),
+                incremental ? "incremental" : "full", result);
+    }
+
+    /**
+     * A loan write still uncommitted when the mark is read carries an older modification time than the mark, so the mark
+     * is pulled back by the lag to let the next run see it once committed.
+     */
+    private Timestamp withModifiedLag(final Timestamp loanModifiedMark) {
+        if (loanModifiedMark == null) {
+            return null;
+        }
+        final Duration lag = Duration.ofMinutes(fineractProperties.getLoan().getArrearsAgeingModifiedLagMinutes());
+        return Timestamp.from(loanModifiedMark.toInstant().minus(lag));
+    }
 
-        this.jdbcTemplate.execute("truncate table m_loan_arrears_aging");
+    private String overdueCutOff(final String businessDate) {
+        return sqlGenerator.subDate(businessDate, "COALESCE(ml.grace_on_arrears_ageing, 0)", "day");
+    }
+
+    private Set<Long> retrieveAllLoanIdsToAge() {
+        final String sql = "select mr.loan_id from m_loan_repayment_schedule mr inner join m_loan ml on ml.id = mr.loan_id "
+                + "where ml.loan_status_id = 300 and mr.completed_derived is false and mr.duedate < "
+                + overdueCutOff(sqlGenerator.currentBusinessDate()) + " union select mla.loan_id from m_loan_arrears_aging mla";
+        return new LinkedHashSet<>(this.jdbcTemplate.queryForList(sql, Long.class));
+    }
+
+    private Set<Long> retrieveLoanIdsChangedSince(final ArrearsAgeingCheckpoint checkpoint) {
+        final Set<Long> loanIds = new LinkedHashSet<>();
+        // installments which became overdue since the last run
+        final String overdueSql = "select distinct mr.loan_id from m_loan_repayment_schedule mr inner join m_loan ml on ml.id = mr.loan_id "
+                + "where ml.loan_status_id = 300 and mr.completed_derived is false and mr.duedate >= " + overdueCutOff("?")
+                + " and mr.duedate < " + overdueCutOff(sqlGenerator.currentBusinessDate());
+        loanIds.addAll(this.jdbcTemplate.queryForList(overdueSql, Long.class, checkpoint.businessDate));
+        // loans whose transactions, charges or status changed since the last run
+        if (checkpoint.loanModifiedOnUtc == null) {
+            loanIds.addAll(this.jdbcTemplate.queryForList("select ml.id from m_loan ml where ml.last_modified_on_utc is not null",
+                    Long.class));
+        } else {
+            loanIds.addAll(this.jdbcTemplate.queryForList("select ml.id from m_loan ml where ml.last_modified_on_utc >= ?", Long.class,
+                    checkpoint.loanModifiedOnUtc));
+        }
+        return loanIds;
+    }
 
-        final StringBuilder updateSqlBuilder = new StringBuilder(900);
+    private int ageLoans(final List<Long> loanIds) {
+        final String placeholders = String.join(",", Collections.nCopies(loanIds.size(), "?"));
+        final Map<Long, ArrearsAgeing> ageingByLoan = new HashMap<>();
+        this.jdbcTemplate.query(overdueAggregateSql() + " and ml.id in (" + placeholders + ") GROUP BY ml.id",
+                (ResultSet rs) -> {
+                    final ArrearsAgeing ageing = new ArrearsAgeing(rs.getLong("loanId"),
+                            JdbcSupport.getBigDecimalDefaultToZeroIfNull(rs, "principal_overdue_derived"),
+                            JdbcSupport.getBigDecimalDefaultToZeroIfNull(rs, "interest_overdue_derived"),
+                            JdbcSupport.getBigDecimalDefaultToZeroIfNull(rs, "fee_charges_overdue_derived"),
+                            JdbcSupport.getBigDecimalDefaultToZeroIfNull(rs, "penalty_charges_overdue_derived"),
+                            JdbcSupport.getLocalDate(rs, "overdue_since_date_derived"));
+                    ageingByLoan.put(ageing.loanId, ageing);
+                }, loanIds.toArray());
+        for (ArrearsAgeing ageing : ageLoansWithOriginalSchedule(loanIds, placeholders)) {
+            ageingByLoan.put(ageing.loanId, ageing);
+        }
+
+        final Set<Long> existing = new HashSet<>(this.jdbcTemplate.queryForList(
+                "select mla.loan_id from m_loan_arrears_aging mla where mla.loan_id in (" + placeholders + ")", Long.class,
+                loanIds.toArray()));
+        final List<Object[]> inserts = new ArrayList<>();
+        final List<Object[]> updates = new ArrayList<>();
+        final List<Object[]> deletes = new ArrayList<>();
+        for (Long loanId : loanIds) {
+            final ArrearsAgeing ageing = ageingByLoan.get(loanId);
+            if (ageing == null) {
+                if (existing.contains(loanId)) {
+                    deletes.add(new Object[] { loanId });
+                }
+            } else if (existing.contains(loanId)) {
+                updates.add(ageing.toUpdateParameters());
+            } else {
+                inserts.add(ageing.toInsertParameters());
+            }
+        }
+        if (!updates.isEmpty()) {
+            this.jdbcTemplate.batchUpdate(UPDATE_AGEING_SQL, updates);
+        }
+        if (!inserts.isEmpty()) {
+            this.jdbcTemplate.batchUpdate(INSERT_AGEING_SQL, inserts);
+        }
+        if (!deletes.isEmpty()) {
+            this.jdbcTemplate.batchUpdate("DELETE FROM m_loan_arrears_aging WHERE loan_id = ?", deletes);
+        }
+        return updates.size() + inserts.size() + deletes.size();
+    }
+
+    private String overdueAggregateSql() {
+        final StringBuilder sqlBuilder = new StringBuilder(900);
         final String principalOverdueCalculationSql = "SUM(COALESCE(mr.principal_amount, 0) - coalesce(mr.principal_completed_derived, 0) - coalesce(mr.principal_writtenoff_derived, 0))";
         final String interestOverdueCalculationSql = "SUM(COALESCE(mr.interest_amount, 0) - coalesce(mr.interest_writtenoff_derived, 0) - coalesce(mr.interest_waived_derived, 0) - "
                 + "coalesce(mr.interest_completed_derived, 0))";
@@ -108,36 +230,34 @@ public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService {
         final String penaltyChargesOverdueCalculationSql = "SUM(COALESCE(mr.penalty_charges_amount, 0) - coalesce(mr.penalty_charges_writtenoff_derived, 0) - "
                 + "coalesce(mr.penalty_charges_waived_derived, 0) - coalesce(mr.penalty_charges_completed_derived, 0))";
 
-        updateSqlBuilder.append(
-                "INSERT INTO m_loan_arrears_aging(loan_id,principal_overdue_derived,interest_overdue_derived,fee_charges_overdue_derived,penalty_charges_overdue_derived,total_overdue_derived,overdue_since_date_derived)");
-        updateSqlBuilder.append("select ml.id as loanId,");
-        updateSqlBuilder.append(principalOverdueCalculationSql + " as principal_overdue_derived,");
-        updateSqlBuilder.append(interestOverdueCalculationSql + " as interest_overdue_derived,");
-        updateSqlBuilder.append(feeChargesOverdueCalculationSql + " as fee_charges_overdue_derived,");
-        updateSqlBuilder.append(penaltyChargesOverdueCalculationSql + " as penalty_charges_overdue_derived,");
-        updateSqlBuilder.append(principalOverdueCalculationSql + "+" + interestOverdueCalculationSql + "+");
-        updateSqlBuilder.append(feeChargesOverdueCalculationSql + "+" + penaltyChargesOverdueCalculationSql + " as total_overdue_derived,");
-        updateSqlBuilder.append("MIN(mr.duedate) as overdue_since_date_derived ");
-        updateSqlBuilder.append(" FROM m_loan ml ");
-        updateSqlBuilder.append(" INNER JOIN m_loan_repayment_schedule mr on mr.loan_id = ml.id ");
-        updateSqlBuilder.append(" left join m_product_loan_recalculation_details prd on prd.product_id = ml.product_id ");
-        updateSqlBuilder.append(" WHERE ml.loan_status_id = 300 "); // active
-        updateSqlBuilder.append(" and mr.completed_derived is false ");
-        updateSqlBuilder.append(" and mr.duedate < ")
-                .append(sqlGenerator.subDate(sqlGenerator.currentBusinessDate(), "COALESCE(ml.grace_on_arrears_ageing, 0)", "day"))
-                .append(" ");
-        updateSqlBuilder.append(" and (prd.arrears_based_on_original_schedule = false or prd.arrears_based_on_original_schedule is null) ");
-        updateSqlBuilder.append(" GROUP BY ml.id");
-
-        List<String> insertStatements = updateLoanArrearsAgeingDetailsWithOriginalSchedule();
-        insertStatements.add(0, updateSqlBuilder.toString());
-        final int[] results = this.jdbcTemplate.batchUpdate(insertStatements.toArray(new String[0]));
-        int result = 0;
-        for (int i : results) {
-            result += i;
-        }
+        sqlBuilder.append("select ml.id as loanId,");
+        sqlBuilder.append(principalOverdueCalculationSql + " as principal_overdue_derived,");
+        sqlBuilder.append(interestOverdueCalculationSql + " as interest_overdue_derived,");
+        sqlBuilder.append(feeChargesOverdueCalculationSql + " as fee_charges_overdue_derived,");
+        sqlBuilder.append(penaltyChargesOverdueCalculationSql + " as penalty_charges_overdue_derived,");
+        sqlBuilder.append("MIN(mr.duedate) as overdue_since_date_derived ");
+        sqlBuilder.append(" FROM m_loan ml ");
+        sqlBuilder.append(" INNER JOIN m_loan_repayment_schedule mr on mr.loan_id = ml.id ");
+        sqlBuilder.append(" left join m_product_loan_recalculation_details prd on prd.product_id = ml.product_id ");
+        sqlBuilder.append(" WHERE ml.loan_status_id = 300 "); // active
+        sqlBuilder.append(" and mr.completed_derived is false ");
+        sqlBuilder.append(" and mr.duedate < ").append(overdueCutOff(sqlGenerator.currentBusinessDate())).append(" ");
+        sqlBuilder.append(" and (prd.arrears_based_on_original_schedule = false or prd.arrears_based_on_original_schedule is null) ");
+        return sqlBuilder.toString();
+    }
 
-        log.info("{}: Records affected by updateLoanArrearsAgeingDetails: {}", ThreadLocalContextUtil.getTenant().getName(), result);
+    private ArrearsAgeingCheckpoint retrieveCheckpoint() {
+        final List<ArrearsAgeingCheckpoint> checkpoints = this.jdbcTemplate.query(
+                "select business_date, loan_modified_on_utc from m_loan_arrears_aging_checkpoint where id = 1",
+                (rs, rowNum) -> new ArrearsAgeingCheckpoint(JdbcSupport.getLocalDate(rs, "business_date"),
+                        rs.getTimestamp("loan_modified_on_utc")));
+        return checkpoints.isEmpty() ? null : checkpoints.get(0);
+    }
+
+    private void saveCheckpoint(final LocalDate businessDate, final Timestamp loanModifiedMark) {
+        this.jdbcTemplate.update("delete from m_loan_arrears_aging_checkpoint where id = 1");
+        this.jdbcTemplate.update("insert into m_loan_arrears_aging_checkpoint(id, business_date, loan_modified_on_utc) values (1, ?, ?)",
+                businessDate, loanModifiedMark);
     }
 
     @Override
@@ -208,32 +328,28 @@ public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService {
         return updateSql;
     }
 
-    private List<String> updateLoanArrearsAgeingDetailsWithOriginalSchedule() {
-        List<String> insertStatement = new ArrayList<>();
-
+    private List<ArrearsAgeing> ageLoansWithOriginalSchedule(final List<Long> loanIds, final String placeholders) {
         final StringBuilder loanIdentifier = new StringBuilder();
         loanIdentifier.append("select ml.id as loanId FROM m_loan ml  ");
         loanIdentifier.append("INNER JOIN m_loan_repayment_schedule mr on mr.loan_id = ml.id ");
         loanIdentifier.append(
                 "inner join m_product_loan_recalculation_details prd on prd.product_id = ml.product_id and prd.arrears_based_on_original_schedule = true  ");
         loanIdentifier.append("WHERE ml.loan_status_id = 300  and mr.completed_derived is false  and mr.duedate < ")
-                .append(sqlGenerator.subDate(sqlGenerator.currentBusinessDate(), "COALESCE(ml.grace_on_arrears_ageing, 0)", "day"))
-                .append(" group by ml.id");
-        List<Long> loanIds = this.jdbcTemplate.queryForList(loanIdentifier.toString(), Long.class);
-        if (!loanIds.isEmpty()) {
-            String loanIdsAsString = loanIds.toString();
-            loanIdsAsString = loanIdsAsString.substring(1, loanIdsAsString.length() - 1);
-            OriginalScheduleExtractor originalScheduleExtractor = new OriginalScheduleExtractor(loanIdsAsString, sqlGenerator);
-            Map<Long, List<LoanSchedulePeriodData>> scheduleDate = this.jdbcTemplate.query(originalScheduleExtractor.schema,
-                    originalScheduleExtractor);
-
-            List<Map<String, Object>> loanSummary = getLoanSummary(loanIdsAsString);
-            updateSchheduleWithPaidDetail(scheduleDate, loanSummary);
-            createInsertStatements(insertStatement, scheduleDate, true);
+                .append(overdueCutOff(sqlGenerator.currentBusinessDate())).append(" and ml.id in (").append(placeholders)
+                .append(") group by ml.id");
+        List<Long> originalScheduleLoanIds = this.jdbcTemplate.queryForList(loanIdentifier.toString(), Long.class, loanIds.toArray());
+        if (originalScheduleLoanIds.isEmpty()) {
+            return List.of();
         }
+        String loanIdsAsString = originalScheduleLoanIds.toString();
+        loanIdsAsString = loanIdsAsString.substring(1, loanIdsAsString.length() - 1);
+        OriginalScheduleExtractor originalScheduleExtractor = new OriginalScheduleExtractor(loanIdsAsString, sqlGenerator);
+        Map<Long, List<LoanSchedulePeriodData>> scheduleDate = this.jdbcTemplate.query(originalScheduleExtractor.schema,
+                originalScheduleExtractor);
 
-        return insertStatement;
-
+        List<Map<String, Object>> loanSummary = getLoanSummary(loanIdsAsString);
+        updateSchheduleWithPaidDetail(scheduleDate, loanSummary);
+        return calculateArrearsAgeing(scheduleDate);
     }
 
     private List<Map<String, Object>> getLoanSummary(final String loanIdsAsString) {
@@ -272,6 +388,19 @@ public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService {
 
     private void createInsertStatements(List<String> insertStatement, Map<Long, List<LoanSchedulePeriodData>> scheduleDate,
             boolean isInsertStatement) {
+        for (ArrearsAgeing ageing : calculateArrearsAgeing(scheduleDate)) {
+            if (isInsertStatement) {
+                insertStatement.add(constructInsertStatement(ageing.loanId, ageing.principalOverdue, ageing.interestOverdue,
+                        ageing.feeOverdue, ageing.penaltyOverdue, ageing.overdueSince));
+            } else {
+                insertStatement.add(constructUpdateStatement(ageing.loanId, ageing.principalOverdue, ageing.interestOverdue,
+                        ageing.feeOverdue, ageing.penaltyOverdue, ageing.overdueSince));
+            }
+        }
+    }
+
+    private List<ArrearsAgeing> calculateArrearsAgeing(Map<Long, List<LoanSchedulePeriodData>> scheduleDate) {
+        final List<ArrearsAgeing> arrearsAgeing = new ArrayList<>();
         for (Map.Entry<Long, List<LoanSchedulePeriodData>> entry : scheduleDate.entrySet()) {
             final Long loanId = entry.getKey();
             BigDecimal principalOverdue = BigDecimal.ZERO;
@@ -296,18 +425,10 @@ public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService {
                 }
             }
             if (principalOverdue.compareTo(BigDecimal.ZERO) > 0) {
-                String sqlStatement = null;
-                if (isInsertStatement) {
-                    sqlStatement = constructInsertStatement(loanId, principalOverdue, interestOverdue, feeOverdue, penaltyOverdue,
-                            overDueSince);
-                } else {
-                    sqlStatement = constructUpdateStatement(loanId, principalOverdue, interestOverdue, feeOverdue, penaltyOverdue,
-                            overDueSince);
-                }
-                insertStatement.add(sqlStatement);
+                arrearsAgeing.add(new ArrearsAgeing(loanId, principalOverdue, interestOverdue, feeOverdue, penaltyOverdue, overDueSince));
             }
-
         }
+        return arrearsAgeing;
     }
 
     private String constructInsertStatement(final Long loanId, BigDecimal principalOverdue, BigDecimal interestOverdue,
@@ -479,6 +600,49 @@ public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService {
         }
     }
 
+    private static final class ArrearsAgeing {
+
+        private final Long loanId;
+        private final BigDecimal principalOverdue;
+        private final BigDecimal interestOverdue;
+        private final BigDecimal feeOverdue;
+        private final BigDecimal penaltyOverdue;
+        private final LocalDate overdueSince;
+
+        private ArrearsAgeing(final Long loanId, final BigDecimal principalOverdue, final BigDecimal interestOverdue,
+                final BigDecimal feeOverdue, final BigDecimal penaltyOverdue, final LocalDate overdueSince) {
+            this.loanId = loanId;
+            this.principalOverdue = principalOverdue;
+            this.interestOverdue = interestOverdue;
+            this.feeOverdue = feeOverdue;
+            this.penaltyOverdue = penaltyOverdue;
+            this.overdueSince = overdueSince;
+        }
+
+        private BigDecimal totalOverdue() {
+            return principalOverdue.add(interestOverdue).add(feeOverdue).add(penaltyOverdue);
+        }
+
+        private Object[] toInsertParameters() {
+            return new Object[] { loanId, principalOverdue, interestOverdue, feeOverdue, penaltyOverdue, totalOverdue(), overdueSince };
+        }
+
+        private Object[] toUpdateParameters() {
+            return new Object[] { principalOverdue, interestOverdue, feeOverdue, penaltyOverdue, totalOverdue(), overdueSince, loanId };
+        }
+    }
+
+    private static final class ArrearsAgeingCheckpoint {
+
+        private final LocalDate businessDate;
+        private final Timestamp loanModifiedOnUtc;
+
+        private ArrearsAgeingCheckpoint(final LocalDate businessDate, final Timestamp loanModifiedOnUtc) {
+            this.businessDate = businessDate;
+            this.loanModifiedOnUtc = loanModifiedOnUtc;
+        }
+    }
+
     private void handleArrearsForLoan(Loan loan) {
         if (loan != null && loan.isOpen() && loan.repaymentScheduleDetail().isInterestRecalculationEnabled()
                 && loan.loanProduct().isArrearsBasedOnOriginalSchedule()) {
@@ -0,0 +1,144 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.service;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.infrastructure.core.domain.FineractContext;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.apache.fineract.infrastructure.jobs.service.JobProgress;
+import org.apache.fineract.infrastructure.jobs.service.PagedJobExecutor;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * One run of the interest recalculation job.
+ * <p>
+ * Loan ids are read in keyset paginated pages on the job thread and every loan is a separate work unit on a pool of
+ * {@code threadPoolSize} workers. A loan failing with a lock conflict is requeued after a random delay of 1 to
+ * {@code 1 + maxIntervalBetweenRetries} seconds instead of putting its worker to sleep, up to {@code maxRetries} times.
+ * At most two pages of loans, requeued ones included, are in flight so reading never runs ahead of the workers.
+ */
+@Slf4j
+final class LoanInterestRecalculationRun {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final LoanWritePlatformService loanWritePlatformService;
+    private final PagedJobExecutor.PageReader<Long> pageReader;
+    private final int pageSize;
+    private final int maxRetries;
+    private final int maxIntervalBetweenRetries;
+    private final JobProgress progress;
+    private final FineractContext context;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService retryScheduler;
+    private final Semaphore inFlight;
+    private final Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+
+    LoanInterestRecalculationRun(final LoanWritePlatformService loanWritePlatformService,
+            final PagedJobExecutor.PageReader<Long> pageReader, final int threadPoolSize, final int batchSize, final JobProgress progress) {
+        this.loanWritePlatformService = loanWritePlatformService;
+        this.pageReader = pageReader;
+        this.pageSize = threadPoolSize * batchSize;
+        this.maxRetries = ThreadLocalContextUtil.getTenant().getConnection().getMaxRetriesOnDeadlock();
+        this.maxIntervalBetweenRetries = ThreadLocalContextUtil.getTenant().getConnection().getMaxIntervalBetweenRetries();
+        this.progress = progress;
+        this.context = ThreadLocalContextUtil.getContext();
+        this.workers = Executors.newFixedThreadPool(threadPoolSize, new CustomizableThreadFactory("interest-recalculation-"));
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("interest-recalculation-retry-"));
+        this.inFlight = new Semaphore(2 * this.pageSize);
+    }
+
+    void execute() throws JobExecutionException {
+        try {
+            List<Long> page = this.pageReader.read(0L, this.pageSize);
+            while (!page.isEmpty()) {
+                for (final Long loanId : page) {
+                    this.inFlight.acquire();
+                    this.progress.submitted();
+                    this.workers.execute(() -> recalculate(loanId, 0));
+                }
+                page = page.size() < this.pageSize ? List.of() : this.pageReader.read(page.get(page.size() - 1), this.pageSize);
+            }
+            // wait for the last work units, requeued ones included
+            this.inFlight.acquire(2 * this.pageSize);
+        } catch (final InterruptedException e) {
+            log.error("Interrupted while recalculating interest", e);
+            Thread.currentThread().interrupt();
+            this.errors.add(e);
+        } finally {
+            this.retryScheduler.shutdownNow();
+            this.workers.shutdownNow();
+        }
+
+        log.info("{}: Interest recalculated for {} loans, {} failed", ThreadLocalContextUtil.getTenant().getName(),
+                this.progress.getProcessed(), this.progress.getFailed());
+        if (!this.errors.isEmpty()) {
+            throw new JobExecutionException(new ArrayList<>(this.errors));
+        }
+    }
+
+    @SuppressFBWarnings(value = {
+            "DMI_RANDOM_USED_ONLY_ONCE" }, justification = "False positive for random object created and used only once")
+    private void recalculate(final Long loanId, final int attempt) {
+        ThreadLocalContextUtil.init(this.context);
+        boolean requeued = false;
+        try {
+            this.loanWritePlatformService.recalculateInterest(loanId);
+            this.progress.processed();
+        } catch (CannotAcquireLockException | ObjectOptimisticLockingFailureException e) {
+            if (attempt < this.maxRetries) {
+                final int delay = 1 + RANDOM.nextInt(this.maxIntervalBetweenRetries + 1);
+                log.info("Interest recalculation of loan {} hit a lock conflict, retry {} in {} second(s)", loanId, attempt + 1, delay);
+                this.progress.retried();
+                this.retryScheduler.schedule(() -> this.workers.execute(() -> recalculate(loanId, attempt + 1)), delay, TimeUnit.SECONDS);
+                requeued = true;
+            } else {
+                log.error("Interest recalculation of loan {} has been retried for the max allowed attempts of {} and will be rolled back",
+                        loanId, attempt);
+                fail(e);
+            }
+        } catch (Exception e) {
+            log.error("Interest recalculation for loans failed for account {}", loanId, e);
+            fail(e);
+        } finally {
+            if (!requeued) {
+                this.inFlight.release();
+            }
+        }
+    }
+
+    private void fail(final Throwable e) {
+        this.progress.failed();
+        this.errors.add(e);
+    }
+}
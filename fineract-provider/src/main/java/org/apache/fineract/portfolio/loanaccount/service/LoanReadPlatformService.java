@@ -92,6 +92,18 @@ public interface LoanReadPlatformService {
      */
     Collection<OverdueLoanScheduleData> retrieveAllLoansWithOverdueInstallments(Long penaltyWaitPeriod, Boolean backdatePenalties);
 
+    /*
+     * Overdue installments with an 'overdue charge' of a single loan, see retrieveAllLoansWithOverdueInstallments.
+     */
+    Collection<OverdueLoanScheduleData> retrieveOverdueInstallmentsForLoan(Long loanId, Long penaltyWaitPeriod, Boolean backdatePenalties);
+
+    /*
+     * Overdue installments with an 'overdue charge' of the loans with an id between minLoanId and maxLoanId (inclusive),
+     * used to prefetch the overdue installments of a whole COB chunk at once.
+     */
+    Collection<OverdueLoanScheduleData> retrieveOverdueInstallmentsForLoanIdRange(Long minLoanId, Long maxLoanId, Long penaltyWaitPeriod,
+            Boolean backdatePenalties);
+
     Integer retriveLoanCounter(Long groupId, Integer loanType, Long productId);
 
     Integer retriveLoanCounter(Long clientId, Long productId);
@@ -110,9 +122,7 @@ public interface LoanReadPlatformService {
 
     Collection<LoanScheduleAccrualData> retrivePeriodicAccrualData(LocalDate tillDate);
 
-    Collection<Long> fetchLoansForInterestRecalculation();
-
-    List<Long> fetchLoansForInterestRecalculation(Integer pageSize, Long maxLoanIdInList, String officeHierarchy);
+    List<Long> fetchLoansForInterestRecalculation(Integer pageSize, Long lastLoanId, String officeHierarchy);
 
     LoanTransactionData retrieveLoanPrePaymentTemplate(LoanTransactionType repaymentTransactionType, Long loanId, LocalDate onDate);
 
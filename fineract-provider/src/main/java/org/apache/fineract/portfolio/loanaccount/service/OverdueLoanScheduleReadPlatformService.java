@@ -0,0 +1,46 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.service;
+
+import java.util.Collection;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.data.OverdueLoanScheduleData;
+
+public interface OverdueLoanScheduleReadPlatformService {
+
+    /*
+     * musoni-specific at present - will find overdue scheduled installments that have a special 'overdue charge'
+     * associated with the loan product.
+     *
+     * The 'overdue-charge' is only ever applied once to an installment and as a result overdue installments with this
+     * charge already applied are not returned.
+     */
+    Collection<OverdueLoanScheduleData> retrieveAllLoansWithOverdueInstallments(Long penaltyWaitPeriod, Boolean backdatePenalties);
+
+    /*
+     * Overdue installments with an 'overdue charge' of a single loan, see retrieveAllLoansWithOverdueInstallments.
+     */
+    Collection<OverdueLoanScheduleData> retrieveOverdueInstallmentsForLoan(Long loanId, Long penaltyWaitPeriod, Boolean backdatePenalties);
+
+    /*
+     * Overdue installments with an 'overdue charge' of the loans with an id between minLoanId and maxLoanId (inclusive),
+     * used to prefetch the overdue installments of a whole COB chunk at once.
+     */
+    Collection<OverdueLoanScheduleData> retrieveOverdueInstallmentsForLoanIdRange(Long minLoanId, Long maxLoanId, Long penaltyWaitPeriod,
+            Boolean backdatePenalties);
+}
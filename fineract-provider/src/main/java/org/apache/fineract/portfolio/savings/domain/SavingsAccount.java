@@ -105,6 +105,7 @@ import org.apache.fineract.portfolio.savings.SavingsPeriodFrequencyType;
 import org.apache.fineract.portfolio.savings.SavingsPostingInterestPeriodType;
 import org.apache.fineract.portfolio.savings.data.SavingsAccountTransactionDTO;
 import org.apache.fineract.portfolio.savings.domain.interest.PostingPeriod;
+import org.apache.fineract.portfolio.savings.domain.interest.PostingPeriodTransactionSweep;
 import org.apache.fineract.portfolio.savings.exception.InsufficientAccountBalanceException;
 import org.apache.fineract.portfolio.savings.exception.SavingsAccountBlockedException;
 import org.apache.fineract.portfolio.savings.exception.SavingsAccountCreditsBlockedException;
@@ -461,6 +462,10 @@ public class SavingsAccount extends AbstractPersistableCustom {
         return this.savingsAccountTransactions;
     }
 
+    public boolean isLoadedFromCheckpoint() {
+        return this.summary != null && this.summary.getCheckpoint() != null;
+    }
+
     public String getExternalId() {
         return externalId;
     }
@@ -688,6 +693,20 @@ public class SavingsAccount extends AbstractPersistableCustom {
         return postingTransation;
     }
 
+    private Money interestPostedOn(final LocalDate postingDate) {
+        Money interestPosted = Money.zero(this.currency);
+        for (final SavingsAccountTransaction transaction : getSavingsAccountTransactionsWithPivotConfig()) {
+            if (transaction.occursOn(postingDate) && !transaction.isReversalTransaction()) {
+                if (transaction.isInterestPostingAndNotReversed()) {
+                    interestPosted = interestPosted.plus(transaction.getAmount(this.currency));
+                } else if (transaction.isOverdraftInterestAndNotReversed()) {
+                    interestPosted = interestPosted.minus(transaction.getAmount(this.currency));
+                }
+            }
+        }
+        return interestPosted;
+    }
+
     protected SavingsAccountTransaction findTransactionFor(final LocalDate postingDate,
             final List<SavingsAccountTransaction> transactions) {
         SavingsAccountTransaction transaction = null;
@@ -846,14 +865,25 @@ public class SavingsAccount extends AbstractPersistableCustom {
         if (postInterestOnDate != null) {
             postedAsOnDates.add(postInterestOnDate);
         }
+        // with a checkpoint the periods before it are posted already and their transactions are not loaded, the
+        // calculation starts on the checkpoint date like the relaxing days config does with its pivot date
+        final SavingsAccountCheckpoint checkpoint = this.summary.getCheckpoint();
+        final Money interestPostedOnCheckpointDate = checkpoint == null ? Money.zero(this.currency)
+                : interestPostedOn(checkpoint.getInterestPostedTillDate());
+        final LocalDate interestCalculationStartDate = checkpoint == null ? getStartInterestCalculationDate()
+                : checkpoint.getInterestPostedTillDate();
         final List<LocalDateInterval> postingPeriodIntervals = this.savingsHelper.determineInterestPostingPeriods(
-                getStartInterestCalculationDate(), upToInterestCalculationDate, postingPeriodType, financialYearBeginningMonth,
-                postedAsOnDates);
+                interestCalculationStartDate, upToInterestCalculationDate, postingPeriodType, financialYearBeginningMonth, postedAsOnDates);
 
         final List<PostingPeriod> allPostingPeriods = new ArrayList<>();
 
         Money periodStartingBalance;
-        if (this.startInterestCalculationDate != null && !this.getStartInterestCalculationDate().equals(this.getActivationLocalDate())) {
+        if (checkpoint != null) {
+            // interest postings are left out of the period balances, the interest of the earlier periods is carried in
+            // the way compounding carries it over from one period to the next
+            periodStartingBalance = Money.of(this.currency, checkpoint.getRunningBalance()).plus(interestPostedOnCheckpointDate);
+        } else if (this.startInterestCalculationDate != null
+                && !this.getStartInterestCalculationDate().equals(this.getActivationLocalDate())) {
             LocalDate startInterestCalculationDate = this.startInterestCalculationDate;
             SavingsAccountTransaction transaction = null;
             if (backdatedTxnsAllowedTill) {
@@ -878,6 +908,17 @@ public class SavingsAccount extends AbstractPersistableCustom {
         final Money minBalanceForInterestCalculation = Money.of(getCurrency(), minBalanceForInterestCalculation());
         final Money minOverdraftForInterestCalculation = Money.of(getCurrency(), this.minOverdraftForInterestCalculation);
 
+        // the transactions do not change while the periods are calculated, sort them once and sweep them across the
+        // periods
+        List<SavingsAccountTransaction> orderedNonInterestPostingTransactions = null;
+        if (backdatedTxnsAllowedTill) {
+            orderedNonInterestPostingTransactions = retreiveOrderedNonInterestPostingSavingsTransactionsWithPivotConfig();
+        } else {
+            orderedNonInterestPostingTransactions = retreiveOrderedNonInterestPostingTransactions();
+        }
+        final PostingPeriodTransactionSweep<SavingsAccountTransaction> transactionSweep = PostingPeriodTransactionSweep
+                .of(orderedNonInterestPostingTransactions);
+
         for (final LocalDateInterval periodInterval : postingPeriodIntervals) {
 
             boolean isUserPosting = false;
@@ -885,19 +926,11 @@ public class SavingsAccount extends AbstractPersistableCustom {
                 isUserPosting = true;
             }
 
-            PostingPeriod postingPeriod = null;
-            List<SavingsAccountTransaction> orderedNonInterestPostingTransactions = null;
-            if (backdatedTxnsAllowedTill) {
-                orderedNonInterestPostingTransactions = retreiveOrderedNonInterestPostingSavingsTransactionsWithPivotConfig();
-            } else {
-                orderedNonInterestPostingTransactions = retreiveOrderedNonInterestPostingTransactions();
-            }
-
-            postingPeriod = PostingPeriod.createFrom(periodInterval, periodStartingBalance, orderedNonInterestPostingTransactions,
-                    this.currency, compoundingPeriodType, interestCalculationType, interestRateAsFraction, daysInYearType.getValue(),
-                    upToInterestCalculationDate, interestPostTransactions, isInterestTransfer, minBalanceForInterestCalculation,
-                    isSavingsInterestPostingAtCurrentPeriodEnd, overdraftInterestRateAsFraction, minOverdraftForInterestCalculation,
-                    isUserPosting, financialYearBeginningMonth);
+            final PostingPeriod postingPeriod = PostingPeriod.createFrom(periodInterval, periodStartingBalance,
+                    transactionSweep.transactionsFor(periodInterval), this.currency, compoundingPeriodType, interestCalculationType,
+                    interestRateAsFraction, daysInYearType.getValue(), upToInterestCalculationDate, interestPostTransactions,
+                    isInterestTransfer, minBalanceForInterestCalculation, isSavingsInterestPostingAtCurrentPeriodEnd,
+                    overdraftInterestRateAsFraction, minOverdraftForInterestCalculation, isUserPosting, financialYearBeginningMonth);
 
             periodStartingBalance = postingPeriod.closingBalance();
 
@@ -908,6 +941,9 @@ public class SavingsAccount extends AbstractPersistableCustom {
                 isTransferInterestToOtherAccount());
 
         this.summary.updateFromInterestPeriodSummaries(this.currency, allPostingPeriods);
+        if (checkpoint != null) {
+            this.summary.addInterestEarnedBeforeCheckpoint(this.currency, interestPostedOnCheckpointDate);
+        }
 
         if (backdatedTxnsAllowedTill) {
             this.summary.updateSummaryWithPivotConfig(this.currency, this.savingsAccountTransactionSummaryWrapper, null,
@@ -77,6 +77,7 @@ import org.apache.fineract.portfolio.savings.SavingsPostingInterestPeriodType;
 import org.apache.fineract.portfolio.savings.data.SavingsAccountData;
 import org.apache.fineract.portfolio.savings.data.SavingsAccountTransactionData;
 import org.apache.fineract.portfolio.savings.exception.SavingsProductNotFoundException;
+import org.apache.fineract.portfolio.savings.service.SavingsAccountCheckpointService;
 import org.apache.fineract.useradministration.domain.AppUser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -99,6 +100,7 @@ public class SavingsAccountAssembler {
     private final FromJsonHelper fromApiJsonHelper;
     private final JdbcTemplate jdbcTemplate;
     private final ConfigurationDomainService configurationDomainService;
+    private final SavingsAccountCheckpointService savingsAccountCheckpointService;
 
     @Autowired
     public SavingsAccountAssembler(final SavingsAccountTransactionSummaryWrapper savingsAccountTransactionSummaryWrapper,
@@ -107,7 +109,8 @@ public class SavingsAccountAssembler {
             final SavingsAccountRepositoryWrapper savingsAccountRepository,
             final SavingsAccountChargeAssembler savingsAccountChargeAssembler, final FromJsonHelper fromApiJsonHelper,
             final AccountTransfersReadPlatformService accountTransfersReadPlatformService, final JdbcTemplate jdbcTemplate,
-            final ConfigurationDomainService configurationDomainService) {
+            final ConfigurationDomainService configurationDomainService,
+            final SavingsAccountCheckpointService savingsAccountCheckpointService) {
         this.savingsAccountTransactionSummaryWrapper = savingsAccountTransactionSummaryWrapper;
         this.clientRepository = clientRepository;
         this.groupRepository = groupRepository;
@@ -119,6 +122,7 @@ public class SavingsAccountAssembler {
         savingsHelper = new SavingsHelper(accountTransfersReadPlatformService);
         this.jdbcTemplate = jdbcTemplate;
         this.configurationDomainService = configurationDomainService;
+        this.savingsAccountCheckpointService = savingsAccountCheckpointService;
     }
 
     /**
@@ -339,6 +343,31 @@ public class SavingsAccountAssembler {
         return loadTransactionsToSavingsAccount(account, backdatedTxnsAllowedTill);
     }
 
+    /**
+     * Loads the account for a transaction on {@code transactionDate} with only its transactions from the last interest
+     * posting onwards, the older ones being carried by its {@link SavingsAccountCheckpoint}. The account then has to be
+     * handled with backdatedTxnsAllowedTill set, see {@link SavingsAccount#isLoadedFromCheckpoint()}. Falls back to
+     * {@link #assembleFrom(Long, boolean)} when there is no usable checkpoint, e.g. for backdated transactions.
+     */
+    public SavingsAccount assembleFromCheckpoint(final Long savingsId, final LocalDate transactionDate) {
+        // postings at the period end are dated inside the period, so the checkpoint date is not where a period starts
+        if (!this.savingsAccountCheckpointService.isCheckpointLoadingEnabled()
+                || this.configurationDomainService.isSavingsInterestPostingAtCurrentPeriodEnd()) {
+            return assembleFrom(savingsId, getPivotConfigStatus());
+        }
+        final SavingsAccount account = this.savingsAccountRepository.findSavingsWithNotFoundDetection(savingsId, true);
+        final SavingsAccountCheckpoint checkpoint = this.savingsAccountCheckpointService.retrieve(savingsId);
+        if (checkpoint == null
+                || !checkpoint.isUsableFor(account.getVersion(), account.getSummary().getInterestPostedTillDate(), transactionDate)) {
+            return loadTransactionsToSavingsAccount(account, false);
+        }
+        account.setSavingsAccountTransactions(
+                this.savingsAccountRepository.findTransactionsAfterPivotDate(account, checkpoint.getInterestPostedTillDate()));
+        account.getSummary().applyCheckpoint(checkpoint);
+        account.setHelpers(this.savingsAccountTransactionSummaryWrapper, this.savingsHelper);
+        return account;
+    }
+
     public SavingsAccount loadTransactionsToSavingsAccount(final SavingsAccount account, final boolean backdatedTxnsAllowedTill) {
         List<SavingsAccountTransaction> savingsAccountTransactions = null;
         if (backdatedTxnsAllowedTill) {
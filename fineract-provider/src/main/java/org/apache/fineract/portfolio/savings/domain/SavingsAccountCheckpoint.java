@@ -0,0 +1,146 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.domain;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+import org.apache.fineract.organisation.monetary.domain.Money;
+
+/**
+ * Running balance and totals of the transactions of a {@link SavingsAccount} dated before its last interest posting.
+ * With a checkpoint in place the account only needs its transactions from the posting date onwards to be loaded.
+ */
+public final class SavingsAccountCheckpoint {
+
+    private final Long savingsAccountId;
+    private final int accountVersion;
+    private final LocalDate interestPostedTillDate;
+    private final BigDecimal runningBalance;
+    private final BigDecimal totalDeposits;
+    private final BigDecimal totalWithdrawals;
+    private final BigDecimal totalInterestPosted;
+    private final BigDecimal totalOverdraftInterest;
+    private final BigDecimal totalWithholdTax;
+
+    public SavingsAccountCheckpoint(final Long savingsAccountId, final int accountVersion, final LocalDate interestPostedTillDate,
+            final BigDecimal runningBalance, final BigDecimal totalDeposits, final BigDecimal totalWithdrawals,
+            final BigDecimal totalInterestPosted, final BigDecimal totalOverdraftInterest, final BigDecimal totalWithholdTax) {
+        this.savingsAccountId = savingsAccountId;
+        this.accountVersion = accountVersion;
+        this.interestPostedTillDate = interestPostedTillDate;
+        this.runningBalance = runningBalance;
+        this.totalDeposits = totalDeposits;
+        this.totalWithdrawals = totalWithdrawals;
+        this.totalInterestPosted = totalInterestPosted;
+        this.totalOverdraftInterest = totalOverdraftInterest;
+        this.totalWithholdTax = totalWithholdTax;
+    }
+
+    /**
+     * Folds the transactions dated before {@code interestPostedTillDate} into a new checkpoint. Without a
+     * {@code previous} checkpoint {@code transactions} has to hold the full history of the account, otherwise only the
+     * ones dated on or after the previous checkpoint are taken into account.
+     */
+    public static SavingsAccountCheckpoint advance(final SavingsAccountCheckpoint previous, final Long savingsAccountId,
+            final int accountVersion, final LocalDate interestPostedTillDate, final MonetaryCurrency currency,
+            final SavingsAccountTransactionSummaryWrapper wrapper, final List<SavingsAccountTransaction> transactions) {
+        final List<SavingsAccountTransaction> folded = new ArrayList<>();
+        for (final SavingsAccountTransaction transaction : transactions) {
+            final LocalDate transactionDate = transaction.getTransactionLocalDate();
+            if (transactionDate.isBefore(interestPostedTillDate)
+                    && (previous == null || !transactionDate.isBefore(previous.interestPostedTillDate))) {
+                folded.add(transaction);
+            }
+        }
+        Collections.sort(folded, new SavingsAccountTransactionComparator());
+
+        Money runningBalance = previous == null ? Money.zero(currency) : Money.of(currency, previous.runningBalance);
+        for (int i = folded.size() - 1; i >= 0; i--) {
+            final SavingsAccountTransaction transaction = folded.get(i);
+            if (transaction.isNotReversed() && !transaction.isReversalTransaction()) {
+                runningBalance = transaction.getRunningBalance(currency);
+                break;
+            }
+        }
+
+        return new SavingsAccountCheckpoint(savingsAccountId, accountVersion, interestPostedTillDate, runningBalance.getAmount(),
+                plus(currency, previous == null ? null : previous.totalDeposits, wrapper.calculateTotalDeposits(currency, folded)),
+                plus(currency, previous == null ? null : previous.totalWithdrawals, wrapper.calculateTotalWithdrawals(currency, folded)),
+                plus(currency, previous == null ? null : previous.totalInterestPosted,
+                        wrapper.calculateTotalInterestPosted(currency, folded)),
+                plus(currency, previous == null ? null : previous.totalOverdraftInterest,
+                        wrapper.calculateTotalOverdraftInterest(currency, folded)),
+                plus(currency, previous == null ? null : previous.totalWithholdTax,
+                        wrapper.calculateTotalWithholdTaxWithdrawal(currency, folded)));
+    }
+
+    private static BigDecimal plus(final MonetaryCurrency currency, final BigDecimal total, final BigDecimal amount) {
+        return Money.of(currency, total).plus(amount).getAmountDefaultedToNullIfZero();
+    }
+
+    /**
+     * A checkpoint can only stand in for the older transactions while nothing else has touched the account since it was
+     * taken, the interest posting it was taken at is still the last one and the new transaction does not go back behind
+     * it.
+     */
+    public boolean isUsableFor(final int version, final LocalDate accountInterestPostedTillDate, final LocalDate transactionDate) {
+        return this.accountVersion == version && this.interestPostedTillDate.equals(accountInterestPostedTillDate)
+                && (transactionDate == null || !transactionDate.isBefore(this.interestPostedTillDate));
+    }
+
+    public Long getSavingsAccountId() {
+        return this.savingsAccountId;
+    }
+
+    public int getAccountVersion() {
+        return this.accountVersion;
+    }
+
+    public LocalDate getInterestPostedTillDate() {
+        return this.interestPostedTillDate;
+    }
+
+    public BigDecimal getRunningBalance() {
+        return this.runningBalance;
+    }
+
+    public BigDecimal getTotalDeposits() {
+        return this.totalDeposits;
+    }
+
+    public BigDecimal getTotalWithdrawals() {
+        return this.totalWithdrawals;
+    }
+
+    public BigDecimal getTotalInterestPosted() {
+        return this.totalInterestPosted;
+    }
+
+    public BigDecimal getTotalOverdraftInterest() {
+        return this.totalOverdraftInterest;
+    }
+
+    public BigDecimal getTotalWithholdTax() {
+        return this.totalWithholdTax;
+    }
+}
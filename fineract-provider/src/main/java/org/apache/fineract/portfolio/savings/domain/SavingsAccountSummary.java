@@ -87,6 +87,9 @@ public final class SavingsAccountSummary {
     @Transient
     private BigDecimal runningBalanceOnInterestPostingTillDate = BigDecimal.ZERO;
 
+    @Transient
+    private SavingsAccountCheckpoint checkpoint;
+
     SavingsAccountSummary() {
         //
     }
@@ -205,6 +208,26 @@ public final class SavingsAccountSummary {
             this.accountBalance = Money.of(currency, this.accountBalance).plus(Money.of(currency, this.totalDeposits))
                     .plus(this.totalInterestPosted).minus(this.totalWithdrawals).minus(this.totalWithholdTax)
                     .minus(this.totalOverdraftInterestDerived).getAmount();
+
+            if (this.checkpoint != null) {
+                // fees and charges are not among the recomputed totals, the ones after the checkpoint still lower the balance
+                this.accountBalance = Money.of(currency, this.accountBalance)
+                        .minus(wrapper.calculateTotalWithdrawalFees(currency, savingsAccountTransactions))
+                        .minus(wrapper.calculateTotalAnnualFees(currency, savingsAccountTransactions))
+                        .minus(wrapper.calculateTotalFeesCharge(currency, savingsAccountTransactions))
+                        .minus(wrapper.calculateTotalPenaltyCharge(currency, savingsAccountTransactions)).getAmount();
+                // the running balance on the pivot date already carries these, only the totals miss them
+                this.totalDeposits = Money.of(currency, this.totalDeposits).plus(this.checkpoint.getTotalDeposits())
+                        .getAmountDefaultedToNullIfZero();
+                this.totalWithdrawals = Money.of(currency, this.totalWithdrawals).plus(this.checkpoint.getTotalWithdrawals())
+                        .getAmountDefaultedToNullIfZero();
+                this.totalInterestPosted = Money.of(currency, this.totalInterestPosted).plus(this.checkpoint.getTotalInterestPosted())
+                        .getAmountDefaultedToNullIfZero();
+                this.totalOverdraftInterestDerived = Money.of(currency, this.totalOverdraftInterestDerived)
+                        .plus(this.checkpoint.getTotalOverdraftInterest()).getAmountDefaultedToNullIfZero();
+                this.totalWithholdTax = Money.of(currency, this.totalWithholdTax).plus(this.checkpoint.getTotalWithholdTax())
+                        .getAmountDefaultedToNullIfZero();
+            }
         }
     }
 
@@ -264,6 +287,15 @@ public final class SavingsAccountSummary {
         this.totalInterestEarned = totalEarned.getAmount();
     }
 
+    /**
+     * The periods before the checkpoint are not calculated again on an account loaded from it, they earned the interest
+     * posted for them.
+     */
+    public void addInterestEarnedBeforeCheckpoint(final MonetaryCurrency currency, final Money interestPostedOnCheckpointDate) {
+        this.totalInterestEarned = Money.of(currency, this.totalInterestEarned).plus(this.checkpoint.getTotalInterestPosted())
+                .minus(this.checkpoint.getTotalOverdraftInterest()).plus(interestPostedOnCheckpointDate).getAmount();
+    }
+
     public boolean isLessThanOrEqualToAccountBalance(final Money amount) {
         final Money accountBalance = getAccountBalance(amount.getCurrency());
         return accountBalance.isGreaterThanOrEqualTo(amount);
@@ -305,6 +337,18 @@ public final class SavingsAccountSummary {
         return this.runningBalanceOnInterestPostingTillDate;
     }
 
+    /**
+     * Stands the checkpoint in for the transactions dated before it, which are then not loaded with the account.
+     */
+    public void applyCheckpoint(final SavingsAccountCheckpoint checkpoint) {
+        this.checkpoint = checkpoint;
+        this.runningBalanceOnInterestPostingTillDate = checkpoint.getRunningBalance();
+    }
+
+    public SavingsAccountCheckpoint getCheckpoint() {
+        return this.checkpoint;
+    }
+
     public BigDecimal getTotalWithdrawals() {
         return this.totalWithdrawals;
     }
@@ -0,0 +1,89 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.domain.interest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+import org.apache.fineract.infrastructure.core.domain.LocalDateInterval;
+import org.apache.fineract.portfolio.savings.data.SavingsAccountTransactionData;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountTransaction;
+
+/**
+ * Sweeps the ordered non interest posting transactions of an account once across its posting periods, instead of
+ * handing the whole history to {@link PostingPeriod} for every period.
+ *
+ * For a period it returns the transactions from the first one whose balance does not end before the period up to the
+ * last one dated on the day after the period. {@link PostingPeriod} ignores every transaction outside that range: its
+ * balance neither falls within nor spans any portion of the period and it does not occur on the day after it. The
+ * transactions skipped at the front stay skipped for the later periods, so the sweep advances through the history
+ * once. The transactions have to be ordered by transaction date; a period that starts before the previous one restarts
+ * the sweep.
+ */
+public final class PostingPeriodTransactionSweep<T> {
+
+    private final List<T> orderedTransactions;
+    private final Function<T, LocalDate> transactionDate;
+    private final Function<T, LocalDate> balanceEndDate;
+    private int first;
+    private LocalDate previousPeriodStart;
+
+    private PostingPeriodTransactionSweep(final List<T> orderedTransactions, final Function<T, LocalDate> transactionDate,
+            final Function<T, LocalDate> balanceEndDate) {
+        this.orderedTransactions = orderedTransactions;
+        this.transactionDate = transactionDate;
+        this.balanceEndDate = balanceEndDate;
+    }
+
+    public static PostingPeriodTransactionSweep<SavingsAccountTransaction> of(final List<SavingsAccountTransaction> orderedTransactions) {
+        return new PostingPeriodTransactionSweep<>(orderedTransactions, SavingsAccountTransaction::getTransactionLocalDate,
+                SavingsAccountTransaction::getEndOfBalanceLocalDate);
+    }
+
+    public static PostingPeriodTransactionSweep<SavingsAccountTransactionData> ofData(
+            final List<SavingsAccountTransactionData> orderedTransactions) {
+        return new PostingPeriodTransactionSweep<>(orderedTransactions, SavingsAccountTransactionData::getTransactionLocalDate,
+                SavingsAccountTransactionData::getEndOfBalanceLocalDate);
+    }
+
+    public List<T> transactionsFor(final LocalDateInterval periodInterval) {
+        final LocalDate periodStart = periodInterval.startDate();
+        if (this.previousPeriodStart != null && periodStart.isBefore(this.previousPeriodStart)) {
+            this.first = 0;
+        }
+        this.previousPeriodStart = periodStart;
+
+        final int size = this.orderedTransactions.size();
+        while (this.first < size && endsBefore(this.orderedTransactions.get(this.first), periodStart)) {
+            this.first++;
+        }
+
+        final LocalDate dayAfterPeriod = periodInterval.endDate().plusDays(1);
+        int last = this.first;
+        while (last < size && !this.transactionDate.apply(this.orderedTransactions.get(last)).isAfter(dayAfterPeriod)) {
+            last++;
+        }
+        return this.orderedTransactions.subList(this.first, last);
+    }
+
+    private boolean endsBefore(final T transaction, final LocalDate periodStart) {
+        final LocalDate endDate = this.balanceEndDate.apply(transaction);
+        return this.transactionDate.apply(transaction).isBefore(periodStart) && endDate != null && endDate.isBefore(periodStart);
+    }
+}
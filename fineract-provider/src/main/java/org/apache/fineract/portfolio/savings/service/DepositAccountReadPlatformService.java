@@ -19,6 +19,7 @@
 package org.apache.fineract.portfolio.savings.service;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import org.apache.fineract.infrastructure.core.data.PaginationParameters;
 import org.apache.fineract.infrastructure.core.service.Page;
@@ -46,7 +47,11 @@ public interface DepositAccountReadPlatformService {
     DepositAccountData retrieveTemplate(DepositAccountType depositAccountType, Long clientId, Long groupId, Long productId,
             boolean staffInSelectedOfficeOnly);
 
-    Collection<DepositAccountData> retrieveForMaturityUpdate();
+    /**
+     * Matured deposit accounts with an id greater than {@code maxSavingsIdInList}, at most {@code pageSize} of them
+     * (keyset pagination).
+     */
+    List<DepositAccountData> retrieveForMaturityUpdate(Long maxSavingsIdInList, int pageSize);
 
     SavingsAccountTransactionData retrieveRecurringAccountDepositTransactionTemplate(Long accountId);
 
@@ -27,6 +27,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.apache.fineract.infrastructure.core.data.EnumOptionData;
@@ -217,16 +218,17 @@ public class DepositAccountReadPlatformServiceImpl implements DepositAccountRead
     }
 
     @Override
-    public Collection<DepositAccountData> retrieveForMaturityUpdate() {
+    public List<DepositAccountData> retrieveForMaturityUpdate(final Long maxSavingsIdInList, final int pageSize) {
 
         final StringBuilder sqlBuilder = new StringBuilder(200);
         sqlBuilder.append("SELECT ");
         sqlBuilder.append(this.depositAccountForMaturityRowMapper.schema());
-        sqlBuilder.append(" WHERE da.deposit_type_enum in (?, ?) and da.status_enum = ?");
+        sqlBuilder.append(" WHERE da.deposit_type_enum in (?, ?) and da.status_enum = ? and da.id > ?");
+        sqlBuilder.append(" ORDER BY da.id ").append(sqlGenerator.limit(pageSize));
 
-        return this.jdbcTemplate.query(sqlBuilder.toString(), this.depositAccountForMaturityRowMapper,
+        return this.jdbcTemplate.query(sqlBuilder.toString(), this.depositAccountForMaturityRowMapper, // NOSONAR
                 new Object[] { DepositAccountType.FIXED_DEPOSIT.getValue(), DepositAccountType.RECURRING_DEPOSIT.getValue(),
-                        SavingsAccountStatusType.ACTIVE.getValue() });
+                        SavingsAccountStatusType.ACTIVE.getValue(), maxSavingsIdInList });
     }
 
     @Override
@@ -19,6 +19,7 @@
 package org.apache.fineract.portfolio.savings.service;
 
 import java.util.Collection;
+import java.util.List;
 import org.apache.fineract.portfolio.charge.data.ChargeData;
 import org.apache.fineract.portfolio.savings.data.SavingsAccountAnnualFeeData;
 import org.apache.fineract.portfolio.savings.data.SavingsAccountChargeData;
@@ -31,7 +32,15 @@ public interface SavingsAccountChargeReadPlatformService {
 
     SavingsAccountChargeData retrieveSavingsAccountChargeDetails(Long savingsAccountChargeId, Long savingsAccountId);
 
-    Collection<SavingsAccountAnnualFeeData> retrieveChargesWithAnnualFeeDue();
+    /**
+     * Annual fee charges that are due, of the next {@code pageSize} savings accounts with an id greater than
+     * {@code maxSavingsIdInList} (keyset pagination).
+     */
+    List<SavingsAccountAnnualFeeData> retrieveChargesWithAnnualFeeDue(Long maxSavingsIdInList, int pageSize);
 
-    Collection<SavingsAccountAnnualFeeData> retrieveChargesWithDue();
+    /**
+     * Unpaid charges that are due, of the next {@code pageSize} savings accounts with an id greater than
+     * {@code maxSavingsIdInList} (keyset pagination), ordered by account and due date.
+     */
+    List<SavingsAccountAnnualFeeData> retrieveChargesWithDue(Long maxSavingsIdInList, int pageSize);
 }
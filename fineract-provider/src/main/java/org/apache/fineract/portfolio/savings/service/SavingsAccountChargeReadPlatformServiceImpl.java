@@ -23,6 +23,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.MonthDay;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -250,23 +251,43 @@ public class SavingsAccountChargeReadPlatformServiceImpl implements SavingsAccou
     }
 
     @Override
-    public Collection<SavingsAccountAnnualFeeData> retrieveChargesWithAnnualFeeDue() {
-        final String sql = "select " + this.chargeDueMapper.schema()
-                + " where sac.charge_due_date is not null and sac.charge_time_enum = ? " + " and sac.charge_due_date <= "
+    public List<SavingsAccountAnnualFeeData> retrieveChargesWithAnnualFeeDue(final Long maxSavingsIdInList, final int pageSize) {
+        final String where = " where sac.charge_due_date is not null and sac.charge_time_enum = ? " + " and sac.charge_due_date <= "
                 + sqlGenerator.currentBusinessDate() + " and sa.status_enum = ? ";
 
-        return this.jdbcTemplate.query(sql, this.chargeDueMapper, // NOSONAR
-                new Object[] { ChargeTimeType.ANNUAL_FEE.getValue(), SavingsAccountStatusType.ACTIVE.getValue() });
+        return retrieveChargesDueOfNextAccounts(where,
+                List.of(ChargeTimeType.ANNUAL_FEE.getValue(), SavingsAccountStatusType.ACTIVE.getValue()), maxSavingsIdInList, pageSize);
     }
 
     @Override
-    public Collection<SavingsAccountAnnualFeeData> retrieveChargesWithDue() {
-        final String sql = "select " + this.chargeDueMapper.schema()
-                + " where sac.charge_due_date is not null and sac.charge_due_date <= ? and sac.waived = false and sac.is_paid_derived=false and sac.is_active=true and sa.status_enum = ? "
-                + " order by sac.charge_due_date ";
+    public List<SavingsAccountAnnualFeeData> retrieveChargesWithDue(final Long maxSavingsIdInList, final int pageSize) {
+        final String where = " where sac.charge_due_date is not null and sac.charge_due_date <= ? and sac.waived = false "
+                + "and sac.is_paid_derived=false and sac.is_active=true and sa.status_enum = ? ";
 
-        return this.jdbcTemplate.query(sql, this.chargeDueMapper,
-                new Object[] { DateUtils.getBusinessLocalDate(), SavingsAccountStatusType.ACTIVE.getValue() }); // NOSONAR
+        return retrieveChargesDueOfNextAccounts(where,
+                List.of(DateUtils.getBusinessLocalDate(), SavingsAccountStatusType.ACTIVE.getValue()), maxSavingsIdInList, pageSize);
     }
 
+    /*
+     * Pages over the savings accounts rather than over the charges, so that all charges of an account are returned in
+     * the same page, in due date order.
+     */
+    private List<SavingsAccountAnnualFeeData> retrieveChargesDueOfNextAccounts(final String where, final List<Object> whereParams,
+            final Long maxSavingsIdInList, final int pageSize) {
+        final List<Object> params = new ArrayList<>(whereParams);
+        params.add(maxSavingsIdInList);
+        final String accountIdSql = "select distinct sa.id from m_savings_account_charge sac "
+                + "join m_savings_account sa on sac.savings_account_id = sa.id " + where + " and sa.id > ? order by sa.id "
+                + sqlGenerator.limit(pageSize);
+        final List<Long> accountIds = this.jdbcTemplate.queryForList(accountIdSql, Long.class, params.toArray()); // NOSONAR
+        if (accountIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        params.set(params.size() - 1, accountIds.get(0));
+        params.add(accountIds.get(accountIds.size() - 1));
+        final String sql = "select " + this.chargeDueMapper.schema() + where + " and sa.id between ? and ? "
+                + " order by sa.id, sac.charge_due_date, sac.id ";
+        return this.jdbcTemplate.query(sql, this.chargeDueMapper, params.toArray()); // NOSONAR
+    }
 }
@@ -0,0 +1,110 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.service;
+
+import java.time.LocalDate;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccount;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountCheckpoint;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountRepositoryWrapper;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountTransactionSummaryWrapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps one {@link SavingsAccountCheckpoint} per savings account, taken at its last interest posting. The checkpoint
+ * is stamped with the version of the account, so that any change made outside of the checkpoint aware operations
+ * forces the next one back to a full load, which then writes a fresh checkpoint.
+ */
+@Service
+@RequiredArgsConstructor
+public class SavingsAccountCheckpointServiceImpl implements SavingsAccountCheckpointService {
+
+    private static final String INSERT_SQL = "insert into m_savings_account_checkpoint (savings_account_id, account_version, "
+            + "interest_posted_till_date, running_balance, total_deposits, total_withdrawals, total_interest_posted, "
+            + "total_overdraft_interest, total_withhold_tax) values (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FineractProperties fineractProperties;
+    private final ConfigurationDomainService configurationDomainService;
+    private final SavingsAccountRepositoryWrapper savingsAccountRepository;
+    private final SavingsAccountTransactionSummaryWrapper savingsAccountTransactionSummaryWrapper;
+
+    @Override
+    public boolean isCheckpointLoadingEnabled() {
+        // the pivot date config has its own partial loading which does not keep the full history in reach
+        return this.fineractProperties.getSavings().isCheckpointLoadingEnabled()
+                && !this.configurationDomainService.retrievePivotDateConfig();
+    }
+
+    @Override
+    public SavingsAccountCheckpoint retrieve(final Long savingsAccountId) {
+        final List<SavingsAccountCheckpoint> checkpoints = this.jdbcTemplate.query(
+                "select * from m_savings_account_checkpoint where savings_account_id = ?",
+                (rs, rowNum) -> new SavingsAccountCheckpoint(rs.getLong("savings_account_id"), rs.getInt("account_version"),
+                        JdbcSupport.getLocalDate(rs, "interest_posted_till_date"), rs.getBigDecimal("running_balance"),
+                        JdbcSupport.getBigDecimalDefaultToNullIfZero(rs, "total_deposits"),
+                        JdbcSupport.getBigDecimalDefaultToNullIfZero(rs, "total_withdrawals"),
+                        JdbcSupport.getBigDecimalDefaultToNullIfZero(rs, "total_interest_posted"),
+                        JdbcSupport.getBigDecimalDefaultToNullIfZero(rs, "total_overdraft_interest"),
+                        JdbcSupport.getBigDecimalDefaultToNullIfZero(rs, "total_withhold_tax")),
+                savingsAccountId);
+        return checkpoints.isEmpty() ? null : checkpoints.get(0);
+    }
+
+    /**
+     * Called at the end of a deposit, withdrawal or interest posting. Moves the checkpoint up to a new interest posting,
+     * or only restamps it with the new account version.
+     */
+    @Override
+    public void updateCheckpoint(final SavingsAccount account) {
+        if (!isCheckpointLoadingEnabled()) {
+            return;
+        }
+        // the version is only bumped once the account is flushed
+        this.savingsAccountRepository.saveAndFlush(account);
+        final LocalDate interestPostedTillDate = account.getSummary().getInterestPostedTillDate();
+        final SavingsAccountCheckpoint current = account.getSummary().getCheckpoint();
+        if (interestPostedTillDate == null || (current != null && interestPostedTillDate.isBefore(current.getInterestPostedTillDate()))) {
+            this.jdbcTemplate.update("delete from m_savings_account_checkpoint where savings_account_id = ?", account.getId());
+        } else if (current != null && interestPostedTillDate.equals(current.getInterestPostedTillDate())) {
+            if (current.getAccountVersion() != account.getVersion()) {
+                this.jdbcTemplate.update("update m_savings_account_checkpoint set account_version = ? where savings_account_id = ?",
+                        account.getVersion(), account.getId());
+            }
+        } else {
+            // without a checkpoint the account was loaded with its whole history
+            save(SavingsAccountCheckpoint.advance(current, account.getId(), account.getVersion(), interestPostedTillDate,
+                    account.getCurrency(), this.savingsAccountTransactionSummaryWrapper,
+                    current == null ? account.getTransactions() : account.getSavingsAccountTransactionsWithPivotConfig()));
+        }
+    }
+
+    private void save(final SavingsAccountCheckpoint checkpoint) {
+        this.jdbcTemplate.update("delete from m_savings_account_checkpoint where savings_account_id = ?", checkpoint.getSavingsAccountId());
+        this.jdbcTemplate.update(INSERT_SQL, checkpoint.getSavingsAccountId(), checkpoint.getAccountVersion(),
+                checkpoint.getInterestPostedTillDate(), checkpoint.getRunningBalance(), checkpoint.getTotalDeposits(),
+                checkpoint.getTotalWithdrawals(), checkpoint.getTotalInterestPosted(), checkpoint.getTotalOverdraftInterest(),
+                checkpoint.getTotalWithholdTax());
+    }
+}
@@ -43,6 +43,7 @@ import org.apache.fineract.portfolio.savings.domain.SavingsAccountChargesPaidByD
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountTransactionDataComparator;
 import org.apache.fineract.portfolio.savings.domain.SavingsHelper;
 import org.apache.fineract.portfolio.savings.domain.interest.PostingPeriod;
+import org.apache.fineract.portfolio.savings.domain.interest.PostingPeriodTransactionSweep;
 import org.apache.fineract.portfolio.tax.data.TaxComponentData;
 import org.apache.fineract.portfolio.tax.service.TaxUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -269,6 +270,8 @@ public class SavingsAccountInterestPostingServiceImpl implements SavingsAccountI
         final Money minOverdraftForInterestCalculation = Money.of(savingsAccountData.currency(),
                 savingsAccountData.getMinOverdraftForInterestCalculation());
         final MonetaryCurrency monetaryCurrency = MonetaryCurrency.fromCurrencyData(savingsAccountData.currency());
+        final PostingPeriodTransactionSweep<SavingsAccountTransactionData> transactionSweep = PostingPeriodTransactionSweep
+                .ofData(retreiveOrderedNonInterestPostingTransactions(savingsAccountData));
 
         for (final LocalDateInterval periodInterval : postingPeriodIntervals) {
 
@@ -277,11 +280,11 @@ public class SavingsAccountInterestPostingServiceImpl implements SavingsAccountI
                 isUserPosting = true;
             }
             final PostingPeriod postingPeriod = PostingPeriod.createFromDTO(periodInterval, periodStartingBalance,
-                    retreiveOrderedNonInterestPostingTransactions(savingsAccountData), monetaryCurrency, compoundingPeriodType,
-                    interestCalculationType, interestRateAsFraction, daysInYearType.getValue(), upToInterestCalculationDate,
-                    interestPostTransactions, isInterestTransfer, minBalanceForInterestCalculation,
-                    isSavingsInterestPostingAtCurrentPeriodEnd, overdraftInterestRateAsFraction, minOverdraftForInterestCalculation,
-                    isUserPosting, financialYearBeginningMonth, savingsAccountData.isAllowOverdraft());
+                    transactionSweep.transactionsFor(periodInterval), monetaryCurrency, compoundingPeriodType, interestCalculationType,
+                    interestRateAsFraction, daysInYearType.getValue(), upToInterestCalculationDate, interestPostTransactions,
+                    isInterestTransfer, minBalanceForInterestCalculation, isSavingsInterestPostingAtCurrentPeriodEnd,
+                    overdraftInterestRateAsFraction, minOverdraftForInterestCalculation, isUserPosting, financialYearBeginningMonth,
+                    savingsAccountData.isAllowOverdraft());
 
             periodStartingBalance = postingPeriod.closingBalance();
 
@@ -64,8 +64,10 @@ public interface SavingsAccountReadPlatformService {
 
     List<Long> getAccountsIdsByStatusPaged(Integer status, int pageSize, Long maxSavingsIdInList);
 
-    List<SavingsAccountData> retrieveAllSavingsDataForInterestPosting(boolean backdatedTxnsAllowedTill, int pageSize, Integer status,
-            Long maxSavingsId);
+    Long retrieveLastSavingsIdOfInterestPostingPage(int pageSize, Integer status, Long maxSavingsId);
+
+    List<SavingsAccountData> retrieveAllSavingsDataForInterestPosting(boolean backdatedTxnsAllowedTill, Integer status, Long maxSavingsId,
+            Long lastSavingsId);
 
     List<SavingsAccountTransactionData> retrieveAllTransactionData(List<String> refNo);
 }
@@ -261,21 +261,29 @@ public class SavingsAccountReadPlatformServiceImpl implements SavingsAccountRead
     }
 
     @Override
-    public List<SavingsAccountData> retrieveAllSavingsDataForInterestPosting(final boolean backdatedTxnsAllowedTill, final int pageSize,
-            final Integer status, final Long maxSavingsId) {
+    public Long retrieveLastSavingsIdOfInterestPostingPage(final int pageSize, final Integer status, final Long maxSavingsId) {
+        final String sql = "select max(p.id) from (select a.id from m_savings_account a where a.id > ? and a.status_enum = ? "
+                + "and (a.interest_posted_till_date is null or a.interest_posted_till_date <= ?) order by a.id "
+                + sqlGenerator.limit(pageSize) + ") p";
+        return this.jdbcTemplate.queryForObject(sql, Long.class, maxSavingsId, status, DateUtils.getBusinessLocalDate().minusDays(1));
+    }
+
+    @Override
+    public List<SavingsAccountData> retrieveAllSavingsDataForInterestPosting(final boolean backdatedTxnsAllowedTill, final Integer status,
+            final Long maxSavingsId, final Long lastSavingsId) {
         LocalDate yesterday = DateUtils.getBusinessLocalDate().minusDays(1);
         String sql = "select " + this.savingAccountMapperForInterestPosting.schema()
-                + "join (select a.id from m_savings_account a where a.id > ? and a.status_enum = ? limit ?) b on b.id = sa.id ";
+                + "join (select a.id from m_savings_account a where a.id > ? and a.id <= ? and a.status_enum = ? "
+                + "and (a.interest_posted_till_date is null or a.interest_posted_till_date <= ?)) b on b.id = sa.id ";
         if (backdatedTxnsAllowedTill) {
             sql = sql
                     + "where (CASE WHEN sa.interest_posted_till_date is not null THEN tr.transaction_date >= sa.interest_posted_till_date ELSE tr.transaction_date >= sa.activatedon_date END) ";
         }
 
-        sql = sql + " and (sa.interest_posted_till_date is null or sa.interest_posted_till_date <= ? ) ";
         sql = sql + " order by sa.id, tr.transaction_date, tr.created_date, tr.id";
 
         List<SavingsAccountData> savingsAccountDataList = this.jdbcTemplate.query(sql, this.savingAccountMapperForInterestPosting, // NOSONAR
-                new Object[] { maxSavingsId, status, pageSize, yesterday });
+                new Object[] { maxSavingsId, lastSavingsId, status, yesterday });
         for (SavingsAccountData savingsAccountData : savingsAccountDataList) {
             this.savingAccountAssembler.assembleSavings(savingsAccountData);
         }
@@ -172,6 +172,7 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
     private final LumaAccountingProcessorForSavingsService lumaAccountingProcessorForSavingsService;
     private final BitaCoraMasterRepository bitaCoraMasterRepository;
     private final ExchangeRepository exchangeRepository;
+    private final SavingsAccountCheckpointService savingsAccountCheckpointService;
 
     @Autowired
     public SavingsAccountWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context,
@@ -196,7 +197,8 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
             final BusinessEventNotifierService businessEventNotifierService, final GSIMRepositoy gsimRepository,
             final JdbcTemplate jdbcTemplate, final SavingsAccountInterestPostingService savingsAccountInterestPostingService,
             final LumaAccountingProcessorForSavingsService lumaAccountingProcessorForSavingsService,
-            final BitaCoraMasterRepository bitaCoraMasterRepository, final ExchangeRepository exchangeRepository) {
+            final BitaCoraMasterRepository bitaCoraMasterRepository, final ExchangeRepository exchangeRepository,
+            final SavingsAccountCheckpointService savingsAccountCheckpointService) {
         this.context = context;
         this.savingAccountRepositoryWrapper = savingAccountRepositoryWrapper;
         this.savingsAccountTransactionRepository = savingsAccountTransactionRepository;
@@ -228,6 +230,7 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
         this.lumaAccountingProcessorForSavingsService = lumaAccountingProcessorForSavingsService;
         this.bitaCoraMasterRepository = bitaCoraMasterRepository;
         this.exchangeRepository = exchangeRepository;
+        this.savingsAccountCheckpointService = savingsAccountCheckpointService;
     }
 
     private static final Logger LOG = LoggerFactory.getLogger(SavingsAccountWritePlatformServiceJpaRepositoryImpl.class);
@@ -358,9 +361,10 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
         this.savingsAccountTransactionDataValidator.validate(command);
         boolean isGsim = false;
 
-        final boolean backdatedTxnsAllowedTill = this.savingAccountAssembler.getPivotConfigStatus();
+        final LocalDate transactionDate = command.localDateValueOfParameterNamed("transactionDate");
 
-        final SavingsAccount account = this.savingAccountAssembler.assembleFrom(savingsId, backdatedTxnsAllowedTill);
+        final SavingsAccount account = this.savingAccountAssembler.assembleFromCheckpoint(savingsId, transactionDate);
+        final boolean backdatedTxnsAllowedTill = this.savingAccountAssembler.getPivotConfigStatus() || account.isLoadedFromCheckpoint();
 
         if (account.getGsim() != null) {
             isGsim = true;
@@ -371,7 +375,6 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
         final Locale locale = command.extractLocale();
         final DateTimeFormatter fmt = DateTimeFormatter.ofPattern(command.dateFormat()).withLocale(locale);
 
-        final LocalDate transactionDate = command.localDateValueOfParameterNamed("transactionDate");
         final BigDecimal transactionAmount = command.bigDecimalValueOfParameterNamed("transactionAmount");
 
         this.savingsAccountTransactionDataValidator.validateTransactionWithPivotDate(transactionDate, account);
@@ -382,6 +385,7 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
         boolean isRegularTransaction = true;
         final SavingsAccountTransaction deposit = this.savingsAccountDomainService.handleDeposit(account, fmt, transactionDate,
                 transactionAmount, paymentDetail, isAccountTransfer, isRegularTransaction, backdatedTxnsAllowedTill);
+        this.savingsAccountCheckpointService.updateCheckpoint(account);
 
         if (isGsim && (deposit.getId() != null)) {
 
@@ -438,9 +442,8 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
         final Map<String, Object> changes = new LinkedHashMap<>();
         final PaymentDetail paymentDetail = this.paymentDetailWritePlatformService.createAndPersistPaymentDetail(command, changes);
 
-        final boolean backdatedTxnsAllowedTill = this.savingAccountAssembler.getPivotConfigStatus();
-
-        final SavingsAccount account = this.savingAccountAssembler.assembleFrom(savingsId, backdatedTxnsAllowedTill);
+        final SavingsAccount account = this.savingAccountAssembler.assembleFromCheckpoint(savingsId, transactionDate);
+        final boolean backdatedTxnsAllowedTill = this.savingAccountAssembler.getPivotConfigStatus() || account.isLoadedFromCheckpoint();
 
         if (account.getGsim() != null) {
             isGsim = true;
@@ -458,6 +461,7 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
                 isRegularTransaction, isApplyWithdrawFee, isInterestTransfer, isWithdrawBalance, false, false, false, false, false);
         final SavingsAccountTransaction withdrawal = this.savingsAccountDomainService.handleWithdrawal(account, fmt, transactionDate,
                 transactionAmount, paymentDetail, transactionBooleanValues, backdatedTxnsAllowedTill);
+        this.savingsAccountCheckpointService.updateCheckpoint(account);
 
         if (isGsim && (withdrawal.getId() != null)) {
             GroupSavingsIndividualMonitoring gsim = gsimRepository.findById(account.getGsim().getId()).orElseThrow();
@@ -551,8 +555,8 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
         final boolean postInterestAs = command.booleanPrimitiveValueOfParameterNamed("isPostInterestAsOn");
         final LocalDate transactionDate = command.localDateValueOfParameterNamed("transactionDate");
 
-        final boolean backdatedTxnsAllowedTill = this.savingAccountAssembler.getPivotConfigStatus();
-        final SavingsAccount account = this.savingAccountAssembler.assembleFrom(savingsId, backdatedTxnsAllowedTill);
+        final SavingsAccount account = this.savingAccountAssembler.assembleFromCheckpoint(savingsId, transactionDate);
+        final boolean backdatedTxnsAllowedTill = this.savingAccountAssembler.getPivotConfigStatus() || account.isLoadedFromCheckpoint();
         checkClientOrGroupActive(account);
 
         this.savingsAccountTransactionDataValidator.validateTransactionWithPivotDate(transactionDate, account);
@@ -587,6 +591,7 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
 
         }
         postInterest(account, postInterestAs, transactionDate, backdatedTxnsAllowedTill);
+        this.savingsAccountCheckpointService.updateCheckpoint(account);
 
         businessEventNotifierService.notifyPostBusinessEvent(new SavingsPostInterestBusinessEvent(account));
         return new CommandProcessingResultBuilder() //
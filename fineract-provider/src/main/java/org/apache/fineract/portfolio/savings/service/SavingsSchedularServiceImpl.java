@@ -20,21 +20,24 @@ package org.apache.fineract.portfolio.savings.service;
 
 import static org.apache.fineract.portfolio.savings.domain.SavingsAccountStatusType.ACTIVE;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.time.LocalDate;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
-import java.util.concurrent.Callable;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.collections4.CollectionUtils;
 import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
 import org.apache.fineract.infrastructure.core.domain.FineractContext;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
@@ -55,6 +58,12 @@ import org.springframework.transaction.support.TransactionTemplate;
 @RequiredArgsConstructor
 public class SavingsSchedularServiceImpl implements SavingsSchedularService {
 
+    private static final String PREFETCH_PAGES_PARAMETER = "prefetch-pages";
+    private static final int DEFAULT_PREFETCH_PAGES = 2;
+    private static final String METRIC_PREFIX = "fineract.job.savings.interest.posting";
+    // marks the end of the data for a poster, compared by identity
+    private static final List<SavingsAccountData> END_OF_DATA = Collections.unmodifiableList(new ArrayList<>());
+
     private final SavingsAccountAssembler savingAccountAssembler;
     private final SavingsAccountWritePlatformService savingsAccountWritePlatformService;
     private final SavingsAccountReadPlatformService savingAccountReadPlatformService;
@@ -63,185 +72,180 @@ public class SavingsSchedularServiceImpl implements SavingsSchedularService {
     private final ConfigurationDomainService configurationDomainService;
     private final JdbcTemplate jdbcTemplate;
     private final TransactionTemplate transactionTemplate;
-    private Queue<List<SavingsAccountData>> queue = new ArrayDeque<>();
-    private int queueSize = 1;
+    private final MeterRegistry meterRegistry;
 
+    /**
+     * Posts interest through a bounded producer/consumer pipeline: a single prefetcher reads the active accounts in
+     * keyset paginated pages of {@code batch-size * thread-pool-size} accounts and splits them into batches on a bounded
+     * queue, from which {@code thread-pool-size} posters pull the batches. The queue holds {@code prefetch-pages} pages
+     * of batches, so the prefetcher stays that far ahead of the posters and blocks once the posters fall behind. It
+     * stops early once no poster is left running, so a poster killed by an error cannot leave it blocked on the queue.
+     */
     @Override
     @CronTarget(jobName = JobName.POST_INTEREST_FOR_SAVINGS)
     public void postInterestForAccounts(Map<String, String> jobParameters) throws JobExecutionException {
 
         final int threadPoolSize = Integer.parseInt(jobParameters.get("thread-pool-size"));
         final int batchSize = Integer.parseInt(jobParameters.get("batch-size"));
+        final int prefetchPages = jobParameters.containsKey(PREFETCH_PAGES_PARAMETER)
+                ? Math.max(1, Integer.parseInt(jobParameters.get(PREFETCH_PAGES_PARAMETER)))
+                : DEFAULT_PREFETCH_PAGES;
         final int pageSize = batchSize * threadPoolSize;
-        Long maxSavingsIdInList = 0L;
-        // initialise the executor service with fetched configurations
-        final ExecutorService executorService = Executors.newFixedThreadPool(threadPoolSize);
         final boolean backdatedTxnsAllowedTill = this.configurationDomainService.retrievePivotDateConfig();
+        final FineractContext context = ThreadLocalContextUtil.getContext();
+        final String tenant = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
 
-        long start = System.currentTimeMillis();
-
-        log.info("Reading Savings Account Data!");
-        List<SavingsAccountData> savingsAccounts = this.savingAccountReadPlatformService
-                .retrieveAllSavingsDataForInterestPosting(backdatedTxnsAllowedTill, pageSize, ACTIVE.getValue(), maxSavingsIdInList);
+        final BlockingQueue<List<SavingsAccountData>> queue = new ArrayBlockingQueue<>(threadPoolSize * prefetchPages);
+        final List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+        final AtomicInteger runningPosters = new AtomicInteger(threadPoolSize);
+        final ExecutorService executorService = Executors.newFixedThreadPool(threadPoolSize + 1);
 
-        if (savingsAccounts != null && savingsAccounts.size() > 0) {
-            savingsAccounts = Collections.synchronizedList(savingsAccounts);
-            long finish = System.currentTimeMillis();
-            log.info("Done fetching Data within {} milliseconds", finish - start);
-            if (savingsAccounts != null) {
-                queue.add(savingsAccounts);
+        long start = System.currentTimeMillis();
+        try {
+            final List<Future<?>> stages = new ArrayList<>();
+            stages.add(executorService.submit(() -> {
+                prefetch(queue, context, tenant, backdatedTxnsAllowedTill, pageSize, batchSize, runningPosters);
+                return null;
+            }));
+            for (int i = 0; i < threadPoolSize; i++) {
+                stages.add(executorService.submit(() -> {
+                    try {
+                        post(queue, context, tenant, backdatedTxnsAllowedTill, errors);
+                    } finally {
+                        runningPosters.decrementAndGet();
+                    }
+                    return null;
+                }));
             }
-
-            if (!CollectionUtils.isEmpty(queue)) {
-                do {
-                    int totalFilteredRecords = savingsAccounts.size();
-                    log.info("Starting Interest posting - total records - {}", totalFilteredRecords);
-                    List<SavingsAccountData> queueElement = queue.element();
-                    maxSavingsIdInList = queueElement.get(queueElement.size() - 1).getId();
-                    postInterest(queue.remove(), threadPoolSize, batchSize, executorService, backdatedTxnsAllowedTill, pageSize,
-                            maxSavingsIdInList);
-                } while (!CollectionUtils.isEmpty(queue));
+            for (final Future<?> stage : stages) {
+                try {
+                    stage.get();
+                } catch (ExecutionException e) {
+                    log.error("Execution exception while interest posting entries", e);
+                    errors.add(e.getCause());
+                }
             }
+        } catch (InterruptedException e) {
+            log.error("Interrupted while interest posting entries", e);
+            Thread.currentThread().interrupt();
+            errors.add(e);
+        } finally {
             // shutdown the executor when done
             executorService.shutdownNow();
         }
-    }
 
-    private void postInterest(List<SavingsAccountData> savingsAccounts, int threadPoolSize, int batchSize, ExecutorService executorService,
-            final boolean backdatedTxnsAllowedTill, final int pageSize, Long maxSavingsIdInList) {
-        List<Callable<Void>> posters = new ArrayList<>();
-        int fromIndex = 0;
-        // get the size of current paginated dataset
-        int size = savingsAccounts.size();
-        // calculate the batch size
-        batchSize = (int) Math.ceil((double) size / threadPoolSize);
-
-        if (batchSize == 0) {
-            return;
+        log.info("{}: Interest posting finished within {} milliseconds with {} error(s)", tenant, System.currentTimeMillis() - start,
+                errors.size());
+        if (!errors.isEmpty()) {
+            throw new JobExecutionException(new ArrayList<>(errors));
         }
+    }
 
-        int toIndex = (batchSize > size - 1) ? size : batchSize;
-        while (toIndex < size && savingsAccounts.get(toIndex - 1).getId().equals(savingsAccounts.get(toIndex).getId())) {
-            toIndex++;
-        }
-        boolean lastBatch = false;
-        int loopCount = size / batchSize + 1;
-
-        FineractContext context = ThreadLocalContextUtil.getContext();
-        Long finalMaxSavingsIdInList = maxSavingsIdInList;
+    private void prefetch(final BlockingQueue<List<SavingsAccountData>> queue, final FineractContext context, final String tenant,
+            final boolean backdatedTxnsAllowedTill, final int pageSize, final int batchSize, final AtomicInteger runningPosters)
+            throws InterruptedException {
+        ThreadLocalContextUtil.init(context);
+        final Timer fetchTimer = this.meterRegistry.timer(METRIC_PREFIX + ".fetch", "tenant", tenant);
+        final Counter fetchedAccounts = this.meterRegistry.counter(METRIC_PREFIX + ".accounts", "tenant", tenant, "stage", "fetched");
+        final int posterCount = runningPosters.get();
+        try {
+            Long maxSavingsIdInList = 0L;
+            // paged on the accounts alone, the transaction date filter of the pivot date config may empty a whole page
+            Long lastSavingsIdOfPage = this.savingAccountReadPlatformService.retrieveLastSavingsIdOfInterestPostingPage(pageSize,
+                    ACTIVE.getValue(), maxSavingsIdInList);
+            while (lastSavingsIdOfPage != null) {
+                final long startFetch = System.nanoTime();
+                final List<SavingsAccountData> savingsAccounts = this.savingAccountReadPlatformService
+                        .retrieveAllSavingsDataForInterestPosting(backdatedTxnsAllowedTill, ACTIVE.getValue(), maxSavingsIdInList,
+                                lastSavingsIdOfPage);
+                fetchTimer.record(System.nanoTime() - startFetch, TimeUnit.NANOSECONDS);
+                fetchedAccounts.increment(savingsAccounts.size());
+                log.info("Fetched {} savings accounts after id {}", savingsAccounts.size(), maxSavingsIdInList);
 
-        Callable<Void> fetchData = () -> {
-            ThreadLocalContextUtil.init(context);
-            Long maxId = finalMaxSavingsIdInList;
-            if (!queue.isEmpty()) {
-                maxId = Math.max(finalMaxSavingsIdInList, queue.element().get(queue.element().size() - 1).getId());
+                for (final List<SavingsAccountData> batch : splitIntoBatches(savingsAccounts, batchSize)) {
+                    if (!enqueue(queue, batch, runningPosters)) {
+                        log.warn("No interest poster left running, stopped fetching savings accounts after id {}", maxSavingsIdInList);
+                        return;
+                    }
+                }
+                maxSavingsIdInList = lastSavingsIdOfPage;
+                lastSavingsIdOfPage = this.savingAccountReadPlatformService.retrieveLastSavingsIdOfInterestPostingPage(pageSize,
+                        ACTIVE.getValue(), maxSavingsIdInList);
             }
-
-            while (queue.size() <= queueSize) {
-                log.info("Fetching while threads are running!");
-                List<SavingsAccountData> savingsAccountDataList = Collections.synchronizedList(this.savingAccountReadPlatformService
-                        .retrieveAllSavingsDataForInterestPosting(backdatedTxnsAllowedTill, pageSize, ACTIVE.getValue(), maxId));
-                if (savingsAccountDataList == null || savingsAccountDataList.isEmpty()) {
+        } finally {
+            for (int i = 0; i < posterCount; i++) {
+                if (!enqueue(queue, END_OF_DATA, runningPosters)) {
                     break;
                 }
-                maxId = savingsAccountDataList.get(savingsAccountDataList.size() - 1).getId();
-                queue.add(savingsAccountDataList);
-            }
-            return null;
-        };
-        posters.add(fetchData);
-
-        for (long i = 0; i < loopCount; i++) {
-            List<SavingsAccountData> subList = safeSubList(savingsAccounts, fromIndex, toIndex);
-            SavingsSchedularInterestPoster poster = (SavingsSchedularInterestPoster) this.applicationContext
-                    .getBean("savingsSchedularInterestPoster");
-            poster.setSavingAccounts(subList);
-            poster.setContext(ThreadLocalContextUtil.getContext());
-            poster.setSavingsAccountWritePlatformService(savingsAccountWritePlatformService);
-            poster.setSavingsAccountReadPlatformService(savingAccountReadPlatformService);
-            poster.setSavingsAccountRepository(savingsAccountRepository);
-            poster.setSavingAccountAssembler(savingAccountAssembler);
-            poster.setJdbcTemplate(jdbcTemplate);
-            poster.setBackdatedTxnsAllowedTill(backdatedTxnsAllowedTill);
-            poster.setTransactionTemplate(transactionTemplate);
-            poster.setConfigurationDomainService(configurationDomainService);
-
-            posters.add(poster);
-
-            if (lastBatch) {
-                break;
-            }
-            if (toIndex + batchSize > size - 1) {
-                lastBatch = true;
-            }
-            fromIndex = fromIndex + (toIndex - fromIndex);
-            toIndex = (toIndex + batchSize > size - 1) ? size : toIndex + batchSize;
-            while (toIndex < size && savingsAccounts.get(toIndex - 1).getId().equals(savingsAccounts.get(toIndex).getId())) {
-                toIndex++;
             }
         }
+    }
 
-        try {
-            List<Future<Void>> responses = executorService.invokeAll(posters);
-            Long maxId = maxSavingsIdInList;
-            if (!queue.isEmpty()) {
-                maxId = Math.max(maxSavingsIdInList, queue.element().get(queue.element().size() - 1).getId());
-            }
-
-            while (queue.size() <= queueSize) {
-                log.info("Fetching while threads are running!..:: this is not supposed to run........");
-                savingsAccounts = Collections.synchronizedList(this.savingAccountReadPlatformService
-                        .retrieveAllSavingsDataForInterestPosting(backdatedTxnsAllowedTill, pageSize, ACTIVE.getValue(), maxId));
-                if (savingsAccounts == null || savingsAccounts.isEmpty()) {
-                    break;
-                }
-                maxId = savingsAccounts.get(savingsAccounts.size() - 1).getId();
-                log.info("Add to the Queue");
-                queue.add(savingsAccounts);
+    // blocks while the posters are prefetch-pages pages behind, gives up once none of them is running
+    private static boolean enqueue(final BlockingQueue<List<SavingsAccountData>> queue, final List<SavingsAccountData> batch,
+            final AtomicInteger runningPosters) throws InterruptedException {
+        while (!queue.offer(batch, 1, TimeUnit.SECONDS)) {
+            if (runningPosters.get() == 0) {
+                return false;
             }
-
-            checkCompletion(responses);
-            log.info("Queue size {}", queue.size());
-        } catch (InterruptedException e1) {
-            log.error("Interrupted while postInterest", e1);
         }
+        return true;
     }
 
-    // break the lists into sub lists
-    public <T> List<T> safeSubList(List<T> list, int fromIndex, int toIndex) {
-        int size = list.size();
-        if (fromIndex >= size || toIndex <= 0 || fromIndex >= toIndex) {
-            return Collections.emptyList();
+    private void post(final BlockingQueue<List<SavingsAccountData>> queue, final FineractContext context, final String tenant,
+            final boolean backdatedTxnsAllowedTill, final List<Throwable> errors) throws InterruptedException {
+        ThreadLocalContextUtil.init(context);
+        final Timer postTimer = this.meterRegistry.timer(METRIC_PREFIX + ".post", "tenant", tenant);
+        final Counter postedAccounts = this.meterRegistry.counter(METRIC_PREFIX + ".accounts", "tenant", tenant, "stage", "posted");
+        List<SavingsAccountData> batch = queue.take();
+        while (batch != END_OF_DATA) {
+            final long startPosting = System.nanoTime();
+            try {
+                createPoster(batch, context, backdatedTxnsAllowedTill).call();
+                postedAccounts.increment(batch.size());
+            } catch (JobExecutionException e) {
+                errors.addAll(e.getCauses());
+            } catch (Exception e) {
+                log.error("Interest posting failed for a batch of {} savings accounts", batch.size(), e);
+                errors.add(e);
+            } finally {
+                postTimer.record(System.nanoTime() - startPosting, TimeUnit.NANOSECONDS);
+            }
+            batch = queue.take();
         }
+    }
 
-        fromIndex = Math.max(0, fromIndex);
-        toIndex = Math.min(size, toIndex);
-
-        return list.subList(fromIndex, toIndex);
+    private SavingsSchedularInterestPoster createPoster(final List<SavingsAccountData> savingsAccounts, final FineractContext context,
+            final boolean backdatedTxnsAllowedTill) {
+        SavingsSchedularInterestPoster poster = (SavingsSchedularInterestPoster) this.applicationContext
+                .getBean("savingsSchedularInterestPoster");
+        poster.setSavingAccounts(savingsAccounts);
+        poster.setContext(context);
+        poster.setSavingsAccountWritePlatformService(savingsAccountWritePlatformService);
+        poster.setSavingsAccountReadPlatformService(savingAccountReadPlatformService);
+        poster.setSavingsAccountRepository(savingsAccountRepository);
+        poster.setSavingAccountAssembler(savingAccountAssembler);
+        poster.setJdbcTemplate(jdbcTemplate);
+        poster.setBackdatedTxnsAllowedTill(backdatedTxnsAllowedTill);
+        poster.setTransactionTemplate(transactionTemplate);
+        poster.setConfigurationDomainService(configurationDomainService);
+        return poster;
     }
 
-    // checks the execution of task by each thread in the executor service
-    private void checkCompletion(List<Future<Void>> responses) {
-        try {
-            for (Future f : responses) {
-                f.get();
-            }
-            boolean allThreadsExecuted = false;
-            int noOfThreadsExecuted = 0;
-            for (Future<Void> future : responses) {
-                if (future.isDone()) {
-                    noOfThreadsExecuted++;
-                }
-            }
-            allThreadsExecuted = noOfThreadsExecuted == responses.size();
-            if (!allThreadsExecuted) {
-                log.error("All threads could not execute.");
+    // break the page into batches, never splitting the rows of the same account
+    private static List<List<SavingsAccountData>> splitIntoBatches(final List<SavingsAccountData> savingsAccounts, final int batchSize) {
+        final List<List<SavingsAccountData>> batches = new ArrayList<>();
+        final int size = savingsAccounts.size();
+        int fromIndex = 0;
+        while (fromIndex < size) {
+            int toIndex = Math.min(size, fromIndex + batchSize);
+            while (toIndex < size && savingsAccounts.get(toIndex - 1).getId().equals(savingsAccounts.get(toIndex).getId())) {
+                toIndex++;
             }
-        } catch (InterruptedException e1) {
-            log.error("Interrupted while interest posting entries", e1);
-        } catch (ExecutionException e2) {
-            log.error("Execution exception while interest posting entries", e2);
+            batches.add(savingsAccounts.subList(fromIndex, toIndex));
+            fromIndex = toIndex;
         }
+        return batches;
     }
 
     @Override
@@ -26,7 +26,11 @@ import org.apache.fineract.portfolio.shareaccounts.data.ShareAccountDividendData
 
 public interface ShareAccountDividendReadPlatformService {
 
-    List<Map<String, Object>> retriveDividendDetailsForPostDividents();
+    /**
+     * Dividend details waiting to be posted with an id greater than {@code maxDividendDetailIdInList}, at most
+     * {@code pageSize} of them (keyset pagination).
+     */
+    List<Map<String, Object>> retriveDividendDetailsForPostDividents(Long maxDividendDetailIdInList, int pageSize);
 
     Page<ShareAccountDividendData> retriveAll(Long payoutDetailId, SearchParameters searchParameters);
 
@@ -18,23 +18,24 @@
  */
 package org.apache.fineract.scheduledjobs.service;
 
+import java.util.Map;
 import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
 
 public interface ScheduledJobRunnerService {
 
-    void applyAnnualFeeForSavings();
+    void applyAnnualFeeForSavings(Map<String, String> jobParameters) throws JobExecutionException;
 
-    void applyDueChargesForSavings() throws JobExecutionException;
+    void applyDueChargesForSavings(Map<String, String> jobParameters) throws JobExecutionException;
 
     void updateNPA();
 
-    void updateMaturityDetailsOfDepositAccounts();
+    void updateMaturityDetailsOfDepositAccounts(Map<String, String> jobParameters) throws JobExecutionException;
 
     void generateRDSchedule();
 
-    void postDividends() throws JobExecutionException;
+    void postDividends(Map<String, String> jobParameters) throws JobExecutionException;
 
-    void updateTrialBalanceDetails() throws JobExecutionException;
+    void updateTrialBalanceDetails(Map<String, String> jobParameters) throws JobExecutionException;
 
     void executeMissMatchedJobs() throws JobExecutionException;
 }
@@ -19,18 +19,12 @@
 package org.apache.fineract.scheduledjobs.service;
 
 import java.math.BigDecimal;
-import java.math.BigInteger;
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
-import org.apache.fineract.accounting.glaccount.domain.TrialBalance;
-import org.apache.fineract.accounting.glaccount.domain.TrialBalanceRepositoryWrapper;
+import org.apache.fineract.accounting.glaccount.service.TrialBalanceBuilderService;
 import org.apache.fineract.infrastructure.core.config.FineractProperties;
-import org.apache.fineract.infrastructure.core.data.ApiParameterError;
-import org.apache.fineract.infrastructure.core.exception.PlatformApiDataValidationException;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSourceServiceFactory;
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
@@ -42,6 +36,7 @@ import org.apache.fineract.infrastructure.jobs.domain.ScheduledJobDetailReposito
 import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
 import org.apache.fineract.infrastructure.jobs.service.JobName;
 import org.apache.fineract.infrastructure.jobs.service.JobRegisterService;
+import org.apache.fineract.infrastructure.jobs.service.PagedJobExecutor;
 import org.apache.fineract.portfolio.savings.DepositAccountType;
 import org.apache.fineract.portfolio.savings.DepositAccountUtils;
 import org.apache.fineract.portfolio.savings.data.DepositAccountData;
@@ -59,7 +54,6 @@ import org.springframework.context.annotation.Lazy;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.CollectionUtils;
 
 @Service(value = "scheduledJobRunnerService")
 public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService {
@@ -73,7 +67,7 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
     private final DepositAccountWritePlatformService depositAccountWritePlatformService;
     private final ShareAccountDividendReadPlatformService shareAccountDividendReadPlatformService;
     private final ShareAccountSchedularService shareAccountSchedularService;
-    private final TrialBalanceRepositoryWrapper trialBalanceRepositoryWrapper;
+    private final TrialBalanceBuilderService trialBalanceBuilderService;
     private final JobRegisterService jobRegisterService;
     private final ScheduledJobDetailRepository scheduledJobDetailsRepository;
     private final FineractProperties fineractProperties;
@@ -88,7 +82,7 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
             final DepositAccountWritePlatformService depositAccountWritePlatformService,
             final ShareAccountDividendReadPlatformService shareAccountDividendReadPlatformService,
             final ShareAccountSchedularService shareAccountSchedularService,
-            final TrialBalanceRepositoryWrapper trialBalanceRepositoryWrapper, @Lazy final JobRegisterService jobRegisterService,
+            final TrialBalanceBuilderService trialBalanceBuilderService, @Lazy final JobRegisterService jobRegisterService,
             final ScheduledJobDetailRepository scheduledJobDetailsRepository, final FineractProperties fineractProperties,
             DatabaseSpecificSQLGenerator sqlGenerator, DatabaseTypeResolver databaseTypeResolver) {
         this.dataSourceServiceFactory = dataSourceServiceFactory;
@@ -98,7 +92,7 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
         this.depositAccountWritePlatformService = depositAccountWritePlatformService;
         this.shareAccountDividendReadPlatformService = shareAccountDividendReadPlatformService;
         this.shareAccountSchedularService = shareAccountSchedularService;
-        this.trialBalanceRepositoryWrapper = trialBalanceRepositoryWrapper;
+        this.trialBalanceBuilderService = trialBalanceBuilderService;
         this.jobRegisterService = jobRegisterService;
         this.scheduledJobDetailsRepository = scheduledJobDetailsRepository;
         this.fineractProperties = fineractProperties;
@@ -108,56 +102,22 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
 
     @Override
     @CronTarget(jobName = JobName.APPLY_ANNUAL_FEE_FOR_SAVINGS)
-    public void applyAnnualFeeForSavings() {
-
-        final Collection<SavingsAccountAnnualFeeData> annualFeeData = this.savingsAccountChargeReadPlatformService
-                .retrieveChargesWithAnnualFeeDue();
-
-        for (final SavingsAccountAnnualFeeData savingsAccountReference : annualFeeData) {
-            try {
-                this.savingsAccountWritePlatformService.applyAnnualFee(savingsAccountReference.getId(),
-                        savingsAccountReference.getAccountId());
-            } catch (final PlatformApiDataValidationException e) {
-                final List<ApiParameterError> errors = e.getErrors();
-                for (final ApiParameterError error : errors) {
-                    LOG.error("Apply annual fee failed for account: {} with message {}", savingsAccountReference.getAccountNo(), error);
-                }
-            } catch (final Exception ex) {
-                LOG.error("Apply annual fee failed for account: {}", savingsAccountReference.getAccountNo(), ex);
-            }
-        }
-
-        LOG.info("{}: Records affected by applyAnnualFeeForSavings: {}", ThreadLocalContextUtil.getTenant().getName(),
-                annualFeeData.size());
+    public void applyAnnualFeeForSavings(final Map<String, String> jobParameters) throws JobExecutionException {
+        new PagedJobExecutor<SavingsAccountAnnualFeeData>("applyAnnualFeeForSavings", jobParameters,
+                this.savingsAccountChargeReadPlatformService::retrieveChargesWithAnnualFeeDue, SavingsAccountAnnualFeeData::getAccountId,
+                SavingsAccountAnnualFeeData::getAccountId, annualFee -> "account " + annualFee.getAccountNo())
+                        .execute(annualFee -> this.savingsAccountWritePlatformService.applyAnnualFee(annualFee.getId(),
+                                annualFee.getAccountId()));
     }
 
     @Override
     @CronTarget(jobName = JobName.PAY_DUE_SAVINGS_CHARGES)
-    public void applyDueChargesForSavings() throws JobExecutionException {
-        final Collection<SavingsAccountAnnualFeeData> chargesDueData = this.savingsAccountChargeReadPlatformService
-                .retrieveChargesWithDue();
-        List<Throwable> exceptions = new ArrayList<>();
-        for (final SavingsAccountAnnualFeeData savingsAccountReference : chargesDueData) {
-            try {
-                this.savingsAccountWritePlatformService.applyChargeDue(savingsAccountReference.getId(),
-                        savingsAccountReference.getAccountId());
-            } catch (final PlatformApiDataValidationException e) {
-                exceptions.add(e);
-                final List<ApiParameterError> errors = e.getErrors();
-                for (final ApiParameterError error : errors) {
-                    LOG.error("Apply Charges due for savings failed for account {} with message: {}",
-                            savingsAccountReference.getAccountNo(), error.getDeveloperMessage(), e);
-                }
-            } catch (final Exception ex) {
-                exceptions.add(ex);
-                LOG.error("Apply Charges due for savings failed for account: {}", savingsAccountReference.getAccountNo(), ex);
-            }
-        }
-        LOG.info("{}: Records affected by applyDueChargesForSavings: {}", ThreadLocalContextUtil.getTenant().getName(),
-                chargesDueData.size());
-        if (!exceptions.isEmpty()) {
-            throw new JobExecutionException(exceptions);
-        }
+    public void applyDueChargesForSavings(final Map<String, String> jobParameters) throws JobExecutionException {
+        new PagedJobExecutor<SavingsAccountAnnualFeeData>("applyDueChargesForSavings", jobParameters,
+                this.savingsAccountChargeReadPlatformService::retrieveChargesWithDue, SavingsAccountAnnualFeeData::getAccountId,
+                SavingsAccountAnnualFeeData::getAccountId, chargeDue -> "account " + chargeDue.getAccountNo())
+                        .execute(chargeDue -> this.savingsAccountWritePlatformService.applyChargeDue(chargeDue.getId(),
+                                chargeDue.getAccountId()));
     }
 
     @Transactional
@@ -205,27 +165,14 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
 
     @Override
     @CronTarget(jobName = JobName.UPDATE_DEPOSITS_ACCOUNT_MATURITY_DETAILS)
-    public void updateMaturityDetailsOfDepositAccounts() {
-
-        final Collection<DepositAccountData> depositAccounts = this.depositAccountReadPlatformService.retrieveForMaturityUpdate();
-
-        for (final DepositAccountData depositAccount : depositAccounts) {
-            try {
-                final DepositAccountType depositAccountType = DepositAccountType.fromInt(depositAccount.depositType().getId().intValue());
-                this.depositAccountWritePlatformService.updateMaturityDetails(depositAccount.id(), depositAccountType);
-            } catch (final PlatformApiDataValidationException e) {
-                final List<ApiParameterError> errors = e.getErrors();
-                for (final ApiParameterError error : errors) {
-                    LOG.error("Update maturity details failed for account: {} with message {}", depositAccount.accountNo(),
-                            error.getDeveloperMessage());
-                }
-            } catch (final Exception ex) {
-                LOG.error("Update maturity details failed for account: {}", depositAccount.accountNo(), ex);
-            }
-        }
-
-        LOG.info("{}: Records affected by updateMaturityDetailsOfDepositAccounts: {}", ThreadLocalContextUtil.getTenant().getName(),
-                depositAccounts.size());
+    public void updateMaturityDetailsOfDepositAccounts(final Map<String, String> jobParameters) throws JobExecutionException {
+        new PagedJobExecutor<DepositAccountData>("updateMaturityDetailsOfDepositAccounts", jobParameters,
+                this.depositAccountReadPlatformService::retrieveForMaturityUpdate, DepositAccountData::id, DepositAccountData::id,
+                depositAccount -> "account " + depositAccount.accountNo()).execute(depositAccount -> {
+                    final DepositAccountType depositAccountType = DepositAccountType
+                            .fromInt(depositAccount.depositType().getId().intValue());
+                    this.depositAccountWritePlatformService.updateMaturityDetails(depositAccount.id(), depositAccountType);
+                });
     }
 
     @Override
@@ -285,99 +232,22 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
 
     @Override
     @CronTarget(jobName = JobName.POST_DIVIDENTS_FOR_SHARES)
-    public void postDividends() throws JobExecutionException {
-        List<Throwable> exceptions = new ArrayList<>();
-        List<Map<String, Object>> dividendDetails = this.shareAccountDividendReadPlatformService.retriveDividendDetailsForPostDividents();
-        for (Map<String, Object> dividendMap : dividendDetails) {
-            Long id = null;
-            Long savingsId = null;
-            if (dividendMap.get("id") instanceof BigInteger) {
-                // Drizzle is returningBigInteger
-                id = ((BigInteger) dividendMap.get("id")).longValue();
-                savingsId = ((BigInteger) dividendMap.get("savingsAccountId")).longValue();
-            } else { // MySQL connector is returning Long
-                id = (Long) dividendMap.get("id");
-                savingsId = (Long) dividendMap.get("savingsAccountId");
-            }
-            try {
-                this.shareAccountSchedularService.postDividend(id, savingsId);
-            } catch (final PlatformApiDataValidationException e) {
-                exceptions.add(e);
-                final List<ApiParameterError> errors = e.getErrors();
-                for (final ApiParameterError error : errors) {
-                    LOG.error(
-                            "Post Dividends to savings failed due to ApiParameterError for Divident detail Id: {} and savings Id: {} with message: {}",
-                            id, savingsId, error.getDeveloperMessage(), e);
-                }
-            } catch (final Exception e) {
-                LOG.error("Post Dividends to savings failed for Divident detail Id: {} and savings Id: {}", id, savingsId, e);
-                exceptions.add(e);
-            }
-        }
-
-        if (!exceptions.isEmpty()) {
-            throw new JobExecutionException(exceptions);
-        }
+    public void postDividends(final Map<String, String> jobParameters) throws JobExecutionException {
+        // Drizzle is returning BigInteger, MySQL connector is returning Long
+        new PagedJobExecutor<Map<String, Object>>("postDividends", jobParameters,
+                this.shareAccountDividendReadPlatformService::retriveDividendDetailsForPostDividents,
+                dividendMap -> ((Number) dividendMap.get("id")).longValue(), dividendMap -> dividendMap.get("savingsAccountId"),
+                dividendMap -> "Divident detail Id: " + dividendMap.get("id") + " and savings Id: " + dividendMap.get("savingsAccountId"))
+                        .execute(dividendMap -> this.shareAccountSchedularService.postDividend(
+                                ((Number) dividendMap.get("id")).longValue(), ((Number) dividendMap.get("savingsAccountId")).longValue()));
     }
 
     @Override
     @CronTarget(jobName = JobName.UPDATE_TRIAL_BALANCE_DETAILS)
-    public void updateTrialBalanceDetails() throws JobExecutionException {
-        final JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSourceServiceFactory.determineDataSourceService().retrieveDataSource());
-        final StringBuilder tbGapSqlBuilder = new StringBuilder(500);
-        tbGapSqlBuilder.append("select distinct(je.transaction_date) ").append("from acc_gl_journal_entry je ")
-                .append("where je.transaction_date > (select coalesce(MAX(created_date),'2010-01-01') from m_trial_balance)");
-
-        final List<LocalDate> tbGaps = jdbcTemplate.queryForList(tbGapSqlBuilder.toString(), LocalDate.class);
-
-        for (LocalDate tbGap : tbGaps) {
-            int days = Math.toIntExact(ChronoUnit.DAYS.between(tbGap, DateUtils.getBusinessLocalDate()));
-            if (days < 1) {
-                continue;
-            }
-            final StringBuilder sqlBuilder = new StringBuilder(600);
-            sqlBuilder.append("Insert Into m_trial_balance(office_id, account_id, Amount, entry_date, created_date,closing_balance) ")
-                    .append("Select je.office_id, je.account_id, SUM(CASE WHEN je.type_enum=1 THEN (-1) * je.amount ELSE je.amount END) ")
-                    .append("as Amount, Date(je.entry_date) as Entry_Date, je.transaction_date as Created_Date,sum(je.amount) as closing_balance ")
-                    .append("from acc_gl_journal_entry je WHERE je.transaction_date = ? ")
-                    .append("group by je.account_id, je.office_id, je.transaction_date, Date(je.entry_date)");
-
-            final int result = jdbcTemplate.update(sqlBuilder.toString(), tbGap);
-            LOG.info("{}: Records affected by updateTrialBalanceDetails: {}", ThreadLocalContextUtil.getTenant().getName(), result);
-        }
-
-        // Updating closing balance
-        String distinctOfficeQuery = "select distinct(office_id) from m_trial_balance where closing_balance is null group by office_id";
-        final List<Long> officeIds = jdbcTemplate.queryForList(distinctOfficeQuery, Long.class);
-
-        for (Long officeId : officeIds) {
-            String distinctAccountQuery = "select distinct(account_id) from m_trial_balance where office_id=? and closing_balance is null group by account_id";
-            final List<Long> accountIds = jdbcTemplate.queryForList(distinctAccountQuery, Long.class, officeId);
-            for (Long accountId : accountIds) {
-                final String closingBalanceQuery = "select closing_balance from m_trial_balance where office_id=? and account_id=? and closing_balance "
-                        + "is not null order by created_date desc, entry_date desc limit 1";
-                List<BigDecimal> closingBalanceData = jdbcTemplate.queryForList(closingBalanceQuery, BigDecimal.class, officeId, accountId);
-                List<TrialBalance> tbRows = this.trialBalanceRepositoryWrapper.findNewByOfficeAndAccount(officeId, accountId);
-                BigDecimal closingBalance = null;
-                if (!CollectionUtils.isEmpty(closingBalanceData)) {
-                    closingBalance = closingBalanceData.get(0);
-                }
-                if (CollectionUtils.isEmpty(closingBalanceData)) {
-                    closingBalance = BigDecimal.ZERO;
-                    for (TrialBalance row : tbRows) {
-                        closingBalance = closingBalance.add(row.getAmount());
-                        row.setClosingBalance(closingBalance);
-                    }
-                } else {
-                    for (TrialBalance tbRow : tbRows) {
-                        closingBalance = closingBalance.add(tbRow.getAmount());
-                        tbRow.setClosingBalance(closingBalance);
-                    }
-                }
-                this.trialBalanceRepositoryWrapper.save(tbRows);
-            }
-        }
-
+    public void updateTrialBalanceDetails(final Map<String, String> jobParameters) throws JobExecutionException {
+        final boolean incremental = !"false".equalsIgnoreCase(jobParameters.get("incremental"));
+        final int result = incremental ? this.trialBalanceBuilderService.buildIncrementally() : this.trialBalanceBuilderService.rebuild();
+        LOG.info("{}: Records affected by updateTrialBalanceDetails: {}", ThreadLocalContextUtil.getTenant().getName(), result);
     }
 
     @Override
@@ -0,0 +1,286 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.glaccount.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
+import org.apache.fineract.infrastructure.core.domain.ActionContext;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseTypeResolver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+public class TrialBalanceBuilderServiceImplTest {
+
+    private static final int DEBIT = 2;
+    private static final int CREDIT = 1;
+    private static final LocalDate TODAY = LocalDate.of(2022, 6, 10);
+
+    private final FakeLedger ledger = new FakeLedger();
+    private final DatabaseTypeResolver databaseTypeResolver = mock(DatabaseTypeResolver.class);
+    private TrialBalanceBuilderServiceImpl service;
+
+    @BeforeEach
+    public void init() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        ThreadLocalContextUtil.setActionContext(ActionContext.DEFAULT);
+        ThreadLocalContextUtil.setBusinessDates(new HashMap<>(Map.of(BusinessDateType.BUSINESS_DATE, TODAY)));
+        given(databaseTypeResolver.isMySQL()).willReturn(true);
+        service = new TrialBalanceBuilderServiceImpl(ledger, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                new DatabaseSpecificSQLGenerator(databaseTypeResolver));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void rebuildAggregatesTheDailyAmountsOfEveryOfficeAndAccount() {
+        ledger.journalEntry(1L, 10L, DEBIT, "100", TODAY.minusDays(5));
+        ledger.journalEntry(1L, 10L, CREDIT, "30", TODAY.minusDays(5));
+        ledger.journalEntry(1L, 10L, DEBIT, "50", TODAY.minusDays(3));
+        ledger.journalEntry(1L, 20L, CREDIT, "100", TODAY.minusDays(5));
+        ledger.journalEntry(2L, 10L, DEBIT, "7", TODAY.minusDays(3));
+        // the business date itself is left to the next run
+        ledger.journalEntry(1L, 10L, DEBIT, "1000", TODAY);
+        ledger.trialBalance(1L, 10L, "999", TODAY.minusDays(20), "999");
+
+        assertEquals(4, service.rebuild());
+
+        assertEquals(List.of("1/10 " + TODAY.minusDays(5) + " 70 -> 70", "1/10 " + TODAY.minusDays(3) + " 50 -> 120",
+                "1/20 " + TODAY.minusDays(5) + " -100 -> -100", "2/10 " + TODAY.minusDays(3) + " 7 -> 7"), ledger.trialBalances());
+    }
+
+    @Test
+    public void incrementalBuildContinuesFromTheLastClosingBalanceOfTheOfficeAndAccount() {
+        ledger.trialBalance(1L, 10L, "40", TODAY.minusDays(8), "40");
+        ledger.trialBalance(1L, 10L, "60", TODAY.minusDays(6), "100");
+        ledger.trialBalance(2L, 10L, "5", TODAY.minusDays(6), "5");
+        ledger.journalEntry(1L, 10L, DEBIT, "25", TODAY.minusDays(4));
+        ledger.journalEntry(1L, 10L, CREDIT, "5", TODAY.minusDays(2));
+        ledger.journalEntry(2L, 10L, DEBIT, "1", TODAY.minusDays(2));
+        // already covered by the last run
+        ledger.journalEntry(1L, 10L, DEBIT, "500", TODAY.minusDays(6));
+
+        assertEquals(3, service.buildIncrementally());
+
+        assertEquals(List.of("1/10 " + TODAY.minusDays(8) + " 40 -> 40", "1/10 " + TODAY.minusDays(6) + " 60 -> 100",
+                "1/10 " + TODAY.minusDays(4) + " 25 -> 125", "1/10 " + TODAY.minusDays(2) + " -5 -> 120",
+                "2/10 " + TODAY.minusDays(6) + " 5 -> 5", "2/10 " + TODAY.minusDays(2) + " 1 -> 6"), ledger.trialBalances());
+    }
+
+    @Test
+    public void openingBalancesAreOnlyLookedUpForTheOfficesAndAccountsWithNewEntries() {
+        ledger.trialBalance(1L, 10L, "100", TODAY.minusDays(6), "100");
+        ledger.trialBalance(1L, 20L, "200", TODAY.minusDays(6), "200");
+        ledger.trialBalance(2L, 20L, "300", TODAY.minusDays(6), "300");
+        ledger.journalEntry(1L, 20L, DEBIT, "1", TODAY.minusDays(2));
+        ledger.journalEntry(3L, 20L, DEBIT, "2", TODAY.minusDays(2));
+
+        assertEquals(2, service.buildIncrementally());
+
+        assertEquals(List.of("1/20", "3/20"), ledger.openingBalanceLookups);
+        assertEquals(List.of("1/10 " + TODAY.minusDays(6) + " 100 -> 100", "1/20 " + TODAY.minusDays(6) + " 200 -> 200",
+                "1/20 " + TODAY.minusDays(2) + " 1 -> 201", "2/20 " + TODAY.minusDays(6) + " 300 -> 300",
+                "3/20 " + TODAY.minusDays(2) + " 2 -> 2"), ledger.trialBalances());
+    }
+
+    @Test
+    public void incrementalBuildIsSkippedWhenTheTrialBalancesAreUpToDate() {
+        ledger.trialBalance(1L, 10L, "100", TODAY.minusDays(1), "100");
+        ledger.journalEntry(1L, 10L, DEBIT, "1", TODAY);
+
+        assertEquals(0, service.buildIncrementally());
+
+        assertEquals(1, ledger.statements.size());
+    }
+
+    @Test
+    public void entryDatesAreTruncatedWithTheDateFunctionOnMySQL() {
+        service.rebuild();
+
+        final String insert = ledger.statements.get(ledger.statements.size() - 1);
+        assertTrue(insert.contains("DATE(je.entry_date) as entry_date"));
+        assertTrue(insert.contains("je.transaction_date, DATE(je.entry_date)) tb"));
+    }
+
+    @Test
+    public void entryDatesAreCastOnPostgreSQL() {
+        given(databaseTypeResolver.isMySQL()).willReturn(false);
+        given(databaseTypeResolver.isPostgreSQL()).willReturn(true);
+
+        service.rebuild();
+
+        final String insert = ledger.statements.get(ledger.statements.size() - 1);
+        assertTrue(insert.contains("je.entry_date::DATE as entry_date"));
+        assertTrue(insert.contains("je.transaction_date, je.entry_date::DATE) tb"));
+        assertFalse(insert.contains("DATE(je.entry_date)"));
+    }
+
+    private static final class JournalEntry {
+
+        private final Long officeId;
+        private final Long accountId;
+        private final int type;
+        private final BigDecimal amount;
+        private final LocalDate transactionDate;
+
+        private JournalEntry(final Long officeId, final Long accountId, final int type, final BigDecimal amount,
+                final LocalDate transactionDate) {
+            this.officeId = officeId;
+            this.accountId = accountId;
+            this.type = type;
+            this.amount = amount;
+            this.transactionDate = transactionDate;
+        }
+    }
+
+    private static final class TrialBalanceRow {
+
+        private final Long officeId;
+        private final Long accountId;
+        private final BigDecimal amount;
+        private final LocalDate createdDate;
+        private final BigDecimal closingBalance;
+
+        private TrialBalanceRow(final Long officeId, final Long accountId, final BigDecimal amount, final LocalDate createdDate,
+                final BigDecimal closingBalance) {
+            this.officeId = officeId;
+            this.accountId = accountId;
+            this.amount = amount;
+            this.createdDate = createdDate;
+            this.closingBalance = closingBalance;
+        }
+
+        private String key() {
+            return officeId + "/" + accountId;
+        }
+    }
+
+    /**
+     * Evaluates the trial balance statements against in-memory journal entries and trial balance rows. The insert is
+     * evaluated with the bound parameters in the order of the statement: the transaction date range of the new rows, the
+     * range that decides which offices and accounts get their opening balance looked up and the last created date an
+     * opening balance may come from. Entry and transaction dates are the same day here.
+     */
+    private static final class FakeLedger extends JdbcTemplate {
+
+        private final List<JournalEntry> journalEntries = new ArrayList<>();
+        private final List<TrialBalanceRow> trialBalanceRows = new ArrayList<>();
+        private final List<String> openingBalanceLookups = new ArrayList<>();
+        private final List<String> statements = new ArrayList<>();
+
+        private void journalEntry(final Long officeId, final Long accountId, final int type, final String amount,
+                final LocalDate transactionDate) {
+            journalEntries.add(new JournalEntry(officeId, accountId, type, new BigDecimal(amount), transactionDate));
+        }
+
+        private void trialBalance(final Long officeId, final Long accountId, final String amount, final LocalDate createdDate,
+                final String closingBalance) {
+            trialBalanceRows
+                    .add(new TrialBalanceRow(officeId, accountId, new BigDecimal(amount), createdDate, new BigDecimal(closingBalance)));
+        }
+
+        private List<String> trialBalances() {
+            return trialBalanceRows.stream()
+                    .sorted(Comparator.comparing(TrialBalanceRow::key).thenComparing(row -> row.createdDate)).map(row -> row.key() + " "
+                            + row.createdDate + " " + row.amount.toPlainString() + " -> " + row.closingBalance.toPlainString())
+                    .collect(Collectors.toList());
+        }
+
+        @Override
+        public <T> T queryForObject(final String sql, final Class<T> requiredType) {
+            statements.add(sql);
+            return requiredType.cast(trialBalanceRows.stream().map(row -> row.createdDate).max(Comparator.naturalOrder()).orElse(null));
+        }
+
+        @Override
+        public int update(final String sql) {
+            statements.add(sql);
+            final int removed = trialBalanceRows.size();
+            trialBalanceRows.clear();
+            return removed;
+        }
+
+        @Override
+        public int update(final String sql, final Object... args) {
+            statements.add(sql);
+            final LocalDate from = (LocalDate) args[0];
+            final LocalDate till = (LocalDate) args[1];
+            final LocalDate lookupFrom = (LocalDate) args[2];
+            final LocalDate lookupTill = (LocalDate) args[3];
+            final LocalDate openingBalanceTill = (LocalDate) args[4];
+
+            final Map<String, BigDecimal> openingBalances = new LinkedHashMap<>();
+            journalEntries.stream().filter(entry -> isBetween(entry.transactionDate, lookupFrom, lookupTill))
+                    .map(entry -> entry.officeId + "/" + entry.accountId).distinct().sorted().forEach(key -> {
+                        openingBalanceLookups.add(key);
+                        trialBalanceRows.stream().filter(row -> row.key().equals(key) && !row.createdDate.isAfter(openingBalanceTill))
+                                .max(Comparator.comparing(row -> row.createdDate))
+                                .ifPresent(row -> openingBalances.put(key, row.closingBalance));
+                    });
+
+            final Map<String, Map<LocalDate, BigDecimal>> dailyAmounts = new LinkedHashMap<>();
+            journalEntries.stream().filter(entry -> isBetween(entry.transactionDate, from, till)).forEach(entry -> {
+                final BigDecimal amount = entry.type == CREDIT ? entry.amount.negate() : entry.amount;
+                dailyAmounts.computeIfAbsent(entry.officeId + "/" + entry.accountId, key -> new TreeMap<>())
+                        .merge(entry.transactionDate, amount, BigDecimal::add);
+            });
+
+            final List<TrialBalanceRow> inserted = new ArrayList<>();
+            dailyAmounts.forEach((key, amounts) -> {
+                final String[] ids = key.split("/");
+                BigDecimal closingBalance = openingBalances.getOrDefault(key, BigDecimal.ZERO);
+                for (Map.Entry<LocalDate, BigDecimal> amount : amounts.entrySet()) {
+                    closingBalance = closingBalance.add(amount.getValue());
+                    inserted.add(new TrialBalanceRow(Long.valueOf(ids[0]), Long.valueOf(ids[1]), amount.getValue(), amount.getKey(),
+                            closingBalance));
+                }
+            });
+            trialBalanceRows.addAll(inserted);
+            return inserted.size();
+        }
+
+        private static boolean isBetween(final LocalDate date, final LocalDate after, final LocalDate before) {
+            return date.isAfter(after) && date.isBefore(before);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.journalentry.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import org.apache.fineract.accounting.journalentry.data.JournalEntryLeg;
+import org.apache.fineract.accounting.journalentry.domain.JournalEntryRepository;
+import org.apache.fineract.accounting.journalentry.domain.JournalEntryType;
+import org.apache.fineract.accounting.journalentry.exception.JournalEntryInvalidException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class JournalEntryBatchWriterTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final JournalEntryRepository journalEntryRepository = mock(JournalEntryRepository.class);
+
+    private JournalEntryBatchWriter writer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void init() {
+        AuditorAware<Long> auditorAware = mock(AuditorAware.class);
+        when(auditorAware.getCurrentAuditor()).thenReturn(Optional.of(1L));
+        this.writer = new JournalEntryBatchWriter(this.jdbcTemplate, this.journalEntryRepository, auditorAware);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testBalancedLegsAreWrittenInOneBatch() {
+        this.writer.writeInBatch(() -> {
+            this.writer.add(leg("L1", JournalEntryType.DEBIT, "100.50"));
+            this.writer.add(leg("L1", JournalEntryType.CREDIT, "90"));
+            this.writer.writeInBatch(() -> this.writer.add(leg("L1", JournalEntryType.CREDIT, "10.50")));
+        });
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(this.journalEntryRepository).flush();
+        verify(this.jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        assertEquals(3, rows.getValue().size());
+    }
+
+    @Test
+    public void testUnbalancedLegsAreRejected() {
+        assertThrows(JournalEntryInvalidException.class, () -> this.writer.writeInBatch(() -> {
+            this.writer.add(leg("L1", JournalEntryType.DEBIT, "100"));
+            this.writer.add(leg("L1", JournalEntryType.CREDIT, "99.99"));
+            this.writer.add(leg("L2", JournalEntryType.DEBIT, "5"));
+            this.writer.add(leg("L2", JournalEntryType.CREDIT, "5.01"));
+        }));
+
+        verifyNoInteractions(this.jdbcTemplate, this.journalEntryRepository);
+    }
+
+    private static JournalEntryLeg leg(final String transactionId, final JournalEntryType type, final String amount) {
+        return new JournalEntryLeg(1L, 10L, "USD", transactionId, LocalDate.of(2022, 3, 1), type, new BigDecimal(amount), 1, 7L, 3L, null,
+                null, null);
+    }
+}
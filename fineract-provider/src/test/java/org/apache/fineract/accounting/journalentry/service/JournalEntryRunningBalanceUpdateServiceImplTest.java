@@ -0,0 +1,445 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.journalentry.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import org.apache.fineract.accounting.glaccount.domain.GLAccountType;
+import org.apache.fineract.accounting.journalentry.data.JournalEntryDataValidator;
+import org.apache.fineract.accounting.journalentry.domain.JournalEntryType;
+import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.organisation.office.domain.OfficeRepositoryWrapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+public class JournalEntryRunningBalanceUpdateServiceImplTest {
+
+    private static final LocalDate DAY = LocalDate.of(2022, 3, 1);
+    private static final long CASH = 10L;
+    private static final long SAVINGS = 20L;
+    private static final long FEE_INCOME = 30L;
+
+    private final FakeJournal journal = new FakeJournal();
+    private JournalEntryRunningBalanceUpdateServiceImpl service;
+
+    @BeforeEach
+    public void init() {
+        journal.accounts.put(CASH, GLAccountType.ASSET);
+        journal.accounts.put(SAVINGS, GLAccountType.LIABILITY);
+        journal.accounts.put(FEE_INCOME, GLAccountType.INCOME);
+
+        final DatabaseSpecificSQLGenerator sqlGenerator = mock(DatabaseSpecificSQLGenerator.class);
+        given(sqlGenerator.limit(anyInt())).willAnswer(invocation -> "limit " + invocation.getArgument(0));
+
+        service = new JournalEntryRunningBalanceUpdateServiceImpl(journal, mock(OfficeRepositoryWrapper.class),
+                mock(JournalEntryDataValidator.class), new FromJsonHelper(), sqlGenerator,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+    }
+
+    @Test
+    public void firstRunCalculatesTheBalancesOfEveryOfficeAndAccount() {
+        deposit(1L, "100", DAY);
+        deposit(2L, "40", DAY);
+        chargeFee(1L, "5", DAY.plusDays(1));
+        withdraw(2L, "15", DAY.plusDays(2));
+
+        service.updateRunningBalance();
+
+        assertBalancesMatchAFullRecompute();
+        assertEquals(new BigDecimal("95"), journal.snapshotBalance(1L, SAVINGS));
+        assertEquals(new BigDecimal("25"), journal.snapshotBalance(2L, CASH));
+    }
+
+    @Test
+    public void laterEntriesAreCalculatedFromTheSnapshotWithoutReadingTheCalculatedEntries() {
+        deposit(1L, "100", DAY);
+        deposit(2L, "40", DAY);
+        deposit(3L, "60", DAY.plusDays(1));
+        service.updateRunningBalance();
+        journal.forgetReads();
+
+        final List<Long> newEntries = new ArrayList<>();
+        newEntries.addAll(withdraw(1L, "30", DAY.plusDays(2)));
+        newEntries.addAll(chargeFee(3L, "2", DAY.plusDays(2)));
+        newEntries.addAll(deposit(2L, "10", DAY.plusDays(3)));
+        service.updateRunningBalance();
+
+        assertEquals(newEntries, journal.readEntryIds);
+        assertFalse(journal.snapshotRebuilt);
+        assertBalancesMatchAFullRecompute();
+    }
+
+    @Test
+    public void backdatedEntriesRecalculateTheLaterEntriesOfEveryOffice() {
+        deposit(1L, "100", DAY);
+        deposit(2L, "40", DAY.plusDays(1));
+        withdraw(1L, "30", DAY.plusDays(3));
+        chargeFee(2L, "3", DAY.plusDays(4));
+        service.updateRunningBalance();
+        journal.forgetReads();
+
+        // entries of a second office and of a new account dated before the last calculated entry
+        deposit(2L, "25", DAY.plusDays(2));
+        journal.accounts.put(40L, GLAccountType.EXPENSE);
+        journal.entry(1L, 40L, JournalEntryType.DEBIT, "8", DAY.plusDays(2));
+        journal.entry(1L, CASH, JournalEntryType.CREDIT, "8", DAY.plusDays(2));
+        deposit(1L, "1", DAY.plusDays(5));
+        service.updateRunningBalance();
+
+        assertTrue(journal.snapshotRebuilt);
+        assertBalancesMatchAFullRecompute();
+        assertEquals(new BigDecimal("63"), journal.snapshotBalance(1L, CASH));
+        assertEquals(new BigDecimal("65"), journal.snapshotBalance(2L, CASH));
+    }
+
+    @Test
+    public void entriesBackdatedToTheFirstDayAreCalculatedFromScratch() {
+        deposit(1L, "100", DAY.plusDays(1));
+        deposit(2L, "50", DAY.plusDays(1));
+        service.updateRunningBalance();
+
+        withdraw(2L, "20", DAY);
+        service.updateRunningBalance();
+
+        assertBalancesMatchAFullRecompute();
+        assertEquals(new BigDecimal("30"), journal.snapshotBalance(2L, CASH));
+    }
+
+    @Test
+    public void repeatedRunsMatchAFullRecomputeAfterEveryRun() {
+        for (int round = 0; round < 6; round++) {
+            final LocalDate date = round % 2 == 0 ? DAY.plusDays(round * 2L) : DAY.plusDays(round);
+            deposit(1L + round % 3, String.valueOf(10 + round), date);
+            chargeFee(1L + (round + 1) % 3, String.valueOf(round + 1), date);
+            withdraw(1L + (round + 2) % 3, "3", date.minusDays(1));
+            service.updateRunningBalance();
+
+            assertBalancesMatchAFullRecompute();
+        }
+    }
+
+    @Test
+    public void runWithoutPendingEntriesChangesNothing() {
+        deposit(1L, "100", DAY);
+        service.updateRunningBalance();
+        journal.forgetReads();
+
+        service.updateRunningBalance();
+
+        assertTrue(journal.readEntryIds.isEmpty());
+        assertFalse(journal.snapshotRebuilt);
+        assertBalancesMatchAFullRecompute();
+    }
+
+    private List<Long> deposit(final Long officeId, final String amount, final LocalDate date) {
+        return List.of(journal.entry(officeId, CASH, JournalEntryType.DEBIT, amount, date),
+                journal.entry(officeId, SAVINGS, JournalEntryType.CREDIT, amount, date));
+    }
+
+    private List<Long> withdraw(final Long officeId, final String amount, final LocalDate date) {
+        return List.of(journal.entry(officeId, SAVINGS, JournalEntryType.DEBIT, amount, date),
+                journal.entry(officeId, CASH, JournalEntryType.CREDIT, amount, date));
+    }
+
+    private List<Long> chargeFee(final Long officeId, final String amount, final LocalDate date) {
+        return List.of(journal.entry(officeId, SAVINGS, JournalEntryType.DEBIT, amount, date),
+                journal.entry(officeId, FEE_INCOME, JournalEntryType.CREDIT, amount, date));
+    }
+
+    /**
+     * Recalculates every running balance from the first entry on and compares it with the stored one.
+     */
+    private void assertBalancesMatchAFullRecompute() {
+        final Map<List<Long>, BigDecimal> officeBalances = new HashMap<>();
+        final Map<Long, BigDecimal> organizationBalances = new HashMap<>();
+        final Map<List<Long>, BigDecimal> lastOfficeBalances = new TreeMap<>(Comparator.comparing(Object::toString));
+        for (Entry entry : journal.entriesInOrder()) {
+            final BigDecimal amount = journal.isIncrease(entry) ? entry.amount : entry.amount.negate();
+            final List<Long> officeAccount = List.of(entry.officeId, entry.accountId);
+            final BigDecimal officeBalance = officeBalances.merge(officeAccount, amount, BigDecimal::add);
+            final BigDecimal organizationBalance = organizationBalances.merge(entry.accountId, amount, BigDecimal::add);
+            lastOfficeBalances.put(officeAccount, officeBalance);
+
+            assertTrue(entry.calculated, "entry " + entry.id + " is calculated");
+            assertEquals(0, officeBalance.compareTo(entry.officeRunningBalance), "office running balance of entry " + entry.id);
+            assertEquals(0, organizationBalance.compareTo(entry.organizationRunningBalance),
+                    "organization running balance of entry " + entry.id);
+        }
+        assertEquals(lastOfficeBalances, journal.snapshotBalances());
+    }
+
+    private static final class Entry {
+
+        private final Long id;
+        private final Long officeId;
+        private final Long accountId;
+        private final JournalEntryType type;
+        private final BigDecimal amount;
+        private final LocalDate entryDate;
+        private boolean calculated;
+        private BigDecimal officeRunningBalance;
+        private BigDecimal organizationRunningBalance;
+
+        private Entry(final Long id, final Long officeId, final Long accountId, final JournalEntryType type, final BigDecimal amount,
+                final LocalDate entryDate) {
+            this.id = id;
+            this.officeId = officeId;
+            this.accountId = accountId;
+            this.type = type;
+            this.amount = amount;
+            this.entryDate = entryDate;
+        }
+
+        private boolean isAfter(final LocalDate date, final Long otherId) {
+            return entryDate.isAfter(date) || (entryDate.isEqual(date) && id > otherId);
+        }
+    }
+
+    private static final class SnapshotRow {
+
+        private BigDecimal officeRunningBalance;
+        private LocalDate lastEntryDate;
+        private Long lastEntryId;
+    }
+
+    /**
+     * Keeps acc_gl_journal_entry and acc_gl_running_balance in memory and answers the statements of the running balance
+     * update. A second insert of the same office and account fails like the primary key of acc_gl_running_balance would.
+     */
+    private static final class FakeJournal extends JdbcTemplate {
+
+        private final Map<Long, GLAccountType> accounts = new HashMap<>();
+        private final Map<Long, Entry> entries = new TreeMap<>();
+        private final Map<List<Long>, SnapshotRow> snapshot = new LinkedHashMap<>();
+        private final List<Long> readEntryIds = new ArrayList<>();
+        private boolean snapshotRebuilt;
+
+        private Long entry(final Long officeId, final Long accountId, final JournalEntryType type, final String amount,
+                final LocalDate entryDate) {
+            final Long id = (long) entries.size() + 1;
+            entries.put(id, new Entry(id, officeId, accountId, type, new BigDecimal(amount), entryDate));
+            return id;
+        }
+
+        private List<Entry> entriesInOrder() {
+            return entries.values().stream().sorted(Comparator.comparing((Entry entry) -> entry.entryDate).thenComparing(entry -> entry.id))
+                    .collect(Collectors.toList());
+        }
+
+        private boolean isIncrease(final Entry entry) {
+            switch (accounts.get(entry.accountId)) {
+                case ASSET:
+                case EXPENSE:
+                    return entry.type.isDebitType();
+                default:
+                    return entry.type.isCreditType();
+            }
+        }
+
+        private void forgetReads() {
+            readEntryIds.clear();
+            snapshotRebuilt = false;
+        }
+
+        private BigDecimal snapshotBalance(final Long officeId, final Long accountId) {
+            final SnapshotRow row = snapshot.get(List.of(officeId, accountId));
+            return row == null ? null : row.officeRunningBalance;
+        }
+
+        private Map<List<Long>, BigDecimal> snapshotBalances() {
+            final Map<List<Long>, BigDecimal> balances = new TreeMap<>(Comparator.comparing(Object::toString));
+            snapshot.forEach((officeAccount, row) -> {
+                final Entry lastEntry = entries.get(row.lastEntryId);
+                assertEquals(officeAccount, List.of(lastEntry.officeId, lastEntry.accountId));
+                assertEquals(lastEntry.entryDate, row.lastEntryDate);
+                balances.put(officeAccount, row.officeRunningBalance);
+            });
+            return balances;
+        }
+
+        @Override
+        public <T> List<T> query(final String sql, final RowMapper<T> rowMapper) {
+            return query(sql, rowMapper, new Object[0]);
+        }
+
+        @Override
+        public <T> List<T> query(final String sql, final RowMapper<T> rowMapper, final Object... args) {
+            final List<Map<String, Object>> rows = new ArrayList<>();
+            if (sql.startsWith("select je.entry_date as entryDate, je.id as id from acc_gl_journal_entry je")) {
+                entriesInOrder().stream().filter(entry -> !entry.calculated).limit(1)
+                        .forEach(entry -> rows.add(Map.of("entryDate", entry.entryDate, "id", entry.id)));
+            } else if (sql.startsWith("select rb.last_entry_date as entryDate, rb.last_entry_id as id from acc_gl_running_balance rb")) {
+                snapshot.values().stream()
+                        .max(Comparator.comparing((SnapshotRow row) -> row.lastEntryDate).thenComparing(row -> row.lastEntryId))
+                        .ifPresent(row -> rows.add(Map.of("entryDate", row.lastEntryDate, "id", row.lastEntryId)));
+            } else if (sql.contains("je.is_running_balance_calculated=false and (je.entry_date > ?")) {
+                final LocalDate afterDate = (LocalDate) args[0];
+                final Long afterId = (Long) args[2];
+                final int limit = Integer.parseInt(sql.substring(sql.lastIndexOf(' ') + 1));
+                entriesInOrder().stream().filter(entry -> !entry.calculated && entry.isAfter(afterDate, afterId)).limit(limit)
+                        .forEach(entry -> {
+                            readEntryIds.add(entry.id);
+                            final Map<String, Object> row = new LinkedHashMap<>();
+                            row.put("id", entry.id);
+                            row.put("glAccountId", entry.accountId);
+                            row.put("entryType", entry.type.getValue());
+                            row.put("amount", entry.amount);
+                            row.put("classification", accounts.get(entry.accountId).getValue());
+                            row.put("officeId", entry.officeId);
+                            row.put("entryDate", entry.entryDate);
+                            rows.add(row);
+                        });
+            } else {
+                throw new IllegalStateException("Unexpected query " + sql);
+            }
+            final List<T> results = new ArrayList<>();
+            for (Map<String, Object> row : rows) {
+                try {
+                    results.add(rowMapper.mapRow(resultSet(row), results.size()));
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return results;
+        }
+
+        @Override
+        public void query(final String sql, final RowCallbackHandler rowCallbackHandler) {
+            assertTrue(sql.contains("from acc_gl_running_balance rb"), sql);
+            for (Map.Entry<List<Long>, SnapshotRow> row : snapshot.entrySet()) {
+                try {
+                    rowCallbackHandler.processRow(resultSet(Map.of("officeId", row.getKey().get(0), "accountId", row.getKey().get(1),
+                            "runningBalance", row.getValue().officeRunningBalance)));
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+
+        @Override
+        public int update(final String sql) {
+            assertEquals("delete from acc_gl_running_balance", sql);
+            final int removed = snapshot.size();
+            snapshot.clear();
+            return removed;
+        }
+
+        @Override
+        public int update(final String sql, final Object... args) {
+            final LocalDate entryDate = (LocalDate) args[0];
+            int updated = 0;
+            if (sql.startsWith("update acc_gl_journal_entry set is_running_balance_calculated=false")) {
+                snapshotRebuilt = true;
+                for (Entry entry : entries.values()) {
+                    if (entry.calculated && !entry.entryDate.isBefore(entryDate)) {
+                        entry.calculated = false;
+                        updated++;
+                    }
+                }
+            } else if (sql.startsWith("insert into acc_gl_running_balance")) {
+                final List<Entry> before = entriesInOrder().stream().filter(entry -> entry.entryDate.isBefore(entryDate))
+                        .collect(Collectors.toList());
+                for (Entry entry : before) {
+                    final SnapshotRow row = snapshot.computeIfAbsent(List.of(entry.officeId, entry.accountId), key -> new SnapshotRow());
+                    row.officeRunningBalance = entry.officeRunningBalance;
+                    row.lastEntryDate = entry.entryDate;
+                    row.lastEntryId = entry.id;
+                }
+                updated = snapshot.size();
+            } else {
+                throw new IllegalStateException("Unexpected update " + sql);
+            }
+            return updated;
+        }
+
+        @Override
+        public int[] batchUpdate(final String sql, final List<Object[]> batchArgs) {
+            for (Object[] args : batchArgs) {
+                if (sql.startsWith("UPDATE acc_gl_journal_entry")) {
+                    final Entry entry = entries.get((Long) args[2]);
+                    entry.calculated = true;
+                    entry.organizationRunningBalance = (BigDecimal) args[0];
+                    entry.officeRunningBalance = (BigDecimal) args[1];
+                } else {
+                    final List<Long> officeAccount = List.of((Long) args[3], (Long) args[4]);
+                    if (sql.startsWith("INSERT INTO acc_gl_running_balance")) {
+                        assertNull(snapshot.put(officeAccount, new SnapshotRow()), "duplicate snapshot row " + officeAccount);
+                    }
+                    final SnapshotRow row = snapshot.get(officeAccount);
+                    row.officeRunningBalance = (BigDecimal) args[0];
+                    row.lastEntryDate = (LocalDate) args[1];
+                    row.lastEntryId = (Long) args[2];
+                }
+            }
+            return new int[batchArgs.size()];
+        }
+
+        private static ResultSet resultSet(final Map<String, Object> row) {
+            final List<String> columns = new ArrayList<>(row.keySet());
+            return mock(ResultSet.class, invocation -> {
+                final String method = invocation.getMethod().getName();
+                if ("wasNull".equals(method)) {
+                    return false;
+                }
+                if (invocation.getArguments().length == 0) {
+                    return null;
+                }
+                final Object column = invocation.getArgument(0);
+                final Object value = column instanceof Integer ? row.get(columns.get((Integer) column - 1)) : row.get(column);
+                switch (method) {
+                    case "findColumn":
+                        return columns.indexOf(column) + 1;
+                    case "getLong":
+                        return ((Number) value).longValue();
+                    case "getInt":
+                        return ((Number) value).intValue();
+                    case "getDate":
+                        return Date.valueOf((LocalDate) value);
+                    default:
+                        return value;
+                }
+            });
+        }
+    }
+}
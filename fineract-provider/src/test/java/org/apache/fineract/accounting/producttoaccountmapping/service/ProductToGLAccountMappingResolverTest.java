@@ -0,0 +1,252 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.producttoaccountmapping.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.Optional;
+import org.apache.fineract.accounting.financialactivityaccount.domain.FinancialActivityAccount;
+import org.apache.fineract.accounting.financialactivityaccount.domain.FinancialActivityAccountRepositoryWrapper;
+import org.apache.fineract.accounting.financialactivityaccount.service.FinancialActivityAccountWritePlatformService;
+import org.apache.fineract.accounting.financialactivityaccount.service.FinancialActivityAccountWritePlatformServiceImpl;
+import org.apache.fineract.accounting.glaccount.domain.GLAccount;
+import org.apache.fineract.accounting.glaccount.domain.GLAccountRepositoryWrapper;
+import org.apache.fineract.accounting.producttoaccountmapping.domain.ProductToGLAccountMapping;
+import org.apache.fineract.accounting.producttoaccountmapping.domain.ProductToGLAccountMappingRepository;
+import org.apache.fineract.infrastructure.core.api.JsonCommand;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.entityaccess.service.FineractEntityAccessUtil;
+import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.apache.fineract.portfolio.charge.domain.Charge;
+import org.apache.fineract.portfolio.charge.domain.ChargeRepository;
+import org.apache.fineract.portfolio.charge.domain.ChargeRepositoryWrapper;
+import org.apache.fineract.portfolio.charge.service.ChargeWritePlatformService;
+import org.apache.fineract.portfolio.charge.service.ChargeWritePlatformServiceJpaRepositoryImpl;
+import org.apache.fineract.portfolio.loanproduct.domain.LoanProductRepository;
+import org.apache.fineract.portfolio.paymenttype.domain.PaymentTypeRepositoryWrapper;
+import org.apache.fineract.portfolio.tax.domain.TaxGroupRepositoryWrapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Runs the resolver and the write services that evict its region behind the Spring caching proxies, so the cache keys
+ * and evictions declared by their annotations are the ones tested.
+ */
+public class ProductToGLAccountMappingResolverTest {
+
+    private static final int LOAN = 1;
+    private static final int SAVINGS = 2;
+    private static final int FUND_SOURCE = 1;
+
+    private final ProductToGLAccountMappingRepository accountMappingRepository = mock(ProductToGLAccountMappingRepository.class);
+    private final FinancialActivityAccountRepositoryWrapper financialActivityAccountRepository = mock(
+            FinancialActivityAccountRepositoryWrapper.class);
+    private final ChargeRepositoryWrapper chargeRepositoryWrapper = mock(ChargeRepositoryWrapper.class);
+    private final ChargeRepository chargeRepository = mock(ChargeRepository.class);
+
+    private AnnotationConfigApplicationContext context;
+    private ProductToGLAccountMappingResolver resolver;
+
+    @BeforeEach
+    public void init() {
+        tenant("default");
+
+        context = new AnnotationConfigApplicationContext();
+        context.register(CachingConfiguration.class);
+        context.registerBean(ProductToGLAccountMappingResolver.class,
+                () -> new ProductToGLAccountMappingResolver(accountMappingRepository, financialActivityAccountRepository,
+                        chargeRepositoryWrapper));
+        context.registerBean(ProductToGLAccountMappingWritePlatformService.class,
+                () -> new ProductToGLAccountMappingWritePlatformServiceImpl(new FromJsonHelper(), null,
+                        mock(LoanProductToGLAccountMappingHelper.class), mock(SavingsProductToGLAccountMappingHelper.class),
+                        mock(ShareProductToGLAccountMappingHelper.class)));
+        context.registerBean(FinancialActivityAccountWritePlatformService.class,
+                () -> new FinancialActivityAccountWritePlatformServiceImpl(financialActivityAccountRepository, null,
+                        mock(GLAccountRepositoryWrapper.class)));
+        context.registerBean(ChargeWritePlatformService.class,
+                () -> new ChargeWritePlatformServiceJpaRepositoryImpl(mock(PlatformSecurityContext.class), null, chargeRepository,
+                        mock(LoanProductRepository.class), mock(JdbcTemplate.class), mock(FineractEntityAccessUtil.class),
+                        mock(GLAccountRepositoryWrapper.class), mock(TaxGroupRepositoryWrapper.class),
+                        mock(PaymentTypeRepositoryWrapper.class)));
+        context.refresh();
+        resolver = context.getBean(ProductToGLAccountMappingResolver.class);
+
+        final ProductToGLAccountMapping coreMapping = mapping(100L);
+        given(accountMappingRepository.findCoreProductToFinAccountMapping(5L, LOAN, FUND_SOURCE)).willReturn(coreMapping);
+        final ProductToGLAccountMapping paymentTypeMapping = mapping(200L);
+        given(accountMappingRepository.findByProductIdAndProductTypeAndFinancialAccountTypeAndPaymentTypeId(5L, LOAN, FUND_SOURCE, 7L))
+                .willReturn(paymentTypeMapping);
+        final ProductToGLAccountMapping chargeMapping = mapping(300L);
+        given(accountMappingRepository.findProductIdAndProductTypeAndFinancialAccountTypeAndChargeId(5L, LOAN, FUND_SOURCE, 7L))
+                .willReturn(chargeMapping);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        context.close();
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void coreMappingPaymentTypeAndChargeOfTheSameProductAreCachedSeparately() {
+        for (int i = 0; i < 2; i++) {
+            assertEquals(100L, resolver.resolveProductAccountId(LOAN, 5L, FUND_SOURCE));
+            assertEquals(200L, resolver.resolvePaymentTypeAccountId(LOAN, 5L, FUND_SOURCE, 7L));
+            assertEquals(300L, resolver.resolveChargeAccountId(LOAN, 5L, FUND_SOURCE, 7L));
+        }
+
+        verify(accountMappingRepository).findCoreProductToFinAccountMapping(5L, LOAN, FUND_SOURCE);
+        verify(accountMappingRepository).findByProductIdAndProductTypeAndFinancialAccountTypeAndPaymentTypeId(5L, LOAN, FUND_SOURCE, 7L);
+        verify(accountMappingRepository).findProductIdAndProductTypeAndFinancialAccountTypeAndChargeId(5L, LOAN, FUND_SOURCE, 7L);
+    }
+
+    @Test
+    public void chargeAccountAndFinancialActivityWithTheSameIdAreCachedSeparately() {
+        final FinancialActivityAccount financialActivityAccount = mock(FinancialActivityAccount.class);
+        final GLAccount financialActivityGlAccount = glAccount(400L);
+        given(financialActivityAccount.getGlAccount()).willReturn(financialActivityGlAccount);
+        given(financialActivityAccountRepository.findByFinancialActivityTypeWithNotFoundDetection(7)).willReturn(financialActivityAccount);
+        final Charge charge = mock(Charge.class);
+        final GLAccount chargeGlAccount = glAccount(500L);
+        given(charge.getAccount()).willReturn(chargeGlAccount);
+        given(chargeRepositoryWrapper.findOneWithNotFoundDetection(7L)).willReturn(charge);
+
+        assertEquals(400L, resolver.resolveFinancialActivityAccountId(7));
+        assertEquals(500L, resolver.resolveChargeIncomeAccountId(7L));
+        assertEquals(300L, resolver.resolveChargeAccountId(LOAN, 5L, FUND_SOURCE, 7L));
+        assertEquals(400L, resolver.resolveFinancialActivityAccountId(7));
+        assertEquals(500L, resolver.resolveChargeIncomeAccountId(7L));
+
+        verify(financialActivityAccountRepository).findByFinancialActivityTypeWithNotFoundDetection(7);
+        verify(chargeRepositoryWrapper).findOneWithNotFoundDetection(7L);
+    }
+
+    @Test
+    public void productTypeAndProductIdDoNotRunTogetherInTheKey() {
+        final ProductToGLAccountMapping otherProductMapping = mapping(600L);
+        given(accountMappingRepository.findCoreProductToFinAccountMapping(15L, LOAN, FUND_SOURCE)).willReturn(otherProductMapping);
+
+        assertEquals(600L, resolver.resolveProductAccountId(LOAN, 15L, FUND_SOURCE));
+        assertNull(resolver.resolveProductAccountId(11, 5L, FUND_SOURCE));
+        assertNull(resolver.resolveProductAccountId(SAVINGS, 5L, FUND_SOURCE));
+        assertEquals(100L, resolver.resolveProductAccountId(LOAN, 5L, FUND_SOURCE));
+    }
+
+    @Test
+    public void everyTenantResolvesItsOwnMappings() {
+        final ProductToGLAccountMapping otherTenantMapping = mapping(900L);
+
+        assertEquals(100L, resolver.resolveProductAccountId(LOAN, 5L, FUND_SOURCE));
+        tenant("other");
+        given(accountMappingRepository.findCoreProductToFinAccountMapping(5L, LOAN, FUND_SOURCE)).willReturn(otherTenantMapping);
+        assertEquals(900L, resolver.resolveProductAccountId(LOAN, 5L, FUND_SOURCE));
+        tenant("default");
+        assertEquals(100L, resolver.resolveProductAccountId(LOAN, 5L, FUND_SOURCE));
+
+        verify(accountMappingRepository, times(2)).findCoreProductToFinAccountMapping(5L, LOAN, FUND_SOURCE);
+    }
+
+    @Test
+    public void productMappingWritesEvictTheResolvedAccounts() {
+        resolveAll();
+
+        context.getBean(ProductToGLAccountMappingWritePlatformService.class).updateLoanProductToGLAccountMapping(5L,
+                JsonCommand.from("{}"), false, 1);
+        resolveAll();
+
+        verifyResolvedTwice();
+    }
+
+    @Test
+    public void financialActivityWritesEvictTheResolvedAccounts() {
+        resolveAll();
+
+        context.getBean(FinancialActivityAccountWritePlatformService.class).deleteGLAccountActivityMapping(3L, JsonCommand.from("{}"));
+        resolveAll();
+
+        verifyResolvedTwice();
+    }
+
+    @Test
+    public void chargeWritesEvictTheResolvedAccounts() {
+        given(chargeRepository.findById(7L)).willReturn(Optional.of(mock(Charge.class)));
+        resolveAll();
+
+        context.getBean(ChargeWritePlatformService.class).deleteCharge(7L);
+        resolveAll();
+
+        verifyResolvedTwice();
+    }
+
+    private void resolveAll() {
+        resolver.resolveProductAccountId(LOAN, 5L, FUND_SOURCE);
+        resolver.resolvePaymentTypeAccountId(LOAN, 5L, FUND_SOURCE, 7L);
+        resolver.resolveChargeAccountId(LOAN, 5L, FUND_SOURCE, 7L);
+    }
+
+    private void verifyResolvedTwice() {
+        verify(accountMappingRepository, times(2)).findCoreProductToFinAccountMapping(5L, LOAN, FUND_SOURCE);
+        verify(accountMappingRepository, times(2)).findByProductIdAndProductTypeAndFinancialAccountTypeAndPaymentTypeId(5L, LOAN,
+                FUND_SOURCE, 7L);
+        verify(accountMappingRepository, times(2)).findProductIdAndProductTypeAndFinancialAccountTypeAndChargeId(5L, LOAN, FUND_SOURCE,
+                7L);
+    }
+
+    private static void tenant(final String tenantIdentifier) {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, tenantIdentifier, tenantIdentifier, "Asia/Kolkata", null));
+    }
+
+    private static ProductToGLAccountMapping mapping(final Long glAccountId) {
+        final GLAccount glAccount = glAccount(glAccountId);
+        final ProductToGLAccountMapping mapping = mock(ProductToGLAccountMapping.class);
+        given(mapping.getGlAccount()).willReturn(glAccount);
+        return mapping;
+    }
+
+    private static GLAccount glAccount(final Long id) {
+        final GLAccount glAccount = mock(GLAccount.class);
+        given(glAccount.getId()).willReturn(id);
+        return glAccount;
+    }
+
+    @Configuration
+    @EnableCaching
+    static class CachingConfiguration {
+
+        @Bean
+        public CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager();
+        }
+    }
+}
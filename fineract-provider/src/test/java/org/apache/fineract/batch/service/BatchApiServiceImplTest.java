@@ -0,0 +1,204 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.batch.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.ws.rs.core.UriInfo;
+import org.apache.fineract.batch.command.CommandContext;
+import org.apache.fineract.batch.command.CommandStrategy;
+import org.apache.fineract.batch.command.CommandStrategyProvider;
+import org.apache.fineract.batch.domain.BatchRequest;
+import org.apache.fineract.batch.domain.BatchResponse;
+import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.config.FineractProperties.FineractBatchApiProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.exception.GeneralPlatformDomainRuleException;
+import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+public class BatchApiServiceImplTest {
+
+    private static final String FAILING_URL = "failing";
+
+    private final UriInfo uriInfo = mock(UriInfo.class);
+    private final Map<Long, String> threadOfRequest = new ConcurrentHashMap<>();
+    private final Map<Long, String> tenantOfRequest = new ConcurrentHashMap<>();
+    private final Map<Long, Authentication> authenticationOfRequest = new ConcurrentHashMap<>();
+    private final Map<Long, String> correlationIdOfRequest = new ConcurrentHashMap<>();
+    private final Map<String, CyclicBarrier> barriers = new ConcurrentHashMap<>();
+
+    private BatchApiServiceImpl service;
+
+    @BeforeEach
+    public void init() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        ThreadLocalContextUtil.setBusinessDates(new HashMap<>(Map.of(BusinessDateType.BUSINESS_DATE, LocalDate.now())));
+
+        final CommandStrategyProvider strategyProvider = mock(CommandStrategyProvider.class);
+        given(strategyProvider.getCommandStrategy(any(CommandContext.class))).willReturn(new RecordingCommandStrategy());
+
+        final FineractBatchApiProperties batchApiProperties = new FineractBatchApiProperties();
+        batchApiProperties.setThreadPoolSize(4);
+        batchApiProperties.setQueueCapacity(10);
+        final FineractProperties fineractProperties = new FineractProperties();
+        fineractProperties.setBatchApi(batchApiProperties);
+
+        service = new BatchApiServiceImpl(strategyProvider, new ResolutionHelper(new FromJsonHelper()),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), fineractProperties);
+        service.initializeExecutorService();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        service.shutdownExecutorService();
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        SecurityContextHolder.clearContext();
+        MDC.clear();
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void independentSubtreesRunConcurrently() {
+        // both roots wait for each other, which only works out when they run at the same time
+        final CyclicBarrier barrier = new CyclicBarrier(2);
+        barriers.put("first", barrier);
+        barriers.put("second", barrier);
+
+        final List<BatchResponse> responses = service.handleBatchRequestsInParallelWithoutEnclosingTransaction(
+                List.of(request(1L, "first", null), request(2L, "second", null)), uriInfo);
+
+        assertEquals(List.of(200, 200), statusCodes(responses));
+        assertTrue(threadOfRequest.get(1L).startsWith("batch-api-"));
+        assertTrue(threadOfRequest.get(2L).startsWith("batch-api-"));
+    }
+
+    @Test
+    public void failingSubtreeDoesNotAffectTheOtherSubtrees() {
+        final List<BatchResponse> responses = service.handleBatchRequestsInParallelWithoutEnclosingTransaction(
+                List.of(request(1L, FAILING_URL, null), request(2L, "root", null), request(3L, "child", 1L), request(4L, "child", 2L)),
+                uriInfo);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), requestIds(responses));
+        assertEquals(List.of(400, 200, 409, 200), statusCodes(responses));
+        // the child of the failed root is answered with a conflict without being executed
+        assertFalse(threadOfRequest.containsKey(3L));
+    }
+
+    @Test
+    public void responsesAreOrderedByRequestId() {
+        final List<BatchResponse> responses = service.handleBatchRequestsInParallelWithoutEnclosingTransaction(
+                List.of(request(5L, "root", null), request(2L, "root", null), request(4L, "child", 5L), request(1L, "root", null),
+                        request(3L, "child", 2L)),
+                uriInfo);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), requestIds(responses));
+    }
+
+    @Test
+    public void parallelExecutionIsRejectedInsideAnEnclosingTransaction() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        assertThrows(GeneralPlatformDomainRuleException.class, () -> service.handleBatchRequestsInParallelWithoutEnclosingTransaction(
+                List.of(request(1L, "root", null), request(2L, "root", null)), uriInfo));
+        assertTrue(threadOfRequest.isEmpty());
+    }
+
+    @Test
+    public void workersRunWithTheContextOfTheCaller() {
+        final Authentication authentication = new UsernamePasswordAuthenticationToken("mifos", "password");
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        MDC.put("correlationId", "batch-correlation");
+
+        service.handleBatchRequestsInParallelWithoutEnclosingTransaction(List.of(request(1L, "root", null), request(2L, "root", null)),
+                uriInfo);
+
+        assertEquals(Map.of(1L, "default", 2L, "default"), tenantOfRequest);
+        assertEquals(Map.of(1L, authentication, 2L, authentication), authenticationOfRequest);
+        assertEquals(Map.of(1L, "batch-correlation", 2L, "batch-correlation"), correlationIdOfRequest);
+    }
+
+    private BatchRequest request(final Long requestId, final String relativeUrl, final Long reference) {
+        return new BatchRequest(requestId, relativeUrl, "POST", null, reference, "{}");
+    }
+
+    private List<Long> requestIds(final List<BatchResponse> responses) {
+        return responses.stream().map(BatchResponse::getRequestId).collect(Collectors.toList());
+    }
+
+    private List<Integer> statusCodes(final List<BatchResponse> responses) {
+        return responses.stream().map(BatchResponse::getStatusCode).collect(Collectors.toList());
+    }
+
+    private final class RecordingCommandStrategy implements CommandStrategy {
+
+        @Override
+        public BatchResponse execute(final BatchRequest request, final UriInfo uriInfo) {
+            threadOfRequest.put(request.getRequestId(), Thread.currentThread().getName());
+            tenantOfRequest.put(request.getRequestId(), ThreadLocalContextUtil.getTenant().getTenantIdentifier());
+            final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null) {
+                authenticationOfRequest.put(request.getRequestId(), authentication);
+            }
+            final String correlationId = MDC.get("correlationId");
+            if (correlationId != null) {
+                correlationIdOfRequest.put(request.getRequestId(), correlationId);
+            }
+            final CyclicBarrier barrier = barriers.get(request.getRelativeUrl());
+            if (barrier != null) {
+                try {
+                    barrier.await(5, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    throw new IllegalStateException("Request " + request.getRequestId() + " did not run concurrently", e);
+                }
+            }
+
+            final BatchResponse response = new BatchResponse();
+            response.setRequestId(request.getRequestId());
+            response.setStatusCode(FAILING_URL.equals(request.getRelativeUrl()) ? 400 : 200);
+            response.setBody("{}");
+            return response;
+        }
+    }
+}
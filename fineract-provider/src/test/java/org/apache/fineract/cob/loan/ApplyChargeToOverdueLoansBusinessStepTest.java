@@ -0,0 +1,128 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cob.loan;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.math.BigDecimal;
+import java.util.List;
+import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.apache.fineract.portfolio.loanaccount.domain.Loan;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.data.OverdueLoanScheduleData;
+import org.apache.fineract.portfolio.loanaccount.service.LoanReadPlatformService;
+import org.apache.fineract.portfolio.loanaccount.service.LoanWritePlatformService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ApplyChargeToOverdueLoansBusinessStepTest {
+
+    private static final Long PENALTY_WAIT_PERIOD = 2L;
+
+    @Mock
+    private ConfigurationDomainService configurationDomainService;
+
+    @Mock
+    private LoanReadPlatformService loanReadPlatformService;
+
+    @Mock
+    private LoanWritePlatformService loanWritePlatformService;
+
+    @Mock
+    private Loan loan;
+
+    private ApplyChargeToOverdueLoansBusinessStep underTest;
+
+    @BeforeEach
+    void setUp() {
+        given(configurationDomainService.retrievePenaltyWaitPeriod()).willReturn(PENALTY_WAIT_PERIOD);
+        given(configurationDomainService.isBackdatePenaltiesEnabled()).willReturn(Boolean.TRUE);
+        given(loan.getId()).willReturn(2L);
+        underTest = new ApplyChargeToOverdueLoansBusinessStep(configurationDomainService, loanReadPlatformService,
+                loanWritePlatformService);
+    }
+
+    @Test
+    public void testExecuteShouldOnlyLookUpTheOverdueInstallmentsOfTheGivenLoan() {
+        // given
+        List<OverdueLoanScheduleData> overdueInstallments = List.of(overdueInstallment(2L, 1));
+        given(loanReadPlatformService.retrieveOverdueInstallmentsForLoan(2L, PENALTY_WAIT_PERIOD, Boolean.TRUE))
+                .willReturn(overdueInstallments);
+
+        // when
+        underTest.execute(loan);
+
+        // then
+        verify(loanReadPlatformService, never()).retrieveAllLoansWithOverdueInstallments(anyLong(), anyBoolean());
+        verify(loanWritePlatformService).applyOverdueChargesForLoan(2L, overdueInstallments);
+    }
+
+    @Test
+    public void testExecuteShouldUseTheInstallmentsPrefetchedForTheChunk() {
+        // given
+        OverdueLoanScheduleData otherLoanInstallment = overdueInstallment(1L, 1);
+        OverdueLoanScheduleData firstInstallment = overdueInstallment(2L, 1);
+        OverdueLoanScheduleData secondInstallment = overdueInstallment(2L, 2);
+        given(loanReadPlatformService.retrieveOverdueInstallmentsForLoanIdRange(1L, 3L, PENALTY_WAIT_PERIOD, Boolean.TRUE))
+                .willReturn(List.of(otherLoanInstallment, firstInstallment, secondInstallment));
+        LoanCOBChunk chunk = new LoanCOBChunk(1L, 1L, 1L, 3L, 1);
+
+        // when
+        underTest.beforeChunk(chunk);
+        underTest.execute(loan);
+        underTest.afterChunk(chunk);
+
+        // then
+        verify(loanReadPlatformService, never()).retrieveOverdueInstallmentsForLoan(any(), any(), any());
+        verify(loanWritePlatformService, times(1)).applyOverdueChargesForLoan(2L, List.of(firstInstallment, secondInstallment));
+    }
+
+    @Test
+    public void testExecuteShouldSkipLoansWithoutOverdueInstallments() {
+        // given
+        given(loanReadPlatformService.retrieveOverdueInstallmentsForLoanIdRange(1L, 3L, PENALTY_WAIT_PERIOD, Boolean.TRUE))
+                .willReturn(List.of(overdueInstallment(1L, 1)));
+        LoanCOBChunk chunk = new LoanCOBChunk(1L, 1L, 1L, 3L, 1);
+
+        // when
+        underTest.beforeChunk(chunk);
+        underTest.execute(loan);
+        underTest.afterChunk(chunk);
+
+        // then
+        verify(loanWritePlatformService, never()).applyOverdueChargesForLoan(any(), any());
+    }
+
+    private static OverdueLoanScheduleData overdueInstallment(Long loanId, Integer period) {
+        return new OverdueLoanScheduleData(loanId, 1L, "2022-01-01", BigDecimal.TEN, "yyyy-MM-dd", "en_GB", BigDecimal.ONE,
+                BigDecimal.ONE, period);
+    }
+}
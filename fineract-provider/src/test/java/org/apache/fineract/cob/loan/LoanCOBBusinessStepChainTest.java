@@ -0,0 +1,104 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cob.loan;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
+
+import java.util.List;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.portfolio.loanaccount.domain.Loan;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class LoanCOBBusinessStepChainTest {
+
+    @Mock
+    private LoanCOBBusinessStep firstStep;
+
+    @Mock
+    private LoanCOBBusinessStep secondStep;
+
+    @Mock
+    private Loan loan;
+
+    private FineractProperties fineractProperties;
+
+    @BeforeEach
+    void setUp() {
+        given(firstStep.getEnumStyledName()).willReturn("FIRST_STEP");
+        given(secondStep.getEnumStyledName()).willReturn("SECOND_STEP");
+        given(firstStep.execute(any())).willAnswer(invocation -> invocation.getArgument(0));
+        given(secondStep.execute(any())).willAnswer(invocation -> invocation.getArgument(0));
+        fineractProperties = new FineractProperties();
+        fineractProperties.setCob(new FineractProperties.FineractCOBProperties());
+    }
+
+    @Test
+    public void testExecuteShouldRunAllRegisteredStepsWhenNothingIsConfigured() {
+        // given
+        LoanCOBBusinessStepChain underTest = new LoanCOBBusinessStepChain(List.of(firstStep, secondStep), fineractProperties);
+
+        // when
+        Loan result = underTest.execute(loan);
+
+        // then
+        assertSame(loan, result);
+        InOrder order = inOrder(firstStep, secondStep);
+        order.verify(firstStep).execute(loan);
+        order.verify(secondStep).execute(loan);
+    }
+
+    @Test
+    public void testExecuteShouldRunConfiguredStepsInConfiguredOrder() {
+        // given
+        fineractProperties.getCob().setLoanBusinessSteps(List.of("SECOND_STEP", " FIRST_STEP"));
+        LoanCOBBusinessStepChain underTest = new LoanCOBBusinessStepChain(List.of(firstStep, secondStep), fineractProperties);
+
+        // when
+        underTest.execute(loan);
+
+        // then
+        assertEquals(List.of(secondStep, firstStep), underTest.getSteps());
+        InOrder order = inOrder(firstStep, secondStep);
+        order.verify(secondStep).execute(loan);
+        order.verify(firstStep).execute(loan);
+    }
+
+    @Test
+    public void testConstructorShouldFailForUnknownConfiguredStep() {
+        // given
+        fineractProperties.getCob().setLoanBusinessSteps(List.of("UNKNOWN_STEP"));
+
+        // when + then
+        assertThrows(IllegalStateException.class, () -> new LoanCOBBusinessStepChain(List.of(firstStep, secondStep), fineractProperties));
+    }
+}
@@ -0,0 +1,376 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cob.loan;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import org.apache.fineract.cob.COBStatus;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+public class LoanCOBWorkQueueServiceImplTest {
+
+    private static final LocalDate COB_DATE = LocalDate.of(2022, 6, 30);
+
+    private final FakeCOBTables tables = new FakeCOBTables();
+    private LoanCOBWorkQueueServiceImpl service;
+
+    @BeforeEach
+    public void init() {
+        final FineractProperties.FineractCOBProperties cobProperties = new FineractProperties.FineractCOBProperties();
+        cobProperties.setChunkMaxAttempts(2);
+        cobProperties.setChunkLeaseTimeoutMinutes(10);
+        final FineractProperties fineractProperties = new FineractProperties();
+        fineractProperties.setNodeId("node-1");
+        fineractProperties.setCob(cobProperties);
+        final DatabaseSpecificSQLGenerator sqlGenerator = mock(DatabaseSpecificSQLGenerator.class);
+        given(sqlGenerator.limit(anyInt())).willAnswer(invocation -> "LIMIT " + invocation.getArgument(0));
+
+        service = new LoanCOBWorkQueueServiceImpl(tables, new TransactionTemplate(mock(PlatformTransactionManager.class)), sqlGenerator,
+                fineractProperties);
+        tables.activeLoanIds.addAll(List.of(3L, 4L, 8L, 9L, 15L));
+    }
+
+    @Test
+    public void runIsPartitionedOnceIntoChunksOfActiveLoanIds() {
+        final Long runId = service.openRun(COB_DATE, 2);
+
+        assertEquals(1, tables.runs.size());
+        assertEquals(3, tables.chunks.size());
+        assertChunk(tables.chunks.get(1L), 3L, 4L);
+        assertChunk(tables.chunks.get(2L), 8L, 9L);
+        assertChunk(tables.chunks.get(3L), 15L, 15L);
+
+        assertEquals(runId, service.openRun(COB_DATE, 2));
+        assertEquals(1, tables.runs.size());
+        assertEquals(3, tables.chunks.size());
+    }
+
+    @Test
+    public void claimedChunkIsLeasedUntilItsLeaseExpires() {
+        final Long runId = service.openRun(COB_DATE, 2);
+
+        final LoanCOBChunk first = service.claimNextChunk(runId);
+        assertEquals(1L, first.getId());
+        assertEquals(1, first.getAttempts());
+        assertEquals(COBStatus.IN_PROGRESS.name(), tables.chunks.get(1L).status);
+        assertEquals("node-1", tables.chunks.get(1L).nodeId);
+        assertEquals(2L, service.claimNextChunk(runId).getId());
+        assertEquals(3L, service.claimNextChunk(runId).getId());
+        assertNull(service.claimNextChunk(runId));
+
+        // the node holding the first chunk died, another one takes it over and the old lease can not complete it
+        tables.chunks.get(1L).leaseExpiresOn = LocalDateTime.now().minusMinutes(1);
+        final LoanCOBChunk takenOver = service.claimNextChunk(runId);
+        assertEquals(1L, takenOver.getId());
+        assertEquals(2, takenOver.getAttempts());
+        assertThrows(OptimisticLockingFailureException.class, () -> service.completeChunk(first, 2));
+
+        service.completeChunk(takenOver, 2);
+        assertEquals(COBStatus.DONE.name(), tables.chunks.get(1L).status);
+        assertEquals(2, tables.chunks.get(1L).processedLoans);
+    }
+
+    @Test
+    public void failedChunkIsRetriedUntilItsAttemptsRunOut() {
+        final Long runId = service.openRun(COB_DATE, 5);
+
+        service.failChunk(service.claimNextChunk(runId), new IllegalStateException("first"));
+        assertEquals(COBStatus.PENDING.name(), tables.chunks.get(1L).status);
+        assertEquals("first", tables.chunks.get(1L).lastError);
+
+        final LoanCOBChunk lastAttempt = service.claimNextChunk(runId);
+        assertEquals(2, lastAttempt.getAttempts());
+        service.failChunk(lastAttempt, new IllegalStateException("second"));
+
+        assertEquals(COBStatus.FAILED.name(), tables.chunks.get(1L).status);
+        assertEquals("second", tables.chunks.get(1L).lastError);
+        assertNull(service.claimNextChunk(runId));
+    }
+
+    @Test
+    public void runClosesOnceEveryChunkIsDoneOrFailed() {
+        final Long runId = service.openRun(COB_DATE, 2);
+        final LoanCOBChunk first = service.claimNextChunk(runId);
+        final LoanCOBChunk second = service.claimNextChunk(runId);
+
+        service.completeChunk(first, 2);
+        assertFalse(service.closeRunIfFinished(runId));
+        assertEquals(COBStatus.IN_PROGRESS.name(), tables.runs.get(runId).status);
+
+        service.completeChunk(second, 2);
+        service.completeChunk(service.claimNextChunk(runId), 1);
+        assertTrue(service.closeRunIfFinished(runId));
+        assertEquals(COBStatus.DONE.name(), tables.runs.get(runId).status);
+        assertTrue(tables.runs.get(runId).finished);
+    }
+
+    @Test
+    public void lastAttemptLosingItsLeaseFailsTheRun() {
+        final Long runId = service.openRun(COB_DATE, 5);
+        service.failChunk(service.claimNextChunk(runId), new IllegalStateException("first"));
+        service.claimNextChunk(runId);
+
+        assertFalse(service.closeRunIfFinished(runId));
+
+        tables.chunks.get(1L).leaseExpiresOn = LocalDateTime.now().minusMinutes(1);
+        assertNull(service.claimNextChunk(runId));
+        assertTrue(service.closeRunIfFinished(runId));
+
+        assertEquals(COBStatus.FAILED.name(), tables.chunks.get(1L).status);
+        assertEquals("Lease of the last attempt expired", tables.chunks.get(1L).lastError);
+        assertEquals(COBStatus.FAILED.name(), tables.runs.get(runId).status);
+    }
+
+    @Test
+    public void failedRunIsReopenedWithFreshAttemptsForItsFailedChunks() {
+        final Long runId = service.openRun(COB_DATE, 2);
+        service.completeChunk(service.claimNextChunk(runId), 2);
+        for (int attempt = 0; attempt < 2; attempt++) {
+            service.failChunk(service.claimNextChunk(runId), new IllegalStateException("failed"));
+        }
+        service.completeChunk(service.claimNextChunk(runId), 1);
+        assertTrue(service.closeRunIfFinished(runId));
+        assertEquals(COBStatus.FAILED.name(), tables.runs.get(runId).status);
+
+        assertEquals(runId, service.openRun(COB_DATE, 2));
+
+        assertEquals(COBStatus.IN_PROGRESS.name(), tables.runs.get(runId).status);
+        assertFalse(tables.runs.get(runId).finished);
+        assertEquals(COBStatus.DONE.name(), tables.chunks.get(1L).status);
+        assertEquals(COBStatus.PENDING.name(), tables.chunks.get(2L).status);
+        assertEquals(0, tables.chunks.get(2L).attempts);
+        assertEquals(COBStatus.DONE.name(), tables.chunks.get(3L).status);
+
+        final LoanCOBChunk retried = service.claimNextChunk(runId);
+        assertEquals(2L, retried.getId());
+        service.completeChunk(retried, 2);
+        assertTrue(service.closeRunIfFinished(runId));
+        assertEquals(COBStatus.DONE.name(), tables.runs.get(runId).status);
+    }
+
+    @Test
+    public void runStillInProgressKeepsItsFailedChunksWhenAnotherNodeJoins() {
+        final Long runId = service.openRun(COB_DATE, 2);
+        for (int attempt = 0; attempt < 2; attempt++) {
+            service.failChunk(service.claimNextChunk(runId), new IllegalStateException("failed"));
+        }
+
+        service.openRun(COB_DATE, 2);
+
+        assertEquals(COBStatus.FAILED.name(), tables.chunks.get(1L).status);
+        assertEquals(2, tables.chunks.get(1L).attempts);
+        assertEquals(2L, service.claimNextChunk(runId).getId());
+    }
+
+    private static void assertChunk(final Chunk chunk, final Long minLoanId, final Long maxLoanId) {
+        assertEquals(minLoanId, chunk.minLoanId);
+        assertEquals(maxLoanId, chunk.maxLoanId);
+        assertEquals(COBStatus.PENDING.name(), chunk.status);
+        assertEquals(0, chunk.attempts);
+    }
+
+    private static final class Run {
+
+        private Long id;
+        private LocalDate cobDate;
+        private String status;
+        private boolean finished;
+    }
+
+    private static final class Chunk {
+
+        private Long id;
+        private Long runId;
+        private Long minLoanId;
+        private Long maxLoanId;
+        private String status;
+        private int attempts;
+        private String nodeId;
+        private LocalDateTime leaseExpiresOn;
+        private int processedLoans;
+        private String lastError;
+    }
+
+    /**
+     * Answers the statements of the work queue from in-memory m_loan_cob_run, m_loan_cob_chunk and active m_loan
+     * rows.
+     */
+    private static final class FakeCOBTables extends JdbcTemplate {
+
+        private final List<Long> activeLoanIds = new ArrayList<>();
+        private final Map<Long, Run> runs = new TreeMap<>();
+        private final Map<Long, Chunk> chunks = new TreeMap<>();
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> queryForList(final String sql, final Class<T> elementType, final Object... args) {
+            final List<Long> ids = new ArrayList<>();
+            if (sql.contains("FROM m_loan_cob_run")) {
+                for (Run run : runs.values()) {
+                    if (run.cobDate.equals(args[0])) {
+                        ids.add(run.id);
+                    }
+                }
+                return (List<T>) ids;
+            }
+            final int limit = Integer.parseInt(sql.substring(sql.lastIndexOf(' ') + 1));
+            for (Long loanId : activeLoanIds) {
+                if (ids.size() < limit && loanId > (Long) args[1]) {
+                    ids.add(loanId);
+                }
+            }
+            return (List<T>) ids;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> query(final String sql, final RowMapper<T> rowMapper, final Object... args) {
+            final int limit = Integer.parseInt(sql.substring(sql.lastIndexOf(' ') + 1));
+            final List<LoanCOBChunk> candidates = new ArrayList<>();
+            for (Chunk chunk : chunks.values()) {
+                if (candidates.size() < limit && chunk.runId.equals(args[0]) && chunk.attempts < (Integer) args[1]
+                        && isClaimable(chunk, (LocalDateTime) args[4])) {
+                    candidates.add(new LoanCOBChunk(chunk.id, chunk.runId, chunk.minLoanId, chunk.maxLoanId, chunk.attempts));
+                }
+            }
+            return (List<T>) candidates;
+        }
+
+        @Override
+        public <T> T queryForObject(final String sql, final Class<T> requiredType, final Object... args) {
+            long count = 0;
+            for (Chunk chunk : chunks.values()) {
+                final boolean matches = sql.contains("c.status <> ?") ? !chunk.status.equals(args[1]) && !chunk.status.equals(args[2])
+                        : chunk.status.equals(args[1]);
+                if (chunk.runId.equals(args[0]) && matches) {
+                    count++;
+                }
+            }
+            return requiredType.cast(count);
+        }
+
+        @Override
+        public int[] batchUpdate(final String sql, final List<Object[]> batchArgs) {
+            for (Object[] args : batchArgs) {
+                final Chunk chunk = new Chunk();
+                chunk.id = chunks.size() + 1L;
+                chunk.runId = (Long) args[0];
+                chunk.minLoanId = (Long) args[1];
+                chunk.maxLoanId = (Long) args[2];
+                chunk.status = (String) args[3];
+                chunks.put(chunk.id, chunk);
+            }
+            return new int[batchArgs.size()];
+        }
+
+        @Override
+        public int update(final String sql, final Object... args) {
+            if (sql.startsWith("INSERT INTO m_loan_cob_run")) {
+                final Run run = new Run();
+                run.id = runs.size() + 1L;
+                run.cobDate = (LocalDate) args[0];
+                run.status = (String) args[2];
+                runs.put(run.id, run);
+                return 1;
+            }
+            if (sql.startsWith("UPDATE m_loan_cob_run")) {
+                final Run run = runs.get((Long) args[args.length - 2]);
+                if (!run.status.equals(args[args.length - 1])) {
+                    return 0;
+                }
+                run.status = (String) args[0];
+                run.finished = !sql.contains("finished_date = NULL");
+                return 1;
+            }
+            if (sql.contains("attempts = attempts + 1")) {
+                final Chunk chunk = chunks.get((Long) args[4]);
+                if (chunk.attempts != (Integer) args[5] || !isClaimable(chunk, (LocalDateTime) args[8])) {
+                    return 0;
+                }
+                chunk.status = (String) args[0];
+                chunk.nodeId = (String) args[1];
+                chunk.leaseExpiresOn = (LocalDateTime) args[2];
+                chunk.attempts++;
+                return 1;
+            }
+            if (sql.contains("WHERE run_id = ? AND status = ? AND attempts >= ?")) {
+                return updateChunksOfRun(args, 3, chunk -> chunk.status.equals(args[4]) && chunk.attempts >= (Integer) args[5]
+                        && chunk.leaseExpiresOn.isBefore((LocalDateTime) args[6]), chunk -> chunk.lastError = (String) args[1]);
+            }
+            if (sql.contains("attempts = 0")) {
+                return updateChunksOfRun(args, 2, chunk -> chunk.status.equals(args[3]), chunk -> chunk.attempts = 0);
+            }
+            final Chunk chunk = chunks.get((Long) args[3]);
+            if (chunk.attempts != (Integer) args[4] || !chunk.status.equals(args[5])) {
+                return 0;
+            }
+            if (sql.contains("processed_loans")) {
+                chunk.processedLoans = (Integer) args[1];
+                chunk.lastError = null;
+            } else {
+                chunk.lastError = (String) args[1];
+            }
+            chunk.status = (String) args[0];
+            chunk.leaseExpiresOn = null;
+            return 1;
+        }
+
+        private int updateChunksOfRun(final Object[] args, final int runIdIndex, final Predicate<Chunk> filter,
+                final Consumer<Chunk> change) {
+            int updated = 0;
+            for (Chunk chunk : chunks.values()) {
+                if (chunk.runId.equals(args[runIdIndex]) && filter.test(chunk)) {
+                    chunk.status = (String) args[0];
+                    chunk.leaseExpiresOn = null;
+                    change.accept(chunk);
+                    updated++;
+                }
+            }
+            return updated;
+        }
+
+        private static boolean isClaimable(final Chunk chunk, final LocalDateTime now) {
+            return chunk.status.equals(COBStatus.PENDING.name())
+                    || chunk.status.equals(COBStatus.IN_PROGRESS.name()) && chunk.leaseExpiresOn.isBefore(now);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.businessdate.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
+import org.apache.fineract.infrastructure.cache.data.CacheInvalidationMessage;
+import org.apache.fineract.infrastructure.cache.service.CacheInvalidationTransport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class BusinessDateCacheTest {
+
+    @Mock
+    private CacheInvalidationTransport transport;
+
+    private BusinessDateCache underTest;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    public void init() {
+        underTest = new BusinessDateCache(transport);
+    }
+
+    private Map<BusinessDateType, LocalDate> load() {
+        loads.incrementAndGet();
+        return Map.of(BusinessDateType.BUSINESS_DATE, LocalDate.of(2022, 6, 12));
+    }
+
+    @Test
+    public void storedDatesAreLoadedOncePerTenant() {
+        underTest.getBusinessDates("default", this::load);
+        Map<BusinessDateType, LocalDate> result = underTest.getBusinessDates("default", this::load);
+        assertEquals(LocalDate.of(2022, 6, 12), result.get(BusinessDateType.BUSINESS_DATE));
+        assertEquals(1, loads.get());
+        underTest.getBusinessDates("other", this::load);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void evictReloadsAndBroadcasts() {
+        underTest.getBusinessDates("default", this::load);
+        underTest.evict("default");
+        underTest.getBusinessDates("default", this::load);
+        assertEquals(2, loads.get());
+        verify(transport).publish(any(CacheInvalidationMessage.class));
+    }
+
+    @Test
+    public void remoteInvalidationReloads() {
+        underTest.getBusinessDates("default", this::load);
+        underTest.onRemoteInvalidation(new CacheInvalidationMessage("node-2", BusinessDateCache.CACHE_NAME, "default"));
+        underTest.onRemoteInvalidation(new CacheInvalidationMessage("node-2", "users", null));
+        underTest.getBusinessDates("default", this::load);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void loadRacingWithEvictionIsNotKept() {
+        underTest.getBusinessDates("default", () -> {
+            underTest.evict("default");
+            return load();
+        });
+        underTest.getBusinessDates("default", this::load);
+        assertEquals(2, loads.get());
+    }
+}
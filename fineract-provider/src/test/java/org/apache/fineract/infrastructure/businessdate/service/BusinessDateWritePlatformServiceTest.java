@@ -69,6 +69,9 @@ public class BusinessDateWritePlatformServiceTest {
     @Mock
     private ConfigurationDomainService configurationDomainService;
 
+    @Mock
+    private BusinessDateCache businessDateCache;
+
     @Captor
     private ArgumentCaptor<BusinessDate> businessDateArgumentCaptor;
 
@@ -147,6 +150,7 @@ public class BusinessDateWritePlatformServiceTest {
         verify(businessDateRepository, times(1)).save(businessDateArgumentCaptor.capture());
         assertEquals(LocalDate.of(2022, 6, 11), businessDateArgumentCaptor.getValue().getDate());
         assertEquals(BusinessDateType.BUSINESS_DATE, businessDateArgumentCaptor.getValue().getType());
+        verify(businessDateCache, times(1)).evict("default");
     }
 
     @Test
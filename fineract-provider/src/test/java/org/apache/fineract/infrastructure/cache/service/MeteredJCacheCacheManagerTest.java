@@ -0,0 +1,102 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.cache.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.fineract.infrastructure.core.config.CacheConfig;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.config.FineractProperties.FineractCacheProperties;
+import org.apache.fineract.infrastructure.core.config.FineractProperties.FineractCacheRegionProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.jcache.JCacheCacheManager;
+
+public class MeteredJCacheCacheManagerTest {
+
+    private static final String REGION = "meteredTestRegion";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final FineractProperties fineractProperties = new FineractProperties();
+    private JCacheCacheManager cacheManager;
+
+    @BeforeEach
+    public void init() {
+        final FineractCacheRegionProperties region = new FineractCacheRegionProperties();
+        region.setHeapEntries(10);
+        final FineractCacheProperties cacheProperties = new FineractCacheProperties();
+        cacheProperties.getRegions().put(REGION, region);
+        this.fineractProperties.setCache(cacheProperties);
+
+        this.cacheManager = new CacheConfig().ehCacheManager(this.fineractProperties, this.meterRegistry);
+        this.cacheManager.afterPropertiesSet();
+    }
+
+    @AfterEach
+    public void destroy() {
+        this.cacheManager.getCacheManager().destroyCache(REGION);
+    }
+
+    @Test
+    public void testHitsMissesPutsAndRemovalsAreCounted() {
+        final Cache cache = this.cacheManager.getCache(REGION);
+
+        cache.get("key");
+        cache.put("key", "value");
+        cache.get("key");
+        cache.evict("key");
+
+        assertEquals(1.0, this.meterRegistry.get(MeteredJCacheCacheManager.GETS_METER).tag("result", "hit").counter().count());
+        assertEquals(1.0, this.meterRegistry.get(MeteredJCacheCacheManager.GETS_METER).tag("result", "miss").counter().count());
+        assertEquals(1.0, this.meterRegistry.get(MeteredJCacheCacheManager.PUTS_METER).counter().count());
+        assertEquals(1.0, this.meterRegistry.get(MeteredJCacheCacheManager.REMOVALS_METER).counter().count());
+        // a get followed by a put is not taken for a load, the put may belong to another operation
+        assertEquals(0L, this.meterRegistry.get(MeteredJCacheCacheManager.LOADS_METER).timer().count());
+    }
+
+    @Test
+    public void testLoadsThroughTheCacheAreTimed() {
+        final Cache cache = this.cacheManager.getCache(REGION);
+
+        assertEquals("value", cache.get("key", () -> "value"));
+        assertEquals("value", cache.get("key", () -> "other"));
+        assertThrows(Cache.ValueRetrievalException.class, () -> cache.get("failing", () -> {
+            throw new IllegalStateException("load failed");
+        }));
+
+        assertEquals(2L, this.meterRegistry.get(MeteredJCacheCacheManager.LOADS_METER).timer().count());
+        assertEquals(1.0, this.meterRegistry.get(MeteredJCacheCacheManager.GETS_METER).tag("result", "hit").counter().count());
+        assertEquals(2.0, this.meterRegistry.get(MeteredJCacheCacheManager.GETS_METER).tag("result", "miss").counter().count());
+    }
+
+    @Test
+    public void testRegionWithTimeToLiveAndTimeToIdleIsRejected() {
+        this.cacheManager.getCacheManager().destroyCache(REGION);
+        final FineractCacheRegionProperties region = this.fineractProperties.getCache().getRegions().get(REGION);
+        region.setTimeToLiveSeconds(60);
+        region.setTimeToIdleSeconds(60);
+
+        assertThrows(IllegalStateException.class, () -> new CacheConfig().ehCacheManager(this.fineractProperties, this.meterRegistry));
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.cache.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import org.apache.fineract.infrastructure.cache.data.CacheInvalidationMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+public class MultiNodeCacheManagerTest {
+
+    private final List<InProcessTransport> cluster = new CopyOnWriteArrayList<>();
+
+    private MultiNodeCacheManager firstNode;
+    private MultiNodeCacheManager secondNode;
+
+    @BeforeEach
+    public void init() {
+        this.firstNode = startNode("first");
+        this.secondNode = startNode("second");
+    }
+
+    @Test
+    public void testEvictionIsBroadcastToOtherNodes() {
+        this.firstNode.getCache("users").put("defaultA", "first");
+        this.secondNode.getCache("users").put("defaultA", "second");
+        this.secondNode.getCache("users").put("defaultB", "second");
+
+        this.firstNode.getCache("users").evict("defaultA");
+
+        assertNull(this.firstNode.getCache("users").get("defaultA"));
+        assertNull(this.secondNode.getCache("users").get("defaultA"));
+        assertNotNull(this.secondNode.getCache("users").get("defaultB"));
+    }
+
+    @Test
+    public void testClearIsBroadcastToOtherNodes() {
+        this.secondNode.getCache("code_values").put("default1cv", "values");
+
+        this.firstNode.getCache("code_values").clear();
+
+        assertNull(this.secondNode.getCache("code_values").get("default1cv"));
+    }
+
+    @Test
+    public void testNonStringKeyClearsWholeCacheOnOtherNodes() {
+        this.secondNode.getCache("tenantsById").put(1L, "tenant");
+        this.secondNode.getCache("tenantsById").put(2L, "tenant");
+
+        this.firstNode.getCache("tenantsById").evict(1L);
+
+        assertNull(this.secondNode.getCache("tenantsById").get(2L));
+    }
+
+    @Test
+    public void testPutIsNotBroadcast() {
+        this.secondNode.getCache("offices").put("defaultof", "second");
+
+        this.firstNode.getCache("offices").put("defaultof", "first");
+
+        final Cache.ValueWrapper value = this.secondNode.getCache("offices").get("defaultof");
+        assertNotNull(value);
+        assertEquals("second", value.get());
+    }
+
+    private MultiNodeCacheManager startNode(final String nodeId) {
+        final InProcessTransport transport = new InProcessTransport(nodeId);
+        this.cluster.add(transport);
+        final MultiNodeCacheManager cacheManager = new MultiNodeCacheManager(new ConcurrentMapCacheManager(), transport);
+        cacheManager.activate();
+        return cacheManager;
+    }
+
+    private final class InProcessTransport implements CacheInvalidationTransport {
+
+        private final String nodeId;
+        private final List<Consumer<CacheInvalidationMessage>> listeners = new CopyOnWriteArrayList<>();
+
+        private InProcessTransport(final String nodeId) {
+            this.nodeId = nodeId;
+        }
+
+        @Override
+        public String getNodeId() {
+            return this.nodeId;
+        }
+
+        @Override
+        public void publish(final CacheInvalidationMessage message) {
+            for (final InProcessTransport node : cluster) {
+                if (!node.nodeId.equals(message.getOriginNode())) {
+                    node.listeners.forEach(listener -> listener.accept(message));
+                }
+            }
+        }
+
+        @Override
+        public void subscribe(final Consumer<CacheInvalidationMessage> listener) {
+            this.listeners.add(listener);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import javax.sql.DataSource;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.config.FineractProperties.FineractTenantProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenantConnection;
+import org.apache.fineract.infrastructure.security.service.TenantDetailsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class TomcatJdbcDataSourcePerTenantServiceTest {
+
+    @Mock
+    private DataSource tenantStoreDataSource;
+
+    @Mock
+    private DataSourcePerTenantServiceFactory dataSourcePerTenantServiceFactory;
+
+    @Mock
+    private TenantDetailsService tenantDetailsService;
+
+    @Mock
+    private FineractPlatformTenantConnection tenantConnection;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private FineractPlatformTenant tenant;
+    private TomcatJdbcDataSourcePerTenantService underTest;
+
+    @BeforeEach
+    public void init() {
+        final FineractTenantProperties tenantProperties = new FineractTenantProperties();
+        tenantProperties.setRetiredPoolCloseTimeoutSeconds(300);
+        final FineractProperties fineractProperties = new FineractProperties();
+        fineractProperties.setTenant(tenantProperties);
+        underTest = new TomcatJdbcDataSourcePerTenantService(tenantStoreDataSource, dataSourcePerTenantServiceFactory,
+                tenantDetailsService, fineractProperties, meterRegistry);
+
+        given(tenantConnection.getConnectionId()).willReturn(1L);
+        given(tenantConnection.getSchemaServer()).willReturn("localhost");
+        given(tenantConnection.getSchemaName()).willReturn("fineract_default");
+        given(dataSourcePerTenantServiceFactory.createNewDataSourceFor(tenantConnection)).willAnswer(invocation -> mock(DataSource.class));
+        tenant = new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", tenantConnection);
+        given(tenantDetailsService.findAllTenants()).willReturn(List.of(tenant));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void tenantStoreDataSourceIsUsedWithoutTenant() {
+        assertSame(tenantStoreDataSource, underTest.retrieveDataSource());
+    }
+
+    @Test
+    public void dataSourceIsCreatedOncePerConnection() {
+        ThreadLocalContextUtil.setTenant(tenant);
+        final DataSource dataSource = underTest.retrieveDataSource();
+        assertSame(dataSource, underTest.retrieveDataSource());
+        underTest.refresh();
+        assertSame(dataSource, underTest.retrieveDataSource());
+        verify(dataSourcePerTenantServiceFactory, times(1)).createNewDataSourceFor(tenantConnection);
+        assertEquals(3, meterRegistry.find(TomcatJdbcDataSourcePerTenantService.CONNECTIONS_METER).gauges().size());
+    }
+
+    @Test
+    public void changedConnectionIsReplaced() {
+        ThreadLocalContextUtil.setTenant(tenant);
+        final DataSource dataSource = underTest.retrieveDataSource();
+        given(tenantConnection.getSchemaServer()).willReturn("other-host");
+        underTest.refresh();
+        assertNotSame(dataSource, underTest.retrieveDataSource());
+        verify(dataSourcePerTenantServiceFactory, times(2)).createNewDataSourceFor(tenantConnection);
+    }
+
+    @Test
+    public void removedConnectionIsDropped() {
+        ThreadLocalContextUtil.setTenant(tenant);
+        underTest.retrieveDataSource();
+        given(tenantDetailsService.findAllTenants()).willReturn(List.of());
+        underTest.refresh();
+        assertEquals(0, meterRegistry.find(TomcatJdbcDataSourcePerTenantService.CONNECTIONS_METER).gauges().size());
+    }
+
+    @Test
+    public void replacedPoolIsClosedOnTheFollowingRefresh() {
+        final HikariDataSource pool = mock(HikariDataSource.class);
+        given(pool.getHikariPoolMXBean()).willReturn(mock(HikariPoolMXBean.class));
+        given(dataSourcePerTenantServiceFactory.createNewDataSourceFor(tenantConnection)).willReturn(pool)
+                .willAnswer(invocation -> mock(DataSource.class));
+        ThreadLocalContextUtil.setTenant(tenant);
+        assertSame(pool, underTest.retrieveDataSource());
+
+        given(tenantConnection.getSchemaServer()).willReturn("other-host");
+        underTest.refresh();
+        // a request could still be about to borrow from the idle pool it looked up before the refresh
+        verify(pool, never()).close();
+
+        underTest.refresh();
+        verify(pool).close();
+    }
+}
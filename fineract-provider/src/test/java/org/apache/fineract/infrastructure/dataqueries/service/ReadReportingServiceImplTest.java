@@ -0,0 +1,147 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.apache.fineract.infrastructure.security.service.SqlInjectionPreventerService;
+import org.apache.fineract.organisation.office.domain.Office;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.support.rowset.SqlRowSet;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class ReadReportingServiceImplTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformSecurityContext context;
+    @Mock
+    private GenericDataService genericDataService;
+    @Mock
+    private SqlInjectionPreventerService sqlInjectionPreventerService;
+    @Mock
+    private DatabaseSpecificSQLGenerator sqlGenerator;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private SqlRowSet reportSql;
+    @Mock
+    private AppUser user;
+    @Mock
+    private Office office;
+    @Mock
+    private ResultSet resultSet;
+    @Mock
+    private ResultSetMetaData metaData;
+
+    private ReadReportingServiceImpl service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void init() throws Exception {
+        given(sqlInjectionPreventerService.encodeSql(anyString())).will(returnsFirstArg());
+        given(genericDataService.wrapSQL(anyString())).will(returnsFirstArg());
+        given(genericDataService.replace(anyString(), anyString(), any())).willAnswer(
+                invocation -> StringUtils.replace(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)));
+        given(jdbcTemplate.queryForRowSet(anyString(), eq("Loans"))).willReturn(reportSql);
+        given(reportSql.next()).willReturn(true);
+        given(reportSql.getString("the_sql")).willReturn("select * from loans");
+        given(context.authenticatedUser()).willReturn(user);
+        given(user.getOffice()).willReturn(office);
+        given(user.getId()).willReturn(1L);
+        given(office.getHierarchy()).willReturn(".");
+        willAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).given(transactionTemplate).executeWithoutResult(any());
+        given(jdbcTemplate.query(any(PreparedStatementCreator.class), any(ResultSetExtractor.class)))
+                .willAnswer(invocation -> invocation.<ResultSetExtractor<Void>>getArgument(1).extractData(resultSet));
+
+        // the objects a driver hands out for these columns, next to the text it renders for them
+        given(resultSet.getMetaData()).willReturn(metaData);
+        given(resultSet.next()).willReturn(true, false);
+        given(metaData.getColumnCount()).willReturn(4);
+        column(1, "created_on", "TIMESTAMP", Timestamp.valueOf("2022-03-01 10:15:30"), "2022-03-01 10:15:30");
+        column(2, "disbursed_on", "DATETIME", LocalDateTime.of(2022, 3, 1, 10, 15, 30), "2022-03-01 10:15:30");
+        column(3, "active", "TINYINT", Boolean.TRUE, "1");
+        column(4, "amount", "DECIMAL", new BigDecimal("0E-7"), "0.0000000");
+
+        service = new ReadReportingServiceImpl(jdbcTemplate, context, genericDataService, sqlInjectionPreventerService, sqlGenerator,
+                transactionTemplate, new FineractProperties());
+    }
+
+    @Test
+    public void csvExportRendersValuesAsTheDriverStrings() throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.retrieveReportCSV("Loans", "report", Map.of(), false).write(out);
+
+        assertEquals("\"created_on\",\"disbursed_on\",\"active\",\"amount\"\n"
+                + "\"2022-03-01 10:15:30\",\"2022-03-01 10:15:30\",\"1\",0.0000000\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void jsonExportRendersValuesAsTheDriverStrings() throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.retrieveReportJSON("Loans", "report", Map.of(), false, false).write(out);
+
+        assertTrue(out.toString(StandardCharsets.UTF_8)
+                .contains("\"data\":[{\"row\":[\"2022-03-01 10:15:30\",\"2022-03-01 10:15:30\",\"1\",\"0.0000000\"]}]"));
+    }
+
+    private void column(final int index, final String name, final String type, final Object value, final String text) throws Exception {
+        given(metaData.getColumnName(index)).willReturn(name);
+        given(metaData.getColumnTypeName(index)).willReturn(type);
+        given(resultSet.getObject(index)).willReturn(value);
+        given(resultSet.getString(index)).willReturn(text);
+    }
+}
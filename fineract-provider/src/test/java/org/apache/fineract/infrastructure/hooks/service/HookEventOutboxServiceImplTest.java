@@ -0,0 +1,381 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.config.FineractProperties.FineractHookProperties;
+import org.apache.fineract.infrastructure.core.domain.ActionContext;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.infrastructure.hooks.domain.Hook;
+import org.apache.fineract.infrastructure.hooks.event.HookEventSource;
+import org.apache.fineract.infrastructure.hooks.processor.HookProcessor;
+import org.apache.fineract.infrastructure.hooks.processor.HookProcessorProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class HookEventOutboxServiceImplTest {
+
+    private static final HookEventSource SOURCE = new HookEventSource("CLIENT", "CREATE");
+
+    private final FakeOutboxTable outbox = new FakeOutboxTable();
+    private final HookReadPlatformService hookReadPlatformService = mock(HookReadPlatformService.class);
+    private final HookProcessorProvider hookProcessorProvider = mock(HookProcessorProvider.class);
+    private final HookProcessor processor = mock(HookProcessor.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final List<Integer> newTransactionPropagations = new ArrayList<>();
+    private FineractHookProperties properties;
+    private HookEventOutboxServiceImpl service;
+
+    @BeforeEach
+    public void init() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        ThreadLocalContextUtil.setBusinessDates(new HashMap<>(Map.of(BusinessDateType.BUSINESS_DATE, LocalDate.now())));
+        ThreadLocalContextUtil.setActionContext(ActionContext.DEFAULT);
+        properties = new FineractHookProperties();
+        properties.setThreadPoolSize(1);
+        properties.setQueueCapacity(1);
+        properties.setBatchSize(2);
+        properties.setMaxAttempts(2);
+        properties.setRetryBackoffSeconds(30);
+        properties.setSendingTimeoutMinutes(10);
+        properties.setSentRetentionDays(7);
+        final FineractProperties fineractProperties = new FineractProperties();
+        fineractProperties.setHooks(properties);
+
+        final Hook hook = mock(Hook.class);
+        given(hookReadPlatformService.retrieveHooksByEvent(anyString(), anyString())).willReturn(List.of(hook));
+        given(hookProcessorProvider.getProcessor(hook)).willReturn(processor);
+        given(transactionManager.getTransaction(any())).willAnswer(invocation -> {
+            newTransactionPropagations.add(invocation.getArgument(0, TransactionDefinition.class).getPropagationBehavior());
+            outbox.inNewTransaction = true;
+            return new SimpleTransactionStatus();
+        });
+        willAnswer(invocation -> outbox.inNewTransaction = false).given(transactionManager).commit(any());
+        final DatabaseSpecificSQLGenerator sqlGenerator = mock(DatabaseSpecificSQLGenerator.class);
+        given(sqlGenerator.limit(anyInt())).willAnswer(invocation -> "limit " + invocation.getArgument(0));
+
+        service = new HookEventOutboxServiceImpl(outbox, hookReadPlatformService, hookProcessorProvider, fineractProperties, sqlGenerator,
+                transactionManager);
+        service.initializeExecutorService();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        service.shutdownExecutorService();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void eventsWithoutHooksAreNotStored() {
+        given(hookReadPlatformService.retrieveHooksByEvent("LOAN", "CREATE")).willReturn(List.of());
+
+        service.publish(new HookEventSource("LOAN", "CREATE"), "{}", null, true);
+
+        assertTrue(outbox.rows.isEmpty());
+    }
+
+    @Test
+    public void eventOfACommittedCommandIsStoredWithItAndDeliveredAfterCommit() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.publish(SOURCE, "{\"clientId\":1}", null, true);
+
+        final Row row = outbox.single();
+        assertEquals("PENDING", row.status);
+        assertFalse(row.storedInNewTransaction);
+        verifyNoInteractions(processor);
+
+        triggerSynchronizations(TransactionSynchronization::afterCommit);
+        awaitStatus(row, "SENT");
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    public void eventOfARolledBackCommandIsStoredInATransactionOfItsOwn() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.publish(SOURCE, "{\"clientId\":1}", null, false);
+        assertTrue(outbox.rows.isEmpty());
+
+        triggerSynchronizations(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        final Row row = outbox.single();
+        assertTrue(row.storedInNewTransaction);
+        assertFalse(outbox.inNewTransaction);
+        assertEquals(List.of(TransactionDefinition.PROPAGATION_REQUIRES_NEW), newTransactionPropagations);
+        awaitStatus(row, "SENT");
+    }
+
+    @Test
+    public void eventTheDispatcherRejectsStaysPendingForTheJob() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger delivered = new AtomicInteger();
+        willAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            delivered.incrementAndGet();
+            return null;
+        }).given(processor).process(any(), any(), any(), any(), any());
+
+        // one event runs, one waits in the queue and the third one is rejected
+        service.publish(SOURCE, "1", null, true);
+        service.publish(SOURCE, "2", null, true);
+        service.publish(SOURCE, "3", null, true);
+        release.countDown();
+        awaitStatus(outbox.rows.get(1L), "SENT");
+        awaitStatus(outbox.rows.get(2L), "SENT");
+
+        final Row rejected = outbox.rows.get(3L);
+        assertEquals("PENDING", rejected.status);
+        assertEquals(0, rejected.attempts);
+        assertEquals(2, delivered.get());
+
+        service.dispatchPendingEvents();
+
+        assertEquals("SENT", rejected.status);
+        assertEquals(3, delivered.get());
+    }
+
+    @Test
+    public void failedDeliveriesAreRetriedWithBackoffUntilTheAttemptsRunOut() throws Exception {
+        willAnswer(invocation -> {
+            throw new IllegalStateException("endpoint down");
+        }).given(processor).process(any(), any(), any(), any(), any());
+        final Row row = outbox.insert("PENDING", LocalDateTime.now().minusMinutes(1));
+
+        service.dispatchPendingEvents();
+
+        assertEquals("PENDING", row.status);
+        assertEquals(1, row.attempts);
+        assertEquals("endpoint down", row.lastError);
+        assertTrue(row.nextAttemptOn.isAfter(LocalDateTime.now().plusSeconds(20)));
+
+        // not due yet
+        service.dispatchPendingEvents();
+        assertEquals(1, row.attempts);
+
+        row.nextAttemptOn = LocalDateTime.now().minusSeconds(1);
+        service.dispatchPendingEvents();
+
+        assertEquals("FAILED", row.status);
+        assertEquals(2, row.attempts);
+        // the backoff doubles with every attempt
+        assertTrue(row.nextAttemptOn.isAfter(LocalDateTime.now().plusSeconds(50)));
+
+        row.nextAttemptOn = LocalDateTime.now().minusSeconds(1);
+        service.dispatchPendingEvents();
+        assertEquals(2, row.attempts);
+    }
+
+    @Test
+    public void jobDeliversEveryPagePurgesOldSentEventsAndRequeuesStuckOnes() {
+        final LocalDateTime due = LocalDateTime.now().minusMinutes(1);
+        final Row first = outbox.insert("PENDING", due);
+        final Row second = outbox.insert("PENDING", due);
+        final Row third = outbox.insert("PENDING", due);
+        final Row stuck = outbox.insert("SENDING", due);
+        stuck.lastModified = LocalDateTime.now().minusMinutes(11);
+        final Row recentlySent = outbox.insert("SENT", due);
+        recentlySent.lastModified = LocalDateTime.now().minusDays(6);
+        final Row oldSent = outbox.insert("SENT", due);
+        oldSent.lastModified = LocalDateTime.now().minusDays(8);
+
+        service.dispatchPendingEvents();
+
+        assertEquals("SENT", first.status);
+        assertEquals("SENT", second.status);
+        assertEquals("SENT", third.status);
+        assertEquals("SENT", stuck.status);
+        assertTrue(outbox.rows.containsValue(recentlySent));
+        assertFalse(outbox.rows.containsValue(oldSent));
+    }
+
+    private static void triggerSynchronizations(final Consumer<TransactionSynchronization> callback) {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            callback.accept(synchronization);
+        }
+    }
+
+    private static void awaitStatus(final Row row, final String status) throws InterruptedException {
+        assertNotNull(row);
+        for (int i = 0; i < 500; i++) {
+            if (status.equals(row.status)) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        fail("Event " + row.id + " is " + row.status + " instead of " + status);
+    }
+
+    private static final class Row {
+
+        private Long id;
+        private String payload;
+        private volatile String status;
+        private int attempts;
+        private LocalDateTime nextAttemptOn;
+        private LocalDateTime lastModified;
+        private String lastError;
+        private boolean storedInNewTransaction;
+    }
+
+    /**
+     * Answers the statements of the outbox from in-memory m_hook_event_outbox rows.
+     */
+    private static final class FakeOutboxTable extends JdbcTemplate {
+
+        private final Map<Long, Row> rows = new TreeMap<>();
+        private volatile boolean inNewTransaction;
+
+        private synchronized Row single() {
+            assertEquals(1, rows.size());
+            return rows.values().iterator().next();
+        }
+
+        private synchronized Row insert(final String status, final LocalDateTime nextAttemptOn) {
+            final Row row = new Row();
+            row.id = rows.size() + 1L;
+            row.status = status;
+            row.nextAttemptOn = nextAttemptOn;
+            row.lastModified = LocalDateTime.now();
+            row.storedInNewTransaction = inNewTransaction;
+            rows.put(row.id, row);
+            return row;
+        }
+
+        @Override
+        public synchronized int update(final PreparedStatementCreator psc, final KeyHolder generatedKeyHolder) {
+            final Map<Integer, Object> parameters = new HashMap<>();
+            final PreparedStatement ps = mock(PreparedStatement.class, invocation -> {
+                if (invocation.getMethod().getName().startsWith("set")) {
+                    parameters.put(invocation.getArgument(0), invocation.getArgument(1));
+                }
+                return null;
+            });
+            try {
+                psc.createPreparedStatement(mock(Connection.class, invocation -> ps));
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+            final Row row = insert((String) parameters.get(5), (LocalDateTime) parameters.get(6));
+            row.payload = (String) parameters.get(3);
+            generatedKeyHolder.getKeyList().add(Map.of("id", row.id));
+            return 1;
+        }
+
+        @Override
+        public synchronized int update(final String sql, final Object... args) {
+            int updated = 0;
+            if (sql.startsWith("delete")) {
+                updated = rows.size();
+                rows.values().removeIf(row -> row.status.equals(args[0]) && row.lastModified.isBefore((LocalDateTime) args[1]));
+                return updated - rows.size();
+            }
+            if (sql.contains("where status = ? and lastmodified_date < ?")) {
+                for (Row row : rows.values()) {
+                    if (row.status.equals(args[1]) && row.lastModified.isBefore((LocalDateTime) args[2])) {
+                        row.status = (String) args[0];
+                        updated++;
+                    }
+                }
+                return updated;
+            }
+            final Row row = rows.get((Long) args[args.length - (sql.endsWith("and status = ?") ? 2 : 1)]);
+            if (row == null || sql.endsWith("and status = ?") && !row.status.equals(args[3])) {
+                return 0;
+            }
+            if (sql.contains("attempts = ?")) {
+                row.attempts = (Integer) args[1];
+                row.nextAttemptOn = (LocalDateTime) args[2];
+                row.lastError = (String) args[3];
+                row.lastModified = (LocalDateTime) args[4];
+            } else {
+                row.lastModified = (LocalDateTime) args[1];
+            }
+            row.status = (String) args[0];
+            return 1;
+        }
+
+        @Override
+        public synchronized List<Map<String, Object>> queryForList(final String sql, final Object... args) {
+            final int limit = Integer.parseInt(sql.substring(sql.lastIndexOf(' ') + 1));
+            final List<Map<String, Object>> events = new ArrayList<>();
+            for (Row row : rows.values()) {
+                if (events.size() < limit && row.status.equals(args[0]) && !row.nextAttemptOn.isAfter((LocalDateTime) args[1])
+                        && row.id > (Long) args[2]) {
+                    events.add(Map.of("id", row.id, "entityName", SOURCE.getEntityName(), "actionName", SOURCE.getActionName()));
+                }
+            }
+            return events;
+        }
+
+        @Override
+        public synchronized Map<String, Object> queryForMap(final String sql, final Object... args) {
+            final Row row = rows.get((Long) args[0]);
+            final Map<String, Object> event = new LinkedHashMap<>();
+            event.put("entityName", SOURCE.getEntityName());
+            event.put("actionName", SOURCE.getActionName());
+            event.put("payload", row.payload);
+            event.put("attempts", row.attempts);
+            return event;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class PagedJobExecutorTest {
+
+    private final List<Long> readAfterKeys = Collections.synchronizedList(new ArrayList<>());
+    private final List<Integer> readPageSizes = Collections.synchronizedList(new ArrayList<>());
+    private final List<Long> processed = Collections.synchronizedList(new ArrayList<>());
+    private final Map<Long, String> tenantOfItem = new ConcurrentHashMap<>();
+    private final List<Long> items = new ArrayList<>();
+
+    @BeforeEach
+    public void init() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void emptyFirstPageProcessesNothing() throws JobExecutionException {
+        assertEquals(0, executor(2, 3).execute(this::process));
+
+        assertEquals(List.of(0L), readAfterKeys);
+        assertTrue(processed.isEmpty());
+    }
+
+    @Test
+    public void pagesOfAnExactMultipleEndWithAnEmptyRead() throws JobExecutionException {
+        addItems(12);
+
+        assertEquals(12, executor(2, 3).execute(this::process));
+
+        // pages of 2 * 3 items, the key of the last item of a page is where the next one starts
+        assertEquals(List.of(0L, 60L, 120L), readAfterKeys);
+        assertEquals(List.of(6, 6, 6), readPageSizes);
+        assertProcessedOnce(items);
+    }
+
+    @Test
+    public void partialLastPageIsNotReadPast() throws JobExecutionException {
+        addItems(8);
+
+        assertEquals(8, executor(2, 3).execute(this::process));
+
+        assertEquals(List.of(0L, 60L), readAfterKeys);
+        assertProcessedOnce(items);
+    }
+
+    @Test
+    public void missingParametersFallBackToTheDefaultPageSize() throws JobExecutionException {
+        addItems(3);
+
+        new PagedJobExecutor<Long>("test job", null, this::read, item -> item, item -> item, String::valueOf).execute(this::process);
+
+        assertEquals(List.of(10 * 100), readPageSizes);
+    }
+
+    @Test
+    public void workersRunWithTheTenantOfTheJob() throws JobExecutionException {
+        addItems(12);
+
+        executor(4, 2).execute(this::process);
+
+        assertEquals(Set.of("default"), Set.copyOf(tenantOfItem.values()));
+        assertEquals(12, tenantOfItem.size());
+    }
+
+    @Test
+    public void failuresOfWorkerThreadsAreThrownTogetherAfterEveryPage() {
+        addItems(12);
+
+        final JobExecutionException exception = assertThrows(JobExecutionException.class, () -> executor(2, 3).execute(item -> {
+            if (item == 20L || item == 110L) {
+                throw new IllegalStateException("failed " + item);
+            }
+            process(item);
+        }));
+
+        assertEquals(Set.of("failed 20", "failed 110"),
+                exception.getCauses().stream().map(Throwable::getMessage).collect(Collectors.toSet()));
+        assertEquals(10, processed.size());
+        assertEquals(List.of(0L, 60L, 120L), readAfterKeys);
+    }
+
+    private PagedJobExecutor<Long> executor(final int threadPoolSize, final int batchSize) {
+        final Map<String, String> jobParameters = new HashMap<>();
+        jobParameters.put(PagedJobExecutor.THREAD_POOL_SIZE_PARAMETER, String.valueOf(threadPoolSize));
+        jobParameters.put(PagedJobExecutor.BATCH_SIZE_PARAMETER, String.valueOf(batchSize));
+        // every item is its own affinity key, so the items of a page are spread over all the threads
+        return new PagedJobExecutor<>("test job", jobParameters, this::read, item -> item, item -> item, String::valueOf);
+    }
+
+    private List<Long> read(final Long maxKeyInList, final int pageSize) {
+        readAfterKeys.add(maxKeyInList);
+        readPageSizes.add(pageSize);
+        return items.stream().filter(item -> item > maxKeyInList).limit(pageSize).collect(Collectors.toList());
+    }
+
+    private void process(final Long item) {
+        tenantOfItem.put(item, ThreadLocalContextUtil.getTenant().getTenantIdentifier());
+        processed.add(item);
+    }
+
+    /**
+     * Items with the keys 10, 20, 30, ...
+     */
+    private void addItems(final int count) {
+        LongStream.rangeClosed(1, count).map(item -> item * 10).forEach(items::add);
+    }
+
+    private void assertProcessedOnce(final List<Long> expected) {
+        final List<Long> actual = new ArrayList<>(processed);
+        Collections.sort(actual);
+        assertEquals(expected, actual);
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.notification.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.config.FineractProperties.FineractNotificationProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class UnreadNotificationCacheTest {
+
+    private final AtomicInteger queries = new AtomicInteger();
+    private UnreadNotificationCache underTest;
+
+    @BeforeEach
+    public void init() {
+        final FineractNotificationProperties notificationProperties = new FineractNotificationProperties();
+        notificationProperties.setUnreadCacheMaxEntries(100);
+        notificationProperties.setUnreadCacheTimeToLiveSeconds(60);
+        final FineractProperties fineractProperties = new FineractProperties();
+        fineractProperties.setNotification(notificationProperties);
+        underTest = new UnreadNotificationCache(fineractProperties);
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    private boolean query(final boolean result) {
+        queries.incrementAndGet();
+        return result;
+    }
+
+    @Test
+    public void cachedValueIsFlippedWithoutQuerying() {
+        assertFalse(underTest.hasUnreadNotifications(1L, () -> query(false)));
+        assertFalse(underTest.hasUnreadNotifications(1L, () -> query(false)));
+
+        underTest.markUnread(List.of(1L, 2L));
+        assertTrue(underTest.hasUnreadNotifications(1L, () -> query(false)));
+        assertTrue(underTest.hasUnreadNotifications(2L, () -> query(false)));
+
+        underTest.markRead(1L);
+        assertFalse(underTest.hasUnreadNotifications(1L, () -> query(true)));
+        assertEquals(1, queries.get());
+    }
+
+    @Test
+    public void tenantsAreSeparated() {
+        underTest.markUnread(List.of(1L));
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(2L, "other", "Other", "Asia/Kolkata", null));
+        assertFalse(underTest.hasUnreadNotifications(1L, () -> query(false)));
+        assertEquals(1, queries.get());
+    }
+}
@@ -0,0 +1,186 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.organisation.monetary.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Differential tests of the allocation lean {@link Money} arithmetic and {@link MoneyAccumulator} against the
+ * reference rounding of {@link Money} (strip trailing zeros, round into multiples, set the scale) applied step by step.
+ */
+public class MoneyAccumulatorTest {
+
+    private static final List<MonetaryCurrency> CURRENCIES = List.of(new MonetaryCurrency("USD", 2, null),
+            new MonetaryCurrency("JPY", 0, null), new MonetaryCurrency("XAF", 0, 50), new MonetaryCurrency("KWD", 3, 0),
+            new MonetaryCurrency("BTC", 6, null));
+
+    private final Random random = new Random(20221018L);
+
+    @BeforeEach
+    public void init() {
+        ReflectionTestUtils.setField(MoneyHelper.class, "roundingMode", RoundingMode.HALF_EVEN);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ReflectionTestUtils.setField(MoneyHelper.class, "roundingMode", null);
+    }
+
+    @Test
+    public void testMoneyRoundsLikeTheReference() {
+        for (MonetaryCurrency currency : CURRENCIES) {
+            for (int i = 0; i < 10_000; i++) {
+                final BigDecimal amount = randomAmount();
+                final Money money = Money.of(currency, amount);
+                assertEquals(reference(currency, amount), money.getAmount());
+                assertEquals(money.getAmount().signum() == 0, money.isZero());
+                assertEquals(money.getAmount().signum() > 0, money.isGreaterThanZero());
+                assertEquals(money.getAmount().signum() < 0, money.isLessThanZero());
+            }
+        }
+    }
+
+    @Test
+    public void testMoneyChainMatchesTheReferenceStepByStep() {
+        for (MonetaryCurrency currency : CURRENCIES) {
+            for (int run = 0; run < 500; run++) {
+                Money money = Money.zero(currency);
+                BigDecimal expected = reference(currency, BigDecimal.ZERO);
+                for (int step = 0; step < 50; step++) {
+                    final BigDecimal amount = randomAmount();
+                    final boolean add = random.nextBoolean();
+                    money = add ? money.plus(amount) : money.minus(amount);
+                    if (amount.signum() != 0) {
+                        expected = reference(currency, add ? expected.add(amount) : expected.subtract(amount));
+                    }
+                    assertEquals(expected, money.getAmount());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testAccumulatorMatchesChainedMoney() {
+        for (MonetaryCurrency currency : CURRENCIES) {
+            for (int run = 0; run < 500; run++) {
+                final Money start = Money.of(currency, randomAmount());
+                Money chained = start;
+                final MoneyAccumulator accumulator = MoneyAccumulator.of(start);
+                for (int step = 0; step < 50; step++) {
+                    final int operation = random.nextInt(4);
+                    if (operation == 0) {
+                        final Money money = Money.of(currency, randomAmount());
+                        chained = chained.plus(money);
+                        accumulator.plus(money);
+                    } else if (operation == 1) {
+                        final Money money = Money.of(currency, randomAmount());
+                        chained = chained.minus(money);
+                        accumulator.minus(money);
+                    } else if (operation == 2) {
+                        final BigDecimal amount = randomAmount();
+                        chained = chained.plus(amount);
+                        accumulator.plus(amount);
+                    } else {
+                        final BigDecimal amount = randomAmount();
+                        chained = chained.minus(amount);
+                        accumulator.minus(amount);
+                    }
+                    assertEquals(chained.getAmount(), accumulator.toMoney().getAmount());
+                    assertEquals(chained.isGreaterThanZero(), accumulator.isGreaterThanZero());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testAccumulatorAllocatesLessThanChainedMoney() {
+        final java.lang.management.ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean instanceof com.sun.management.ThreadMXBean);
+        final com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threadMXBean;
+        assumeTrue(allocations.isThreadAllocatedMemorySupported() && allocations.isThreadAllocatedMemoryEnabled());
+
+        final MonetaryCurrency currency = CURRENCIES.get(0);
+        final Money[] amounts = new Money[1_000];
+        for (int i = 0; i < amounts.length; i++) {
+            amounts[i] = Money.of(currency, BigDecimal.valueOf(random.nextInt(1_000_000), 2));
+        }
+        // warm up both paths before measuring
+        sumChained(currency, amounts);
+        sumAccumulated(currency, amounts);
+
+        final long threadId = Thread.currentThread().getId();
+        long before = allocations.getThreadAllocatedBytes(threadId);
+        final Money chained = sumChained(currency, amounts);
+        final long chainedBytes = allocations.getThreadAllocatedBytes(threadId) - before;
+        before = allocations.getThreadAllocatedBytes(threadId);
+        final Money accumulated = sumAccumulated(currency, amounts);
+        final long accumulatedBytes = allocations.getThreadAllocatedBytes(threadId) - before;
+
+        assertEquals(chained.getAmount(), accumulated.getAmount());
+        assertTrue(accumulatedBytes < chainedBytes,
+                "accumulator allocated " + accumulatedBytes + " bytes, chained Money " + chainedBytes + " bytes");
+    }
+
+    private static Money sumChained(final MonetaryCurrency currency, final Money[] amounts) {
+        Money total = Money.zero(currency);
+        for (Money amount : amounts) {
+            total = total.plus(amount).minus(amount.dividedBy(2L, RoundingMode.HALF_EVEN).getAmount()).plus(amount);
+        }
+        return total;
+    }
+
+    private static Money sumAccumulated(final MonetaryCurrency currency, final Money[] amounts) {
+        final MoneyAccumulator total = MoneyAccumulator.zero(currency);
+        for (Money amount : amounts) {
+            total.plus(amount).minus(amount.dividedBy(2L, RoundingMode.HALF_EVEN).getAmount()).plus(amount);
+        }
+        return total.toMoney();
+    }
+
+    // amounts with 0 to 8 decimals, a tenth of them zero and a third of them negative
+    private BigDecimal randomAmount() {
+        if (random.nextInt(10) == 0) {
+            return BigDecimal.valueOf(0, random.nextInt(4));
+        }
+        final BigDecimal amount = BigDecimal.valueOf(random.nextInt(100_000_000), random.nextInt(9));
+        return random.nextInt(3) == 0 ? amount.negate() : amount;
+    }
+
+    // the rounding of Money before the fast path
+    private static BigDecimal reference(final MonetaryCurrency currency, final BigDecimal amount) {
+        BigDecimal amountScaled = amount.stripTrailingZeros();
+        final Integer inMultiplesOf = currency.getCurrencyInMultiplesOf();
+        if (inMultiplesOf != null && currency.getDigitsAfterDecimal() == 0 && inMultiplesOf > 0 && amountScaled.doubleValue() > 0) {
+            amountScaled = BigDecimal.valueOf(Money.roundToMultiplesOf(amountScaled.doubleValue(), inMultiplesOf));
+        }
+        return amountScaled.setScale(currency.getDigitsAfterDecimal(), RoundingMode.HALF_EVEN);
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.businessevent.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.persistence.EntityManager;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.config.FineractProperties.FineractBusinessEventProperties;
+import org.apache.fineract.portfolio.businessevent.BusinessEventDelivery;
+import org.apache.fineract.portfolio.businessevent.domain.loan.LoanApprovedBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.loan.LoanBusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.loan.LoanRejectedBusinessEvent;
+import org.apache.fineract.portfolio.loanaccount.domain.Loan;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class BusinessEventNotifierServiceImplTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BusinessEventNotifierServiceImpl underTest;
+
+    @BeforeEach
+    public void init() {
+        final FineractBusinessEventProperties businessEventProperties = new FineractBusinessEventProperties();
+        businessEventProperties.setThreadPoolSize(1);
+        businessEventProperties.setQueueCapacity(10);
+        final FineractProperties fineractProperties = new FineractProperties();
+        fineractProperties.setBusinessEvents(businessEventProperties);
+        underTest = new BusinessEventNotifierServiceImpl(fineractProperties, meterRegistry, transactionManager, entityManager);
+        underTest.initializeExecutorService();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        underTest.shutdownExecutorService();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void listenersOfSupertypesAreNotified() {
+        final List<String> received = new CopyOnWriteArrayList<>();
+        underTest.addPostBusinessEventListener(LoanApprovedBusinessEvent.class, event -> received.add("approved"));
+        underTest.addPostBusinessEventListener(LoanBusinessEvent.class, event -> received.add("loan"));
+
+        underTest.notifyPostBusinessEvent(new LoanApprovedBusinessEvent(null));
+        underTest.notifyPostBusinessEvent(new LoanRejectedBusinessEvent(null));
+
+        assertEquals(List.of("approved", "loan", "loan"), received);
+        assertEquals(3, meterRegistry.find(BusinessEventNotifierServiceImpl.LISTENER_METER).timers().stream()
+                .mapToLong(timer -> timer.count()).sum());
+    }
+
+    @Test
+    public void asynchronousListenersRunAfterCommit() throws InterruptedException {
+        final CountDownLatch delivered = new CountDownLatch(1);
+        final List<String> received = new CopyOnWriteArrayList<>();
+        underTest.addPostBusinessEventListener(LoanApprovedBusinessEvent.class, event -> {
+            received.add(Thread.currentThread().getName());
+            delivered.countDown();
+        }, BusinessEventDelivery.ASYNCHRONOUS_AFTER_COMMIT);
+
+        TransactionSynchronizationManager.initSynchronization();
+        underTest.notifyPostBusinessEvent(new LoanApprovedBusinessEvent(null));
+        assertTrue(received.isEmpty());
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertTrue(received.get(0).startsWith("business-events-"));
+    }
+
+    @Test
+    public void asynchronousListenersReceiveTheEntityReloadedInTheirTransaction() throws InterruptedException {
+        final Loan committed = mock(Loan.class);
+        given(committed.getId()).willReturn(5L);
+        final Loan reloaded = mock(Loan.class);
+        given(entityManager.find(any(), eq(5L))).willReturn(reloaded);
+        final CountDownLatch delivered = new CountDownLatch(1);
+        final List<Loan> received = new CopyOnWriteArrayList<>();
+        underTest.addPostBusinessEventListener(LoanApprovedBusinessEvent.class, event -> {
+            received.add(event.get());
+            delivered.countDown();
+        }, BusinessEventDelivery.ASYNCHRONOUS_AFTER_COMMIT);
+
+        TransactionSynchronizationManager.initSynchronization();
+        underTest.notifyPostBusinessEvent(new LoanApprovedBusinessEvent(committed));
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertSame(reloaded, received.get(0));
+        assertNotSame(committed, received.get(0));
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.exchange.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Date;
+import org.apache.fineract.infrastructure.cache.data.CacheInvalidationMessage;
+import org.apache.fineract.infrastructure.cache.service.CacheInvalidationTransport;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.organisation.monetary.service.CurrencyReadPlatformService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class ExchangeRateIndexTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private CurrencyReadPlatformService currencyReadPlatformService;
+    @Mock
+    private CacheInvalidationTransport transport;
+
+    private ExchangeRateIndex underTest;
+
+    @BeforeEach
+    public void init() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        underTest = new ExchangeRateIndex(jdbcTemplate, currencyReadPlatformService, transport);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void ratesAreLookedUpByFloorOfTheTransactionDate() {
+        ExchangeRateIndex.Rates rates = new ExchangeRateIndex.Rates();
+        rates.add("USD", LocalDate.of(2022, 1, 1), new BigDecimal("7.70"));
+        rates.add("USD", LocalDate.of(2022, 2, 1), new BigDecimal("7.71"));
+        rates.add("USD", LocalDate.of(2022, 2, 1), new BigDecimal("7.72"));
+
+        assertNull(rates.floor("USD", LocalDate.of(2021, 12, 31)));
+        assertEquals(new BigDecimal("7.70"), rates.floor("USD", LocalDate.of(2022, 1, 31)));
+        assertEquals(new BigDecimal("7.72"), rates.floor("USD", LocalDate.of(2022, 2, 1)));
+        assertNull(rates.floor("EUR", LocalDate.of(2022, 2, 1)));
+    }
+
+    @Test
+    public void indexIsLoadedOnceAndReloadedAfterEviction() {
+        Date transactionDate = new Date();
+        underTest.findRate("USD", transactionDate);
+        underTest.findRate("USD", transactionDate);
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowCallbackHandler.class), any());
+
+        underTest.evict("default");
+        underTest.findRate("USD", transactionDate);
+        verify(jdbcTemplate, times(2)).query(anyString(), any(RowCallbackHandler.class), any());
+        verify(transport).publish(any(CacheInvalidationMessage.class));
+
+        underTest.onRemoteInvalidation(new CacheInvalidationMessage("node-2", ExchangeRateIndex.CACHE_NAME, "default"));
+        underTest.findRate("USD", transactionDate);
+        verify(jdbcTemplate, times(3)).query(anyString(), any(RowCallbackHandler.class), any());
+    }
+}
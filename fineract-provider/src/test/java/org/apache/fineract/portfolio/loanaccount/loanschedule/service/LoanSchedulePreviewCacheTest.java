@@ -0,0 +1,109 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.loanschedule.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.gson.JsonParser;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.fineract.infrastructure.cache.service.RuntimeDelegatingCacheManager;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.data.LoanScheduleData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+public class LoanSchedulePreviewCacheTest {
+
+    private final ConcurrentMapCache cache = new ConcurrentMapCache(LoanSchedulePreviewCache.CACHE_NAME);
+
+    private LoanSchedulePreviewCache previewCache;
+
+    @BeforeEach
+    public void init() {
+        RuntimeDelegatingCacheManager cacheManager = mock(RuntimeDelegatingCacheManager.class);
+        when(cacheManager.getCache(LoanSchedulePreviewCache.CACHE_NAME)).thenReturn(this.cache);
+        this.previewCache = new LoanSchedulePreviewCache(cacheManager);
+    }
+
+    @Test
+    public void testScheduleIsGeneratedOncePerKey() {
+        AtomicInteger generated = new AtomicInteger();
+        LoanScheduleData schedule = mock(LoanScheduleData.class);
+
+        LoanScheduleData first = this.previewCache.get("default:abc", () -> {
+            generated.incrementAndGet();
+            return schedule;
+        });
+        LoanScheduleData second = this.previewCache.get("default:abc", () -> {
+            generated.incrementAndGet();
+            return schedule;
+        });
+
+        assertSame(schedule, first);
+        assertSame(schedule, second);
+        assertEquals(1, generated.get());
+    }
+
+    @Test
+    public void testMissingKeyBypassesCache() {
+        AtomicInteger generated = new AtomicInteger();
+
+        this.previewCache.get(null, () -> {
+            generated.incrementAndGet();
+            return mock(LoanScheduleData.class);
+        });
+        this.previewCache.get(null, () -> {
+            generated.incrementAndGet();
+            return mock(LoanScheduleData.class);
+        });
+
+        assertEquals(2, generated.get());
+    }
+
+    @Test
+    public void testGenerationErrorsAreNotWrappedOrCached() {
+        IllegalStateException failure = new IllegalStateException("invalid schedule");
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> this.previewCache.get("default:abc", () -> {
+            throw failure;
+        }));
+
+        assertSame(failure, thrown);
+        assertNull(this.cache.get("default:abc"));
+    }
+
+    @Test
+    public void testCanonicalJsonIgnoresMemberOrder() {
+        String first = LoanSchedulePreviewCache
+                .canonicalJson(JsonParser.parseString("[{\"chargeId\":1,\"amount\":\"10.5\",\"dueDate\":\"01 March 2022\"}]"));
+        String second = LoanSchedulePreviewCache
+                .canonicalJson(JsonParser.parseString("[{\"dueDate\":\"01 March 2022\",\"chargeId\":1,\"amount\":\"10.5\"}]"));
+        String other = LoanSchedulePreviewCache.canonicalJson(JsonParser.parseString("[{\"chargeId\":1,\"amount\":\"11\"}]"));
+
+        assertEquals(first, second);
+        assertNotEquals(first, other);
+        assertEquals("null", LoanSchedulePreviewCache.canonicalJson(null));
+    }
+}
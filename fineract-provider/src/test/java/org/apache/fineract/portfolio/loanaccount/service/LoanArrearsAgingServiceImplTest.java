@@ -0,0 +1,211 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.domain.ActionContext;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.portfolio.businessevent.service.BusinessEventNotifierService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+
+public class LoanArrearsAgingServiceImplTest {
+
+    private static final LocalDate BUSINESS_DATE = LocalDate.of(2022, 6, 15);
+    private static final LocalDateTime LOADED = LocalDateTime.of(2022, 6, 14, 10, 0);
+
+    private final FakeLoanTables tables = new FakeLoanTables();
+    private LoanArrearsAgingServiceImpl service;
+
+    @BeforeEach
+    public void init() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        ThreadLocalContextUtil.setBusinessDates(new HashMap<>(Map.of(BusinessDateType.BUSINESS_DATE, BUSINESS_DATE)));
+        ThreadLocalContextUtil.setActionContext(ActionContext.DEFAULT);
+        final FineractProperties fineractProperties = new FineractProperties();
+        fineractProperties.setLoan(new FineractProperties.FineractLoanProperties());
+        fineractProperties.getLoan().setArrearsAgeingModifiedLagMinutes(15);
+        service = new LoanArrearsAgingServiceImpl(tables, mock(BusinessEventNotifierService.class),
+                mock(DatabaseSpecificSQLGenerator.class), fineractProperties);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void incrementalRunMatchesFullRebuildWhenAWriteCommitsAfterTheMark() {
+        tables.writeLoan(1L, new BigDecimal("100"), LOADED);
+        tables.writeLoan(2L, null, LOADED);
+        tables.writeLoan(3L, new BigDecimal("40"), LOADED.plusMinutes(10));
+        service.updateLoanArrearsAgeingDetails(Map.of("incremental", "false"));
+
+        // stamped before the mark taken by the first run, committed only once that run had finished
+        tables.writeLoan(2L, new BigDecimal("50"), LOADED.plusMinutes(5));
+        tables.writeLoan(3L, null, LOADED.plusMinutes(20));
+        service.updateLoanArrearsAgeingDetails(Map.of());
+        final Map<Long, List<Object>> incremental = new TreeMap<>(tables.ageing);
+
+        service.updateLoanArrearsAgeingDetails(Map.of("incremental", "false"));
+
+        assertEquals(tables.ageing, incremental);
+        assertEquals(Set.of(1L, 2L), incremental.keySet());
+    }
+
+    /**
+     * Answers the statements of the ageing job from in-memory m_loan, m_loan_arrears_aging and checkpoint rows, a loan
+     * with an overdue principal counting as having an overdue installment.
+     */
+    private static final class FakeLoanTables extends JdbcTemplate {
+
+        private final Map<Long, BigDecimal> overdueByLoan = new TreeMap<>();
+        private final Map<Long, Timestamp> modifiedByLoan = new TreeMap<>();
+        private final Map<Long, List<Object>> ageing = new TreeMap<>();
+        private Object[] checkpoint;
+
+        private void writeLoan(final Long loanId, final BigDecimal overduePrincipal, final LocalDateTime modifiedOn) {
+            if (overduePrincipal == null) {
+                overdueByLoan.remove(loanId);
+            } else {
+                overdueByLoan.put(loanId, overduePrincipal);
+            }
+            modifiedByLoan.put(loanId, Timestamp.valueOf(modifiedOn));
+        }
+
+        @Override
+        public <T> T queryForObject(final String sql, final Class<T> requiredType) {
+            return requiredType.cast(Collections.max(modifiedByLoan.values()));
+        }
+
+        @Override
+        public <T> List<T> queryForList(final String sql, final Class<T> elementType) {
+            return queryForList(sql, elementType, new Object[0]);
+        }
+
+        @Override
+        public <T> List<T> queryForList(final String sql, final Class<T> elementType, final Object... args) {
+            final Set<Long> loanIds = new LinkedHashSet<>();
+            if (sql.contains("union select mla.loan_id")) {
+                loanIds.addAll(overdueByLoan.keySet());
+                loanIds.addAll(ageing.keySet());
+            } else if (sql.contains("last_modified_on_utc >= ?")) {
+                modifiedByLoan.forEach((loanId, modifiedOn) -> {
+                    if (!modifiedOn.before((Timestamp) args[0])) {
+                        loanIds.add(loanId);
+                    }
+                });
+            } else if (sql.startsWith("select mla.loan_id from m_loan_arrears_aging")) {
+                Arrays.stream(args).map(Long.class::cast).filter(ageing::containsKey).forEach(loanIds::add);
+            } else if (!sql.startsWith("select distinct mr.loan_id") && !sql.startsWith("select ml.id as loanId FROM")) {
+                throw new IllegalStateException(sql);
+            }
+            return loanIds.stream().map(elementType::cast).collect(Collectors.toList());
+        }
+
+        @Override
+        public void query(final String sql, final RowCallbackHandler rch, final Object... args) {
+            for (Object loanId : args) {
+                final BigDecimal overdue = overdueByLoan.get(loanId);
+                if (overdue != null) {
+                    try {
+                        rch.processRow(overdueRow((Long) loanId, overdue));
+                    } catch (SQLException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public <T> List<T> query(final String sql, final RowMapper<T> rowMapper) {
+            if (checkpoint == null) {
+                return List.of();
+            }
+            try {
+                final ResultSet rs = mock(ResultSet.class);
+                given(rs.getDate("business_date")).willReturn(Date.valueOf((LocalDate) checkpoint[0]));
+                given(rs.getTimestamp("loan_modified_on_utc")).willReturn((Timestamp) checkpoint[1]);
+                return List.of(rowMapper.mapRow(rs, 0));
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public int[] batchUpdate(final String sql, final List<Object[]> batchArgs) {
+            for (Object[] args : batchArgs) {
+                if (sql.startsWith("INSERT")) {
+                    ageing.put((Long) args[0], Arrays.asList(args).subList(1, 7));
+                } else if (sql.startsWith("UPDATE")) {
+                    ageing.put((Long) args[6], Arrays.asList(args).subList(0, 6));
+                } else {
+                    ageing.remove((Long) args[0]);
+                }
+            }
+            return new int[batchArgs.size()];
+        }
+
+        @Override
+        public int update(final String sql) {
+            return update(sql, new Object[0]);
+        }
+
+        @Override
+        public int update(final String sql, final Object... args) {
+            checkpoint = sql.startsWith("insert") ? args : null;
+            return 1;
+        }
+
+        private static ResultSet overdueRow(final Long loanId, final BigDecimal overdue) throws SQLException {
+            final ResultSet rs = mock(ResultSet.class);
+            given(rs.getLong("loanId")).willReturn(loanId);
+            given(rs.getBigDecimal("principal_overdue_derived")).willReturn(overdue);
+            given(rs.getDate("overdue_since_date_derived")).willReturn(Date.valueOf(BUSINESS_DATE.minusDays(30)));
+            return rs;
+        }
+    }
+}
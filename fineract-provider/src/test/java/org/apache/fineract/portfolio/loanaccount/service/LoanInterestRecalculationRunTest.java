@@ -0,0 +1,124 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
+import org.apache.fineract.infrastructure.core.domain.ActionContext;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenantConnection;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.apache.fineract.infrastructure.jobs.service.JobProgress;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.CannotAcquireLockException;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class LoanInterestRecalculationRunTest {
+
+    @Mock
+    private LoanWritePlatformService loanWritePlatformService;
+
+    @Mock
+    private FineractPlatformTenantConnection tenantConnection;
+
+    private final List<Long> lastLoanIdsRead = new ArrayList<>();
+
+    @BeforeEach
+    public void init() {
+        given(tenantConnection.getMaxRetriesOnDeadlock()).willReturn(1);
+        given(tenantConnection.getMaxIntervalBetweenRetries()).willReturn(0);
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", tenantConnection));
+        ThreadLocalContextUtil
+                .setBusinessDates(new HashMap<>(Map.of(BusinessDateType.BUSINESS_DATE, LocalDate.now(ZoneId.of("Asia/Kolkata")))));
+        ThreadLocalContextUtil.setActionContext(ActionContext.DEFAULT);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void testPagesAreReadAfterTheLastLoanIdOfThePreviousPage() throws JobExecutionException {
+        final JobProgress progress = new JobProgress();
+
+        new LoanInterestRecalculationRun(loanWritePlatformService, this::readPage, 2, 2, progress).execute();
+
+        assertEquals(List.of(0L, 7L), lastLoanIdsRead);
+        assertEquals(6, progress.getProcessed());
+        for (Long loanId : List.of(1L, 4L, 5L, 7L, 10L, 11L)) {
+            verify(loanWritePlatformService).recalculateInterest(loanId);
+        }
+    }
+
+    @Test
+    public void testLockConflictIsRequeuedInsteadOfFailingTheLoan() throws JobExecutionException {
+        willThrow(new CannotAcquireLockException("deadlock")).willDoNothing().given(loanWritePlatformService).recalculateInterest(5L);
+        final JobProgress progress = new JobProgress();
+
+        new LoanInterestRecalculationRun(loanWritePlatformService, this::readPage, 2, 2, progress).execute();
+
+        verify(loanWritePlatformService, times(2)).recalculateInterest(5L);
+        assertEquals(6, progress.getProcessed());
+        assertEquals(0, progress.getFailed());
+    }
+
+    @Test
+    public void testLoanFailsOnceRetriesAreExhausted() {
+        willThrow(new CannotAcquireLockException("deadlock")).given(loanWritePlatformService).recalculateInterest(5L);
+        final JobProgress progress = new JobProgress();
+
+        assertThrows(JobExecutionException.class,
+                () -> new LoanInterestRecalculationRun(loanWritePlatformService, this::readPage, 2, 2, progress).execute());
+
+        verify(loanWritePlatformService, times(2)).recalculateInterest(5L);
+        assertEquals(5, progress.getProcessed());
+        assertEquals(1, progress.getFailed());
+    }
+
+    // sparse loan ids, a page has 2 * 2 ids at most
+    private List<Long> readPage(final Long lastLoanId, final int pageSize) {
+        lastLoanIdsRead.add(lastLoanId);
+        return LongStream.of(1L, 4L, 5L, 7L, 10L, 11L).filter(id -> id > lastLoanId).limit(pageSize).boxed()
+                .collect(Collectors.toList());
+    }
+}
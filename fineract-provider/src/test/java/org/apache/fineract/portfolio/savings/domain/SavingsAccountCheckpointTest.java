@@ -0,0 +1,273 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.organisation.monetary.domain.MoneyHelper;
+import org.apache.fineract.portfolio.account.service.AccountTransfersReadPlatformService;
+import org.apache.fineract.portfolio.accountdetails.domain.AccountType;
+import org.apache.fineract.portfolio.savings.DepositAccountType;
+import org.apache.fineract.portfolio.savings.SavingsCompoundingInterestPeriodType;
+import org.apache.fineract.portfolio.savings.SavingsInterestCalculationDaysInYearType;
+import org.apache.fineract.portfolio.savings.SavingsInterestCalculationType;
+import org.apache.fineract.portfolio.savings.SavingsPostingInterestPeriodType;
+import org.apache.fineract.portfolio.savings.data.SavingsAccountTransactionDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class SavingsAccountCheckpointTest {
+
+    private static final MonetaryCurrency CURRENCY = new MonetaryCurrency("USD", 2, null);
+    private static final LocalDate START = LocalDate.of(2021, 1, 1);
+
+    private final SavingsAccountTransactionSummaryWrapper wrapper = new SavingsAccountTransactionSummaryWrapper();
+
+    @BeforeEach
+    public void init() {
+        ReflectionTestUtils.setField(MoneyHelper.class, "roundingMode", RoundingMode.HALF_EVEN);
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        ThreadLocalContextUtil.setBusinessDates(new HashMap<>(Map.of(BusinessDateType.BUSINESS_DATE, START.plusMonths(2))));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ReflectionTestUtils.setField(MoneyHelper.class, "roundingMode", null);
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void advancingFromACheckpointMatchesTheWholeHistory() {
+        final List<SavingsAccountTransaction> transactions = history(12);
+        final LocalDate firstPosting = START.plusMonths(6);
+        final LocalDate secondPosting = START.plusMonths(12);
+
+        final SavingsAccountCheckpoint first = SavingsAccountCheckpoint.advance(null, 1L, 3, firstPosting, CURRENCY, this.wrapper,
+                transactions);
+        final List<SavingsAccountTransaction> afterFirst = transactions.stream()
+                .filter(transaction -> !transaction.getTransactionLocalDate().isBefore(firstPosting)).collect(Collectors.toList());
+        final SavingsAccountCheckpoint advanced = SavingsAccountCheckpoint.advance(first, 1L, 4, secondPosting, CURRENCY, this.wrapper,
+                afterFirst);
+        final SavingsAccountCheckpoint full = SavingsAccountCheckpoint.advance(null, 1L, 4, secondPosting, CURRENCY, this.wrapper,
+                transactions);
+
+        assertEquals(full.getRunningBalance(), advanced.getRunningBalance());
+        assertEquals(full.getTotalDeposits(), advanced.getTotalDeposits());
+        assertEquals(full.getTotalWithdrawals(), advanced.getTotalWithdrawals());
+        assertEquals(full.getTotalInterestPosted(), advanced.getTotalInterestPosted());
+        assertEquals(secondPosting, advanced.getInterestPostedTillDate());
+        assertEquals(4, advanced.getAccountVersion());
+    }
+
+    @Test
+    public void checkpointCarriesTheBalanceBeforeItsDate() {
+        final List<SavingsAccountTransaction> transactions = history(2);
+        final LocalDate posting = START.plusMonths(1);
+
+        final SavingsAccountCheckpoint checkpoint = SavingsAccountCheckpoint.advance(null, 1L, 0, posting, CURRENCY, this.wrapper,
+                transactions);
+
+        // two deposits of 100 and one withdrawal of 40 in January, the posting itself is dated on the checkpoint
+        assertEquals(0, new BigDecimal("160").compareTo(checkpoint.getRunningBalance()));
+        assertEquals(0, new BigDecimal("200").compareTo(checkpoint.getTotalDeposits()));
+        assertEquals(0, new BigDecimal("40").compareTo(checkpoint.getTotalWithdrawals()));
+    }
+
+    @Test
+    public void summaryLoadedFromACheckpointMatchesTheFullLoadWithFeesAfterIt() {
+        final List<SavingsAccountTransaction> transactions = history(3);
+        final LocalDate posting = START.plusMonths(2);
+        Money runningBalance = transactions.get(transactions.size() - 1).getRunningBalance(CURRENCY);
+        runningBalance = add(transactions, SavingsAccountTransaction.withdrawalFee(null, null, posting.plusDays(22),
+                Money.of(CURRENCY, new BigDecimal("2.50")), null, null), runningBalance);
+        final SavingsAccountTransaction charge = SavingsAccountTransaction.charge(null, null, posting.plusDays(25),
+                Money.of(CURRENCY, new BigDecimal("7")), null);
+        final SavingsAccountChargePaidBy chargePaidBy = mock(SavingsAccountChargePaidBy.class);
+        when(chargePaidBy.isFeeCharge()).thenReturn(true);
+        charge.getSavingsAccountChargesPaid().add(chargePaidBy);
+        add(transactions, charge, runningBalance);
+
+        final SavingsAccountSummary full = new SavingsAccountSummary();
+        full.updateSummary(CURRENCY, this.wrapper, transactions);
+        final SavingsAccountSummary fromCheckpoint = new SavingsAccountSummary();
+        fromCheckpoint.applyCheckpoint(SavingsAccountCheckpoint.advance(null, 1L, 0, posting, CURRENCY, this.wrapper, transactions));
+        fromCheckpoint.updateSummaryWithPivotConfig(CURRENCY, this.wrapper, null, transactions.stream()
+                .filter(transaction -> !transaction.getTransactionLocalDate().isBefore(posting)).collect(Collectors.toList()));
+
+        assertEquals(0, full.getAccountBalance().compareTo(fromCheckpoint.getAccountBalance()));
+        assertEquals(full.getTotalDeposits(), fromCheckpoint.getTotalDeposits());
+        assertEquals(full.getTotalWithdrawals(), fromCheckpoint.getTotalWithdrawals());
+        assertEquals(full.getTotalInterestPosted(), fromCheckpoint.getTotalInterestPosted());
+    }
+
+    @Test
+    public void postingInterestOnAnAccountLoadedFromACheckpointMatchesTheFullLoad() {
+        final SavingsAccount full = activeAccount();
+        final SavingsAccount fromCheckpoint = activeAccount();
+        final LocalDate posting = START.plusMonths(1);
+
+        // the January interest is posted on the first of February, the checkpoint is taken there and only the
+        // transactions from that day on are loaded with it
+        final SavingsAccountCheckpoint checkpoint = SavingsAccountCheckpoint.advance(null, 1L, 0, posting, CURRENCY, this.wrapper,
+                fromCheckpoint.getTransactions());
+        fromCheckpoint.setSavingsAccountTransactions(fromCheckpoint.getTransactions().stream()
+                .filter(transaction -> !transaction.getTransactionLocalDate().isBefore(posting)).collect(Collectors.toList()));
+        fromCheckpoint.getTransactions().clear();
+        fromCheckpoint.getSummary().applyCheckpoint(checkpoint);
+        final int fullBefore = full.getTransactions().size();
+        final int fromCheckpointBefore = fromCheckpoint.getSavingsAccountTransactionsWithPivotConfig().size();
+
+        withdrawAndPostInterest(full, false);
+        withdrawAndPostInterest(fromCheckpoint, true);
+
+        final List<SavingsAccountTransaction> fullTransactions = full.getTransactions().subList(fullBefore,
+                full.getTransactions().size());
+        final List<SavingsAccountTransaction> fromCheckpointTransactions = fromCheckpoint.getSavingsAccountTransactionsWithPivotConfig()
+                .subList(fromCheckpointBefore, fromCheckpoint.getSavingsAccountTransactionsWithPivotConfig().size());
+        // the withdrawal fee, the withdrawal and the February interest posted on the first of March
+        assertEquals(3, fullTransactions.size());
+        assertEquals(describe(fullTransactions), describe(fromCheckpointTransactions));
+
+        final SavingsAccountSummary expected = full.getSummary();
+        final SavingsAccountSummary actual = fromCheckpoint.getSummary();
+        assertEquals(0, expected.getAccountBalance().compareTo(actual.getAccountBalance()));
+        assertEquals(expected.getTotalDeposits(), actual.getTotalDeposits());
+        assertEquals(expected.getTotalWithdrawals(), actual.getTotalWithdrawals());
+        assertEquals(expected.getTotalWithdrawalFees(), actual.getTotalWithdrawalFees());
+        assertEquals(expected.getTotalInterestPosted(), actual.getTotalInterestPosted());
+        assertEquals(0, expected.getTotalInterestEarned().compareTo(actual.getTotalInterestEarned()));
+        assertEquals(expected.getTotalOverdraftInterestDerived(), actual.getTotalOverdraftInterestDerived());
+        assertEquals(expected.getTotalWithholdTax(), actual.getTotalWithholdTax());
+        assertEquals(expected.getInterestPostedTillDate(), actual.getInterestPostedTillDate());
+    }
+
+    @Test
+    public void checkpointIsOnlyUsableForTheSameVersionAndLaterTransactions() {
+        final LocalDate posting = START.plusMonths(1);
+        final SavingsAccountCheckpoint checkpoint = new SavingsAccountCheckpoint(1L, 7, posting, BigDecimal.TEN, null, null, null, null,
+                null);
+
+        assertTrue(checkpoint.isUsableFor(7, posting, posting));
+        assertTrue(checkpoint.isUsableFor(7, posting, null));
+        assertFalse(checkpoint.isUsableFor(8, posting, posting));
+        assertFalse(checkpoint.isUsableFor(7, posting.plusMonths(1), posting.plusMonths(1)));
+        assertFalse(checkpoint.isUsableFor(7, posting, posting.minusDays(1)));
+    }
+
+    /**
+     * Deposits of 100 on the 5th and 20th, a withdrawal of 40 on the 12th and an interest posting of 1.50 on the first of
+     * every following month, with balances as recalculateDailyBalances leaves them.
+     */
+    private static List<SavingsAccountTransaction> history(final int months) {
+        final List<SavingsAccountTransaction> transactions = new ArrayList<>();
+        Money runningBalance = Money.zero(CURRENCY);
+        for (int month = 0; month < months; month++) {
+            final LocalDate monthStart = START.plusMonths(month);
+            if (month > 0) {
+                runningBalance = add(transactions, SavingsAccountTransaction.interestPosting(null, null, monthStart,
+                        Money.of(CURRENCY, new BigDecimal("1.50")), false), runningBalance);
+            }
+            runningBalance = add(transactions, deposit(monthStart.withDayOfMonth(5)), runningBalance);
+            runningBalance = add(transactions, SavingsAccountTransaction.withdrawal(null, null, null, monthStart.withDayOfMonth(12),
+                    Money.of(CURRENCY, new BigDecimal("40")), monthStart.atStartOfDay(), null, null), runningBalance);
+            runningBalance = add(transactions, deposit(monthStart.withDayOfMonth(20)), runningBalance);
+        }
+        return transactions;
+    }
+
+    private static Money add(final List<SavingsAccountTransaction> transactions, final SavingsAccountTransaction transaction,
+            final Money runningBalance) {
+        final Money balance = transaction.isCredit() ? runningBalance.plus(transaction.getAmount(CURRENCY))
+                : runningBalance.minus(transaction.getAmount(CURRENCY));
+        transaction.updateRunningBalance(balance);
+        transactions.add(transaction);
+        return balance;
+    }
+
+    private static SavingsAccountTransaction deposit(final LocalDate date) {
+        return SavingsAccountTransaction.deposit(null, null, null, date, Money.of(CURRENCY, new BigDecimal("100")), date.atStartOfDay(),
+                null, null);
+    }
+
+    /**
+     * An account at 5% compounded daily and posted monthly with deposits of 1000, 500 and 200 in January and February
+     * and the January interest posted, with a withdrawal fee of 2.50.
+     */
+    private SavingsAccount activeAccount() {
+        final SavingsProduct product = mock(SavingsProduct.class);
+        when(product.currency()).thenReturn(CURRENCY);
+        final SavingsAccountCharge withdrawalFee = mock(SavingsAccountCharge.class);
+        when(withdrawalFee.isWithdrawalFee()).thenReturn(true);
+        when(withdrawalFee.isActive()).thenReturn(true);
+        when(withdrawalFee.isFeeCharge()).thenReturn(true);
+        when(withdrawalFee.getAmountOutstanding(CURRENCY)).thenReturn(Money.of(CURRENCY, new BigDecimal("2.50")));
+
+        final SavingsAccount account = SavingsAccount.createNewApplicationForSubmittal(null, null, product, null, "000000001", null,
+                AccountType.INDIVIDUAL, START, null, new BigDecimal("5"), SavingsCompoundingInterestPeriodType.DAILY,
+                SavingsPostingInterestPeriodType.MONTHLY, SavingsInterestCalculationType.DAILY_BALANCE,
+                SavingsInterestCalculationDaysInYearType.DAYS_365, null, null, null, false, Set.of(withdrawalFee), false, null, false,
+                null, null, false, null, null, false);
+        account.setStatus(SavingsAccountStatusType.ACTIVE.getValue());
+        ReflectionTestUtils.setField(account, "activatedOnDate", START);
+        account.setHelpers(this.wrapper, new SavingsHelper(mock(AccountTransfersReadPlatformService.class)));
+
+        account.addTransaction(SavingsAccountTransaction.deposit(account, null, null, START.withDayOfMonth(5),
+                Money.of(CURRENCY, new BigDecimal("1000")), START.atStartOfDay(), null, null));
+        account.addTransaction(SavingsAccountTransaction.deposit(account, null, null, START.withDayOfMonth(20),
+                Money.of(CURRENCY, new BigDecimal("500")), START.atStartOfDay(), null, null));
+        account.addTransaction(SavingsAccountTransaction.deposit(account, null, null, START.plusMonths(1).withDayOfMonth(3),
+                Money.of(CURRENCY, new BigDecimal("200")), START.atStartOfDay(), null, null));
+        account.postInterest(MoneyHelper.getMathContext(), START.plusMonths(1).withDayOfMonth(10), false, false, 1, null, false, false);
+        return account;
+    }
+
+    private static void withdrawAndPostInterest(final SavingsAccount account, final boolean backdatedTxnsAllowedTill) {
+        final LocalDate withdrawalDate = START.plusMonths(1).withDayOfMonth(20);
+        account.withdraw(new SavingsAccountTransactionDTO(DateTimeFormatter.ISO_LOCAL_DATE, withdrawalDate, new BigDecimal("300"), null,
+                withdrawalDate.atStartOfDay(), null, DepositAccountType.SAVINGS_DEPOSIT.getValue()), true, backdatedTxnsAllowedTill, 0L,
+                null);
+        account.postInterest(MoneyHelper.getMathContext(), START.plusMonths(2), false, false, 1, null, backdatedTxnsAllowedTill, false);
+    }
+
+    private static List<String> describe(final List<SavingsAccountTransaction> transactions) {
+        return transactions.stream().map(transaction -> transaction.getTypeOf() + " " + transaction.getTransactionLocalDate() + " "
+                + transaction.getAmount() + " " + transaction.getRunningBalance(CURRENCY).getAmount()).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,138 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.domain.interest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.domain.LocalDateInterval;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.organisation.monetary.domain.MoneyHelper;
+import org.apache.fineract.portfolio.savings.SavingsCompoundingInterestPeriodType;
+import org.apache.fineract.portfolio.savings.SavingsInterestCalculationType;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountTransaction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class PostingPeriodTransactionSweepTest {
+
+    private static final MonetaryCurrency CURRENCY = new MonetaryCurrency("USD", 2, null);
+    private static final LocalDate START = LocalDate.of(2020, 1, 1);
+
+    @BeforeEach
+    public void init() {
+        ReflectionTestUtils.setField(MoneyHelper.class, "roundingMode", RoundingMode.HALF_EVEN);
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ReflectionTestUtils.setField(MoneyHelper.class, "roundingMode", null);
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void sweepGivesTheSamePostingPeriodsAsTheWholeHistory() {
+        final LocalDate upTo = START.plusMonths(24).minusDays(1);
+        final List<SavingsAccountTransaction> transactions = orderedTransactions(upTo);
+        final List<LocalDateInterval> periods = new ArrayList<>();
+        for (LocalDate periodStart = START; periodStart.isBefore(upTo); periodStart = periodStart.plusMonths(1)) {
+            periods.add(LocalDateInterval.create(periodStart, periodStart.plusMonths(1).minusDays(1)));
+        }
+
+        final PostingPeriodTransactionSweep<SavingsAccountTransaction> sweep = PostingPeriodTransactionSweep.of(transactions);
+        Money fullStartingBalance = Money.zero(CURRENCY);
+        Money sweptStartingBalance = Money.zero(CURRENCY);
+        for (final LocalDateInterval period : periods) {
+            final PostingPeriod full = postingPeriod(period, fullStartingBalance, transactions, upTo);
+            final PostingPeriod swept = postingPeriod(period, sweptStartingBalance, sweep.transactionsFor(period), upTo);
+
+            assertEquals(full.closingBalance(), swept.closingBalance());
+            assertEquals(full.calculateInterest(new CompoundInterestValues(BigDecimal.ZERO, BigDecimal.ZERO)),
+                    swept.calculateInterest(new CompoundInterestValues(BigDecimal.ZERO, BigDecimal.ZERO)));
+            fullStartingBalance = full.closingBalance();
+            sweptStartingBalance = swept.closingBalance();
+        }
+    }
+
+    @Test
+    public void periodBeforeThePreviousOneRestartsTheSweep() {
+        final LocalDate upTo = START.plusMonths(3).minusDays(1);
+        final List<SavingsAccountTransaction> transactions = orderedTransactions(upTo);
+        final PostingPeriodTransactionSweep<SavingsAccountTransaction> sweep = PostingPeriodTransactionSweep.of(transactions);
+        final LocalDateInterval january = LocalDateInterval.create(START, START.plusMonths(1).minusDays(1));
+
+        final int januaryTransactions = sweep.transactionsFor(january).size();
+        sweep.transactionsFor(LocalDateInterval.create(START.plusMonths(2), upTo));
+        assertEquals(januaryTransactions, sweep.transactionsFor(january).size());
+    }
+
+    /**
+     * Two deposits every third day and a withdrawal every week, with balances as recalculateDailyBalances leaves them.
+     */
+    private static List<SavingsAccountTransaction> orderedTransactions(final LocalDate upTo) {
+        final List<SavingsAccountTransaction> transactions = new ArrayList<>();
+        for (LocalDate date = START; !date.isAfter(upTo); date = date.plusDays(1)) {
+            if (date.getDayOfYear() % 3 == 0) {
+                transactions.add(deposit(date, "100"));
+                transactions.add(deposit(date, "25.50"));
+            }
+            if (date.getDayOfYear() % 7 == 0) {
+                transactions.add(SavingsAccountTransaction.withdrawal(null, null, null, date, Money.of(CURRENCY, new BigDecimal("40")),
+                        date.atStartOfDay(), null, null));
+            }
+        }
+        Money runningBalance = Money.zero(CURRENCY);
+        for (final SavingsAccountTransaction transaction : transactions) {
+            runningBalance = transaction.isDeposit() ? runningBalance.plus(transaction.getAmount(CURRENCY))
+                    : runningBalance.minus(transaction.getAmount(CURRENCY));
+            transaction.updateRunningBalance(runningBalance);
+        }
+        LocalDate endOfBalanceDate = upTo;
+        final List<SavingsAccountTransaction> reversed = new ArrayList<>(transactions);
+        Collections.reverse(reversed);
+        for (final SavingsAccountTransaction transaction : reversed) {
+            transaction.updateCumulativeBalanceAndDates(CURRENCY, endOfBalanceDate);
+            endOfBalanceDate = transaction.getTransactionLocalDate().minusDays(1);
+        }
+        return transactions;
+    }
+
+    private static SavingsAccountTransaction deposit(final LocalDate date, final String amount) {
+        return SavingsAccountTransaction.deposit(null, null, null, date, Money.of(CURRENCY, new BigDecimal(amount)), date.atStartOfDay(),
+                null, null);
+    }
+
+    private static PostingPeriod postingPeriod(final LocalDateInterval period, final Money startingBalance,
+            final List<SavingsAccountTransaction> transactions, final LocalDate upTo) {
+        return PostingPeriod.createFrom(period, startingBalance, transactions, CURRENCY, SavingsCompoundingInterestPeriodType.DAILY,
+                SavingsInterestCalculationType.DAILY_BALANCE, new BigDecimal("0.05"), 365, upTo, Collections.emptyList(), false,
+                Money.zero(CURRENCY), false, false, 1);
+    }
+}
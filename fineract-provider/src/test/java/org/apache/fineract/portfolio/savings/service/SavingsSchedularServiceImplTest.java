@@ -0,0 +1,228 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
+import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.apache.fineract.infrastructure.core.domain.ActionContext;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.apache.fineract.portfolio.savings.data.SavingsAccountData;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountAssembler;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountRepositoryWrapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+public class SavingsSchedularServiceImplTest {
+
+    private final SavingsAccountReadPlatformService readPlatformService = mock(SavingsAccountReadPlatformService.class);
+    private final ApplicationContext applicationContext = mock(ApplicationContext.class);
+    private final List<Long> accountIds = new ArrayList<>();
+    private final List<Long> posted = Collections.synchronizedList(new ArrayList<>());
+    private final Set<String> tenantsOfPosters = Collections.synchronizedSet(new HashSet<>());
+    private final AtomicInteger pagesRead = new AtomicInteger();
+    private volatile PostingBehaviour postingBehaviour = accounts -> {};
+    private volatile RuntimeException readFailure;
+    private volatile int failingPage;
+
+    private SavingsSchedularServiceImpl service;
+
+    @BeforeEach
+    public void init() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        ThreadLocalContextUtil.setActionContext(ActionContext.DEFAULT);
+        ThreadLocalContextUtil.setBusinessDates(new HashMap<>(Map.of(BusinessDateType.BUSINESS_DATE, LocalDate.now())));
+
+        given(readPlatformService.retrieveLastSavingsIdOfInterestPostingPage(anyInt(), anyInt(), any())).willAnswer(invocation -> {
+            final int pageSize = invocation.getArgument(0);
+            final Long maxSavingsId = invocation.getArgument(2);
+            final List<Long> page = accountIds.stream().filter(id -> id > maxSavingsId).limit(pageSize).collect(Collectors.toList());
+            return page.isEmpty() ? null : page.get(page.size() - 1);
+        });
+        given(readPlatformService.retrieveAllSavingsDataForInterestPosting(anyBoolean(), anyInt(), any(), any())).willAnswer(invocation -> {
+            if (pagesRead.incrementAndGet() == failingPage) {
+                throw readFailure;
+            }
+            final Long maxSavingsId = invocation.getArgument(2);
+            final Long lastSavingsId = invocation.getArgument(3);
+            return accountIds.stream().filter(id -> id > maxSavingsId && id <= lastSavingsId)
+                    .map(id -> SavingsAccountData.lookup(id, String.valueOf(id), null)).collect(Collectors.toList());
+        });
+        given(applicationContext.getBean("savingsSchedularInterestPoster")).willAnswer(invocation -> new FakePoster());
+
+        service = new SavingsSchedularServiceImpl(mock(SavingsAccountAssembler.class), mock(SavingsAccountWritePlatformService.class),
+                readPlatformService, mock(SavingsAccountRepositoryWrapper.class), applicationContext,
+                mock(ConfigurationDomainService.class), mock(JdbcTemplate.class), mock(TransactionTemplate.class),
+                new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    @Timeout(30)
+    public void everyAccountIsPostedOnce() throws JobExecutionException {
+        addAccounts(23);
+
+        service.postInterestForAccounts(jobParameters(3, 2, null));
+
+        assertPostedOnce(accountIds);
+        // pages of 3 * 2 accounts
+        assertEquals(4, pagesRead.get());
+        assertEquals(Set.of("default"), Set.copyOf(tenantsOfPosters));
+    }
+
+    @Test
+    @Timeout(30)
+    public void failingBatchesAreReportedAfterTheOtherBatchesArePosted() {
+        addAccounts(20);
+        postingBehaviour = accounts -> {
+            if (accounts.contains(5L)) {
+                throw new IllegalStateException("failed 5");
+            }
+            if (accounts.contains(12L)) {
+                throw new JobExecutionException(List.of(new IllegalStateException("failed 12")));
+            }
+        };
+
+        final JobExecutionException exception = assertThrows(JobExecutionException.class,
+                () -> service.postInterestForAccounts(jobParameters(2, 2, null)));
+
+        assertEquals(Set.of("failed 5", "failed 12"),
+                exception.getCauses().stream().map(Throwable::getMessage).collect(Collectors.toSet()));
+        assertPostedOnce(accountIds.stream().filter(id -> id != 5L && id != 6L && id != 11L && id != 12L).collect(Collectors.toList()));
+    }
+
+    @Test
+    @Timeout(30)
+    public void failingPrefetcherStillDrainsTheQueuedBatchesAndStopsThePosters() {
+        addAccounts(20);
+        failingPage = 3;
+        readFailure = new IllegalStateException("read failed");
+
+        final JobExecutionException exception = assertThrows(JobExecutionException.class,
+                () -> service.postInterestForAccounts(jobParameters(2, 2, 1)));
+
+        assertEquals(List.of("read failed"), exception.getCauses().stream().map(Throwable::getMessage).collect(Collectors.toList()));
+        // the two pages read before the failure are posted, nothing after them
+        assertPostedOnce(LongStream.rangeClosed(1, 8).boxed().collect(Collectors.toList()));
+    }
+
+    @Test
+    @Timeout(30)
+    public void prefetcherStopsOnceNoPosterIsLeftRunning() {
+        addAccounts(40);
+        postingBehaviour = accounts -> {
+            throw new AssertionError("poster died on " + accounts);
+        };
+
+        final JobExecutionException exception = assertThrows(JobExecutionException.class,
+                () -> service.postInterestForAccounts(jobParameters(2, 1, 1)));
+
+        assertEquals(2, exception.getCauses().size());
+        assertTrue(exception.getCauses().stream().allMatch(AssertionError.class::isInstance));
+        assertTrue(posted.isEmpty());
+        // 20 pages of 2 accounts, the prefetcher gave up after the posters had taken the first page and the second one
+        // filled the queue
+        assertTrue(pagesRead.get() < 5, "pages read: " + pagesRead.get());
+    }
+
+    @Test
+    @Timeout(30)
+    public void noAccountsEndsThePostersRightAway() throws JobExecutionException {
+        service.postInterestForAccounts(jobParameters(4, 10, null));
+
+        assertTrue(posted.isEmpty());
+        assertEquals(0, pagesRead.get());
+    }
+
+    private Map<String, String> jobParameters(final int threadPoolSize, final int batchSize, final Integer prefetchPages) {
+        final Map<String, String> jobParameters = new HashMap<>();
+        jobParameters.put("thread-pool-size", String.valueOf(threadPoolSize));
+        jobParameters.put("batch-size", String.valueOf(batchSize));
+        if (prefetchPages != null) {
+            jobParameters.put("prefetch-pages", String.valueOf(prefetchPages));
+        }
+        return jobParameters;
+    }
+
+    private void addAccounts(final int count) {
+        LongStream.rangeClosed(1, count).forEach(accountIds::add);
+    }
+
+    private void assertPostedOnce(final List<Long> expected) {
+        final List<Long> actual = new ArrayList<>(posted);
+        Collections.sort(actual);
+        assertEquals(expected, actual);
+    }
+
+    @FunctionalInterface
+    private interface PostingBehaviour {
+
+        void post(List<Long> accountIds) throws JobExecutionException;
+    }
+
+    private final class FakePoster extends SavingsSchedularInterestPoster {
+
+        private List<Long> batch;
+
+        @Override
+        public void setSavingAccounts(final Collection<SavingsAccountData> savingAccounts) {
+            this.batch = savingAccounts.stream().map(SavingsAccountData::getId).collect(Collectors.toList());
+        }
+
+        @Override
+        public Void call() throws JobExecutionException {
+            tenantsOfPosters.add(ThreadLocalContextUtil.getTenant().getTenantIdentifier());
+            postingBehaviour.post(batch);
+            posted.addAll(batch);
+            return null;
+        }
+    }
+}